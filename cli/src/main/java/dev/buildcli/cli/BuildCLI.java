@@ -3,19 +3,25 @@ package dev.buildcli.cli;
 import dev.buildcli.cli.commands.*;
 import dev.buildcli.cli.commands.AiCommand;
 import dev.buildcli.cli.commands.BugCommand;
+import dev.buildcli.core.log.trace.StartupTrace;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.HelpCommand;
+import picocli.CommandLine.Option;
 
 @Command(name = "buildcli", mixinStandardHelpOptions = true,
     version = "BuildCLI 0.0.14",
     description = "BuildCLI - A CLI for Java Project Management",
     subcommands = {
         AboutCommand.class, AiCommand.class, AutocompleteCommand.class, ChangelogCommand.class, ConfigCommand.class,
-        DoctorCommand.class, HookCommand.class, ProjectCommand.class, PluginCommand.class, RunCommand.class,
+        DaemonCommand.class, DoctorCommand.class, HookCommand.class, ProjectCommand.class, PluginCommand.class, RunCommand.class,
         VersionCommand.class, HelpCommand.class, BugCommand.class, ManCommand.class
     }
 )
 public class BuildCLI {
 
+  // Consumed by CommandLineRunner before parsing, so it also works in front of a daemon call. Declared for the help.
+  @Option(names = StartupTrace.FLAG, arity = "0..1", paramLabel = "table|json", fallbackValue = "table",
+      description = "Print a timing breakdown of the startup phases to stderr at exit.")
+  private String traceStartup;
 }
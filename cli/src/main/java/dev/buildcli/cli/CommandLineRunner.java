@@ -1,31 +1,123 @@
 package dev.buildcli.cli;
 
+import dev.buildcli.cli.daemon.DaemonClient;
 import dev.buildcli.cli.utils.BuildCLICommandMan;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.log.config.LoggingConfig;
+import dev.buildcli.core.log.trace.StartupTrace;
 import dev.buildcli.core.utils.BuildCLIService;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
 import dev.buildcli.hooks.HookManager;
 import dev.buildcli.plugin.utils.BuildCLIPluginManager;
 import picocli.CommandLine;
 
+import java.io.PrintWriter;
+import java.time.Duration;
+
 public class CommandLineRunner {
+  private static final Duration UPDATE_CHECK_GRACE = Duration.ofMillis(500);
+
+  // Kept by the daemon between invocations for as long as the installed plugins stay the same
+  private static CommandLine resident;
+  private static String residentPlugins;
 
   public static void main(String[] args) {
-    LoggingConfig.configure();
+    var forwarded = DaemonClient.forward(args);
+    if (forwarded.isPresent()) {
+      System.exit(forwarded.getAsInt());
+    }
 
-    BuildCLIService.welcome();
+    args = StartupTrace.consumeFlag(args);
 
-    BuildCLIConfig.initialize();
-    var commandLine = new CommandLine(new BuildCLI());
-    BuildCLICommandMan.setCmd(commandLine);
+    StartupTrace.run("logging", LoggingConfig::configure);
+    StartupTrace.run("welcome", BuildCLIService::welcome);
+    StartupTrace.run("config", CommandLineRunner::initializeConfig);
+    var updateCheck = StartupTrace.call("update-check start", BuildCLIService::startUpdateCheck);
 
-    BuildCLIPluginManager.registerPlugins(commandLine);
+    var commandLine = createCommandLine();
 
-    HookManager hook = new HookManager(commandLine);
-    hook.executeHook(args, commandLine);
+    var hook = StartupTrace.call("hooks", () -> new HookManager(commandLine));
+    int exitCode = hook.execute(args, commandLine);
 
+    // Reports what a previous command found, the check started above only gets a short grace period before exit
     BuildCLIService.checkUpdatesBuildCLIAndUpdate();
+    StartupTrace.run("update-check wait", () -> BuildCLIService.awaitUpdateCheck(updateCheck, UPDATE_CHECK_GRACE));
+
+    StartupTrace.report(System.err, version());
+    System.exit(exitCode);
+  }
+
+  public static CommandLine createCommandLine() {
+    var commandLine = StartupTrace.call("command tree", () -> {
+      var tree = new CommandLine(new BuildCLI());
+      BuildCLICommandMan.setCmd(tree);
+      return tree;
+    });
+
+    StartupTrace.run("plugins", () -> BuildCLIPluginManager.registerPlugins(commandLine));
+
+    commandLine.setExecutionStrategy(CommandLineRunner::executeTraced);
+    return commandLine;
+  }
+
+  /**
+   * Runs a single invocation inside an already running JVM and returns its exit code
+   * instead of terminating the process. Used by the resident daemon.
+   */
+  public static int execute(String[] args) {
+    StartupTrace.reset();
+    args = StartupTrace.consumeFlag(args);
+
+    StartupTrace.run("welcome", BuildCLIService::welcome);
+    StartupTrace.run("config", CommandLineRunner::initializeConfig);
+
+    var commandLine = residentCommandLine();
+
+    var hook = StartupTrace.call("hooks", () -> new HookManager(commandLine));
+    int exitCode = hook.execute(args, commandLine);
+
+    StartupTrace.report(System.err, version());
+    return exitCode;
+  }
+
+  /**
+   * Reuses the command tree of the previous invocation unless a plugin was installed, removed or changed since.
+   * picocli resets every option and parameter to its initial value before parsing, so nothing a caller passed
+   * survives into the next call.
+   */
+  private static CommandLine residentCommandLine() {
+    var plugins = StartupTrace.call("plugins check", BuildCLIPluginManager::registrationState);
+    if (resident == null || plugins.isEmpty() || !plugins.get().equals(residentPlugins)) {
+      resident = createCommandLine();
+      residentPlugins = BuildCLIPluginManager.registrationState().orElse(null);
+    }
+
+    // picocli keeps writers over the System.out of the first call, the daemon swaps the streams for every caller
+    resident.setOut(new PrintWriter(System.out, true));
+    resident.setErr(new PrintWriter(System.err, true));
+    return resident;
+  }
+
+  private static int executeTraced(CommandLine.ParseResult parseResult) {
+    var command = parseResult.asCommandLineList().getLast().getCommandSpec().qualifiedName();
+    return StartupTrace.call("run " + command, () -> new CommandLine.RunLast().execute(parseResult));
+  }
+
+  private static void initializeConfig() {
+    BuildCLIConfig.initialize();
+    enableTraceFromConfig();
+  }
+
+  private static void enableTraceFromConfig() {
+    var format = StartupTrace.Format.parse(
+        ConfigContextLoader.getAllConfigs().getProperty(ConfigDefaultConstants.STARTUP_TRACE).orElse(null));
+    if (format != null) {
+      StartupTrace.enable(format);
+    }
+  }
 
-    System.exit(0);
+  private static String version() {
+    return String.join(" ", BuildCLI.class.getAnnotation(CommandLine.Command.class).version());
   }
-}
\ No newline at end of file
+}
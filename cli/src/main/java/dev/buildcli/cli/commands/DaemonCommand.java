@@ -0,0 +1,14 @@
+package dev.buildcli.cli.commands;
+
+import dev.buildcli.cli.commands.daemon.StartCommand;
+import dev.buildcli.cli.commands.daemon.StatusCommand;
+import dev.buildcli.cli.commands.daemon.StopCommand;
+import picocli.CommandLine.Command;
+
+@Command(name = "daemon",
+    description = "Manage the resident BuildCLI daemon, a warm JVM that serves commands for the current directory.",
+    mixinStandardHelpOptions = true,
+    subcommands = {StartCommand.class, StopCommand.class, StatusCommand.class}
+)
+public class DaemonCommand {
+}
@@ -5,11 +5,21 @@ import dev.buildcli.cli.commands.run.OrchestrationDownCommand;
 import dev.buildcli.cli.commands.run.OrchestrationUpCommand;
 import dev.buildcli.core.actions.commandline.CommandLineProcess;
 import dev.buildcli.core.actions.commandline.JavaProcess;
-import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.actions.commandline.ProcessTree;
+import dev.buildcli.core.actions.commandline.RunningProcess;
 import dev.buildcli.cli.commands.run.DockerfileCommand;
 import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.project.CompiledSourceCache;
+import dev.buildcli.core.project.DependencyClasspath;
+import dev.buildcli.core.project.IncrementalBuild;
+import dev.buildcli.core.project.IncrementalBuild.Goal;
+import dev.buildcli.core.project.IncrementalBuild.Outcome;
+import dev.buildcli.core.project.IncrementalBuild.Tool;
+import dev.buildcli.core.project.SourceWatcher;
 import dev.buildcli.core.utils.ProfileManager;
+import dev.buildcli.core.utils.tools.maven.PomReader;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 import java.io.File;
@@ -18,7 +28,13 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +50,24 @@ public class RunCommand implements BuildCLICommand {
   @Parameters(index = "0", description = "The file or directory to run. If a directory, it will package and run the project.", arity = "0..1", paramLabel = "<file-or-dir>", defaultValue = ".")
   private File file;
 
+  @Option(names = {"--force"}, description = "Package the project even when nothing changed since the last build.")
+  private boolean force;
+
+  @Option(names = {"--fast"}, description = "Compile only and run from target/classes with the cached dependency classpath instead of packaging a jar.")
+  private boolean fast;
+
+  @Option(names = {"--main-class"}, description = "Main class for --fast, read from the pom.xml by default.")
+  private String mainClass;
+
+  @Option(names = {"--watch"}, description = "Run like --fast, then recompile and restart the application whenever src/main or pom.xml change.")
+  private boolean watch;
+
+  @Option(names = {"--debounce"}, description = "Milliseconds without further changes before --watch rebuilds (default: ${DEFAULT-VALUE}).", defaultValue = "300")
+  private long debounce;
+
+  @Option(names = {"--process-stats"}, description = "Print wall time, CPU time and peak memory of every spawned process.")
+  private boolean processStats;
+
   @Parameters(index = "1..*", arity = "0..*", paramLabel = "<args>", description = "Arguments to pass to the program.")
   private String[] args;
 
@@ -44,14 +78,21 @@ public class RunCommand implements BuildCLICommand {
     }
 
     try {
+      if (file.isDirectory() && watch) {
+        watch();
+        return;
+      }
+
       CommandLineProcess process;
-      if (file.isDirectory()) {
+      if (file.isDirectory() && fast) {
+        process = createFastRunProcess();
+      } else if (file.isDirectory()) {
         process = createRunProjectProcess();
       } else if (file.isFile()) {
         if (file.getName().endsWith(".jar")) {
           process = JavaProcess.createRunJarProcess(file.getAbsolutePath(), args);
         } else if (file.getName().endsWith(".java")) {
-          process = JavaProcess.createRunClassProcess(file.getAbsolutePath(), args);
+          process = createRunSourceProcess();
         } else {
           throw new IllegalArgumentException("File must be a .jar or .java file.");
         }
@@ -60,6 +101,7 @@ public class RunCommand implements BuildCLICommand {
       }
 
       var exitedCode = process.run();
+      printStats(process);
       if (exitedCode != 0) {
         throw new IOException("Process exited with code " + exitedCode);
       }
@@ -69,7 +111,137 @@ public class RunCommand implements BuildCLICommand {
     }
   }
 
+  /**
+   * Compiles the source in-process once and runs it from the class cache, falling back to the source launcher when
+   * BuildCLI runs without a compiler.
+   */
+  private CommandLineProcess createRunSourceProcess() throws IOException {
+    if (!CompiledSourceCache.isAvailable()) {
+      return JavaProcess.createRunClassProcess(file.getAbsolutePath(), args == null ? new String[0] : args);
+    }
+
+    var compiled = new CompiledSourceCache().compile(file.toPath(), System.err);
+    logger.fine((compiled.cached() ? "Running cached classes of " : "Compiled ") + compiled.mainClass());
+    return JavaProcess.createRunCompiledClassProcess(compiled.classes().toString(), compiled.mainClass(),
+        args == null ? new String[0] : args);
+  }
+
   private CommandLineProcess createRunProjectProcess() throws IOException, InterruptedException {
+    printActiveProfile();
+
+    var build = new IncrementalBuild(file, Tool.MAVEN, Goal.PACKAGE).run(force);
+    if (build.outcome() == Outcome.UP_TO_DATE) {
+      logger.info("Project is up to date, packaging skipped. Saved %.1fs, %.1fs in total."
+          .formatted(build.saved().toMillis() / 1000.0, build.totalSaved().toMillis() / 1000.0));
+    } else {
+      printStats(build.process());
+    }
+    var jarPath = findJar();
+
+    return JavaProcess.createRunJarProcess(jarPath);
+  }
+
+  /**
+   * Skips the package phase: compiles when needed and runs the main class from target/classes.
+   */
+  private CommandLineProcess createFastRunProcess() throws IOException {
+    printActiveProfile();
+    return createClassesProcess();
+  }
+
+  private JavaProcess createClassesProcess() throws IOException {
+    var build = new IncrementalBuild(file, Tool.MAVEN, Goal.COMPILE).run(force);
+    if (build.process() != null) {
+      printStats(build.process());
+    }
+    if (!build.isSuccess()) {
+      throw new IOException("Compilation failed with code " + build.exitCode());
+    }
+
+    var main = Optional.ofNullable(mainClass)
+        .or(() -> PomReader.readMainClass(new File(file, "pom.xml").getPath()))
+        .orElseThrow(() -> new IllegalArgumentException("No main class found in pom.xml, pass it with --main-class."));
+
+    var classes = new File(file, "target/classes").getAbsolutePath();
+    var dependencies = new DependencyClasspath(file).resolve();
+    var classpath = dependencies.isEmpty() ? classes : classes + File.pathSeparator + dependencies;
+
+    return JavaProcess.createRunMainClassProcess(classpath, main, args == null ? new String[0] : args);
+  }
+
+  /**
+   * Keeps the application running from target/classes and restarts it after every batch of source changes. A
+   * failed compilation leaves the previous instance running.
+   */
+  private void watch() throws IOException, InterruptedException {
+    printActiveProfile();
+
+    var grace = ProcessTree.DEFAULT_GRACE;
+    var application = new AtomicReference<RunningProcess>();
+    var shutdown = new Thread(() -> {
+      var current = application.get();
+      if (current != null) {
+        current.destroyTree(grace);
+      }
+    });
+    Runtime.getRuntime().addShutdownHook(shutdown);
+
+    try (var watcher = new SourceWatcher(file.toPath(), Duration.ofMillis(debounce))) {
+      startApplication(createClassesProcess(), application);
+      logger.info("Watching " + file.getAbsoluteFile().toPath().normalize() + " for changes, press Ctrl+C to stop.");
+
+      while (true) {
+        var changes = watcher.next();
+        if (SourceWatcher.onlyTests(changes)) {
+          logger.info("Only test sources changed, application not restarted.");
+          continue;
+        }
+
+        logger.info("%d file(s) changed, recompiling...".formatted(changes.size()));
+        var started = System.nanoTime();
+        JavaProcess next;
+        try {
+          next = createClassesProcess();
+        } catch (IOException | IllegalArgumentException e) {
+          logger.warning("Rebuild failed, the running application was kept: " + e.getMessage());
+          continue;
+        }
+        var compiled = System.nanoTime();
+
+        application.getAndSet(null).destroyTree(grace);
+        var stopped = System.nanoTime();
+        startApplication(next, application);
+
+        logger.info("Restarted in %d ms (compile %d ms, stop %d ms, start %d ms)".formatted(
+            millisSince(started), TimeUnit.NANOSECONDS.toMillis(compiled - started),
+            TimeUnit.NANOSECONDS.toMillis(stopped - compiled), millisSince(stopped)));
+      }
+    } finally {
+      shutdown.run();
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdown);
+      } catch (IllegalStateException e) {
+        // Already shutting down, the hook is running anyway
+      }
+    }
+  }
+
+  private void startApplication(JavaProcess process, AtomicReference<RunningProcess> application) throws IOException {
+    var running = process.start();
+    application.set(running);
+    running.process().onExit().thenAccept(exited -> {
+      // Instances stopped for a restart are no longer the current one
+      if (application.get() == running) {
+        logger.info("Application exited with code " + exited.exitValue() + ", waiting for changes.");
+      }
+    });
+  }
+
+  private static long millisSince(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanos);
+  }
+
+  private void printActiveProfile() {
     // Carregar o perfil ativo
     String activeProfile = profileManager.getActiveProfile();
     if (activeProfile == null) {
@@ -84,11 +256,12 @@ public class RunCommand implements BuildCLICommand {
     // Exibir a mensagem do perfil ativo no console
     System.out.println("Active Profile: " + activeProfile);
     System.out.println(profileMessage);
+  }
 
-    MavenProcess.createPackageProcessor(file).run();
-    var jarPath = findJar();
-
-    return JavaProcess.createRunJarProcess(jarPath);
+  private void printStats(CommandLineProcess process) {
+    if (processStats) {
+      process.stats().ifPresent(stats -> System.err.println(stats.format()));
+    }
   }
 
   private Properties loadProfileProperties(String profile) {
@@ -116,14 +289,15 @@ public class RunCommand implements BuildCLICommand {
       throw new IOException("Target directory does not exist or is not a directory.");
     }
 
-    // Busca pelo arquivo JAR na pasta target
-    File[] jarFiles = targetDir.listFiles((dir, name) -> name.endsWith(".jar"));
+    // Busca pelo arquivo JAR na pasta target, ignorando jars de fontes, javadoc, testes e o original do shade
+    File[] jarFiles = targetDir.listFiles((dir, name) -> name.endsWith(".jar") && !name.startsWith("original-")
+        && !name.endsWith("-sources.jar") && !name.endsWith("-javadoc.jar") && !name.endsWith("-tests.jar"));
     if (jarFiles == null || jarFiles.length == 0) {
       throw new IOException("No JAR file found in target directory.");
     }
 
-    // Assume que o primeiro arquivo JAR encontrado é o correto
-    File jarFile = jarFiles[0];
+    // O jar mais recente é o que acabou de ser empacotado
+    File jarFile = Arrays.stream(jarFiles).max(Comparator.comparingLong(File::lastModified)).orElseThrow();
     return jarFile.getAbsolutePath();
   }
 }
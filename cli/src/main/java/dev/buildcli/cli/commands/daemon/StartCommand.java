@@ -0,0 +1,97 @@
+package dev.buildcli.cli.commands.daemon;
+
+import dev.buildcli.cli.daemon.DaemonClient;
+import dev.buildcli.cli.daemon.DaemonPaths;
+import dev.buildcli.cli.daemon.DaemonServer;
+import dev.buildcli.core.domain.BuildCLICommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Command(name = "start", description = "Starts a daemon for the current directory. "
+    + "Later buildcli calls from this directory are forwarded to it.", mixinStandardHelpOptions = true)
+public class StartCommand implements BuildCLICommand {
+  private static final Logger logger = LoggerFactory.getLogger("DaemonStartCommand");
+  private static final long STARTUP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  @Option(names = {"--foreground", "-f"}, description = "Run the daemon in this process instead of in the background.", defaultValue = "false")
+  private boolean foreground;
+
+  @Override
+  public void run() {
+    var workDir = DaemonPaths.currentWorkDir();
+
+    if (DaemonClient.status(workDir).isPresent()) {
+      logger.info("A BuildCLI daemon is already running for {}", workDir);
+      return;
+    }
+
+    try {
+      if (foreground) {
+        new DaemonServer(workDir).serve();
+      } else {
+        startInBackground(workDir);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to start BuildCLI daemon", e);
+    }
+  }
+
+  private void startInBackground(Path workDir) throws IOException {
+    var logFile = DaemonPaths.logFile(workDir);
+    Files.createDirectories(logFile.getParent());
+
+    var builder = new ProcessBuilder(daemonCommand(workDir))
+        .directory(workDir.toFile())
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile.toFile()));
+    builder.environment().put(DaemonClient.DISABLE_ENV, "off");
+
+    var process = builder.start();
+    process.getOutputStream().close();
+
+    var deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+    while (System.currentTimeMillis() < deadline) {
+      if (!process.isAlive()) {
+        throw new IOException("Daemon exited with code " + process.exitValue() + ", see " + logFile);
+      }
+
+      if (DaemonClient.status(workDir).isPresent()) {
+        logger.info("BuildCLI daemon started for {} (pid {})", workDir, process.pid());
+        logger.info("Logs: {}", logFile);
+        return;
+      }
+
+      try {
+        TimeUnit.MILLISECONDS.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for the daemon", e);
+      }
+    }
+
+    process.destroy();
+    throw new IOException("Daemon did not start within " + STARTUP_TIMEOUT_MILLIS + "ms, see " + logFile);
+  }
+
+  private List<String> daemonCommand(Path workDir) {
+    var command = new ArrayList<String>();
+    command.add(ProcessHandle.current().info().command().orElse("java"));
+    // Same flags as this JVM (--enable-preview, --add-modules, -Xmx...) so plugins behave identically
+    command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(DaemonServer.class.getName());
+    command.add(workDir.toString());
+    return command;
+  }
+}
@@ -0,0 +1,22 @@
+package dev.buildcli.cli.commands.daemon;
+
+import dev.buildcli.cli.daemon.DaemonClient;
+import dev.buildcli.cli.daemon.DaemonPaths;
+import dev.buildcli.core.domain.BuildCLICommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+
+@Command(name = "stop", description = "Stops the daemon serving the current directory.", mixinStandardHelpOptions = true)
+public class StopCommand implements BuildCLICommand {
+  private static final Logger logger = LoggerFactory.getLogger("DaemonStopCommand");
+
+  @Override
+  public void run() {
+    var workDir = DaemonPaths.currentWorkDir();
+    DaemonClient.stop(workDir).ifPresentOrElse(
+        logger::info,
+        () -> logger.info("No BuildCLI daemon running for {}", workDir)
+    );
+  }
+}
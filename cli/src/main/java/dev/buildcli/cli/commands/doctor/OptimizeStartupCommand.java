@@ -0,0 +1,191 @@
+package dev.buildcli.cli.commands.doctor;
+
+import dev.buildcli.cli.daemon.DaemonClient;
+import dev.buildcli.cli.startup.StartupArchive;
+import dev.buildcli.cli.startup.StartupTraining;
+import dev.buildcli.core.domain.BuildCLICommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Command(
+    name = "optimize-startup",
+    description = "Trains a class data sharing (AppCDS) archive with common commands and stores it next to the "
+        + "BuildCLI jar. The launcher uses it automatically and falls back to regular startup when the JDK or the jar changes.",
+    mixinStandardHelpOptions = true
+)
+public class OptimizeStartupCommand implements BuildCLICommand {
+  private static final Logger logger = LoggerFactory.getLogger("DoctorOptimizeStartupCommand");
+  private static final long TRAINING_TIMEOUT_SECONDS = 120;
+  private static final File NULL_FILE = new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+
+  @Option(names = {"--jar"}, description = "BuildCLI jar to optimize, defaults to the running one.")
+  private Path jar;
+
+  @Option(names = {"--force", "-f"}, description = "Regenerate the archive even if it is up to date.", defaultValue = "false")
+  private boolean force;
+
+  @Option(names = {"--status"}, description = "Only report whether the archive matches the current JDK and jar.", defaultValue = "false")
+  private boolean status;
+
+  @Option(names = {"--remove"}, description = "Delete the archive and restore regular startup.", defaultValue = "false")
+  private boolean remove;
+
+  @Option(names = {"--runs"}, description = "Startup measurements before and after, the median is reported.", defaultValue = "3")
+  private int runs;
+
+  @Override
+  public void run() {
+    var archive = jar != null ? new StartupArchive(jar) : StartupArchive.current().orElse(null);
+    if (archive == null) {
+      logger.error("BuildCLI is not running from a jar, use --jar to point to the installed buildcli.jar.");
+      return;
+    }
+
+    try {
+      if (remove) {
+        archive.delete();
+        logger.info("Removed {}", archive.archive());
+      } else if (status) {
+        printStatus(archive);
+      } else if (!force && archive.isCurrent()) {
+        logger.info("Startup archive {} is up to date, use --force to regenerate it.", archive.archive());
+      } else {
+        optimize(archive);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to optimize BuildCLI startup", e);
+    }
+  }
+
+  private void printStatus(StartupArchive archive) throws IOException {
+    if (!archive.exists()) {
+      logger.info("No startup archive for {}", archive.jar());
+    } else if (archive.isCurrent()) {
+      logger.info("Startup archive {} is up to date.", archive.archive());
+    } else {
+      logger.warn("Startup archive {} is stale (JDK or jar changed), the JVM ignores it. Run 'buildcli doctor optimize-startup'.", archive.archive());
+    }
+  }
+
+  private void optimize(StartupArchive archive) throws IOException {
+    var baseOptions = StartupArchive.withoutSharingOptions(ManagementFactory.getRuntimeMXBean().getInputArguments());
+
+    logger.info("Measuring startup without archive...");
+    var before = measure(archive, baseOptions);
+
+    logger.info("Training startup archive with {} commands...", StartupTraining.COMMANDS.size());
+    var trainingDir = Files.createTempDirectory("buildcli-cds");
+    var dumped = trainingDir.resolve(archive.archive().getFileName());
+    try {
+      var command = new ArrayList<>(javaCommand(baseOptions));
+      command.addAll(archive.dumpOptions(dumped));
+      command.add("-cp");
+      command.add(archive.jar().toString());
+      command.add(StartupTraining.class.getName());
+
+      int exitCode = runQuietly(command, trainingDir, TRAINING_TIMEOUT_SECONDS);
+      if (exitCode != 0 || !Files.isRegularFile(dumped)) {
+        logger.error("Training run failed with exit code {}, startup archive not created.", exitCode);
+        return;
+      }
+
+      Files.move(dumped, archive.archive(), StandardCopyOption.REPLACE_EXISTING);
+      archive.writeStamp();
+    } finally {
+      Files.deleteIfExists(dumped);
+      deleteRecursively(trainingDir);
+    }
+
+    logger.info("Measuring startup with archive...");
+    var withArchive = measure(archive, concat(baseOptions, archive.useOptions()));
+
+    logger.info("Startup archive written to {} ({} KB)", archive.archive(), Files.size(archive.archive()) / 1024);
+    logger.info("  'buildcli version' without archive: {} ms", before);
+    logger.info("  'buildcli version' with archive:    {} ms", withArchive);
+    if (before > 0 && withArchive > 0) {
+      logger.info("  Startup {} by {}%", withArchive <= before ? "improved" : "regressed",
+          Math.round(Math.abs(before - withArchive) * 100.0 / before));
+    }
+  }
+
+  /**
+   * @return median wall time in milliseconds of {@code buildcli version}, or -1 if it could not run
+   */
+  private long measure(StartupArchive archive, List<String> options) throws IOException {
+    var command = new ArrayList<>(javaCommand(options));
+    command.add("-jar");
+    command.add(archive.jar().toString());
+    command.add("version");
+
+    var samples = new long[Math.max(1, runs)];
+    for (int i = 0; i < samples.length; i++) {
+      var start = System.nanoTime();
+      if (runQuietly(command, Path.of(System.getProperty("user.dir")), 60) != 0) {
+        return -1;
+      }
+      samples[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    Arrays.sort(samples);
+    return samples[samples.length / 2];
+  }
+
+  private int runQuietly(List<String> command, Path workDir, long timeoutSeconds) throws IOException {
+    var builder = new ProcessBuilder(command)
+        .directory(workDir.toFile())
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .redirectInput(ProcessBuilder.Redirect.from(NULL_FILE));
+    builder.environment().put(DaemonClient.DISABLE_ENV, "off");
+
+    var process = builder.start();
+    try {
+      if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+        return -1;
+      }
+      return process.exitValue();
+    } catch (InterruptedException e) {
+      process.destroyForcibly();
+      Thread.currentThread().interrupt();
+      return -1;
+    }
+  }
+
+  private static List<String> javaCommand(List<String> options) {
+    var command = new ArrayList<String>();
+    command.add(ProcessHandle.current().info().command().orElse("java"));
+    command.addAll(options);
+    return command;
+  }
+
+  private static List<String> concat(List<String> first, List<String> second) {
+    var all = new ArrayList<>(first);
+    all.addAll(second);
+    return all;
+  }
+
+  private static void deleteRecursively(Path directory) throws IOException {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (var paths = Files.walk(directory)) {
+      for (var path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+}
@@ -2,10 +2,17 @@ package dev.buildcli.cli.commands.doctor;
 
 import dev.buildcli.core.actions.tools.DockerChecker;
 import dev.buildcli.core.actions.tools.ToolCheckers;
+import dev.buildcli.core.actions.tools.ToolDetection;
 import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import dev.buildcli.core.utils.tools.BuildDaemons;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
 @Command(
     name = "scan",
@@ -14,20 +21,48 @@ import picocli.CommandLine.Command;
 )
 public class ScanCommand implements BuildCLICommand {
   private final Logger logger = LoggerFactory.getLogger("DoctorScanCommand");
+
+  @Option(names = {"--refresh"}, description = "Run every tool again instead of reusing what earlier scans found.")
+  private boolean refresh;
+
   @Override
   public void run() {
-    ToolCheckers.all().forEach(toolChecker -> {
-      logger.info("Running environment scan...");
+    logger.info("Running environment scan...");
+    var detection = ToolDetection.shared();
+    if (refresh) {
+      detection.clear();
+    }
+
+    // Whether the Docker daemon runs changes all the time, it is asked every scan, alongside the other tools
+    var dockerRunning = CompletableFuture.supplyAsync(() -> new DockerChecker().isRunning(), ThreadPoolUtils.virtual());
+    detection.detectAll(ToolCheckers.all()).forEach((toolChecker, info) -> {
       logger.info("Checking {}...", toolChecker.name());
 
-      if (toolChecker.isInstalled()) {
-        logger.info("  Installed, version: {}", toolChecker.version());
-        if (toolChecker instanceof DockerChecker c && !c.isRunning()) {
+      if (info.installed()) {
+        logger.info("  Installed, version: {}", info.version());
+        if (toolChecker instanceof DockerChecker && !dockerRunning.join()) {
           logger.warn("  Docker is installed but not running.");
         }
       } else {
         logger.info("  Not installed. {}", toolChecker.installInstructions());
       }
     });
+
+    scanBuildDaemons();
+  }
+
+  private void scanBuildDaemons() {
+    logger.info("Checking build daemons (mode: {})...", BuildDaemons.mode().name().toLowerCase());
+    for (var status : BuildDaemons.status(new File("."))) {
+      if (status.executable().isPresent()) {
+        logger.info("  {}: available at {}, {}", status.tool(), status.executable().get(), status.running() ? "running" : "not running");
+      } else {
+        logger.info("  {}: not available", status.tool());
+      }
+    }
+
+    if (BuildDaemons.mvnd().isEmpty()) {
+      logger.info("  Install mvnd to speed up repeated Maven builds: https://github.com/apache/maven-mvnd");
+    }
   }
 }
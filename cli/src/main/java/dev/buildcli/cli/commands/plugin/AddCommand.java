@@ -8,7 +8,9 @@ import dev.buildcli.core.utils.ProjectUtils;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
 import dev.buildcli.core.utils.filesystem.FindFilesUtils;
 import dev.buildcli.core.utils.net.FileDownloader;
+import dev.buildcli.plugin.index.PluginIndex;
 import dev.buildcli.plugin.utils.BuildCLIPluginUtils;
+import dev.buildcli.plugin.utils.PluginDescriptor;
 import org.eclipse.jgit.api.Git;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,8 +22,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -84,8 +87,9 @@ public class AddCommand implements BuildCLICommand {
 
     if (isValidJarFile(downloadedFile)) {
       Jar jar = new Jar(downloadedFile);
-      if (BuildCLIPluginUtils.isValid(jar)) {
-        copyJarPlugin(jar);
+      PluginDescriptor descriptor = BuildCLIPluginUtils.describe(jar);
+      if (descriptor.valid()) {
+        copyJarPlugin(jar, descriptor);
       } else {
         logger.warn("Downloaded JAR is not a valid plugin: {}", downloadedFile);
       }
@@ -114,9 +118,10 @@ public class AddCommand implements BuildCLICommand {
     Jar jar = new Jar(jarFile);
     logger.info("Validating jar: {}", jar.getFile());
 
-    if (BuildCLIPluginUtils.isValid(jar)) {
+    PluginDescriptor descriptor = BuildCLIPluginUtils.describe(jar);
+    if (descriptor.valid()) {
       logger.info("Jar is a valid plugin");
-      copyJarPlugin(jar);
+      copyJarPlugin(jar, descriptor);
     } else {
       logger.info("Jar is not a valid plugin");
     }
@@ -127,14 +132,14 @@ public class AddCommand implements BuildCLICommand {
   }
 
   private void buildAndCopyPlugins(File directory) throws IOException {
-    List<Jar> jars = loadPluginFromDirectory(directory);
+    Map<Jar, PluginDescriptor> jars = loadPluginFromDirectory(directory);
 
-    for (Jar jar : jars) {
-      copyJarPlugin(jar);
+    for (var jar : jars.entrySet()) {
+      copyJarPlugin(jar.getKey(), jar.getValue());
     }
   }
 
-  private void copyJarPlugin(Jar jar) throws IOException {
+  private void copyJarPlugin(Jar jar, PluginDescriptor descriptor) throws IOException {
     final int maxRetries = 5;
     int retries = maxRetries;
     boolean copied = false;
@@ -207,12 +212,21 @@ public class AddCommand implements BuildCLICommand {
 
     if (copied) {
       logger.info("Jar copied to {}...", destPath);
+      indexPlugin(destPath, descriptor);
     } else {
       throw new IOException("Failed to copy plugin after " + maxRetries + " attempts. " +
           "Please ensure the plugin is not in use and try again later.");
     }
   }
 
+  // The copy has the same content as the validated jar, its descriptor is indexed without opening it again
+  private void indexPlugin(Path jarPath, PluginDescriptor descriptor) {
+    var index = PluginIndex.load();
+    var entry = index.index(jarPath.toFile(), descriptor);
+    index.save();
+    logger.info("Indexed {} command(s) from {}", entry.commands().size(), jarPath.getFileName());
+  }
+
   private void tryDeleteWithRetries(Path path, int retries) throws IOException {
     IOException lastException = null;
 
@@ -243,10 +257,10 @@ public class AddCommand implements BuildCLICommand {
     }
   }
 
-  private List<Jar> loadPluginFromDirectory(File directory) {
+  private Map<Jar, PluginDescriptor> loadPluginFromDirectory(File directory) {
     validateDirectory(directory);
 
-    List<Jar> validPlugins = new ArrayList<>();
+    Map<Jar, PluginDescriptor> validPlugins = new LinkedHashMap<>();
 
     logger.info("Building project...");
     int exitCode = CommandUtils.call("project", "build", "-p", directory.getAbsolutePath());
@@ -263,9 +277,10 @@ public class AddCommand implements BuildCLICommand {
       Jar jar = new Jar(jarFile);
       logger.info("Validating jar {}", jarFile);
 
-      if (BuildCLIPluginUtils.isValid(jar)) {
+      PluginDescriptor descriptor = BuildCLIPluginUtils.describe(jar);
+      if (descriptor.valid()) {
         logger.info("Validated jar, is a valid jar plugin");
-        validPlugins.add(jar);
+        validPlugins.put(jar, descriptor);
       } else {
         logger.info("Jar is not a valid plugin");
       }
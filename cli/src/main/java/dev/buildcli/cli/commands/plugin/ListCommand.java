@@ -4,18 +4,18 @@ import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.domain.jar.Jar;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
-import dev.buildcli.plugin.utils.BuildCLIPluginUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import dev.buildcli.plugin.index.PluginIndex;
+import dev.buildcli.plugin.index.PluginIndexEntry;
+import dev.buildcli.plugin.utils.PluginDiscovery;
+import dev.buildcli.plugin.utils.PluginDiscovery.PathScan;
+import dev.buildcli.plugin.utils.PluginDiscovery.Timed;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
 import java.io.File;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,7 +29,6 @@ import static dev.buildcli.core.utils.BeautifyShell.*;
     mixinStandardHelpOptions = true
 )
 public class ListCommand implements BuildCLICommand {
-  private static final Logger logger = LoggerFactory.getLogger("ListPluginCommand");
   private static final String DEFAULT_PLUGINS_DIR = System.getProperty("user.home") + "/.buildcli/plugins";
 
   @Option(
@@ -44,69 +43,98 @@ public class ListCommand implements BuildCLICommand {
   )
   private boolean nameOnly = false;
 
-  private final BuildCLIConfig globalConfig = ConfigContextLoader.getAllConfigs();
+  @Option(
+      names = {"--timings"},
+      description = "Show how long scanning each plugin path and validating the jars took"
+  )
+  private boolean timings = false;
+
+  private final BuildCLIConfig globalConfig;
+  private final Path indexFile;
+
+  public ListCommand() {
+    this(ConfigContextLoader.getAllConfigs(), PluginIndex.DEFAULT_FILE);
+  }
+
+  ListCommand(BuildCLIConfig globalConfig, Path indexFile) {
+    this.globalConfig = globalConfig;
+    this.indexFile = indexFile;
+  }
 
   @Override
   public void run() {
-    List<PluginInfo> plugins = findInstalledPlugins();
+    List<PluginIndexEntry> entries = findInstalledPlugins();
+    List<PluginInfo> plugins = entries.stream()
+        .filter(entry -> entry.descriptor().valid())
+        .map(this::toPluginInfo)
+        .sorted(Comparator.comparing(PluginInfo::name).thenComparing(PluginInfo::path))
+        .collect(Collectors.toList());
 
     if (plugins.isEmpty()) {
       System.out.println("No plugins installed.");
-      return;
+    } else {
+      displayPlugins(plugins);
     }
 
-    displayPlugins(plugins);
+    if (!nameOnly) {
+      displaySkipped(entries);
+    }
   }
 
-  private List<PluginInfo> findInstalledPlugins() {
+  private List<PluginIndexEntry> findInstalledPlugins() {
     String[] pluginPaths = globalConfig.getProperty(PLUGIN_PATHS)
         .orElse(DEFAULT_PLUGINS_DIR)
         .split(";");
 
-    List<PluginInfo> plugins = new ArrayList<>();
+    var start = System.nanoTime();
+    var scans = PluginDiscovery.scan(pluginPaths);
+    var jars = PluginDiscovery.jars(scans);
 
-    for (String pathStr : pluginPaths) {
-      Path path = Path.of(pathStr);
+    // Only new or changed jars are inspected, concurrently, the others are described by the plugin index
+    var index = PluginIndex.load(indexFile);
+    var inspected = index.refresh(jars.stream().map(Jar::new).toList());
+    index.save();
 
-      if (!Files.exists(path)) {
-        continue;
-      }
+    if (timings) {
+      displayTimings(scans, jars, inspected, System.nanoTime() - start);
+    }
+
+    return index.entries();
+  }
 
-      List<File> jarFiles = FindFilesUtils.searchJarFiles(path.toFile());
-
-      for (File jarFile : jarFiles) {
-        try {
-          Jar jar = new Jar(jarFile);
-          if (BuildCLIPluginUtils.isValid(jar)) {
-            plugins.add(extractPluginInfo(jar));
-          }
-        } catch (Exception e) {
-          logger.warn("Failed to process plugin jar {}: {}", jarFile, e.getMessage());
-        }
+  private void displayTimings(List<PathScan> scans, List<File> jars, List<Timed<PluginIndexEntry>> inspected,
+                              long totalNanos) {
+    System.out.println(yellowFg("Plugin discovery timings:"));
+    for (var scan : scans) {
+      System.out.printf("  %-60s %4d jar(s) %8s%n", scan.path(), scan.jars().size(), millis(scan.nanos()));
+    }
+
+    if (verbose) {
+      var inspectedNanos = new HashMap<File, Long>();
+      inspected.forEach(result -> inspectedNanos.put(result.jar(), result.nanos()));
+      for (var jar : jars) {
+        var nanos = inspectedNanos.get(jar);
+        var source = nanos == null ? "cached" : "inspected";
+        System.out.printf("  %-60s %-9s %8s%n", jar.getName(), source, nanos == null ? "-" : millis(nanos));
       }
     }
 
-    return plugins.stream()
-        .sorted(Comparator.comparing(PluginInfo::name))
-        .collect(Collectors.toList());
+    System.out.printf("  %d jar(s), %d from cache, %d inspected, total %s%n%n",
+        jars.size(), jars.size() - inspected.size(), inspected.size(), millis(totalNanos));
   }
 
-  private PluginInfo extractPluginInfo(Jar jar) {
-    String name = jar.getFile().getName().replace(".jar", "");
-    String version = "Unknown";
-    String description = "No description available";
-
-    try {
-      // These methods would need to be implemented in PluginUtils
-      // to extract metadata from the JAR manifest or plugin class
-      name = BuildCLIPluginUtils.getPluginName(jar).orElse(name);
-      version = BuildCLIPluginUtils.getPluginVersion(jar).orElse("Unknown");
-      description = BuildCLIPluginUtils.getPluginDescription(jar).orElse("No description available");
-    } catch (Exception e) {
-      logger.debug("Failed to extract detailed info from plugin {}: {}", name, e.getMessage());
-    }
+  private static String millis(long nanos) {
+    return "%.1fms".formatted(nanos / 1_000_000.0);
+  }
+
+  private PluginInfo toPluginInfo(PluginIndexEntry entry) {
+    var descriptor = entry.descriptor();
+    var jarFile = new File(entry.path());
+    var name = descriptor.name() != null ? descriptor.name() : jarFile.getName().replace(".jar", "");
+    var version = descriptor.version() != null ? descriptor.version() : "Unknown";
+    var description = descriptor.description() != null ? descriptor.description() : "No description available";
 
-    return new PluginInfo(name, version, description, jar.getFile().getAbsolutePath());
+    return new PluginInfo(name, version, description, jarFile.getAbsolutePath());
   }
 
   private void displayPlugins(List<PluginInfo> plugins) {
@@ -130,6 +158,13 @@ public class ListCommand implements BuildCLICommand {
     }
   }
 
+  // Jars in a plugin path that could not be read or do not register a plugin, the other plugins still load
+  private void displaySkipped(List<PluginIndexEntry> entries) {
+    entries.stream()
+        .filter(entry -> !entry.descriptor().valid())
+        .forEach(entry -> System.out.println(yellowFg("Skipped " + entry.path() + ": not a valid BuildCLI plugin")));
+  }
+
   // Record to store plugin information
   private record PluginInfo(String name, String version, String description, String path) {
   }
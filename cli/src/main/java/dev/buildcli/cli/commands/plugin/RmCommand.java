@@ -1,13 +1,15 @@
 package dev.buildcli.cli.commands.plugin;
 
 import dev.buildcli.core.domain.BuildCLICommand;
-import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.plugin.index.PluginIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,8 +34,6 @@ public class RmCommand implements BuildCLICommand {
   @Parameters(description = "Names of the plugins to remove (without .jar extension)")
   private List<String> names;
 
-  private final BuildCLIConfig globalConfig = ConfigContextLoader.getAllConfigs();
-
   @Override
   public void run() {
     List<String> pluginsToRemove = getPluginsToRemove();
@@ -62,27 +62,56 @@ public class RmCommand implements BuildCLICommand {
   }
 
   private String[] getPluginPaths() {
-    return globalConfig.getProperty(PLUGIN_PATHS)
+    return ConfigContextLoader.getAllConfigs().getProperty(PLUGIN_PATHS)
         .orElse(DEFAULT_PLUGINS_DIR)
         .split(";");
   }
 
   private void removePlugins(List<String> pluginsToRemove, String[] pluginPaths) {
     boolean anyRemoved = false;
+    var index = PluginIndex.load();
 
     for (String path : pluginPaths) {
       for (String pluginName : pluginsToRemove) {
-        Path jarPath = Paths.get(path, pluginName + ".jar");
-        anyRemoved |= removePlugin(jarPath);
+        for (Path jarPath : findPluginJars(index, path, pluginName)) {
+          anyRemoved |= removePlugin(index, jarPath);
+        }
       }
     }
 
+    index.save();
+
     if (!anyRemoved) {
       logger.warn("No plugins were found to remove");
     }
   }
 
-  private boolean removePlugin(Path jarPath) {
+  /**
+   * Matches the jar file name first, then the plugin name recorded in the plugin index. Jars are never
+   * opened here, a plugin that was never listed or loaded can only be removed by file name.
+   */
+  private List<Path> findPluginJars(PluginIndex index, String path, String pluginName) {
+    Path byFileName = Paths.get(path, pluginName + ".jar");
+    if (Files.isRegularFile(byFileName)) {
+      return List.of(byFileName);
+    }
+
+    var directory = new File(path);
+    if (!directory.isDirectory()) {
+      return List.of(byFileName);
+    }
+
+    List<Path> matches = FindFilesUtils.searchJarFiles(directory).stream()
+        .filter(jarFile -> index.get(jarFile)
+            .map(entry -> pluginName.equals(entry.descriptor().name()))
+            .orElse(false))
+        .map(File::toPath)
+        .toList();
+
+    return matches.isEmpty() ? List.of(byFileName) : matches;
+  }
+
+  private boolean removePlugin(PluginIndex index, Path jarPath) {
     logger.info("Checking for plugin at {}", jarPath);
 
     if (!Files.isRegularFile(jarPath)) {
@@ -93,6 +122,7 @@ public class RmCommand implements BuildCLICommand {
     try {
       logger.info("Removing plugin {}", jarPath);
       Files.delete(jarPath);
+      index.remove(jarPath.toFile());
       logger.info("Successfully removed plugin {}", jarPath.getFileName());
       return true;
     } catch (IOException e) {
@@ -1,14 +1,28 @@
 package dev.buildcli.cli.commands.project;
 
-import dev.buildcli.core.actions.commandline.CommandLineProcess;
-import dev.buildcli.core.actions.commandline.GradleProcess;
+import dev.buildcli.core.actions.commandline.LineListener.Channel;
 import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.actions.tools.GradleChecker;
+import dev.buildcli.core.actions.tools.MavenChecker;
 import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.project.IncrementalBuild;
+import dev.buildcli.core.project.IncrementalBuild.Goal;
+import dev.buildcli.core.project.IncrementalBuild.Outcome;
+import dev.buildcli.core.project.IncrementalBuild.Tool;
+import dev.buildcli.core.project.ModuleGraph;
+import dev.buildcli.core.project.ParallelModuleBuild;
+import dev.buildcli.core.project.ParallelModuleBuild.Status;
+import dev.buildcli.core.project.ParallelModuleBuild.Summary;
+import dev.buildcli.core.utils.tools.BuildDaemons;
+import dev.buildcli.core.utils.tools.BuildTimes;
 import dev.buildcli.core.utils.tools.ToolChecks;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
 import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.stream.Collectors;
 import java.util.logging.Logger;
 
 @Command(name = "build", aliases = {"b"}, description = "Builds the project, either compiling or packaging, and logs the result.", mixinStandardHelpOptions = true)
@@ -21,6 +35,15 @@ public class BuildCommand implements BuildCLICommand {
   @Option(names = {"--path", "-p"}, description = "Path to project", defaultValue = ".")
   private File path;
 
+  @Option(names = {"--force"}, description = "Build even when nothing changed since the last successful build.")
+  private boolean force;
+
+  @Option(names = {"--process-stats"}, description = "Print wall time, CPU time and peak memory of the build.")
+  private boolean processStats;
+
+  @Option(names = {"--jobs", "-j"}, paramLabel = "N", description = "Build the modules of a multi-module Maven project separately, up to N at once. Each module starts as soon as the modules it depends on are built.")
+  private int jobs;
+
 
   @Override
   public void run() {
@@ -30,21 +53,113 @@ public class BuildCommand implements BuildCLICommand {
       logger.severe("Neither Maven nor Gradle project detected. Please ensure one of these build files (pom.xml or build.gradle) exists.");
       return;
     }
+    if (!isToolAvailable(projectBuild)) {
+      return;
+    }
 
-    CommandLineProcess process;
+    if (jobs > 0 && projectBuild.equals("Maven") && ModuleGraph.isMultiModule(path.toPath())) {
+      buildModules();
+      return;
+    }
 
-    if (compileOnly) {
-      process = projectBuild.equals("Maven") ? MavenProcess.createCompileProcessor(path) : GradleProcess.createCompileProcessor(path);
-    } else {
-      process = projectBuild.equals("Maven") ? MavenProcess.createPackageProcessor(path) : GradleProcess.createPackageProcessor(path);
+    var tool = projectBuild.equals("Maven") ? Tool.MAVEN : Tool.GRADLE;
+    var result = new IncrementalBuild(path, tool, compileOnly ? Goal.COMPILE : Goal.PACKAGE).run(force);
+
+    if (result.outcome() == Outcome.UP_TO_DATE) {
+      logger.info("Project is up to date, build skipped. Saved %.1fs, %.1fs in total (use --force to rebuild)."
+          .formatted(result.saved().toMillis() / 1000.0, result.totalSaved().toMillis() / 1000.0));
+      return;
     }
 
-    int exitCode = process.run();
+    var process = result.process();
+    int exitCode = result.exitCode();
+
+    if (processStats) {
+      process.stats().ifPresent(stats -> System.err.println(stats.format()));
+    }
 
     if (exitCode == 0) {
       logger.info("Project built successfully.");
+      process.stats().ifPresent(stats -> reportBuildTime(process.isWarm(), result.outcome(), stats.wallTime()));
     } else {
       logger.severe("Failed to build project. Process exited with code: " + exitCode);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Fails early with install instructions instead of a build that cannot start. The check is cached, the tool only
+   * runs again when its installation changed.
+   */
+  private boolean isToolAvailable(String projectBuild) {
+    if (projectBuild.equals("Maven") && BuildDaemons.mvnd().isEmpty() && !ToolChecks.checksMaven()) {
+      logger.severe("Maven is not installed. " + new MavenChecker().installInstructions());
+      return false;
+    }
+    if (projectBuild.equals("Gradle") && BuildDaemons.gradleWrapper(path).isEmpty() && !ToolChecks.checksGradle()) {
+      logger.severe("Gradle is not installed and the project has no Gradle wrapper. " + new GradleChecker().installInstructions());
+      return false;
+    }
+    return true;
+  }
+
+  private void buildModules() {
+    ModuleGraph graph;
+    try {
+      graph = ModuleGraph.read(path.toPath());
+    } catch (IOException | IllegalStateException e) {
+      logger.severe("Could not read the modules of the project: " + e.getMessage());
+      return;
+    }
+
+    var width = graph.modules().stream().mapToInt(module -> module.artifactId().length()).max().orElse(0);
+    logger.info("Building %d modules with up to %d jobs".formatted(graph.modules().size(), jobs));
+
+    var summary = new ParallelModuleBuild(graph, jobs).run(module -> {
+      // Modules other modules need are installed, their dependents resolve them from the local repository
+      var goal = !graph.dependents(module.id()).isEmpty() ? "install" : compileOnly ? "compile" : "package";
+      var prefix = "[%-" + width + "s] ";
+      var process = MavenProcess.createModuleProcessor(module.directory().toFile(), goal)
+          .onLine((channel, line) -> (channel == Channel.STDERR ? System.err : System.out)
+              .println(prefix.formatted(module.artifactId()) + line));
+      return process.run();
+    });
+
+    printSummary(summary, width);
+    if (summary.isSuccess()) {
+      logger.info("Project built successfully.");
+    } else {
+      logger.severe("Failed to build modules: " + summary.results().stream()
+          .filter(result -> result.status() != Status.SUCCESS)
+          .map(result -> result.module().artifactId() + " (" + result.status().name().toLowerCase() + ")")
+          .collect(Collectors.joining(", ")));
+    }
+  }
+
+  private void printSummary(Summary summary, int width) {
+    System.out.println();
+    System.out.printf("Module build summary: %.1fs wall time, %.1fs of module builds%n",
+        summary.wallTime().toMillis() / 1000.0, summary.serialTime().toMillis() / 1000.0);
+    for (var result : summary.results()) {
+      System.out.printf("  %-" + width + "s  %-7s  start %6.1fs  took %6.1fs%n", result.module().artifactId(),
+          result.status(), result.start().toMillis() / 1000.0, result.duration().toMillis() / 1000.0);
+    }
+
+    var criticalPath = summary.criticalPath();
+    if (!criticalPath.isEmpty()) {
+      var total = criticalPath.getLast().end().toMillis() / 1000.0;
+      System.out.printf("Critical path (%.1fs): %s%n", total, criticalPath.stream()
+          .map(result -> "%s %.1fs".formatted(result.module().artifactId(), result.duration().toMillis() / 1000.0))
+          .collect(Collectors.joining(" -> ")));
+    }
+  }
+
+  private void reportBuildTime(boolean warm, Outcome outcome, Duration wallTime) {
+    var build = path.getAbsoluteFile().toPath().normalize() + (compileOnly ? " compile" : " package")
+        + (outcome == Outcome.INCREMENTAL ? " incremental" : "");
+    var times = new BuildTimes(BuildTimes.DEFAULT_FILE);
+    times.record(build, warm, wallTime);
+
+    logger.info("Build took %.1fs (%s)".formatted(wallTime.toMillis() / 1000.0, warm ? "warm, build daemon" : "cold"));
+    times.compare(build).ifPresent(logger::info);
+  }
+}
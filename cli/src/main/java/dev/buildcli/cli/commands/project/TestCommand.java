@@ -1,13 +1,234 @@
 package dev.buildcli.cli.commands.project;
 
+import dev.buildcli.cli.commands.project.test.TuneCommand;
+import dev.buildcli.core.actions.commandline.CommandLineProcess;
+import dev.buildcli.core.actions.commandline.LineListener.Channel;
+import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.project.ModuleGraph;
 import dev.buildcli.core.project.ProjectTester;
 import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.project.testing.SurefireReports;
+import dev.buildcli.core.project.testing.SurefireReports.SuiteResult;
+import dev.buildcli.core.project.testing.TestHistory;
+import dev.buildcli.core.project.testing.TestHistory.Trend;
+import dev.buildcli.core.project.testing.TestImpactAnalysis;
+import dev.buildcli.core.project.testing.TestImpactAnalysis.Mode;
+import dev.buildcli.core.project.testing.TestShards;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
-@Command(name = "test", aliases = {"t"}, description = "Executes the project tests.", mixinStandardHelpOptions = true)
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+@Command(name = "test", aliases = {"t"}, description = "Executes the project tests.", mixinStandardHelpOptions = true,
+    subcommands = {TuneCommand.class})
 public class TestCommand implements BuildCLICommand {
+  private static final String SPARKS = "_.-=+*#";
+  // Below this, slowdowns are usually noise of the machine rather than of the test
+  private static final Duration MINIMUM_REGRESSION = Duration.ofMillis(50);
+  private final Logger logger = Logger.getLogger(TestCommand.class.getName());
+
+  @Option(names = {"--process-stats"}, description = "Print wall time, CPU time and peak memory of the test run.")
+  private boolean processStats;
+
+  @Option(names = {"--affected"}, description = "Only run the tests that use classes changed since --since. Build file changes run all tests.")
+  private boolean affected;
+
+  @Option(names = {"--since"}, paramLabel = "<ref>", defaultValue = "HEAD", description = "Git revision --affected compares the working tree with (default: ${DEFAULT-VALUE}).")
+  private String since;
+
+  @Option(names = {"--shards"}, paramLabel = "N", description = "Split the test classes into N shards of similar duration, based on earlier runs, and run them in parallel Maven processes.")
+  private int shards;
+
+  @Option(names = {"--report"}, paramLabel = "<type>", description = "Show a report from the recorded test history instead of running tests. Supported: slow.")
+  private String report;
+
+  @Option(names = {"--top"}, paramLabel = "N", defaultValue = "10", description = "Number of tests in the slow test report (default: ${DEFAULT-VALUE}).")
+  private int top;
+
+  @Option(names = {"--runs"}, paramLabel = "N", defaultValue = "10", description = "Number of recent runs the slow test report looks at (default: ${DEFAULT-VALUE}).")
+  private int runs;
+
+  @Option(names = {"--regression-threshold"}, paramLabel = "<percent>", defaultValue = "20", description = "How much slower than its median a test must get to be reported as a regression (default: ${DEFAULT-VALUE}).")
+  private int regressionThreshold;
+
   @Override
   public void run() {
-    new ProjectTester().execute();
+    var projectDir = new File(".").getAbsoluteFile();
+    if (report != null) {
+      printReport(projectDir);
+      return;
+    }
+    if (shards > 0 && ModuleGraph.isMultiModule(projectDir.toPath())) {
+      // Test classes and reports would only be looked for in the aggregator, which has none
+      logger.severe("--shards only supports single-module projects. Run it from the directory of one module, "
+          + "or run the tests of this project without --shards.");
+      return;
+    }
+    var selected = List.<String>of();
+    var arguments = List.<String>of();
+    TestImpactAnalysis analysis = null;
+
+    if (affected) {
+      analysis = new TestImpactAnalysis(projectDir);
+      var selection = analysis.select(since);
+      logger.info(selection.reason());
+      if (selection.mode() == Mode.NONE) {
+        return;
+      }
+      if (selection.mode() == Mode.SELECTED) {
+        logger.info("Running " + String.join(", ", selection.tests()));
+      }
+      selected = selection.tests();
+      arguments = selection.mavenArguments();
+    }
+
+    // Report timestamps can be rounded down to the second
+    var started = Instant.now().minusSeconds(1);
+    if (shards > 0) {
+      runShards(projectDir, selected);
+    } else {
+      var process = new ProjectTester(arguments).execute();
+      printStats(process);
+    }
+    recordHistory(projectDir, started);
+
+    if (analysis != null) {
+      try {
+        analysis.refreshIndex();
+      } catch (IOException e) {
+        logger.fine("Could not update the class dependency index: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Compiles once, then runs every shard with surefire alone so the shards never write the same classes.
+   */
+  private void runShards(File projectDir, List<String> selected) {
+    var compile = MavenProcess.createProcessor("test-compile", "-f", projectDir.getPath());
+    if (compile.run() != 0) {
+      logger.severe("Failed to compile the tests.");
+      return;
+    }
+
+    try {
+      var testClasses = selected.isEmpty() ? TestShards.discover(projectDir.toPath().resolve("target/test-classes")) : selected;
+      if (testClasses.isEmpty()) {
+        logger.info("No test classes found.");
+        return;
+      }
+
+      var plan = TestShards.plan(testClasses, new TestHistory(projectDir.toPath()).estimates(), shards);
+      for (var shard : plan) {
+        logger.info("Shard %d: %d test classes, estimated %.1fs".formatted(shard.index(), shard.testClasses().size(),
+            shard.estimate().toMillis() / 1000.0));
+      }
+
+      var reportsDir = projectDir.toPath().resolve(SurefireReports.DEFAULT_DIR);
+      SurefireReports.clear(reportsDir);
+
+      var results = TestShards.run(plan, shard -> {
+        var prefix = "[shard " + shard.index() + "] ";
+        var process = MavenProcess.createTestShardProcessor(projectDir, shard.testClasses())
+            .onLine((channel, line) -> (channel == Channel.STDERR ? System.err : System.out).println(prefix + line));
+        var exitCode = process.run();
+        printStats(process);
+        return exitCode;
+      });
+
+      var suites = SurefireReports.read(reportsDir);
+
+      System.out.println();
+      for (var result : results) {
+        System.out.printf("Shard %d: %d test classes, estimated %.1fs, took %.1fs%s%n", result.shard().index(),
+            result.shard().testClasses().size(), result.shard().estimate().toMillis() / 1000.0,
+            result.duration().toMillis() / 1000.0, result.isSuccess() ? "" : ", FAILED");
+      }
+      System.out.println(SurefireReports.Summary.merge(suites).format());
+
+      var failed = suites.stream().filter(suite -> !suite.isSuccess()).map(SuiteResult::className).collect(Collectors.joining(", "));
+      if (!failed.isEmpty()) {
+        logger.severe("Failed test classes: " + failed);
+      } else if (results.stream().anyMatch(result -> !result.isSuccess())) {
+        logger.severe("A shard failed without failing tests, see its output above.");
+      }
+    } catch (IOException e) {
+      logger.severe("Failed to run the test shards: " + e.getMessage());
+    }
+  }
+
+  private void recordHistory(File projectDir, Instant started) {
+    try {
+      var results = new ArrayList<>(SurefireReports.readTestCases(projectDir.toPath().resolve(SurefireReports.DEFAULT_DIR), started));
+      results.addAll(SurefireReports.readTestCases(projectDir.toPath().resolve(SurefireReports.FAILSAFE_DIR), started));
+      new TestHistory(projectDir.toPath()).append(Instant.now(), results);
+    } catch (IOException e) {
+      logger.fine("Could not record the test history: " + e.getMessage());
+    }
+  }
+
+  private void printReport(File projectDir) {
+    if (!"slow".equals(report)) {
+      logger.severe("Unknown report '" + report + "'. Supported: slow.");
+      return;
+    }
+
+    List<Trend> trends;
+    try {
+      trends = new TestHistory(projectDir.toPath()).trends(runs);
+    } catch (IOException e) {
+      logger.severe("Could not read the test history: " + e.getMessage());
+      return;
+    }
+    if (trends.isEmpty()) {
+      logger.info("No test history yet, it is recorded by every 'project test' run.");
+      return;
+    }
+
+    System.out.printf("Slowest tests over the last %d runs:%n", runs);
+    trends.stream()
+        .sorted(Comparator.comparing(Trend::latest).reversed())
+        .limit(top)
+        .forEach(trend -> System.out.printf("  %7.2fs  %-10s %+5.0f%%  %s%n", trend.latest().toMillis() / 1000.0,
+            sparkline(trend.samples()), trend.change() * 100, trend.test()));
+
+    var threshold = regressionThreshold / 100.0;
+    var regressions = trends.stream()
+        .filter(trend -> trend.isRegression(threshold, MINIMUM_REGRESSION))
+        .sorted(Comparator.comparingDouble(Trend::change).reversed())
+        .toList();
+    System.out.println();
+    if (regressions.isEmpty()) {
+      System.out.printf("No regressions above %d%%.%n", regressionThreshold);
+      return;
+    }
+    System.out.printf("Regressions, more than %d%% slower than the median of the previous runs:%n", regressionThreshold);
+    regressions.forEach(trend -> System.out.printf("  %s  %.2fs -> %.2fs (%+.0f%%)%n", trend.test(),
+        trend.baseline().toMillis() / 1000.0, trend.latest().toMillis() / 1000.0, trend.change() * 100));
+  }
+
+  private static String sparkline(List<Duration> samples) {
+    var min = samples.stream().min(Comparator.naturalOrder()).orElseThrow().toMillis();
+    var max = samples.stream().max(Comparator.naturalOrder()).orElseThrow().toMillis();
+    var line = new StringBuilder();
+    for (var sample : samples) {
+      var level = max == min ? 0 : (int) ((sample.toMillis() - min) * (SPARKS.length() - 1) / (max - min));
+      line.append(SPARKS.charAt(level));
+    }
+    return line.toString();
+  }
+
+  private void printStats(CommandLineProcess process) {
+    if (processStats) {
+      process.stats().ifPresent(stats -> System.err.println(stats.format()));
+    }
   }
 }
@@ -5,63 +5,45 @@ import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.utils.PomUtils;
-import dev.buildcli.core.utils.tools.maven.PomReader;
-import org.jetbrains.annotations.NotNull;
+import dev.buildcli.core.utils.tools.maven.PomEditor;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-@Command(name = "dependency", aliases = {"d"}, description = "Adds a new dependency to the project. Alias: 'd'. "
+@Command(name = "dependency", aliases = {"d"}, description = "Adds one or more dependencies to the project. Alias: 'd'. "
         + "This command allows adding dependencies.", mixinStandardHelpOptions = true)
 public class DependencyCommand implements BuildCLICommand {
   private static final Logger logger = Logger.getLogger(DependencyCommand.class.getName());
-  @Parameters
-  private String dependency;
+  @Parameters(arity = "1..*")
+  private List<String> dependencies;
   @Option(names = {"--manual", "-m"}, description = "Defines if dependency will be added manually or not.")
   Boolean manually;
+  @Option(names = {"--remote", "-r"},
+      description = "Searches Maven Central even when the local repository has matches.")
+  boolean remote;
 
   @Override
   public void run() {
     try {
-      String pomWithAddedDependencies = getPomWithAddedDependencies();
-
-      try {
-        Files.write(Paths.get(MavenConstants.FILE), pomWithAddedDependencies.getBytes());
-        SystemOutLogger.log("Dependency added to pom.xml.");
-      } catch (IOException e) {
-        logger.log(Level.SEVERE, "Error adding dependency to pom.xml", e);
-      }
-
+      var resolved = manually == null
+          ? new DependencySearchService().searchDependencies(dependencies, remote)
+          : dependencies;
+
+      // Every coordinate is checked before the POM is touched, one bad entry leaves it as it was
+      var parsed = resolved.stream().map(PomUtils::convertToDependency).toList();
+      var pomFile = Path.of(MavenConstants.FILE);
+      var editor = PomEditor.read(pomFile);
+      parsed.forEach(editor::addOrUpdateDependency);
+      editor.write(pomFile);
+
+      SystemOutLogger.log(parsed.size() == 1 ? "Dependency added to pom.xml." : parsed.size() + " dependencies added to pom.xml.");
     } catch (Exception e) {
-      logger.log(Level.SEVERE, "Error adding dependency to pom.xml", e);
+      logger.log(Level.SEVERE, "Error adding dependency to pom.xml, pom.xml was not changed", e);
     }
   }
-
-  @NotNull
-  private String getPomWithAddedDependencies() {
-    DependencySearchService service = new DependencySearchService();
-    List<String> dependencies =  List.of(dependency);
-
-    if(manually==null) {
-     dependencies = service.searchDependecy(dependency);
-    }
-    List<String> pomWithAddedDependencies = new ArrayList<>();
-    dependencies.forEach(dep -> {
-      try {
-        pomWithAddedDependencies.add(PomReader.addOrUpdateDependency(MavenConstants.FILE, PomUtils.convertToDependency(dep)));
-      } catch (Exception e) {
-        throw new RuntimeException(e);
-      }
-    });
-
-    return pomWithAddedDependencies.getFirst();
-  }
 }
@@ -3,41 +3,58 @@ package dev.buildcli.cli.commands.project.rm;
 import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.log.SystemOutLogger;
-import dev.buildcli.core.utils.tools.maven.PomReader;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.utils.PomUtils;
+import dev.buildcli.core.utils.tools.maven.PomEditor;
+import dev.buildcli.core.utils.tools.maven.PomModelCache;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Command(name = "dependency", aliases = {"d"}, description = "Removes one or more dependencies from the project's "
         + "pom.xml file.", mixinStandardHelpOptions = true)
 public class DependencyCommand implements BuildCLICommand {
   private final Logger logger = Logger.getLogger(DependencyCommand.class.getName());
-  @Parameters
+  @Parameters(arity = "1..*")
   private String[] dependencies;
 
   @Override
   public void run() {
     try {
-      var pom = PomReader.read(MavenConstants.FILE);
-      var pomData = PomReader.readAsString(MavenConstants.FILE);
-      Stream.of(dependencies).forEach(pom::rmDependency);
-
-      try {
-        String pomContent = pomData.replace(MavenConstants.DEPENDENCIES_PATTERN, pom.getDependencyFormatted());
-        Files.write(Paths.get(MavenConstants.FILE), pomContent.getBytes());
-        SystemOutLogger.log("Dependency removed from pom.xml.");
-      } catch (IOException e) {
-        logger.log(Level.SEVERE, "Error removing dependency from pom.xml", e);
+      // Every coordinate is checked before the POM is touched, one bad entry leaves it as it was
+      var parsed = Stream.of(dependencies).map(PomUtils::convertToDependency).toList();
+      var pomFile = Path.of(MavenConstants.FILE);
+      var declared = PomModelCache.shared().get(pomFile).dependencies().stream()
+          .map(dependency -> dependency.groupId() + ":" + dependency.artifactId())
+          .collect(Collectors.toSet());
+      var found = parsed.stream().collect(Collectors.partitioningBy(dependency -> declared.contains(key(dependency))));
+
+      var missing = found.get(false).stream().map(DependencyCommand::key).collect(Collectors.joining(", "));
+      if (found.get(true).isEmpty()) {
+        logger.severe("Not declared in pom.xml: " + missing + ". pom.xml was not changed.");
+        return;
+      }
+      if (!missing.isEmpty()) {
+        logger.warning("Not declared in pom.xml, skipped: " + missing);
       }
 
+      var editor = PomEditor.read(pomFile);
+      found.get(true).forEach(dependency -> editor.removeDependency(dependency.getGroupId(), dependency.getArtifactId()));
+      editor.write(pomFile);
+
+      var removed = found.get(true).size();
+      SystemOutLogger.log(removed == 1 ? "Dependency removed from pom.xml." : removed + " dependencies removed from pom.xml.");
     } catch (Exception e) {
-      logger.log(Level.SEVERE, "Error removing dependency from pom.xml", e);
+      logger.log(Level.SEVERE, "Error removing dependency from pom.xml, pom.xml was not changed", e);
     }
   }
+
+  private static String key(Dependency dependency) {
+    return dependency.getGroupId() + ":" + dependency.getArtifactId();
+  }
 }
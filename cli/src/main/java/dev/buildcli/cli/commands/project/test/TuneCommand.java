@@ -0,0 +1,90 @@
+package dev.buildcli.cli.commands.project.test;
+
+import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.project.testing.TestTuning;
+import dev.buildcli.core.project.testing.TestTuning.Measurement;
+import dev.buildcli.core.project.testing.TestTuning.Result;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+@Command(name = "tune", description = "Measures the tests with JUnit parallel execution and surefire forkCount/reuseForks settings and writes the fastest stable one to junit-platform.properties and the POM.",
+    mixinStandardHelpOptions = true)
+public class TuneCommand implements BuildCLICommand {
+  private final Logger logger = Logger.getLogger(TuneCommand.class.getName());
+
+  @Option(names = {"--repeat"}, paramLabel = "N", defaultValue = "2", description = "Runs per configuration, the median counts (default: ${DEFAULT-VALUE}).")
+  private int repeat;
+
+  @Option(names = {"--dry-run"}, description = "Only report the measurements, do not change any file.")
+  private boolean dryRun;
+
+  @Override
+  public void run() {
+    if (repeat < 1) {
+      logger.severe("--repeat must be at least 1.");
+      return;
+    }
+
+    var projectDir = new File(".").getAbsoluteFile();
+    var compile = MavenProcess.createProcessor("test-compile", "-f", projectDir.getPath());
+    if (compile.run() != 0) {
+      logger.severe("Failed to compile the tests.");
+      return;
+    }
+
+    try {
+      var tuning = new TestTuning(projectDir.toPath());
+      var forkCount = tuning.configuredForkCount();
+      forkCount.ifPresent(count -> logger.info("forkCount is set to " + count + " in the POM, only the JUnit settings are tuned."));
+
+      var candidates = TestTuning.candidates(Runtime.getRuntime().availableProcessors(), forkCount);
+      logger.info("Measuring %d configurations, %d runs each after one warm-up run.".formatted(candidates.size(), repeat));
+      var result = tuning.measure(candidates, repeat, candidate -> {
+        System.out.println("Running tests with " + candidate.describe());
+        return MavenProcess.createSurefireProcessor(projectDir, candidate.mavenArguments()).run();
+      });
+
+      System.out.println();
+      for (var measurement : result.measurements()) {
+        System.out.printf("  %-45s %s%n", measurement.candidate().describe(), format(result, measurement));
+      }
+      System.out.println();
+
+      if (!result.baseline().stable()) {
+        logger.severe("The tests do not pass without parallelism, fix them before tuning.");
+        return;
+      }
+
+      var best = result.best(TestTuning.DEFAULT_MINIMUM_GAIN);
+      if (best.isEmpty()) {
+        logger.info("No configuration is more than %.0f%% faster than running the tests sequentially, nothing changed."
+            .formatted(TestTuning.DEFAULT_MINIMUM_GAIN * 100));
+        return;
+      }
+
+      var winner = best.get();
+      logger.info("Fastest: %s, %.2fx faster than the baseline (%.1fs -> %.1fs).".formatted(winner.candidate().describe(),
+          result.speedup(winner), result.baseline().median().toMillis() / 1000.0, winner.median().toMillis() / 1000.0));
+      if (dryRun) {
+        return;
+      }
+      tuning.apply(winner.candidate());
+      logger.info("Updated " + TestTuning.JUNIT_PROPERTIES + " and " + MavenConstants.FILE + ".");
+    } catch (IOException e) {
+      logger.severe("Failed to tune the tests: " + e.getMessage());
+    }
+  }
+
+  private static String format(Result result, Measurement measurement) {
+    if (!measurement.stable()) {
+      return "unstable, tests failed or did not all run";
+    }
+    return "%6.1fs  %.2fx".formatted(measurement.median().toMillis() / 1000.0, result.speedup(measurement));
+  }
+}
@@ -1,18 +1,14 @@
 package dev.buildcli.cli.commands.project.update;
 
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-
 import dev.buildcli.cli.commands.project.BuildCommand;
 import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.log.SystemOutLogger;
+import dev.buildcli.core.utils.tools.maven.PomEditor;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -28,23 +24,9 @@ public class JDKCommand implements BuildCLICommand {
     @Override
     public void run() {
         try {
-            var docFactory = DocumentBuilderFactory.newInstance();
-            docFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-            var xmlDoc = docFactory.newDocumentBuilder().parse(MavenConstants.FILE);
-            
-            var node = xmlDoc.getElementsByTagName("maven.compiler.source").item(0);
-            node.setTextContent(version);   
-            
-            var transformFactory = TransformerFactory.newInstance();
-            transformFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-            var transformer = transformFactory.newTransformer();
-
-            try {
-                transformer.transform(new DOMSource(xmlDoc), new StreamResult(MavenConstants.FILE));
-                SystemOutLogger.log("JDK version updated in pom.xml");
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Error updating JDK version in pom.xml", e);
-            }
+            PomEditor.read(Path.of(MavenConstants.FILE)).setProperty("maven.compiler.source", version)
+                .write(Path.of(MavenConstants.FILE));
+            SystemOutLogger.log("JDK version updated in pom.xml");
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error updating JDK version in pom.xml", e);
         }
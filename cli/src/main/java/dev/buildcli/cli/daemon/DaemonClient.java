@@ -0,0 +1,146 @@
+package dev.buildcli.cli.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static dev.buildcli.cli.daemon.DaemonProtocol.*;
+
+/**
+ * Thin client that forwards an invocation to the {@link DaemonServer} of the current directory.
+ * <p>
+ * It only depends on JDK classes so forwarding avoids loading picocli, plugins, hooks and configs.
+ * Set {@value #DISABLE_ENV}=off to always run in-process.
+ */
+public final class DaemonClient {
+  public static final String DISABLE_ENV = "BUILDCLI_DAEMON";
+
+  private DaemonClient() {
+  }
+
+  public static void main(String[] args) {
+    var exitCode = forward(args);
+    if (exitCode.isEmpty()) {
+      System.err.println("No BuildCLI daemon running for " + DaemonPaths.currentWorkDir());
+      System.exit(1);
+    }
+    System.exit(exitCode.getAsInt());
+  }
+
+  /**
+   * Forwards the invocation when a daemon serves the current directory.
+   *
+   * @return the exit code of the remote call, or empty when the call must run in-process
+   */
+  public static OptionalInt forward(String[] args) {
+    if ("off".equalsIgnoreCase(System.getenv(DISABLE_ENV)) || (args.length > 0 && "daemon".equals(args[0]))) {
+      return OptionalInt.empty();
+    }
+
+    var workDir = DaemonPaths.currentWorkDir();
+    var channel = connect(workDir);
+    if (channel.isEmpty()) {
+      return OptionalInt.empty();
+    }
+
+    try (var client = channel.get()) {
+      return OptionalInt.of(call(client, workDir, args, System.in, System.out, System.err));
+    } catch (IOException e) {
+      // The request was already sent, re-running it in-process could execute it twice
+      System.err.println("Lost connection to BuildCLI daemon: " + e.getMessage());
+      return OptionalInt.of(1);
+    }
+  }
+
+  public static Optional<String> status(Path workDir) {
+    return control(workDir, STATUS);
+  }
+
+  public static Optional<String> stop(Path workDir) {
+    return control(workDir, STOP);
+  }
+
+  private static Optional<String> control(Path workDir, byte type) {
+    var channel = connect(workDir);
+    if (channel.isEmpty()) {
+      return Optional.empty();
+    }
+
+    try (var client = channel.get()) {
+      writeFrame(DaemonProtocol.outputStream(client), type, new byte[0]);
+      var frame = readFrame(DaemonProtocol.inputStream(client));
+      return Optional.of(new String(frame.payload(), StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  static Optional<SocketChannel> connect(Path workDir) {
+    var socket = DaemonPaths.socket(workDir);
+    if (!Files.exists(socket)) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(SocketChannel.open(UnixDomainSocketAddress.of(socket)));
+    } catch (IOException e) {
+      // Stale socket left behind by a daemon that was killed
+      return Optional.empty();
+    }
+  }
+
+  static int call(SocketChannel client, Path workDir, String[] args, InputStream stdin, OutputStream stdout,
+                  OutputStream stderr) throws IOException {
+    var in = new BufferedInputStream(DaemonProtocol.inputStream(client));
+    var out = DaemonProtocol.outputStream(client);
+
+    var request = new Request(workDir.toString(), args, System.getenv());
+    writeFrame(out, REQUEST, encodeRequest(request));
+
+    var stdinPump = new Thread(() -> pumpStdin(stdin, out), "buildcli-daemon-stdin");
+    stdinPump.setDaemon(true);
+    stdinPump.start();
+
+    while (true) {
+      var frame = readFrame(in);
+      switch (frame.type()) {
+        case STDOUT -> {
+          stdout.write(frame.payload());
+          stdout.flush();
+        }
+        case STDERR -> {
+          stderr.write(frame.payload());
+          stderr.flush();
+        }
+        case EXIT -> {
+          return decodeExitCode(frame.payload());
+        }
+        default -> throw new IOException("Unexpected daemon frame: " + (char) frame.type());
+      }
+    }
+  }
+
+  private static void pumpStdin(InputStream stdin, OutputStream out) {
+    var buffer = new byte[8192];
+    try {
+      int read;
+      while ((read = stdin.read(buffer)) >= 0) {
+        if (read > 0) {
+          writeFrame(out, STDIN, Arrays.copyOf(buffer, read));
+        }
+      }
+      writeFrame(out, STDIN_EOF, new byte[0]);
+    } catch (IOException e) {
+      // Daemon finished the call and closed the connection
+    }
+  }
+}
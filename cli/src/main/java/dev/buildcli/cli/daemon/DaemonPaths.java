@@ -0,0 +1,61 @@
+package dev.buildcli.cli.daemon;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * File locations used by the resident daemon.
+ * <p>
+ * A JVM cannot change its working directory, so each daemon serves exactly one directory.
+ * Socket, pid and log files are keyed by a hash of the canonical working directory, which lets
+ * clients find "their" daemon and keeps daemons for different projects apart.
+ */
+public final class DaemonPaths {
+  private static final Path DAEMON_DIR = Path.of(System.getProperty("user.home"), ".buildcli", "daemon");
+
+  private DaemonPaths() {
+  }
+
+  public static Path directory() {
+    return DAEMON_DIR;
+  }
+
+  public static Path socket(Path workDir) {
+    return DAEMON_DIR.resolve(key(workDir) + ".sock");
+  }
+
+  public static Path pidFile(Path workDir) {
+    return DAEMON_DIR.resolve(key(workDir) + ".pid");
+  }
+
+  public static Path logFile(Path workDir) {
+    return DAEMON_DIR.resolve(key(workDir) + ".log");
+  }
+
+  public static Path canonical(Path workDir) {
+    try {
+      return workDir.toRealPath();
+    } catch (IOException e) {
+      return workDir.toAbsolutePath().normalize();
+    }
+  }
+
+  public static Path currentWorkDir() {
+    return canonical(Path.of(System.getProperty("user.dir")));
+  }
+
+  private static String key(Path workDir) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256")
+          .digest(canonical(workDir).toString().getBytes(StandardCharsets.UTF_8));
+      // Unix socket paths are limited to ~100 bytes, keep the name short
+      return HexFormat.of().formatHex(digest, 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
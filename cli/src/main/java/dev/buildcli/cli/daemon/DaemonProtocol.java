@@ -0,0 +1,180 @@
+package dev.buildcli.cli.daemon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wire format spoken between {@link DaemonClient} and {@link DaemonServer}.
+ * <p>
+ * Every message is a frame: one type byte, a 4 byte big-endian length and the payload.
+ * A connection starts with a {@link #REQUEST}, {@link #STATUS} or {@link #STOP} frame from the client.
+ * For requests the client then streams {@link #STDIN} frames and the daemon answers with
+ * {@link #STDOUT}/{@link #STDERR} frames terminated by a single {@link #EXIT} frame.
+ */
+public final class DaemonProtocol {
+  public static final byte REQUEST = 'R';
+  public static final byte STATUS = 'S';
+  public static final byte STOP = 'Q';
+  public static final byte STDIN = 'I';
+  public static final byte STDIN_EOF = 'E';
+  public static final byte STDOUT = 'O';
+  public static final byte STDERR = 'e';
+  public static final byte TEXT = 'T';
+  public static final byte EXIT = 'X';
+
+  private static final int MAX_FRAME = 16 * 1024 * 1024;
+
+  private DaemonProtocol() {
+  }
+
+  public record Frame(byte type, byte[] payload) {
+  }
+
+  public record Request(String workDir, String[] args, Map<String, String> env) {
+  }
+
+  public static void writeFrame(OutputStream out, byte type, byte[] payload) throws IOException {
+    var frame = ByteBuffer.allocate(5 + payload.length)
+        .put(type)
+        .putInt(payload.length)
+        .put(payload)
+        .array();
+
+    synchronized (out) {
+      out.write(frame);
+      out.flush();
+    }
+  }
+
+  public static Frame readFrame(InputStream in) throws IOException {
+    var data = new DataInputStream(in);
+    int type = data.read();
+    if (type < 0) {
+      throw new EOFException("Connection closed");
+    }
+
+    int length = data.readInt();
+    if (length < 0 || length > MAX_FRAME) {
+      throw new IOException("Invalid frame length: " + length);
+    }
+
+    var payload = new byte[length];
+    data.readFully(payload);
+    return new Frame((byte) type, payload);
+  }
+
+  public static byte[] encodeRequest(Request request) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var data = new DataOutputStream(bytes);
+
+    data.writeUTF(request.workDir());
+    data.writeInt(request.args().length);
+    for (var arg : request.args()) {
+      data.writeUTF(arg);
+    }
+
+    data.writeInt(request.env().size());
+    for (var entry : request.env().entrySet()) {
+      data.writeUTF(entry.getKey());
+      data.writeUTF(entry.getValue());
+    }
+
+    data.flush();
+    return bytes.toByteArray();
+  }
+
+  public static Request decodeRequest(byte[] payload) throws IOException {
+    var data = new DataInputStream(new ByteArrayInputStream(payload));
+
+    var workDir = data.readUTF();
+    var args = new String[data.readInt()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = data.readUTF();
+    }
+
+    int envSize = data.readInt();
+    var env = new LinkedHashMap<String, String>(envSize);
+    for (int i = 0; i < envSize; i++) {
+      env.put(data.readUTF(), data.readUTF());
+    }
+
+    return new Request(workDir, args, env);
+  }
+
+  public static byte[] encodeExitCode(int exitCode) {
+    return new byte[]{(byte) (exitCode >>> 24), (byte) (exitCode >>> 16), (byte) (exitCode >>> 8), (byte) exitCode};
+  }
+
+  public static int decodeExitCode(byte[] payload) {
+    return ((payload[0] & 0xFF) << 24) | ((payload[1] & 0xFF) << 16) | ((payload[2] & 0xFF) << 8) | (payload[3] & 0xFF);
+  }
+
+  /**
+   * Blocking input stream over a socket channel. Unlike {@code Channels.newInputStream} it does not
+   * take the channel's blocking lock, so one thread can read while another one writes.
+   */
+  public static InputStream inputStream(SocketChannel channel) {
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        var single = new byte[1];
+        int read = read(single, 0, 1);
+        return read < 0 ? -1 : single[0] & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        return len == 0 ? 0 : channel.read(ByteBuffer.wrap(b, off, len));
+      }
+    };
+  }
+
+  public static OutputStream outputStream(SocketChannel channel) {
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        var buffer = ByteBuffer.wrap(b, off, len);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    };
+  }
+
+  /**
+   * Stream that wraps everything written to it into frames of the given type.
+   */
+  public static OutputStream framingStream(OutputStream out, byte type) {
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return;
+        }
+        var chunk = new byte[len];
+        System.arraycopy(b, off, chunk, 0, len);
+        writeFrame(out, type, chunk);
+      }
+    };
+  }
+}
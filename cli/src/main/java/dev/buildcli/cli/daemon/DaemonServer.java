@@ -0,0 +1,233 @@
+package dev.buildcli.cli.daemon;
+
+import dev.buildcli.cli.CommandLineRunner;
+import dev.buildcli.core.domain.configs.BuildCLIConfig;
+import dev.buildcli.core.log.config.LoggingConfig;
+import dev.buildcli.core.utils.CallEnvironment;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+import static dev.buildcli.cli.daemon.DaemonProtocol.*;
+
+/**
+ * Resident BuildCLI process that keeps the JVM, loaded plugins and picocli classes warm and
+ * executes invocations forwarded by {@link DaemonClient} over a Unix domain socket.
+ * <p>
+ * Calls are executed one at a time: stdio, the config cache and the caller's environment are
+ * process-wide state, so they are swapped in for the duration of a call and restored afterwards.
+ * Concurrent clients simply queue on {@link #callLock}. The command tree and the registered plugin
+ * commands stay resident between calls and are only rebuilt when the installed plugins change.
+ */
+public final class DaemonServer {
+  private static final Logger logger = LoggerFactory.getLogger(DaemonServer.class);
+
+  private final Path workDir;
+  private final Path socket;
+  private final ToIntFunction<String[]> calls;
+  private final ReentrantLock callLock = new ReentrantLock(true);
+  private final AtomicLong servedCalls = new AtomicLong();
+  private final Instant startedAt = Instant.now();
+  private volatile boolean running = true;
+  private volatile ServerSocketChannel server;
+
+  public DaemonServer(Path workDir) {
+    this(workDir, CommandLineRunner::execute);
+  }
+
+  /**
+   * @param calls runs the arguments of one call and returns its exit code
+   */
+  DaemonServer(Path workDir, ToIntFunction<String[]> calls) {
+    this.workDir = DaemonPaths.canonical(workDir);
+    this.socket = DaemonPaths.socket(this.workDir);
+    this.calls = calls;
+  }
+
+  public static void main(String[] args) throws IOException {
+    var workDir = Path.of(args.length > 0 ? args[0] : System.getProperty("user.dir"));
+    new DaemonServer(workDir).serve();
+  }
+
+  public void serve() throws IOException {
+    warmUp();
+    listen();
+  }
+
+  /**
+   * Accepts calls until the daemon is stopped.
+   */
+  void listen() throws IOException {
+    Files.createDirectories(DaemonPaths.directory());
+    Files.deleteIfExists(socket);
+
+    try (var channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+      server = channel;
+      channel.bind(UnixDomainSocketAddress.of(socket));
+      Files.writeString(DaemonPaths.pidFile(workDir), String.valueOf(ProcessHandle.current().pid()));
+      logger.info("BuildCLI daemon listening on {} for {}", socket, workDir);
+
+      while (running) {
+        SocketChannel client;
+        try {
+          client = channel.accept();
+        } catch (AsynchronousCloseException e) {
+          break;
+        }
+        ThreadPoolUtils.virtual().submit(() -> handle(client));
+      }
+    } finally {
+      Files.deleteIfExists(socket);
+      Files.deleteIfExists(DaemonPaths.pidFile(workDir));
+      logger.info("BuildCLI daemon for {} stopped", workDir);
+    }
+  }
+
+  private void warmUp() {
+    LoggingConfig.configure();
+    BuildCLIConfig.initialize();
+    // Loads plugins and the picocli model once, later calls only rebuild the cheap command tree
+    CommandLineRunner.createCommandLine();
+  }
+
+  private void handle(SocketChannel client) {
+    try (client) {
+      var in = new BufferedInputStream(DaemonProtocol.inputStream(client));
+      var out = DaemonProtocol.outputStream(client);
+      var frame = readFrame(in);
+
+      switch (frame.type()) {
+        case STATUS -> writeFrame(out, TEXT, status().getBytes(StandardCharsets.UTF_8));
+        case STOP -> stop(out);
+        case REQUEST -> serve(decodeRequest(frame.payload()), in, out);
+        default -> {
+          writeFrame(out, STDERR, ("Unknown daemon frame: " + (char) frame.type()).getBytes(StandardCharsets.UTF_8));
+          writeFrame(out, EXIT, encodeExitCode(1));
+        }
+      }
+    } catch (IOException e) {
+      logger.debug("Daemon client disconnected: {}", e.getMessage());
+    }
+  }
+
+  private void serve(Request request, InputStream in, OutputStream out) throws IOException {
+    var requestDir = DaemonPaths.canonical(Path.of(request.workDir()));
+    if (!requestDir.equals(workDir)) {
+      var message = "This daemon serves %s, not %s%n".formatted(workDir, requestDir);
+      writeFrame(out, STDERR, message.getBytes(StandardCharsets.UTF_8));
+      writeFrame(out, EXIT, encodeExitCode(1));
+      return;
+    }
+
+    var stdin = new PipedInputStream(64 * 1024);
+    var stdinFeed = new PipedOutputStream(stdin);
+    var stdinPump = Thread.ofVirtual().start(() -> pumpStdin(in, stdinFeed));
+
+    int exitCode;
+    callLock.lock();
+    var originalOut = System.out;
+    var originalErr = System.err;
+    var originalIn = System.in;
+    try {
+      var callOut = new PrintStream(framingStream(out, STDOUT), true, StandardCharsets.UTF_8);
+      var callErr = new PrintStream(framingStream(out, STDERR), true, StandardCharsets.UTF_8);
+      System.setOut(callOut);
+      System.setErr(callErr);
+      System.setIn(stdin);
+      CallEnvironment.set(request.env());
+      ConfigContextLoader.reset();
+      // JUL console handlers capture System.err when created, recreate them for this call
+      LoggingConfig.configure();
+
+      try {
+        exitCode = calls.applyAsInt(request.args());
+      } catch (Throwable e) {
+        e.printStackTrace(callErr);
+        exitCode = 1;
+      }
+
+      callOut.flush();
+      callErr.flush();
+    } finally {
+      System.setOut(originalOut);
+      System.setErr(originalErr);
+      System.setIn(originalIn);
+      CallEnvironment.clear();
+      ConfigContextLoader.reset();
+      LoggingConfig.configure();
+      servedCalls.incrementAndGet();
+      callLock.unlock();
+    }
+
+    writeFrame(out, EXIT, encodeExitCode(exitCode));
+    stdinPump.interrupt();
+  }
+
+  private void pumpStdin(InputStream in, PipedOutputStream stdinFeed) {
+    try (stdinFeed) {
+      while (true) {
+        var frame = readFrame(in);
+        if (frame.type() == STDIN_EOF) {
+          return;
+        }
+        if (frame.type() == STDIN) {
+          stdinFeed.write(frame.payload());
+          stdinFeed.flush();
+        }
+      }
+    } catch (IOException e) {
+      // Client closed the connection or the call finished, nothing left to forward
+    }
+  }
+
+  private void stop(OutputStream out) throws IOException {
+    callLock.lock();
+    try {
+      running = false;
+      writeFrame(out, TEXT, "BuildCLI daemon for %s stopped".formatted(workDir).getBytes(StandardCharsets.UTF_8));
+      var channel = server;
+      if (channel != null) {
+        channel.close();
+      }
+    } finally {
+      callLock.unlock();
+    }
+  }
+
+  private String status() {
+    var uptime = Duration.between(startedAt, Instant.now());
+    return """
+        BuildCLI daemon is running
+          pid: %d
+          directory: %s
+          socket: %s
+          uptime: %dh %02dm %02ds
+          calls served: %d
+          busy: %s""".formatted(
+        ProcessHandle.current().pid(), workDir, socket,
+        uptime.toHours(), uptime.toMinutesPart(), uptime.toSecondsPart(),
+        servedCalls.get(), callLock.isLocked());
+  }
+}
@@ -0,0 +1,156 @@
+package dev.buildcli.cli.startup;
+
+import dev.buildcli.cli.CommandLineRunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Dynamic AppCDS archive stored next to the installed BuildCLI jar ({@code buildcli.jar} → {@code buildcli.jsa}).
+ * <p>
+ * The launcher scripts pass the archive to the JVM whenever it exists. HotSpot validates it on every start and
+ * silently falls back to regular class loading when it was dumped by another JDK build or for another jar.
+ * The stamp file records the JDK build and the jar hash, size and timestamp the archive was trained with, so BuildCLI can tell
+ * whether it must be regenerated.
+ */
+public final class StartupArchive {
+  private static final String JAVA_VERSION = "java.version";
+  private static final String JAVA_VM_VERSION = "java.vm.version";
+  private static final String JAR_SHA256 = "jar.sha256";
+  private static final String JAR_SIZE = "jar.size";
+  private static final String JAR_LAST_MODIFIED = "jar.lastModified";
+
+  private final Path jar;
+  private final Path archive;
+  private final Path stamp;
+
+  public StartupArchive(Path jar) {
+    this.jar = jar.toAbsolutePath().normalize();
+    var name = this.jar.getFileName().toString();
+    var baseName = name.endsWith(".jar") ? name.substring(0, name.length() - 4) : name;
+    this.archive = this.jar.resolveSibling(baseName + ".jsa");
+    this.stamp = this.jar.resolveSibling(baseName + ".jsa.properties");
+  }
+
+  /**
+   * @return the archive for the jar this JVM was started from, empty when BuildCLI does not run from a jar
+   */
+  public static Optional<StartupArchive> current() {
+    try {
+      var location = Path.of(CommandLineRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      if (Files.isRegularFile(location) && location.getFileName().toString().endsWith(".jar")) {
+        return Optional.of(new StartupArchive(location));
+      }
+      return Optional.empty();
+    } catch (URISyntaxException | SecurityException e) {
+      return Optional.empty();
+    }
+  }
+
+  public Path jar() {
+    return jar;
+  }
+
+  public Path archive() {
+    return archive;
+  }
+
+  public Path stamp() {
+    return stamp;
+  }
+
+  public boolean exists() {
+    return Files.isRegularFile(archive);
+  }
+
+  /**
+   * @return true when the archive was trained with this JDK build and the current content of the jar
+   */
+  public boolean isCurrent() throws IOException {
+    if (!exists() || !Files.isRegularFile(stamp)) {
+      return false;
+    }
+
+    var recorded = new Properties();
+    try (Reader reader = Files.newBufferedReader(stamp)) {
+      recorded.load(reader);
+    }
+
+    // HotSpot rejects the archive when the jar size or timestamp differ, even if the content is the same
+    return System.getProperty(JAVA_VM_VERSION).equals(recorded.getProperty(JAVA_VM_VERSION))
+        && String.valueOf(Files.size(jar)).equals(recorded.getProperty(JAR_SIZE))
+        && String.valueOf(Files.getLastModifiedTime(jar).toMillis()).equals(recorded.getProperty(JAR_LAST_MODIFIED))
+        && jarHash().equals(recorded.getProperty(JAR_SHA256));
+  }
+
+  public void writeStamp() throws IOException {
+    var properties = new Properties();
+    properties.setProperty(JAVA_VERSION, System.getProperty(JAVA_VERSION));
+    properties.setProperty(JAVA_VM_VERSION, System.getProperty(JAVA_VM_VERSION));
+    properties.setProperty(JAR_SHA256, jarHash());
+    properties.setProperty(JAR_SIZE, String.valueOf(Files.size(jar)));
+    properties.setProperty(JAR_LAST_MODIFIED, String.valueOf(Files.getLastModifiedTime(jar).toMillis()));
+
+    try (Writer writer = Files.newBufferedWriter(stamp)) {
+      properties.store(writer, "BuildCLI class data sharing archive");
+    }
+  }
+
+  public void delete() throws IOException {
+    Files.deleteIfExists(archive);
+    Files.deleteIfExists(stamp);
+  }
+
+  /**
+   * JVM options to use the archive, with CDS logging turned off so a stale archive never pollutes the output.
+   */
+  public List<String> useOptions() {
+    return List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto", "-Xlog:cds=off", "-Xlog:cds+dynamic=off");
+  }
+
+  public List<String> dumpOptions(Path target) {
+    return List.of("-XX:ArchiveClassesAtExit=" + target, "-Xlog:cds=off", "-Xlog:cds+dynamic=off");
+  }
+
+  /**
+   * Drops options of the current JVM that would conflict with using or dumping an archive.
+   */
+  public static List<String> withoutSharingOptions(List<String> jvmOptions) {
+    var options = new ArrayList<String>();
+    for (var option : jvmOptions) {
+      if (option.startsWith("-XX:SharedArchiveFile") || option.startsWith("-XX:ArchiveClassesAtExit")
+          || option.startsWith("-Xshare") || option.startsWith("-Xlog:cds") || option.startsWith("-agentlib")
+          || option.startsWith("-javaagent")) {
+        continue;
+      }
+      options.add(option);
+    }
+    return options;
+  }
+
+  private String jarHash() throws IOException {
+    try (InputStream in = Files.newInputStream(jar)) {
+      var digest = MessageDigest.getInstance("SHA-256");
+      var buffer = new byte[64 * 1024];
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        digest.update(buffer, 0, read);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
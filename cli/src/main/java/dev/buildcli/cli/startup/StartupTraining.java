@@ -0,0 +1,41 @@
+package dev.buildcli.cli.startup;
+
+import dev.buildcli.cli.CommandLineRunner;
+import dev.buildcli.core.log.config.LoggingConfig;
+
+import java.util.List;
+
+/**
+ * Training workload for the class data sharing archive: runs the commands users start most often in a single
+ * JVM so that {@code -XX:ArchiveClassesAtExit} captures the classes all of them load.
+ */
+public final class StartupTraining {
+  public static final List<String[]> COMMANDS = List.of(
+      new String[]{"--help"},
+      new String[]{"version"},
+      new String[]{"config", "list"},
+      new String[]{"project", "--help"},
+      new String[]{"project", "build", "--help"},
+      new String[]{"project", "test", "--help"},
+      new String[]{"run", "--help"},
+      new String[]{"plugin", "list"},
+      new String[]{"doctor", "--help"}
+  );
+
+  private StartupTraining() {
+  }
+
+  public static void main(String[] args) {
+    LoggingConfig.configure();
+
+    for (var command : COMMANDS) {
+      try {
+        CommandLineRunner.execute(command);
+      } catch (RuntimeException e) {
+        // A failing command still loaded most of its classes, keep training with the next one
+      }
+    }
+
+    System.exit(0);
+  }
+}
@@ -0,0 +1,115 @@
+package dev.buildcli.cli.commands.plugin;
+
+import dev.buildcli.core.domain.configs.BuildCLIConfig;
+import dev.buildcli.plugin.BuildCLIPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static dev.buildcli.core.constants.ConfigDefaultConstants.PLUGIN_PATHS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListCommandTest {
+  @TempDir
+  Path root;
+
+  private final PrintStream standardOut = System.out;
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  @BeforeEach
+  void captureOutput() {
+    System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+  }
+
+  @AfterEach
+  void restoreOutput() {
+    System.setOut(standardOut);
+  }
+
+  @Test
+  void listsThePluginsAndReportsTheCorruptJar() throws IOException {
+    pluginJar(root.resolve("plugins/sample.jar"));
+    Files.writeString(root.resolve("plugins/broken.jar"), "not a jar");
+
+    assertEquals(0, list());
+
+    var text = output.toString(StandardCharsets.UTF_8);
+    assertTrue(text.contains("Found 1 plugin(s)"), text);
+    assertTrue(text.contains("sample"), text);
+    assertTrue(text.contains("2.0.0"), text);
+    assertTrue(text.contains("Skipped " + root.resolve("plugins/broken.jar") + ": not a valid BuildCLI plugin"), text);
+  }
+
+  @Test
+  void timingsTellInspectedJarsFromIndexedOnes() throws IOException {
+    pluginJar(root.resolve("plugins/sample.jar"));
+    Files.writeString(root.resolve("plugins/broken.jar"), "not a jar");
+
+    assertEquals(0, list("--timings", "--verbose"));
+    var first = output.toString(StandardCharsets.UTF_8);
+    assertTrue(first.contains("2 jar(s), 0 from cache, 2 inspected"), first);
+    assertTrue(first.indexOf("broken.jar") < first.indexOf("sample.jar"), first);
+
+    output.reset();
+    assertEquals(0, list("--timings", "--verbose"));
+    var second = output.toString(StandardCharsets.UTF_8);
+    assertTrue(second.contains("2 jar(s), 2 from cache, 0 inspected"), second);
+    assertFalse(second.contains("inspected  "), second);
+  }
+
+  @Test
+  void nameOnlyPrintsJustThePluginNames() throws IOException {
+    pluginJar(root.resolve("plugins/sample.jar"));
+    Files.writeString(root.resolve("plugins/broken.jar"), "not a jar");
+
+    assertEquals(0, list("--name-only"));
+
+    assertEquals("sample", output.toString(StandardCharsets.UTF_8).strip());
+  }
+
+  private int list(String... args) {
+    var config = BuildCLIConfig.empty();
+    config.addOrSetProperty(PLUGIN_PATHS, root.resolve("plugins").toString());
+    return new CommandLine(new ListCommand(config, root.resolve("plugin-index.json"))).execute(args);
+  }
+
+  // Registers SamplePlugin as a service, the class itself is found on the test class path
+  private static void pluginJar(Path jar) throws IOException {
+    Files.createDirectories(jar.getParent());
+    try (var out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry("META-INF/services/" + BuildCLIPlugin.class.getName()));
+      out.write(SamplePlugin.class.getName().getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+  }
+
+  public static class SamplePlugin extends BuildCLIPlugin {
+    @Override
+    public String name() {
+      return "sample";
+    }
+
+    @Override
+    public String description() {
+      return "Sample plugin";
+    }
+
+    @Override
+    public String version() {
+      return "2.0.0";
+    }
+  }
+}
@@ -2,17 +2,23 @@ package dev.buildcli.cli.core;
 
 import dev.buildcli.core.domain.git.GitCommandExecutor;
 import dev.buildcli.core.utils.BuildCLIService;
+import dev.buildcli.core.utils.UpdateCheckCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,8 +30,8 @@ class BuildCLIServiceTest {
   @Mock
   private GitCommandExecutor gitExecMock;
 
-  @InjectMocks
-  private BuildCLIService service;
+  @TempDir
+  private Path tempDir;
 
 //TODO: fix this test when BuildCLIService is refactored
   void testWelcome() {
@@ -50,28 +56,106 @@ class BuildCLIServiceTest {
     }
   }
 
-  // TODO BuildCLIService need a refactor to improve testing capacity
-  void checkUpdates_shouldShowOutdatedMessage_whenUpdateAvailable() {
-    when(gitExecMock.checkIfLocalRepositoryIsUpdated(any(), eq(REPO_URL))).thenReturn(false);
+  @Test
+  void checkUpdates_shouldShowOutdatedMessageOnTheNextCommand_whenUpdateAvailable() throws Exception {
+    when(gitExecMock.checkIfLocalRepositoryIsUpdated(eq(GIT_PATH), eq(REPO_URL), anyInt())).thenReturn(false);
+    var file = tempDir.resolve("update-check.properties");
+    useCache(new UpdateCheckCache(file));
+
+    var first = runCommand();
+    assertFalse(first.contains("ATTENTION: Your BuildCLI is outdated!"));
+
+    useCache(new UpdateCheckCache(file));
+    var second = runCommand();
+    assertTrue(second.contains("ATTENTION: Your BuildCLI is outdated!"));
+  }
+
+  @Test
+  void checkUpdates_shouldDoNothing_whenAlreadyUpToDate() throws Exception {
+    when(gitExecMock.checkIfLocalRepositoryIsUpdated(eq(GIT_PATH), eq(REPO_URL), anyInt())).thenReturn(true);
+    useCache(new UpdateCheckCache(tempDir.resolve("update-check.properties")));
+
+    var output = runCommand();
 
+    assertEquals("", output.trim());
+    verify(gitExecMock).checkIfLocalRepositoryIsUpdated(eq(GIT_PATH), eq(REPO_URL), anyInt());
+    verifyNoMoreInteractions(gitExecMock);
   }
 
   @Test
-  void checkUpdates_shouldDoNothing_whenAlreadyUpToDate() {
-    when(gitExecMock.checkIfLocalRepositoryIsUpdated(any(), eq(REPO_URL))).thenReturn(true);
+  void checkUpdates_shouldNotFetch_whenCheckedWithinTtl() {
+    var cache = new UpdateCheckCache(tempDir.resolve("update-check.properties"));
+    cache.markChecked(Instant.now());
+    useCache(cache);
+
+    var output = runCommand();
+
+    assertEquals("", output.trim());
+    verifyNoInteractions(gitExecMock);
+  }
 
+  @Test
+  void checkUpdates_shouldNotWaitForTheCheck() throws Exception {
+    var release = new CountDownLatch(1);
+    when(gitExecMock.checkIfLocalRepositoryIsUpdated(eq(GIT_PATH), eq(REPO_URL), anyInt())).thenAnswer(invocation -> {
+      release.await();
+      return false;
+    });
+    var cache = new UpdateCheckCache(tempDir.resolve("update-check.properties"));
+    useCache(cache);
+
+    var check = BuildCLIService.startUpdateCheck();
+    assertTimeoutPreemptively(Duration.ofSeconds(1), BuildCLIService::checkUpdatesBuildCLIAndUpdate);
+    assertFalse(check.isDone());
+
+    release.countDown();
+    check.get(5, TimeUnit.SECONDS);
+    assertTrue(cache.isUpdateAvailable());
+  }
+
+  @Test
+  void checkUpdates_shouldNotFetchAgain_whenTheLastCheckWasCutShort() throws Exception {
+    var release = new CountDownLatch(1);
+    when(gitExecMock.checkIfLocalRepositoryIsUpdated(eq(GIT_PATH), eq(REPO_URL), anyInt())).thenAnswer(invocation -> {
+      release.await();
+      return true;
+    });
+    var file = tempDir.resolve("update-check.properties");
+    useCache(new UpdateCheckCache(file));
+
+    var running = BuildCLIService.startUpdateCheck();
+    BuildCLIService.awaitUpdateCheck(running, Duration.ofMillis(50));
+    assertFalse(running.isDone());
+
+    // The next command starts while the first fetch never got an answer
+    useCache(new UpdateCheckCache(file));
+    assertTrue(BuildCLIService.startUpdateCheck().isDone());
+
+    release.countDown();
+    running.get(5, TimeUnit.SECONDS);
+    verify(gitExecMock, times(1)).checkIfLocalRepositoryIsUpdated(eq(GIT_PATH), eq(REPO_URL), anyInt());
+  }
+
+  private void useCache(UpdateCheckCache cache) {
+    new BuildCLIService(gitExecMock, GIT_PATH);
+    BuildCLIService.setUpdateCache(cache);
+  }
+
+  /**
+   * What a command prints about updates, once its background check is over.
+   */
+  private String runCommand() {
     var standardOut = System.out;
     var outputStream = new ByteArrayOutputStream();
     System.setOut(new PrintStream(outputStream));
 
     try {
-      service.checkUpdatesBuildCLIAndUpdate();
-
-      assertEquals("", outputStream.toString().trim());
-      verify(gitExecMock).checkIfLocalRepositoryIsUpdated(any(), eq(REPO_URL));
-      verifyNoMoreInteractions(gitExecMock);
+      var check = BuildCLIService.startUpdateCheck();
+      BuildCLIService.checkUpdatesBuildCLIAndUpdate();
+      check.join();
+      return outputStream.toString();
     } finally {
       System.setOut(standardOut);
     }
   }
-}
\ No newline at end of file
+}
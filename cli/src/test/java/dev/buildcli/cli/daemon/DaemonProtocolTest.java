@@ -0,0 +1,50 @@
+package dev.buildcli.cli.daemon;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static dev.buildcli.cli.daemon.DaemonProtocol.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaemonProtocolTest {
+
+  @Test
+  void requestRoundTrip() throws IOException {
+    var request = new Request("/tmp/project", new String[]{"project", "build", "--path", "a b"}, Map.of("HOME", "/home/user"));
+
+    var decoded = decodeRequest(encodeRequest(request));
+
+    assertEquals("/tmp/project", decoded.workDir());
+    assertArrayEquals(request.args(), decoded.args());
+    assertEquals(request.env(), decoded.env());
+  }
+
+  @Test
+  void framesAreReadInOrder() throws IOException {
+    var out = new ByteArrayOutputStream();
+    var stdout = framingStream(out, STDOUT);
+    stdout.write("hello".getBytes(StandardCharsets.UTF_8));
+    writeFrame(out, EXIT, encodeExitCode(3));
+
+    var in = new ByteArrayInputStream(out.toByteArray());
+    var first = readFrame(in);
+    var second = readFrame(in);
+
+    assertEquals(STDOUT, first.type());
+    assertEquals("hello", new String(first.payload(), StandardCharsets.UTF_8));
+    assertEquals(EXIT, second.type());
+    assertEquals(3, decodeExitCode(second.payload()));
+    assertThrows(EOFException.class, () -> readFrame(in));
+  }
+
+  @Test
+  void exitCodeSupportsNegativeValues() {
+    assertEquals(-1, decodeExitCode(encodeExitCode(-1)));
+  }
+}
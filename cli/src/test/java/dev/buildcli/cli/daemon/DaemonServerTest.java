@@ -0,0 +1,78 @@
+package dev.buildcli.cli.daemon;
+
+import dev.buildcli.core.actions.commandline.JavaProcess;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisabledOnOs(OS.WINDOWS)
+class DaemonServerTest {
+  @TempDir
+  Path workDir;
+
+  private Thread server;
+
+  @AfterEach
+  void stopServer() throws InterruptedException {
+    DaemonClient.stop(workDir);
+    if (server != null) {
+      server.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  @Test
+  void childProcessesTalkToTheClientNotToTheDaemon() throws Exception {
+    var classpath = Path.of(Greeter.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    start(new DaemonServer(workDir, args -> JavaProcess.createRunCompiledClassProcess(classpath, Greeter.class.getName())
+        .timeout(Duration.ofSeconds(30)).run()));
+
+    var stdout = new ByteArrayOutputStream();
+    var stderr = new ByteArrayOutputStream();
+    var stdin = new ByteArrayInputStream("BuildCLI\n".getBytes(StandardCharsets.UTF_8));
+    int exitCode;
+    try (var client = DaemonClient.connect(workDir).orElseThrow()) {
+      exitCode = DaemonClient.call(client, DaemonPaths.canonical(workDir), new String[]{"run"}, stdin, stdout, stderr);
+    }
+
+    assertEquals(0, exitCode);
+    assertEquals("Hello BuildCLI", stdout.toString(StandardCharsets.UTF_8).strip());
+    assertTrue(stderr.toString(StandardCharsets.UTF_8).contains("greeted"), stderr.toString(StandardCharsets.UTF_8));
+  }
+
+  private void start(DaemonServer daemon) throws InterruptedException {
+    server = Thread.ofVirtual().start(() -> {
+      try {
+        daemon.listen();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    for (int i = 0; i < 100 && DaemonClient.status(workDir).isEmpty(); i++) {
+      Thread.sleep(50);
+    }
+  }
+
+  public static class Greeter {
+    public static void main(String[] args) throws IOException {
+      var name = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+      System.out.println("Hello " + name);
+      System.err.println("greeted " + name);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package dev.buildcli.cli.startup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupArchiveTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldPlaceArchiveNextToJar() {
+    var archive = new StartupArchive(tempDir.resolve("buildcli.jar"));
+
+    assertEquals(tempDir.resolve("buildcli.jsa"), archive.archive());
+    assertEquals(tempDir.resolve("buildcli.jsa.properties"), archive.stamp());
+  }
+
+  @Test
+  void shouldBeCurrent_onlyUntilJarChanges() throws Exception {
+    var jar = Files.writeString(tempDir.resolve("buildcli.jar"), "first");
+    var archive = new StartupArchive(jar);
+    assertFalse(archive.isCurrent());
+
+    Files.writeString(archive.archive(), "archive");
+    archive.writeStamp();
+    assertTrue(archive.isCurrent());
+
+    Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+    assertFalse(archive.isCurrent());
+
+    archive.writeStamp();
+    Files.writeString(jar, "other");
+    Files.setLastModifiedTime(jar, FileTime.fromMillis(0));
+    assertFalse(archive.isCurrent());
+  }
+
+  @Test
+  void shouldDeleteArchiveAndStamp() throws Exception {
+    var archive = new StartupArchive(Files.writeString(tempDir.resolve("buildcli.jar"), "jar"));
+    Files.writeString(archive.archive(), "archive");
+    archive.writeStamp();
+
+    archive.delete();
+
+    assertFalse(archive.exists());
+    assertFalse(Files.exists(archive.stamp()));
+  }
+
+  @Test
+  void shouldDropSharingOptions() {
+    var options = List.of("--enable-preview", "-XX:SharedArchiveFile=/a.jsa", "-Xshare:auto", "-Xlog:cds=off", "-Xmx1024M");
+
+    assertEquals(List.of("--enable-preview", "-Xmx1024M"), StartupArchive.withoutSharingOptions(options));
+  }
+}
@@ -1,59 +1,206 @@
 package dev.buildcli.core.actions.commandline;
 
-import java.io.BufferedReader;
+import dev.buildcli.core.utils.CallEnvironment;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static dev.buildcli.core.constants.ConfigDefaultConstants.PROCESS_TIMEOUT;
 
 public abstract class AbstractCommandLineProcess implements CommandLineProcess {
+  private static final Logger logger = LoggerFactory.getLogger(AbstractCommandLineProcess.class);
+  public static final int DEFAULT_BUFFER_LINES = 10_000;
+
   protected final List<String> commands = new ArrayList<>();
-  private BufferedReader reader = null;
+  private final List<LineListener> listeners = new ArrayList<>();
   private final boolean printOutput;
+  private int bufferLines = DEFAULT_BUFFER_LINES;
+  private Duration timeout;
+  private volatile RunningProcess running;
+  private volatile boolean cancelled;
+  private int result;
+  private ProcessStats stats;
+  private List<String> launched;
 
   protected AbstractCommandLineProcess(String mainCommand, boolean printOutput) {
     commands.add(mainCommand);
     this.printOutput = printOutput;
   }
 
+  /**
+   * Registers a listener notified of every output line while the process runs. Has no effect on processes that
+   * print their output, those inherit the terminal and are never read.
+   */
+  public AbstractCommandLineProcess onLine(LineListener listener) {
+    listeners.add(listener);
+    return this;
+  }
+
+  /**
+   * Sets how many lines of each stream are kept for {@link #stdout()}, {@link #stderr()} and {@link #output()}.
+   */
+  public AbstractCommandLineProcess bufferLines(int bufferLines) {
+    if (bufferLines <= 0) {
+      throw new IllegalArgumentException("bufferLines must be greater than 0");
+    }
+    this.bufferLines = bufferLines;
+    return this;
+  }
+
+  /**
+   * Overrides the {@code buildcli.process.timeout} setting for this process.
+   */
   @Override
-  public int run() {
-    try {
-      var processBuilder = new ProcessBuilder(commands);
+  public AbstractCommandLineProcess timeout(Duration timeout) {
+    this.timeout = timeout == null ? Duration.ZERO : timeout;
+    return this;
+  }
 
-      if (printOutput) {
-        processBuilder.inheritIO();
-      }
+  @Override
+  public void cancel() {
+    cancelled = true;
+    var current = running;
+    if (current != null) {
+      current.destroyTree(ProcessTree.DEFAULT_GRACE);
+    }
+  }
+
+  @Override
+  public Optional<ProcessStats> stats() {
+    return Optional.ofNullable(stats);
+  }
+
+  /**
+   * Starts the process without waiting for it, its output is drained in the background.
+   */
+  public RunningProcess start() throws IOException {
+    return start(false);
+  }
+
+  protected RunningProcess start(boolean liveView) throws IOException {
+    launched = List.copyOf(launchCommands());
+    var processBuilder = new ProcessBuilder(launched);
+
+    if (CallEnvironment.isOverridden()) {
+      processBuilder.environment().clear();
+      processBuilder.environment().putAll(CallEnvironment.all());
+    }
+
+    if (printOutput && CallEnvironment.isOverridden()) {
+      // The file descriptors of this JVM belong to the daemon, the caller's terminal is behind System.out/err/in
+      var forwarding = new RunningProcess.Forwarding(System.out, System.err, System.in);
+      running = new RunningProcess(processBuilder.start(), false, listeners, bufferLines, liveView, forwarding);
+      return running;
+    }
+    if (printOutput) {
+      processBuilder.inheritIO();
+    }
+
+    running = new RunningProcess(processBuilder.start(), !printOutput, listeners, bufferLines, liveView);
+    return running;
+  }
 
-      var process = processBuilder.start();
+  @Override
+  public int run() {
+    stats = null;
+    cancelled = false;
 
-      var result = process.waitFor();
+    RunningProcess process;
+    try {
+      process = start();
+    } catch (IOException e) {
+      logger.debug("Could not start {}: {}", commands.getFirst(), e.getMessage());
+      result = -1;
+      stats = new ProcessStats(commandLine(), -1, result, ExitReason.NOT_STARTED, Duration.ZERO, null, -1, 0);
+      return result;
+    }
 
-      if (result != 0) {
-        reader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
+    var reason = ExitReason.COMPLETED;
+    try {
+      var limit = effectiveTimeout();
+      if (limit.isZero() || process.waitFor(limit.toNanos(), TimeUnit.NANOSECONDS)) {
+        result = process.waitFor();
       } else {
-        reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        logger.warn("{} exceeded its timeout of {}s, stopping it", commands.getFirst(), limit.toSeconds());
+        reason = ExitReason.TIMED_OUT;
+        process.destroyTree(ProcessTree.DEFAULT_GRACE);
+        process.waitFor();
+        result = -1;
       }
+    } catch (InterruptedException e) {
+      reason = ExitReason.INTERRUPTED;
+      process.destroyTree(ProcessTree.DEFAULT_GRACE);
+      Thread.currentThread().interrupt();
+      result = -1;
+    }
 
-      return result;
-    } catch (InterruptedException | IOException e) {
-      return -1;
+    if (cancelled && reason == ExitReason.COMPLETED) {
+      reason = ExitReason.CANCELLED;
+      result = -1;
+    } else if (reason == ExitReason.COMPLETED && result != 0) {
+      reason = ExitReason.FAILED;
     }
+
+    stats = process.stats(commandLine(), result, reason);
+    return result;
   }
 
+  /**
+   * Starts the process and returns its stdout and stderr lines as they are produced. The stream ends when the
+   * process closes its output, {@link #stdout()} and {@link #stderr()} are available afterwards.
+   */
+  public Stream<String> lines() throws IOException {
+    return start(true).lines();
+  }
+
+  /**
+   * @return stdout when the process succeeded, stderr otherwise
+   */
   @Override
   public List<String> output() {
-    var lines = new ArrayList<String>();
+    return result == 0 ? stdout() : stderr();
+  }
 
-    try {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        lines.add(line);
-      }
-    } catch (IOException e) {
-      e.printStackTrace();
+  public List<String> stdout() {
+    return running == null ? List.of() : running.stdout();
+  }
+
+  public List<String> stderr() {
+    return running == null ? List.of() : running.stderr();
+  }
+
+  /**
+   * @return the command line actually started, subclasses may swap the executable, e.g. for a build daemon
+   */
+  protected List<String> launchCommands() {
+    return commands;
+  }
+
+  /**
+   * @return true when the last run went to a long-lived daemon instead of a fresh JVM
+   */
+  public boolean isWarm() {
+    return false;
+  }
+
+  private Duration effectiveTimeout() {
+    if (timeout != null) {
+      return timeout.isNegative() ? Duration.ZERO : timeout;
     }
 
-    return lines;
+    var seconds = ConfigContextLoader.getAllConfigs().getPropertyAsInt(PROCESS_TIMEOUT).orElse(0);
+    return seconds > 0 ? Duration.ofSeconds(seconds) : Duration.ZERO;
+  }
+
+  private String commandLine() {
+    return String.join(" ", launched != null ? launched : commands);
   }
 }
@@ -1,8 +1,26 @@
 package dev.buildcli.core.actions.commandline;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommandLineProcess {
   int run();
   List<String> output();
+
+  /**
+   * Kills the process tree when {@link #run()} takes longer than {@code timeout}, a null or non positive timeout
+   * means no limit.
+   */
+  CommandLineProcess timeout(Duration timeout);
+
+  /**
+   * Kills the running process and its descendants, {@link #run()} then returns with {@link ExitReason#CANCELLED}.
+   */
+  void cancel();
+
+  /**
+   * @return what the last {@link #run()} cost, empty before it finished
+   */
+  Optional<ProcessStats> stats();
 }
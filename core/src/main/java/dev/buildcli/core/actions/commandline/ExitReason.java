@@ -0,0 +1,16 @@
+package dev.buildcli.core.actions.commandline;
+
+public enum ExitReason {
+  /** Exited on its own with code 0. */
+  COMPLETED,
+  /** Exited on its own with a non zero code. */
+  FAILED,
+  /** Killed because it ran longer than its timeout. */
+  TIMED_OUT,
+  /** Killed through {@link CommandLineProcess#cancel()}. */
+  CANCELLED,
+  /** Killed because the waiting thread was interrupted. */
+  INTERRUPTED,
+  /** The executable could not be started. */
+  NOT_STARTED
+}
@@ -1,32 +1,79 @@
 package dev.buildcli.core.actions.commandline;
 
 import dev.buildcli.core.constants.GradleConstants;
+import dev.buildcli.core.utils.tools.BuildDaemons;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class GradleProcess extends AbstractCommandLineProcess {
   private static final Logger logger = LoggerFactory.getLogger(GradleProcess.class);
+  // Builds may go through the project wrapper and daemon, tool probes such as --version must not
+  private File projectDir;
+  private boolean warm;
+
   private GradleProcess(boolean printOutput) {
     super(GradleConstants.GRADLE_CMD, printOutput);
   }
 
   public static GradleProcess createProcessor(String... tasks) {
+    return createProcessor(new File("."), tasks);
+  }
+
+  private static GradleProcess createProcessor(File directory, String... tasks) {
     var processor = new GradleProcess(true);
+    processor.projectDir = directory;
     processor.commands.addAll(Arrays.asList(tasks));
     return processor;
   }
 
   public static GradleProcess createPackageProcessor(File directory) {
     logger.info("Running gradle package command: {}", String.join(" ", "gradle", "clean", "build", "-f", directory.getAbsolutePath()));
-    return createProcessor("clean", "build", "-f", directory.getAbsolutePath());
+    return createProcessor(directory, "clean", "build", "-f", directory.getAbsolutePath());
+  }
+
+  /**
+   * @param clean false to reuse the outputs of the previous build, for incremental builds
+   */
+  public static GradleProcess createPackageProcessor(File directory, boolean clean) {
+    return clean ? createPackageProcessor(directory) : createIncrementalProcessor(directory, "build");
   }
 
   public static GradleProcess createCompileProcessor(File directory) {
     logger.info("Running gradle compile command: {}", String.join(" ", "gradle", "clean", "classes", "-f", directory.getAbsolutePath()));
-    return createProcessor("clean", "classes", "-f", directory.getAbsolutePath());
+    return createProcessor(directory, "clean", "classes", "-f", directory.getAbsolutePath());
+  }
+
+  public static GradleProcess createCompileProcessor(File directory, boolean clean) {
+    return clean ? createCompileProcessor(directory) : createIncrementalProcessor(directory, "classes");
+  }
+
+  private static GradleProcess createIncrementalProcessor(File directory, String task) {
+    logger.info("Running gradle {} command without clean: {}", task, String.join(" ", "gradle", task, "-f", directory.getAbsolutePath()));
+    return createProcessor(directory, task, "-f", directory.getAbsolutePath());
+  }
+
+  @Override
+  protected List<String> launchCommands() {
+    if (projectDir == null) {
+      return commands;
+    }
+
+    var launch = BuildDaemons.gradle(projectDir);
+    warm = launch.warm();
+
+    var resolved = new ArrayList<>(launch.command());
+    resolved.addAll(commands.subList(1, commands.size()));
+    return resolved;
+  }
+
+  @Override
+  public boolean isWarm() {
+    return warm;
   }
 
   public static GradleProcess createGetVersionProcess() {
@@ -1,5 +1,9 @@
 package dev.buildcli.core.actions.commandline;
 
+import dev.buildcli.core.utils.OS;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
@@ -7,7 +11,11 @@ import java.util.List;
 public class JavaProcess extends AbstractCommandLineProcess {
 
   private JavaProcess(boolean printOutput) {
-    super("java", printOutput);
+    this("java", printOutput);
+  }
+
+  private JavaProcess(String executable, boolean printOutput) {
+    super(executable, printOutput);
   }
 
 
@@ -33,6 +41,34 @@ public class JavaProcess extends AbstractCommandLineProcess {
     return createProcess(absolutePath, mergeArgs(args));
   }
 
+  /**
+   * Runs {@code mainClass} from an explicit classpath, every argument is passed on as is.
+   */
+  public static JavaProcess createRunMainClassProcess(String classpath, String mainClass, String... args) {
+    var process = new JavaProcess(true);
+
+    process.commands.addAll(List.of("-cp", classpath, mainClass));
+    if (args != null) {
+      process.commands.addAll(List.of(args));
+    }
+    return process;
+  }
+
+  /**
+   * Like {@link #createRunMainClassProcess(String, String, String...)} but on the JDK BuildCLI itself runs on, for
+   * classes BuildCLI compiled in-process and that a different {@code java} on the PATH might not be able to load.
+   */
+  public static JavaProcess createRunCompiledClassProcess(String classpath, String mainClass, String... args) {
+    var java = Path.of(System.getProperty("java.home"), "bin", OS.isWindows() ? "java.exe" : "java");
+    var process = new JavaProcess(Files.isExecutable(java) ? java.toString() : "java", true);
+
+    process.commands.addAll(List.of("-cp", classpath, mainClass));
+    if (args != null) {
+      process.commands.addAll(List.of(args));
+    }
+    return process;
+  }
+
   private static String mergeArgs(String...args) {
     return Arrays.stream(args).reduce((a, b) -> a + " " + b).orElse("");
   }
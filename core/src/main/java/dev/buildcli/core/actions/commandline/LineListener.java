@@ -0,0 +1,14 @@
+package dev.buildcli.core.actions.commandline;
+
+/**
+ * Receives every line of a running process as soon as it is read. Listeners are called from the pump thread of
+ * the stream, so they must be fast and thread-safe when registered for both streams.
+ */
+@FunctionalInterface
+public interface LineListener {
+  enum Channel {
+    STDOUT, STDERR
+  }
+
+  void onLine(Channel channel, String line);
+}
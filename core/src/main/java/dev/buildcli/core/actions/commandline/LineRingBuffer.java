@@ -0,0 +1,59 @@
+package dev.buildcli.core.actions.commandline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread-safe buffer keeping the last {@code capacity} lines written to it, older lines are dropped so a very
+ * chatty process can never exhaust the heap.
+ */
+public class LineRingBuffer {
+  private final String[] lines;
+  private int next;
+  private int size;
+  private long dropped;
+
+  public LineRingBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be greater than 0");
+    }
+    this.lines = new String[capacity];
+  }
+
+  public synchronized void add(String line) {
+    if (size == lines.length) {
+      dropped++;
+    } else {
+      size++;
+    }
+    lines[next] = line;
+    next = (next + 1) % lines.length;
+  }
+
+  /**
+   * @return the retained lines, oldest first
+   */
+  public synchronized List<String> lines() {
+    var result = new ArrayList<String>(size);
+    var first = (next - size + lines.length) % lines.length;
+    for (int i = 0; i < size; i++) {
+      result.add(lines[(first + i) % lines.length]);
+    }
+    return result;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * @return how many lines were discarded because the buffer was full
+   */
+  public synchronized long dropped() {
+    return dropped;
+  }
+
+  public int capacity() {
+    return lines.length;
+  }
+}
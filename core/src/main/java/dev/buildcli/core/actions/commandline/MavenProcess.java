@@ -1,34 +1,128 @@
 package dev.buildcli.core.actions.commandline;
 
 import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.tools.BuildDaemons;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class MavenProcess extends AbstractCommandLineProcess {
   private static final Logger logger = LoggerFactory.getLogger(MavenProcess.class);
+  // Builds may run in mvnd, tool probes such as -v must always describe the plain mvn installation
+  private boolean build;
+  private boolean warm;
+
   private MavenProcess(boolean printOutput) {
     super(MavenConstants.MAVEN_CMD, printOutput);
   }
 
   public static MavenProcess createProcessor(String... goals) {
     var processor = new MavenProcess(true);
+    processor.build = true;
     processor.commands.addAll(Arrays.asList(goals));
     return processor;
   }
 
+  @Override
+  protected List<String> launchCommands() {
+    if (!build) {
+      return commands;
+    }
+
+    var launch = BuildDaemons.maven();
+    warm = launch.warm();
+
+    var resolved = new ArrayList<>(launch.command());
+    resolved.addAll(commands.subList(1, commands.size()));
+    return resolved;
+  }
+
+  @Override
+  public boolean isWarm() {
+    return warm;
+  }
+
   public static MavenProcess createPackageProcessor(File directory) {
     logger.info("Running maven package command: {}", String.join(" ", "mvn", "clean", "package", "-f", directory.getAbsolutePath()));
     return createProcessor("clean", "package", "-f", directory.getAbsolutePath());
   }
 
+  /**
+   * @param clean false to reuse the outputs of the previous build, for incremental builds
+   */
+  public static MavenProcess createPackageProcessor(File directory, boolean clean) {
+    return clean ? createPackageProcessor(directory) : createIncrementalProcessor(directory, "package");
+  }
+
   public static MavenProcess createCompileProcessor(File directory) {
     logger.info("Running maven compile command: {}", String.join(" ", "mvn", "compile", "-f", directory.getAbsolutePath()));
     return createProcessor("clean", "compile", "-f", directory.getAbsolutePath());
   }
 
+  public static MavenProcess createCompileProcessor(File directory, boolean clean) {
+    return clean ? createCompileProcessor(directory) : createIncrementalProcessor(directory, "compile");
+  }
+
+  private static MavenProcess createIncrementalProcessor(File directory, String goal) {
+    logger.info("Running maven {} command without clean: {}", goal, String.join(" ", "mvn", goal, "-f", directory.getAbsolutePath()));
+    return createProcessor(goal, "-f", directory.getAbsolutePath());
+  }
+
+  /**
+   * Builds one module of a multi-module project on its own, without recursing into the modules it declares. Output
+   * is not printed so several modules can build at once, register a {@link #onLine} listener to show it.
+   *
+   * @param goal {@code install} for modules other modules depend on, they are resolved from the local repository
+   */
+  public static MavenProcess createModuleProcessor(File moduleDirectory, String goal) {
+    var pom = new File(moduleDirectory, MavenConstants.FILE).getAbsolutePath();
+    logger.debug("Running maven module build: {}", String.join(" ", "mvn", "-B", "-N", "clean", goal, "-f", pom));
+
+    var processor = new MavenProcess(false);
+    processor.build = true;
+    processor.commands.addAll(List.of("-B", "-N", "clean", goal, "-f", pom));
+    return processor;
+  }
+
+  /**
+   * Runs the given, already compiled, test classes with surefire and nothing else, so several of these can share
+   * one project directory. Output is not printed, register a {@link #onLine} listener to show it.
+   */
+  public static MavenProcess createTestShardProcessor(File directory, List<String> testClasses) {
+    return createSurefireProcessor(directory, List.of("-Dtest=" + String.join(",", testClasses),
+        "-Dsurefire.failIfNoSpecifiedTests=false"));
+  }
+
+  /**
+   * Runs the already compiled tests with surefire and nothing else. Output is not printed, register a
+   * {@link #onLine} listener to show it.
+   *
+   * @param arguments extra arguments, e.g. {@code -D} properties for surefire or the test JVMs
+   */
+  public static MavenProcess createSurefireProcessor(File directory, List<String> arguments) {
+    var processor = new MavenProcess(false);
+    processor.build = true;
+    processor.commands.addAll(List.of("-B", "surefire:test"));
+    processor.commands.addAll(arguments);
+    processor.commands.addAll(List.of("-f", directory.getAbsolutePath()));
+    return processor;
+  }
+
+  /**
+   * Writes the runtime classpath of the project, without its own classes, to {@code outputFile}.
+   */
+  public static MavenProcess createBuildClasspathProcessor(File directory, File outputFile) {
+    var processor = new MavenProcess(false);
+    processor.build = true;
+    processor.commands.addAll(List.of("-q", "dependency:build-classpath", "-Dmdep.includeScope=runtime",
+        "-Dmdep.outputFile=" + outputFile.getAbsolutePath(), "-f", directory.getAbsolutePath()));
+    return processor;
+  }
+
   public static MavenProcess createGetVersionProcessor() {
     var processor = new MavenProcess(false);
 
@@ -0,0 +1,102 @@
+package dev.buildcli.core.actions.commandline;
+
+import dev.buildcli.core.utils.OS;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Periodically samples CPU time and resident memory of a process tree on a virtual thread.
+ */
+class ProcessSampler {
+  static final Duration INTERVAL = Duration.ofMillis(100);
+
+  private final ProcessHandle root;
+  private final boolean procfs = OS.isLinux() && Files.isDirectory(Path.of("/proc/self"));
+  private final Map<Long, Duration> cpuByPid = new HashMap<>();
+  private long peakRss = -1;
+  private boolean sampled;
+
+  ProcessSampler(ProcessHandle root) {
+    this.root = root;
+  }
+
+  void start() {
+    ThreadPoolUtils.virtual().execute(() -> {
+      try {
+        while (root.isAlive()) {
+          sample();
+          Thread.sleep(INTERVAL);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+  }
+
+  synchronized void sample() {
+    long rss = 0;
+    var any = false;
+    for (var handle : (Iterable<ProcessHandle>) Stream.concat(Stream.of(root), root.descendants())::iterator) {
+      if (!handle.isAlive()) {
+        continue;
+      }
+      any = true;
+      handle.info().totalCpuDuration().ifPresent(cpu -> cpuByPid.merge(handle.pid(), cpu, (a, b) -> a.compareTo(b) >= 0 ? a : b));
+
+      if (procfs) {
+        var status = readStatus(handle.pid());
+        rss += status.getOrDefault("VmRSS", 0L);
+        // The high water mark of a single process also catches peaks between two samples
+        peakRss = Math.max(peakRss, status.getOrDefault("VmHWM", -1L));
+      }
+    }
+
+    if (any) {
+      sampled = true;
+      if (procfs) {
+        peakRss = Math.max(peakRss, rss);
+      }
+    }
+  }
+
+  synchronized Duration cpuTime() {
+    if (!sampled || cpuByPid.isEmpty()) {
+      return null;
+    }
+    return cpuByPid.values().stream().reduce(Duration.ZERO, Duration::plus);
+  }
+
+  synchronized long peakRssBytes() {
+    return peakRss;
+  }
+
+  synchronized int processCount() {
+    return Math.max(1, cpuByPid.size());
+  }
+
+  /**
+   * @return memory lines of /proc/&lt;pid&gt;/status in bytes
+   */
+  private static Map<String, Long> readStatus(long pid) {
+    var values = new HashMap<String, Long>();
+    try (var lines = Files.lines(Path.of("/proc", Long.toString(pid), "status"))) {
+      lines.filter(line -> line.startsWith("VmRSS:") || line.startsWith("VmHWM:"))
+          .forEach(line -> {
+            var parts = line.split("\\s+");
+            if (parts.length >= 2) {
+              values.put(parts[0].substring(0, parts[0].length() - 1), Long.parseLong(parts[1]) * 1024);
+            }
+          });
+    } catch (IOException | RuntimeException ignored) {
+      // The process exited between listing and reading
+    }
+    return values;
+  }
+}
@@ -0,0 +1,52 @@
+package dev.buildcli.core.actions.commandline;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Resources used by a finished process and its descendants.
+ * <p>
+ * CPU time and memory are sampled while the process runs, so descendants living shorter than the sampling
+ * interval may be missed. {@code peakRssBytes} is -1 when the platform does not expose it (anything but Linux),
+ * {@code cpuTime} is null when the process could not be sampled at all.
+ */
+public record ProcessStats(String command, long pid, int exitCode, ExitReason exitReason, Duration wallTime,
+                           Duration cpuTime, long peakRssBytes, int processCount) {
+
+  public Optional<Duration> cpu() {
+    return Optional.ofNullable(cpuTime);
+  }
+
+  public Optional<Long> peakRss() {
+    return peakRssBytes < 0 ? Optional.empty() : Optional.of(peakRssBytes);
+  }
+
+  public String format() {
+    var cpu = cpu().map(ProcessStats::formatDuration).orElse("n/a");
+    var rss = peakRss().map(ProcessStats::formatBytes).orElse("n/a");
+
+    return """
+        Process: %s
+          pid:       %d
+          exit:      %s (code %d)
+          wall time: %s
+          cpu time:  %s
+          peak rss:  %s
+          processes: %d""".formatted(command, pid, exitReason, exitCode, formatDuration(wallTime), cpu, rss, processCount);
+  }
+
+  static String formatDuration(Duration duration) {
+    return String.format(Locale.ROOT, "%.3fs", duration.toNanos() / 1_000_000_000.0);
+  }
+
+  static String formatBytes(long bytes) {
+    if (bytes < 1024) {
+      return bytes + " B";
+    }
+    if (bytes < 1024 * 1024) {
+      return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+    }
+    return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+  }
+}
@@ -0,0 +1,48 @@
+package dev.buildcli.core.actions.commandline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terminates a process together with everything it spawned. Build tools fork compilers, test JVMs and daemons, and
+ * killing only the direct child leaves them running as orphans.
+ */
+public final class ProcessTree {
+  private static final Logger logger = LoggerFactory.getLogger(ProcessTree.class);
+  public static final Duration DEFAULT_GRACE = Duration.ofSeconds(5);
+
+  private ProcessTree() {
+  }
+
+  /**
+   * Asks the process and its descendants to stop, then kills whatever is still alive after {@code grace}.
+   */
+  public static void kill(ProcessHandle root, Duration grace) {
+    // Snapshot first, descendants are re-parented and no longer reachable once the root is gone
+    var tree = new ArrayList<ProcessHandle>();
+    root.descendants().forEach(tree::add);
+    tree.add(root);
+
+    tree.forEach(ProcessHandle::destroy);
+
+    var deadline = System.nanoTime() + grace.toNanos();
+    for (var handle : tree) {
+      var remaining = deadline - System.nanoTime();
+      try {
+        if (remaining > 0) {
+          handle.onExit().get(remaining, TimeUnit.NANOSECONDS);
+        }
+      } catch (Exception ignored) {
+        // Still alive, killed forcibly below
+      }
+      if (handle.isAlive()) {
+        logger.debug("Process {} ignored termination request, killing it", handle.pid());
+        handle.destroyForcibly();
+      }
+    }
+  }
+}
@@ -0,0 +1,309 @@
+package dev.buildcli.core.actions.commandline;
+
+import dev.buildcli.core.actions.commandline.LineListener.Channel;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A started process whose stdout and stderr are drained concurrently on virtual threads while it runs, so it can
+ * never block on a full pipe. Lines are kept in bounded {@link LineRingBuffer}s and handed to the registered
+ * {@link LineListener}s as they arrive.
+ */
+public class RunningProcess {
+  private static final Logger logger = LoggerFactory.getLogger(RunningProcess.class);
+  // Grandchildren can inherit the pipes and keep them open after the process itself exited
+  private static final long PUMP_GRACE_MILLIS = 2_000;
+  private static final Object END = new Object();
+
+  private final Process process;
+  private final List<LineListener> listeners;
+  private final LineRingBuffer stdout;
+  private final LineRingBuffer stderr;
+  private final CountDownLatch pumps;
+  private final BlockingQueue<Object> live;
+  private final ProcessSampler sampler;
+  private final long startedAt = System.nanoTime();
+  private volatile long exitedAt;
+
+  /**
+   * Where the output of a process that prints its output goes, and where its input comes from, when it cannot
+   * inherit the file descriptors of this JVM: a call served by the daemon has its own {@code System.out},
+   * {@code System.err} and {@code System.in}.
+   */
+  record Forwarding(OutputStream out, OutputStream err, InputStream in) {
+  }
+
+  RunningProcess(Process process, boolean pumped, List<LineListener> listeners, int bufferLines, boolean liveView) {
+    this(process, pumped, listeners, bufferLines, liveView, null);
+  }
+
+  RunningProcess(Process process, boolean pumped, List<LineListener> listeners, int bufferLines, boolean liveView,
+                 Forwarding forwarding) {
+    this.process = process;
+    this.sampler = new ProcessSampler(process.toHandle());
+    sampler.start();
+    process.onExit().thenRun(() -> exitedAt = System.nanoTime());
+    this.listeners = List.copyOf(listeners);
+    this.stdout = new LineRingBuffer(bufferLines);
+    this.stderr = new LineRingBuffer(bufferLines);
+    this.live = liveView ? new LinkedBlockingQueue<>() : null;
+
+    if (forwarding != null) {
+      this.pumps = new CountDownLatch(2);
+      ThreadPoolUtils.virtual().execute(() -> copy(process.getInputStream(), forwarding.out(), Channel.STDOUT));
+      ThreadPoolUtils.virtual().execute(() -> copy(process.getErrorStream(), forwarding.err(), Channel.STDERR));
+      ThreadPoolUtils.virtual().execute(() -> feed(forwarding.in()));
+      endLiveView();
+    } else if (pumped) {
+      this.pumps = new CountDownLatch(2);
+      ThreadPoolUtils.virtual().execute(() -> pump(process.inputReader(), Channel.STDOUT, stdout));
+      ThreadPoolUtils.virtual().execute(() -> pump(process.errorReader(), Channel.STDERR, stderr));
+    } else {
+      this.pumps = new CountDownLatch(0);
+      endLiveView();
+    }
+  }
+
+  public long pid() {
+    return process.pid();
+  }
+
+  public boolean isAlive() {
+    return process.isAlive();
+  }
+
+  public Process process() {
+    return process;
+  }
+
+  /**
+   * Waits for the process to exit and for both streams to be drained.
+   *
+   * @return the exit code of the process
+   */
+  public int waitFor() throws InterruptedException {
+    var exitCode = process.waitFor();
+    awaitPumps();
+    return exitCode;
+  }
+
+  /**
+   * @return true when the process exited within the timeout and its output was drained
+   */
+  public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+    if (!process.waitFor(timeout, unit)) {
+      return false;
+    }
+    awaitPumps();
+    return true;
+  }
+
+  public int exitValue() {
+    return process.exitValue();
+  }
+
+  public void destroy() {
+    process.destroy();
+  }
+
+  /**
+   * Stops the process and all of its descendants, see {@link ProcessTree#kill(ProcessHandle, Duration)}.
+   */
+  public void destroyTree(Duration grace) {
+    // Last chance to see the tree, it is gone right after
+    sampler.sample();
+    ProcessTree.kill(process.toHandle(), grace);
+  }
+
+  /**
+   * @return resources used so far, final once the process exited
+   */
+  public ProcessStats stats(String command, int exitCode, ExitReason reason) {
+    var end = exitedAt != 0 ? exitedAt : System.nanoTime();
+    return new ProcessStats(command, process.pid(), exitCode, reason, Duration.ofNanos(end - startedAt),
+        sampler.cpuTime(), sampler.peakRssBytes(), sampler.processCount());
+  }
+
+  /**
+   * @return the retained stdout lines, complete once {@link #waitFor()} returned
+   */
+  public List<String> stdout() {
+    return stdout.lines();
+  }
+
+  /**
+   * @return the retained stderr lines, complete once {@link #waitFor()} returned
+   */
+  public List<String> stderr() {
+    return stderr.lines();
+  }
+
+  public long droppedLines() {
+    return stdout.dropped() + stderr.dropped();
+  }
+
+  /**
+   * Lines of both streams in the order they were read, blocking while the process is still running. The stream
+   * ends once both pipes are closed. Only available when the process was started with a live view, and it can be
+   * consumed only once.
+   */
+  public Stream<String> lines() {
+    if (live == null) {
+      throw new IllegalStateException("Process was started without a live view");
+    }
+
+    Iterator<String> iterator = new Iterator<>() {
+      private Object next;
+
+      @Override
+      public boolean hasNext() {
+        if (next == null) {
+          try {
+            next = live.take();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            next = END;
+          }
+        }
+        if (next == END) {
+          // Keep the marker so later calls also see the end of the stream
+          live.offer(END);
+          return false;
+        }
+        return true;
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        var line = (String) next;
+        next = null;
+        return line;
+      }
+    };
+
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  private void awaitPumps() throws InterruptedException {
+    if (pumps.await(PUMP_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+      return;
+    }
+
+    logger.debug("Output of process {} still open after exit, closing it", process.pid());
+    closeQuietly(process.getInputStream());
+    closeQuietly(process.getErrorStream());
+    pumps.await(PUMP_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private void pump(BufferedReader reader, Channel channel, LineRingBuffer buffer) {
+    try (reader) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        buffer.add(line);
+        if (live != null) {
+          live.offer(line);
+        }
+        notifyListeners(channel, line);
+      }
+    } catch (IOException e) {
+      // Stream closed while reading, the process is gone or we gave up waiting for it
+      logger.debug("Stopped reading {} of process {}: {}", channel, process.pid(), e.getMessage());
+    } finally {
+      pumps.countDown();
+      if (pumps.getCount() == 0) {
+        endLiveView();
+      }
+    }
+  }
+
+  /**
+   * Copies bytes as they come, prompts without a line break must show up before the process waits for an answer.
+   */
+  private void copy(InputStream from, OutputStream to, Channel channel) {
+    try (from) {
+      var buffer = new byte[8192];
+      int read;
+      while ((read = from.read(buffer)) >= 0) {
+        to.write(buffer, 0, read);
+        to.flush();
+      }
+    } catch (IOException e) {
+      logger.debug("Stopped forwarding {} of process {}: {}", channel, process.pid(), e.getMessage());
+    } finally {
+      pumps.countDown();
+    }
+  }
+
+  /**
+   * Hands the caller's input to the process while it runs. Only what is already available is read, so no input
+   * meant for whatever runs after the process is taken away.
+   */
+  private void feed(InputStream from) {
+    var buffer = new byte[8192];
+    try (var to = process.getOutputStream()) {
+      while (process.isAlive()) {
+        var available = from.available();
+        if (available <= 0) {
+          if (process.waitFor(20, TimeUnit.MILLISECONDS)) {
+            return;
+          }
+          continue;
+        }
+        var read = from.read(buffer, 0, Math.min(available, buffer.length));
+        if (read < 0) {
+          return;
+        }
+        to.write(buffer, 0, read);
+        to.flush();
+      }
+    } catch (IOException e) {
+      logger.debug("Stopped feeding the input of process {}: {}", process.pid(), e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void notifyListeners(Channel channel, String line) {
+    for (var listener : listeners) {
+      try {
+        listener.onLine(channel, line);
+      } catch (RuntimeException e) {
+        logger.debug("Line listener failed on {}: {}", channel, e.getMessage());
+      }
+    }
+  }
+
+  private void endLiveView() {
+    if (live != null) {
+      live.offer(END);
+    }
+  }
+
+  private static void closeQuietly(AutoCloseable closeable) {
+    try {
+      closeable.close();
+    } catch (Exception ignored) {
+    }
+  }
+}
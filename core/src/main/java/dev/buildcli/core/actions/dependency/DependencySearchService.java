@@ -1,6 +1,9 @@
 package dev.buildcli.core.actions.dependency;
 
 import com.google.gson.*;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.net.URLEncoder;
@@ -9,17 +12,33 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.stream.StreamSupport;
 
 import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.options;
 import static dev.buildcli.core.constants.DependencyConstants.DEPENDENCIES;
 
 public class DependencySearchService {
+    private static final Logger logger = LoggerFactory.getLogger(DependencySearchService.class);
 
     private static final String API_MAVEN = "https://search.maven.org/solrsearch/select?q=";
     private static final String ROWS = "&rows=25";
     private static final String OUTPUT ="&wt=json";
+    private static final int LOCAL_RESULTS = 25;
+
+    private final Supplier<LocalRepositoryIndex> localIndex;
+
+    public DependencySearchService() {
+        this(LocalRepositoryIndex::shared);
+    }
+
+    public DependencySearchService(Supplier<LocalRepositoryIndex> localIndex) {
+        this.localIndex = localIndex;
+    }
 
     public HttpRequest createSearchGetRequest(String groupOrArtifactID){
         return HttpRequest.newBuilder()
@@ -53,7 +72,71 @@ public class DependencySearchService {
         if(isAlreadyConfigured(dependencyName)){
             return DEPENDENCIES.get(dependencyName);
         }
-        return promptOptionsToAdd(sendSearchRequest(dependencyName));
+        return promptOptionsToAdd(search(dependencyName, false));
+    }
+
+    public List<String> searchDependencies(List<String> dependencyNames) {
+        return searchDependencies(dependencyNames, false);
+    }
+
+    /**
+     * Resolves every name like {@link #searchDependecy(String)}, all searches at once. The prompts to pick among the
+     * results are then asked one at a time, in the order of the names.
+     *
+     * @param remote whether to search Maven Central right away, otherwise the local repository is searched first and
+     *               Maven Central only for the names it has nothing for
+     * @return the coordinates of every name, in the order of the names
+     */
+    public List<String> searchDependencies(List<String> dependencyNames, boolean remote) {
+        var searches = dependencyNames.stream()
+                .map(name -> isAlreadyConfigured(name)
+                        ? CompletableFuture.completedFuture(DEPENDENCIES.get(name))
+                        : CompletableFuture.supplyAsync(() -> search(name, remote), ThreadPoolUtils.virtual()))
+                .toList();
+
+        var dependencies = new ArrayList<String>();
+        for (int i = 0; i < dependencyNames.size(); i++) {
+            var name = dependencyNames.get(i);
+            List<String> found;
+            try {
+                found = searches.get(i).join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Failed to search for '" + name + "'", e.getCause());
+            }
+
+            if (isAlreadyConfigured(name)) {
+                dependencies.addAll(found);
+            } else if (found.isEmpty()) {
+                throw new IllegalArgumentException("No dependency found for '" + name + "'");
+            } else {
+                dependencies.addAll(promptOptionsToAdd(found));
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * @return the artifacts of the local repository matching {@code dependencyName}, the best first
+     */
+    public List<String> searchLocalRepository(String dependencyName) throws IOException {
+        return localIndex.get().search(dependencyName, LOCAL_RESULTS).stream()
+                .map(LocalRepositoryIndex.Artifact::coordinates)
+                .toList();
+    }
+
+    private List<String> search(String dependencyName, boolean remote) {
+        if (!remote) {
+            try {
+                var found = searchLocalRepository(dependencyName);
+                if (!found.isEmpty()) {
+                    return found;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to search the local repository for '{}', searching Maven Central",
+                        dependencyName, e);
+            }
+        }
+        return sendSearchRequest(dependencyName);
     }
 
     public List<String> sendSearchRequest(String dependencyName) {
@@ -0,0 +1,593 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.project.IncrementalBuild;
+import dev.buildcli.core.utils.HashUtils;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import dev.buildcli.core.utils.tools.maven.EffectivePomResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Searches the artifacts of the local Maven repository, so finding a dependency that was downloaded once does not need
+ * Maven Central.
+ * <p>
+ * The index is kept in two files under {@code ~/.buildcli/cache}, named after the repository:
+ * <ul>
+ *   <li>{@code .state}: every directory of the repository but versions, with its modification time, subdirectories
+ *   and versions. Creating a file or directory changes the modification time of the directory holding it, so
+ *   {@link #refresh()} lists again only the directories that changed; the others are only checked for their
+ *   modification time, and versions not at all. A directory modified less than {@link #RACY_WINDOW} before it was
+ *   listed is listed again next time, its modification time may not move for a change made right after on file
+ *   systems with coarse timestamps.</li>
+ *   <li>{@code .index}: the tokens of every groupId and artifactId, sorted, with the artifacts they appear in.
+ *   {@link #search(String, int)} maps it in memory and binary searches it, nothing is parsed up front.</li>
+ * </ul>
+ * A directory is a version of an artifact when it holds {@code <artifactId>-<version>.pom} or {@code .jar}.
+ */
+public class LocalRepositoryIndex {
+  public static final Duration REFRESH_INTERVAL = Duration.ofSeconds(30);
+  static final Duration RACY_WINDOW = Duration.ofSeconds(2);
+
+  private static final int MAGIC = 0x42434958;
+  private static final int FORMAT = 1;
+  // Directories this deep or less are walked on their own virtual thread, below that a thread per directory costs
+  // more than it saves
+  private static final int PARALLEL_DEPTH = 3;
+  private static final Pattern SEPARATORS = Pattern.compile("[.:\\-_/\\s]+");
+
+  private static final long RACY = -1;
+  private static final Directory NONE = new Directory(0, false, List.of(), List.of());
+
+  private static LocalRepositoryIndex shared;
+
+  private final Path repository;
+  private final Path stateFile;
+  private final Path indexFile;
+  private Instant refreshed;
+  private Map<String, Directory> state;
+  private Mapped mapped;
+
+  /**
+   * @param versions sorted from the oldest
+   */
+  public record Artifact(String groupId, String artifactId, List<String> versions) {
+    /**
+     * @return the latest release, or the latest version when there are only snapshots
+     */
+    public String latestVersion() {
+      return versions.stream().filter(version -> !version.endsWith("-SNAPSHOT")).reduce((first, second) -> second)
+          .orElse(versions.getLast());
+    }
+
+    /**
+     * @return {@code groupId:artifactId:latestVersion}, the format of {@link DependencySearchService}
+     */
+    public String coordinates() {
+      return groupId + ":" + artifactId + ":" + latestVersion();
+    }
+  }
+
+  /**
+   * What the walk found in one directory.
+   *
+   * @param version     whether the directory is a version of the artifact its parent is. Versions are not walked once
+   *                    their parent knows them, only one that was listed before its POM was downloaded has this set.
+   * @param directories children that are not versions, walked in turn
+   * @param versions    children that are versions of the artifact this directory is
+   */
+  private record Directory(long modified, boolean version, List<String> directories, List<String> versions) {
+  }
+
+  public LocalRepositoryIndex(Path repository, Path cacheDir) {
+    this.repository = repository.toAbsolutePath().normalize();
+    var name = "repository-" + HashUtils.key(this.repository.toString());
+    this.stateFile = cacheDir.resolve(name + ".state");
+    this.indexFile = cacheDir.resolve(name + ".index");
+  }
+
+  public static synchronized LocalRepositoryIndex shared() {
+    if (shared == null) {
+      shared = new LocalRepositoryIndex(EffectivePomResolver.defaultLocalRepository(),
+          IncrementalBuild.DEFAULT_CACHE_DIR);
+    }
+    return shared;
+  }
+
+  /**
+   * @param query words of the groupId or artifactId, {@code groupId:artifactId}, or a misspelling of them
+   * @return the best matches first: the artifactId equal to the query, starting with it, containing it, then the rest
+   */
+  public synchronized List<Artifact> search(String query, int limit) throws IOException {
+    if (refreshed == null || refreshed.plus(REFRESH_INTERVAL).isBefore(Instant.now())) {
+      refresh();
+    }
+
+    var normalized = query.toLowerCase(Locale.ROOT).trim();
+    var terms = SEPARATORS.splitAsStream(normalized).filter(term -> !term.isEmpty()).distinct().toList();
+    if (terms.isEmpty() || mapped.artifactCount() == 0) {
+      return List.of();
+    }
+
+    var matches = intersect(terms, mapped::prefixed);
+    if (matches.isEmpty()) {
+      matches = intersect(terms, mapped::similar);
+    }
+
+    var ranking = Comparator.<Artifact>comparingInt(artifact -> rank(artifact, normalized))
+        .thenComparingInt(artifact -> artifact.artifactId().length())
+        .thenComparing(Artifact::groupId)
+        .thenComparing(Artifact::artifactId);
+    return matches.stream().mapToObj(mapped::artifact).sorted(ranking).limit(limit).toList();
+  }
+
+  /**
+   * Brings the index up to date with the repository, reading only the directories that changed since the last time.
+   */
+  public synchronized void refresh() throws IOException {
+    var previous = state != null ? state : readState();
+    var current = new ConcurrentHashMap<String, Directory>(previous.size() + 16);
+    var changed = new AtomicBoolean();
+    if (Files.isDirectory(repository)) {
+      walk(repository, "", 0, previous, current, changed);
+    }
+
+    state = current;
+    if (changed.get() || current.size() != previous.size() || !Files.isRegularFile(indexFile)) {
+      Files.createDirectories(indexFile.getParent());
+      writeState(current);
+      write(indexFile, index(current));
+      mapped = null;
+    }
+    if (mapped == null) {
+      mapped = Mapped.of(indexFile);
+    }
+    refreshed = Instant.now();
+  }
+
+  private void walk(Path directory, String relative, int depth, Map<String, Directory> previous,
+                    Map<String, Directory> current, AtomicBoolean changed) throws IOException {
+    var known = previous.get(relative);
+    Instant modified;
+    try {
+      modified = Files.getLastModifiedTime(directory).toInstant();
+    } catch (NoSuchFileException e) {
+      // Deleted while walking
+      return;
+    }
+
+    var stamp = Instant.now().minus(RACY_WINDOW).isBefore(modified) ? RACY : modified.toEpochMilli();
+    var entry = known != null && known.modified() == stamp && stamp != RACY ? known : list(directory, stamp);
+    if (!entry.equals(known)) {
+      changed.set(true);
+    }
+    current.put(relative, entry);
+
+    var prefix = relative.isEmpty() ? "" : relative + "/";
+    if (depth >= PARALLEL_DEPTH) {
+      for (var child : entry.directories()) {
+        walk(directory.resolve(child), prefix + child, depth + 1, previous, current, changed);
+      }
+      return;
+    }
+
+    var children = entry.directories().stream()
+        .map(child -> CompletableFuture.runAsync(() -> {
+          try {
+            walk(directory.resolve(child), prefix + child, depth + 1, previous, current, changed);
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        }, ThreadPoolUtils.virtual()))
+        .toList();
+    try {
+      CompletableFuture.allOf(children.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+  }
+
+  private static Directory list(Path directory, long modified) throws IOException {
+    var name = directory.getFileName() == null ? "" : directory.getFileName().toString();
+    var version = false;
+    var directories = new ArrayList<String>();
+    var versions = new ArrayList<String>();
+    try (var children = Files.newDirectoryStream(directory)) {
+      for (var child : children) {
+        var childName = child.getFileName().toString();
+        if (childName.startsWith(".")) {
+          // .cache, .locks and the like of Maven itself
+          continue;
+        }
+        if (!Files.isDirectory(child)) {
+          version |= isArtifact(directory.getParent(), name, childName);
+        } else if (isVersion(child, name, childName)) {
+          versions.add(childName);
+        } else {
+          directories.add(childName);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      return NONE;
+    }
+    directories.sort(null);
+    versions.sort(LocalRepositoryIndex::compareVersions);
+    return new Directory(modified, version, List.copyOf(directories), List.copyOf(versions));
+  }
+
+  private static boolean isVersion(Path directory, String artifactId, String version) {
+    var file = artifactId + "-" + version;
+    return Files.isRegularFile(directory.resolve(file + ".pom"))
+        || Files.isRegularFile(directory.resolve(file + ".jar"));
+  }
+
+  private static boolean isArtifact(Path parent, String version, String file) {
+    if (parent == null || parent.getFileName() == null) {
+      return false;
+    }
+    var artifact = parent.getFileName() + "-" + version;
+    return file.equals(artifact + ".pom") || file.equals(artifact + ".jar");
+  }
+
+  /**
+   * The state is one directory per line: {@code modified<TAB>path<TAB>version<TAB>directories<TAB>versions}, the
+   * lists separated by {@code /}.
+   */
+  private Map<String, Directory> readState() throws IOException {
+    var state = new ConcurrentHashMap<String, Directory>();
+    if (!Files.isRegularFile(stateFile)) {
+      return state;
+    }
+
+    for (var line : Files.readAllLines(stateFile, StandardCharsets.UTF_8)) {
+      var parts = line.split("\t", -1);
+      if (parts.length != 5) {
+        continue;
+      }
+      try {
+        state.put(parts[1], new Directory(Long.parseLong(parts[0]), "v".equals(parts[2]), split(parts[3]),
+            split(parts[4])));
+      } catch (NumberFormatException e) {
+        // A damaged line only means that directory is listed again
+      }
+    }
+    return state;
+  }
+
+  private void writeState(Map<String, Directory> state) throws IOException {
+    var content = new StringBuilder();
+    new TreeMap<>(state).forEach((path, directory) -> content.append(directory.modified()).append('\t').append(path)
+        .append('\t').append(directory.version() ? "v" : "d")
+        .append('\t').append(String.join("/", directory.directories()))
+        .append('\t').append(String.join("/", directory.versions())).append('\n'));
+    write(stateFile, content.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<String> split(String value) {
+    return value.isEmpty() ? List.of() : List.of(value.split("/"));
+  }
+
+  /**
+   * The index is a header, a table of offsets to every artifact and one to every token, then the artifacts
+   * ({@code groupId}, {@code artifactId}, versions) and the tokens (text, indexes of the artifacts), all in big endian
+   * with strings as a length and UTF-8 bytes.
+   */
+  private static byte[] index(Map<String, Directory> state) throws IOException {
+    var artifacts = new ArrayList<Artifact>();
+    state.forEach((path, directory) -> {
+      var slash = path.lastIndexOf('/');
+      var prefix = path + "/";
+      var versions = Stream.concat(directory.versions().stream(), directory.directories().stream()
+              .filter(child -> state.getOrDefault(prefix + child, NONE).version()))
+          .sorted(LocalRepositoryIndex::compareVersions)
+          .toList();
+      if (!versions.isEmpty() && slash > 0) {
+        artifacts.add(new Artifact(path.substring(0, slash).replace('/', '.'), path.substring(slash + 1), versions));
+      }
+    });
+    artifacts.sort(Comparator.comparing(Artifact::groupId).thenComparing(Artifact::artifactId));
+
+    var tokens = new TreeMap<String, TreeSet<Integer>>();
+    for (int i = 0; i < artifacts.size(); i++) {
+      for (var token : tokens(artifacts.get(i))) {
+        tokens.computeIfAbsent(token, ignored -> new TreeSet<>()).add(i);
+      }
+    }
+
+    var records = new ByteArrayOutputStream();
+    var out = new DataOutputStream(records);
+    var artifactOffsets = new int[artifacts.size()];
+    for (int i = 0; i < artifacts.size(); i++) {
+      artifactOffsets[i] = out.size();
+      var artifact = artifacts.get(i);
+      writeString(out, artifact.groupId());
+      writeString(out, artifact.artifactId());
+      out.writeShort(artifact.versions().size());
+      for (var version : artifact.versions()) {
+        writeString(out, version);
+      }
+    }
+    var tokenOffsets = new int[tokens.size()];
+    var index = 0;
+    for (var token : tokens.entrySet()) {
+      tokenOffsets[index++] = out.size();
+      writeString(out, token.getKey());
+      out.writeInt(token.getValue().size());
+      for (var artifact : token.getValue()) {
+        out.writeInt(artifact);
+      }
+    }
+
+    var file = new ByteArrayOutputStream(16 + 4 * (artifactOffsets.length + tokenOffsets.length) + records.size());
+    var header = new DataOutputStream(file);
+    header.writeInt(MAGIC);
+    header.writeInt(FORMAT);
+    header.writeInt(artifactOffsets.length);
+    header.writeInt(tokenOffsets.length);
+    for (var offset : artifactOffsets) {
+      header.writeInt(offset);
+    }
+    for (var offset : tokenOffsets) {
+      header.writeInt(offset);
+    }
+    records.writeTo(header);
+    return file.toByteArray();
+  }
+
+  /**
+   * @return the whole groupId and artifactId, and each of their words
+   */
+  private static List<String> tokens(Artifact artifact) {
+    var tokens = new TreeSet<String>();
+    for (var part : List.of(artifact.groupId(), artifact.artifactId())) {
+      var lower = part.toLowerCase(Locale.ROOT);
+      tokens.add(lower);
+      SEPARATORS.splitAsStream(lower).filter(token -> !token.isEmpty()).forEach(tokens::add);
+    }
+    return List.copyOf(tokens);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  private static void write(Path file, byte[] content) throws IOException {
+    var temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, content);
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static BitSet intersect(List<String> terms, Function<String, BitSet> postings) {
+    BitSet result = null;
+    for (var term : terms) {
+      var matches = postings.apply(term);
+      if (result == null) {
+        result = matches;
+      } else {
+        result.and(matches);
+      }
+      if (result.isEmpty()) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  private static int rank(Artifact artifact, String query) {
+    var artifactId = artifact.artifactId().toLowerCase(Locale.ROOT);
+    var coordinates = artifact.groupId().toLowerCase(Locale.ROOT) + ":" + artifactId;
+    if (artifactId.equals(query) || coordinates.equals(query)) {
+      return 0;
+    }
+    if (artifactId.startsWith(query) || coordinates.startsWith(query)) {
+      return 1;
+    }
+    return artifactId.contains(query) ? 2 : 3;
+  }
+
+  /**
+   * Compares numeric parts as numbers; a qualifier ({@code -RC1}, {@code -SNAPSHOT}) comes before the release it
+   * qualifies.
+   */
+  static int compareVersions(String left, String right) {
+    var leftParts = left.split("[.\\-]");
+    var rightParts = right.split("[.\\-]");
+    for (int i = 0; i < Math.max(leftParts.length, rightParts.length); i++) {
+      if (i >= leftParts.length) {
+        return isNumber(rightParts[i]) ? -1 : 1;
+      }
+      if (i >= rightParts.length) {
+        return isNumber(leftParts[i]) ? 1 : -1;
+      }
+      var leftNumber = isNumber(leftParts[i]);
+      var rightNumber = isNumber(rightParts[i]);
+      int comparison;
+      if (leftNumber && rightNumber) {
+        comparison = new BigInteger(leftParts[i]).compareTo(new BigInteger(rightParts[i]));
+      } else if (leftNumber != rightNumber) {
+        comparison = leftNumber ? 1 : -1;
+      } else {
+        comparison = leftParts[i].compareToIgnoreCase(rightParts[i]);
+      }
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private static boolean isNumber(String part) {
+    return !part.isEmpty() && part.chars().allMatch(Character::isDigit);
+  }
+
+  /**
+   * @return the edit distance between {@code a} and {@code b}, or {@code max + 1} once it is known to exceed
+   * {@code max}
+   */
+  static int distance(String a, String b, int max) {
+    if (Math.abs(a.length() - b.length()) > max) {
+      return max + 1;
+    }
+    var previous = new int[b.length() + 1];
+    var current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      var rowMinimum = current[0];
+      for (int j = 1; j <= b.length(); j++) {
+        var substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+        current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+        rowMinimum = Math.min(rowMinimum, current[j]);
+      }
+      if (rowMinimum > max) {
+        return max + 1;
+      }
+      var swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+
+  /**
+   * The index file mapped in memory, read in place.
+   */
+  private record Mapped(ByteBuffer buffer, int artifactCount, int tokenCount) {
+    private static final int HEADER = 16;
+
+    static Mapped of(Path file) throws IOException {
+      try (var channel = FileChannel.open(file)) {
+        // The mapping stays valid after the channel is closed
+        var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+          throw new IOException("Not a repository index: " + file);
+        }
+        return new Mapped(buffer, buffer.getInt(8), buffer.getInt(12));
+      }
+    }
+
+    private int records() {
+      return HEADER + 4 * (artifactCount + tokenCount);
+    }
+
+    Artifact artifact(int index) {
+      var position = records() + buffer.getInt(HEADER + 4 * index);
+      var groupId = string(position);
+      position += 2 + (buffer.getShort(position) & 0xFFFF);
+      var artifactId = string(position);
+      position += 2 + (buffer.getShort(position) & 0xFFFF);
+      var count = buffer.getShort(position) & 0xFFFF;
+      position += 2;
+      var versions = new ArrayList<String>(count);
+      for (int i = 0; i < count; i++) {
+        versions.add(string(position));
+        position += 2 + (buffer.getShort(position) & 0xFFFF);
+      }
+      return new Artifact(groupId, artifactId, List.copyOf(versions));
+    }
+
+    private int tokenPosition(int index) {
+      return records() + buffer.getInt(HEADER + 4 * (artifactCount + index));
+    }
+
+    String token(int index) {
+      return string(tokenPosition(index));
+    }
+
+    /**
+     * @return the artifacts with a token starting with {@code prefix}
+     */
+    BitSet prefixed(String prefix) {
+      var matches = new BitSet(artifactCount);
+      var low = 0;
+      var high = tokenCount;
+      while (low < high) {
+        var middle = (low + high) >>> 1;
+        if (token(middle).compareTo(prefix) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      for (int i = low; i < tokenCount && token(i).startsWith(prefix); i++) {
+        addPostings(i, matches);
+      }
+      return matches;
+    }
+
+    /**
+     * @return the artifacts with a token a typo or two away from {@code term}, none for terms of three letters or less
+     */
+    BitSet similar(String term) {
+      var matches = new BitSet(artifactCount);
+      var max = term.length() <= 3 ? 0 : term.length() <= 6 ? 1 : 2;
+      if (max == 0) {
+        return matches;
+      }
+      for (int i = 0; i < tokenCount; i++) {
+        var token = token(i);
+        // Also matches the start of longer tokens, "jakson" finds "jackson-databind"
+        var candidate = token.length() > term.length() + max ? token.substring(0, term.length() + max) : token;
+        if (distance(term, candidate, max) <= max || distance(term, token, max) <= max) {
+          addPostings(i, matches);
+        }
+      }
+      return matches;
+    }
+
+    private void addPostings(int token, BitSet matches) {
+      var position = tokenPosition(token);
+      position += 2 + (buffer.getShort(position) & 0xFFFF);
+      var count = buffer.getInt(position);
+      for (int i = 0; i < count; i++) {
+        matches.set(buffer.getInt(position + 4 + 4 * i));
+      }
+    }
+
+    private String string(int position) {
+      var length = buffer.getShort(position) & 0xFFFF;
+      var bytes = new byte[length];
+      buffer.get(position + 2, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -9,27 +9,24 @@ public class DockerChecker implements ToolChecker {
   }
 
   @Override
-  public boolean isInstalled() {
-    return DockerProcess.createGetVersionProcess().run() == 0;
+  public String executable() {
+    return "docker";
   }
 
   @Override
-  public boolean isRunning() {
-    return DockerProcess.createInfoProcess().run() == 0;
-  }
-
-  @Override
-  public String version() {
+  public ToolInfo probe() {
     var process = DockerProcess.createGetVersionProcess();
-    var result = process.run();
-    var lines = process.output();
-
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[2].replace(",", "");
+    if (process.run() != 0) {
+      return ToolInfo.NOT_INSTALLED;
     }
 
-    return "N/A";
+    var lines = process.output();
+    return ToolInfo.installed(lines.isEmpty() ? null : lines.getFirst().split(" ")[2].replace(",", ""));
+  }
+
+  @Override
+  public boolean isRunning() {
+    return DockerProcess.createInfoProcess().run() == 0;
   }
 
   @Override
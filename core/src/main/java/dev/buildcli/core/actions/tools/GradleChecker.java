@@ -1,6 +1,7 @@
 package dev.buildcli.core.actions.tools;
 
 import dev.buildcli.core.actions.commandline.GradleProcess;
+import dev.buildcli.core.constants.GradleConstants;
 import dev.buildcli.core.utils.installers.GradleInstaller;
 
 public class GradleChecker implements ToolChecker {
@@ -10,22 +11,19 @@ public class GradleChecker implements ToolChecker {
   }
 
   @Override
-  public boolean isInstalled() {
-    return GradleProcess.createGetVersionProcess().run() == 0;
+  public String executable() {
+    return GradleConstants.GRADLE_CMD;
   }
 
   @Override
-  public String version() {
+  public ToolInfo probe() {
     var process = GradleProcess.createGetVersionProcess();
-    var result = process.run();
-    var lines = process.output().stream().filter(line -> line.contains("Gradle")).toList();
-
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[1].replace("!", "");
+    if (process.run() != 0) {
+      return ToolInfo.NOT_INSTALLED;
     }
 
-    return "N/A";
+    var lines = process.output().stream().filter(line -> line.contains("Gradle")).toList();
+    return ToolInfo.installed(lines.isEmpty() ? null : lines.getFirst().split(" ")[1].replace("!", ""));
   }
 
   @Override
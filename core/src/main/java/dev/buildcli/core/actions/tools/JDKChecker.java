@@ -9,23 +9,19 @@ public class JDKChecker implements ToolChecker {
   }
 
   @Override
-  public boolean isInstalled() {
-    return JavaProcess.createGetVersionProcess().run() == 0;
+  public String executable() {
+    return "java";
   }
 
   @Override
-  public String version() {
+  public ToolInfo probe() {
     var process = JavaProcess.createGetVersionProcess();
-    var result = process.run();
-
-    var lines = process.output();
-
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[1].replace("\"", "");
+    if (process.run() != 0) {
+      return ToolInfo.NOT_INSTALLED;
     }
 
-    return "N/A";
+    var lines = process.output();
+    return ToolInfo.installed(lines.isEmpty() ? null : lines.getFirst().split(" ")[1].replace("\"", ""));
   }
 
   @Override
@@ -1,6 +1,7 @@
 package dev.buildcli.core.actions.tools;
 
 import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.utils.installers.MavenInstaller;
 
 public class MavenChecker implements ToolChecker {
@@ -11,23 +12,19 @@ public class MavenChecker implements ToolChecker {
   }
 
   @Override
-  public boolean isInstalled() {
-    return MavenProcess.createGetVersionProcessor().run() == 0;
+  public String executable() {
+    return MavenConstants.MAVEN_CMD;
   }
 
   @Override
-  public String version() {
-
+  public ToolInfo probe() {
     var process = MavenProcess.createGetVersionProcessor();
-    var result = process.run();
-    var lines = process.output();
-
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[2];
+    if (process.run() != 0) {
+      return ToolInfo.NOT_INSTALLED;
     }
 
-    return "N/A";
+    var lines = process.output();
+    return ToolInfo.installed(lines.isEmpty() ? null : lines.getFirst().split(" ")[2]);
   }
 
   @Override
@@ -2,12 +2,30 @@ package dev.buildcli.core.actions.tools;
 
 public interface ToolChecker {
   String name();
-  boolean isInstalled();
+
+  /**
+   * @return the command the tool is started with, looked up on the {@code PATH}
+   */
+  String executable();
+
+  /**
+   * Runs the tool once, both whether it is installed and its version come from that run. Use
+   * {@link ToolDetection#detect} to reuse the result of earlier runs.
+   */
+  ToolInfo probe();
+
+  default boolean isInstalled() {
+    return probe().installed();
+  }
+
   default boolean isRunning() {
     return false;
   }
-  String version();
+
+  default String version() {
+    return probe().version();
+  }
+
   String installInstructions();
   void fixIssue();
 }
-
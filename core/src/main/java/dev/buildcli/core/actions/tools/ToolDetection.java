@@ -0,0 +1,214 @@
+package dev.buildcli.core.actions.tools;
+
+import dev.buildcli.core.project.IncrementalBuild;
+import dev.buildcli.core.utils.CallEnvironment;
+import dev.buildcli.core.utils.OS;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers what {@link ToolChecker#probe()} found, so tools are not started again on every command.
+ * <p>
+ * A result is reused while the executable found on the {@code PATH}, its modification time and the {@code PATH} itself
+ * stay the same: installing, upgrading or switching a tool changes one of them. Only tools that were found working are
+ * remembered. A failed probe can have causes the key does not cover, such as a {@code JAVA_HOME} pointing nowhere or a
+ * daemon that is not running yet, and caching it would keep reporting the tool as missing after the cause is fixed.
+ * Tools that are not on the {@code PATH} are probed every time too, they may still start through a shell alias or an
+ * extension lookup the cache cannot see.
+ */
+public class ToolDetection {
+  public static final Path DEFAULT_FILE = IncrementalBuild.DEFAULT_CACHE_DIR.resolve("tools.properties");
+
+  private static final Logger logger = LoggerFactory.getLogger(ToolDetection.class);
+  private static final List<String> WINDOWS_EXTENSIONS = List.of("", ".exe", ".cmd", ".bat");
+  private static ToolDetection shared;
+
+  private final Path file;
+  private final String path;
+  private final Map<String, CompletableFuture<ToolInfo>> detected = new ConcurrentHashMap<>();
+  private Properties cache;
+
+  /**
+   * @param path the {@code PATH} executables are looked up in
+   */
+  public ToolDetection(Path file, String path) {
+    this.file = file;
+    this.path = path == null ? "" : path;
+  }
+
+  /**
+   * @return the detection for the {@code PATH} of the current call, kept while callers share that {@code PATH}
+   */
+  public static synchronized ToolDetection shared() {
+    var path = Objects.requireNonNullElse(CallEnvironment.get("PATH"), "");
+    if (shared == null || !shared.path.equals(path)) {
+      shared = new ToolDetection(DEFAULT_FILE, path);
+    }
+    return shared;
+  }
+
+  public ToolInfo detect(ToolChecker checker) {
+    var future = new CompletableFuture<ToolInfo>();
+    var running = detected.putIfAbsent(checker.name(), future);
+    if (running != null) {
+      return running.join();
+    }
+
+    try {
+      future.complete(lookup(checker));
+    } catch (RuntimeException e) {
+      detected.remove(checker.name());
+      future.completeExceptionally(e);
+    }
+    return future.join();
+  }
+
+  private ToolInfo lookup(ToolChecker checker) {
+    var key = key(checker);
+    if (key.isEmpty()) {
+      return checker.probe();
+    }
+
+    var cached = cached(checker.name(), key.get());
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    var info = checker.probe();
+    if (info.installed()) {
+      store(checker.name(), key.get(), info);
+    }
+    return info;
+  }
+
+  /**
+   * Detects every tool at once, each on its own virtual thread.
+   *
+   * @return the results in the order of {@code checkers}
+   */
+  public Map<ToolChecker, ToolInfo> detectAll(List<ToolChecker> checkers) {
+    var futures = new LinkedHashMap<ToolChecker, CompletableFuture<ToolInfo>>();
+    for (var checker : checkers) {
+      futures.put(checker, CompletableFuture.supplyAsync(() -> detect(checker), ThreadPoolUtils.virtual()));
+    }
+
+    var results = new LinkedHashMap<ToolChecker, ToolInfo>();
+    futures.forEach((checker, future) -> results.put(checker, future.join()));
+    return results;
+  }
+
+  /**
+   * Forgets every result, e.g. after tools were installed.
+   */
+  public synchronized void clear() {
+    detected.clear();
+    cache = new Properties();
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.debug("Could not delete {}: {}", file, e.getMessage());
+    }
+  }
+
+  private Optional<String> key(ToolChecker checker) {
+    return resolve(checker.executable()).flatMap(executable -> {
+      try {
+        return Optional.of(executable + File.pathSeparator + Files.getLastModifiedTime(executable).toMillis()
+            + File.pathSeparator + path);
+      } catch (IOException e) {
+        return Optional.empty();
+      }
+    });
+  }
+
+  Optional<Path> resolve(String executable) {
+    var extensions = OS.isWindows() ? WINDOWS_EXTENSIONS : List.of("");
+    for (var dir : path.split(File.pathSeparator)) {
+      if (dir.isBlank()) {
+        continue;
+      }
+      for (var extension : extensions) {
+        var candidate = Path.of(dir, executable + extension);
+        if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+          // Follows links such as /usr/bin/java -> /usr/lib/jvm/..., so switching the target counts as a change
+          try {
+            return Optional.of(candidate.toRealPath());
+          } catch (IOException e) {
+            return Optional.of(candidate);
+          }
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private synchronized Optional<ToolInfo> cached(String name, String key) {
+    var properties = load();
+    // Failed probes written by earlier versions are probed again
+    if (!key.equals(properties.getProperty(name + ".key"))
+        || !Boolean.parseBoolean(properties.getProperty(name + ".installed"))) {
+      return Optional.empty();
+    }
+    return Optional.of(ToolInfo.installed(properties.getProperty(name + ".version", ToolInfo.UNKNOWN_VERSION)));
+  }
+
+  private synchronized void store(String name, String key, ToolInfo info) {
+    var properties = load();
+    properties.setProperty(name + ".key", key);
+    properties.setProperty(name + ".installed", String.valueOf(info.installed()));
+    properties.setProperty(name + ".version", info.version());
+
+    try {
+      Files.createDirectories(file.getParent());
+      var temp = Files.createTempFile(file.getParent(), "tools", ".tmp");
+      try {
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+          properties.store(writer, "BuildCLI tool detection");
+        }
+        try {
+          Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      // Without the cache the tools are only probed again next time
+      logger.debug("Could not write {}: {}", file, e.getMessage());
+    }
+  }
+
+  private Properties load() {
+    if (cache != null) {
+      return cache;
+    }
+
+    cache = new Properties();
+    if (Files.isRegularFile(file)) {
+      try (Reader reader = Files.newBufferedReader(file)) {
+        cache.load(reader);
+      } catch (IOException | IllegalArgumentException e) {
+        cache = new Properties();
+      }
+    }
+    return cache;
+  }
+}
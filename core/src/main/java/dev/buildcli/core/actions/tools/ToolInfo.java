@@ -0,0 +1,15 @@
+package dev.buildcli.core.actions.tools;
+
+/**
+ * What one run of a tool told about it.
+ *
+ * @param version as the tool reports it, {@code N/A} when it is not installed or the output could not be read
+ */
+public record ToolInfo(boolean installed, String version) {
+  public static final String UNKNOWN_VERSION = "N/A";
+  public static final ToolInfo NOT_INSTALLED = new ToolInfo(false, UNKNOWN_VERSION);
+
+  public static ToolInfo installed(String version) {
+    return new ToolInfo(true, version == null || version.isBlank() ? UNKNOWN_VERSION : version);
+  }
+}
@@ -7,6 +7,8 @@ import java.io.PrintWriter;
 import java.nio.file.Path;
 import java.util.Map;
 
+import static java.util.Map.entry;
+
 import static dev.buildcli.core.utils.BeautifyShell.*;
 
 public abstract class ConfigDefaultConstants {
@@ -20,6 +22,7 @@ public abstract class ConfigDefaultConstants {
   public static final String LOGGING_PARENT = "logging";
   public static final String BANNER_ENABLED = composePropertyName(LOGGING_PARENT, "banner", "enabled");
   public static final String BANNER_PATH = composePropertyName(LOGGING_PARENT, "banner", "path");
+  public static final String STARTUP_TRACE = composePropertyName(LOGGING_PARENT, "startup", "trace");
 
   //Common Keys
   public static final String FILE_PATH = composePropertyName(LOGGING_PARENT, "file", "path");
@@ -41,19 +44,39 @@ public abstract class ConfigDefaultConstants {
   public static final String PLUGIN_PARENT = "plugin";
   public static final String PLUGIN_PATHS = composePropertyName(PLUGIN_PARENT, "paths");
 
+  //Update check
+  public static final String UPDATE_PARENT = "update";
+  public static final String UPDATE_CHECK_ENABLED = composePropertyName(UPDATE_PARENT, "check", "enabled");
+  public static final String UPDATE_CHECK_TTL = composePropertyName(UPDATE_PARENT, "check", "ttl");
+  public static final String UPDATE_CHECK_TIMEOUT = composePropertyName(UPDATE_PARENT, "check", "timeout");
+
+  //Spawned processes
+  public static final String PROCESS_PARENT = "process";
+  public static final String PROCESS_TIMEOUT = composePropertyName(PROCESS_PARENT, "timeout");
+
+  //Builds
+  public static final String BUILD_PARENT = "build";
+  public static final String BUILD_DAEMON = composePropertyName(BUILD_PARENT, "daemon");
+
   private static final Map<String, String> configs;
 
   static {
-    configs = Map.of(
-        BANNER_ENABLED, "Show or hidden banner. It's %s by default".formatted(greenFg(true)),
-        BANNER_PATH, "Custom banner path",
-        PROJECT_NAME, "Project name",
-        PROJECT_TYPE, "Project type, e.g., %s, %s".formatted(greenFg("spring-boot"), greenFg("quarkus")),
-        AI_VENDOR, "LLM vendor, e.g, %s, %s".formatted(greenFg("jlama"), greenFg("ollama")),
-        AI_TOKEN, "LLM token",
-        AI_URL, "LLM url, e.g, %s".formatted(content("http://localhost:11434").italic().greenFg()),
-        AI_MODEL, "LLM model",
-        PLUGIN_PATHS, "Path to yours plugins, separated by %s".formatted(greenFg(";"))
+    configs = Map.ofEntries(
+        entry(BANNER_ENABLED, "Show or hidden banner. It's %s by default".formatted(greenFg(true))),
+        entry(BANNER_PATH, "Custom banner path"),
+        entry(STARTUP_TRACE, "Print a startup timing breakdown at exit, %s, %s or %s".formatted(greenFg("table"), greenFg("json"), greenFg(false))),
+        entry(PROJECT_NAME, "Project name"),
+        entry(PROJECT_TYPE, "Project type, e.g., %s, %s".formatted(greenFg("spring-boot"), greenFg("quarkus"))),
+        entry(AI_VENDOR, "LLM vendor, e.g, %s, %s".formatted(greenFg("jlama"), greenFg("ollama"))),
+        entry(AI_TOKEN, "LLM token"),
+        entry(AI_URL, "LLM url, e.g, %s".formatted(content("http://localhost:11434").italic().greenFg())),
+        entry(AI_MODEL, "LLM model"),
+        entry(PLUGIN_PATHS, "Path to yours plugins, separated by %s".formatted(greenFg(";"))),
+        entry(UPDATE_CHECK_ENABLED, "Check for BuildCLI updates in background. It's %s by default".formatted(greenFg(true))),
+        entry(UPDATE_CHECK_TTL, "Hours between two update checks, %s by default".formatted(greenFg(24))),
+        entry(UPDATE_CHECK_TIMEOUT, "Seconds an update check waits on each network read, %s by default".formatted(greenFg(5))),
+        entry(BUILD_DAEMON, "Run builds in mvnd or the Gradle daemon: %s (when available, default), %s or %s".formatted(greenFg("auto"), greenFg("warm"), greenFg("cold"))),
+        entry(PROCESS_TIMEOUT, "Seconds after which spawned tools (mvn, gradle, docker, java) are killed, %s means no limit".formatted(greenFg(0)))
     );
   }
 
@@ -1,5 +1,6 @@
 package dev.buildcli.core.domain.configs;
 import dev.buildcli.core.exceptions.ConfigException;
+import dev.buildcli.core.utils.CallEnvironment;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -34,7 +35,7 @@ public class BuildCLIConfig {
         if (value != null && value.matches("^\\$\\{[A-Z]+}$")) {
           value = value.substring(value.indexOf("${") + 2, value.indexOf("}"));
           System.out.println(key + " = " + value);
-          value = System.getenv(value);
+          value = CallEnvironment.get(value);
         }
 
         properties.setProperty(key, value);
@@ -50,7 +51,13 @@ public class BuildCLIConfig {
 
   public Optional<Integer> getPropertyAsInt(String property) {
     try {
-      return Optional.of(Integer.parseInt(properties.getProperty(property)));
+      var value = properties.getProperty(property);
+
+      if (value == null) {
+        return Optional.empty();
+      }
+
+      return Optional.of(Integer.parseInt(value));
     } catch (NumberFormatException e) {
       throw new ConfigException("Invalid integer value for property: " + property, e);
     }
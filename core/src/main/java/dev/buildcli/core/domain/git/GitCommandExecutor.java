@@ -123,6 +123,10 @@ public class GitCommandExecutor extends GitCommandUtils {
         return isRepositoryUpdatedUpstream(gitPath, url);
     }
 
+    public boolean checkIfLocalRepositoryIsUpdated(String gitPath, String url, int timeoutSeconds) throws Exception {
+        return isRepositoryUpdatedUpstream(gitPath, url, timeoutSeconds);
+    }
+
     public void createReleaseBranch(String version) throws IOException, InterruptedException {
         String branchName = releaseVersion(version);
         runGitCommandWithException(GIT, CHECKOUT_B, branchName);
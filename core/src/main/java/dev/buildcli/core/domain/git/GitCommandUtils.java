@@ -1,8 +1,15 @@
 package dev.buildcli.core.domain.git;
 
 import dev.buildcli.core.log.SystemOutLogger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.URIish;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
 import java.util.logging.Logger;
 
 import static dev.buildcli.core.domain.git.GitCommandFormatter.countLogs;
@@ -67,4 +74,24 @@ class GitCommandUtils extends GitOperations {
 
     return count == 0;
   }
-}
\ No newline at end of file
+
+  /**
+   * Same check as {@link #isRepositoryUpdatedUpstream(String, String)} but bounded by a network timeout
+   * and reporting failures to the caller instead of logging them, so it can run quietly in the background.
+   */
+  protected boolean isRepositoryUpdatedUpstream(String gitPath, String url, int timeoutSeconds)
+      throws IOException, GitAPIException, URISyntaxException {
+    try (var localGit = Git.open(new File(gitPath))) {
+      localGit.remoteSetUrl().setRemoteName("origin").setRemoteUri(new URIish(url)).call();
+      localGit.fetch().setRemote("origin").setTimeout(timeoutSeconds).call();
+
+      var localRepository = localGit.getRepository();
+      try (var walk = new RevWalk(localRepository)) {
+        var local = walk.parseCommit(localRepository.resolve("HEAD"));
+        var remote = walk.parseCommit(localRepository.resolve("origin/main"));
+
+        return countLogs(localGit.log().not(local).add(remote).call()) == 0;
+      }
+    }
+  }
+}
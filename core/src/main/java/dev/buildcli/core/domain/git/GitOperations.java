@@ -2,6 +2,7 @@ package dev.buildcli.core.domain.git;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.ObjectId;
@@ -9,13 +10,18 @@ import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.sshd.SshdSessionFactory;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.filter.NotIgnoredFilter;
 import org.eclipse.jgit.util.StringUtils;
 
 import java.net.URISyntaxException;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -45,6 +51,59 @@ public class GitOperations {
         }
     }
 
+    /**
+     * Opens the repository {@code path} belongs to, {@code path} may be any directory of its working tree.
+     *
+     * @return empty when {@code path} is not inside a Git working tree
+     */
+    public Optional<Git> findGitRepository(File path) {
+        var builder = new FileRepositoryBuilder().findGitDir(path.getAbsoluteFile());
+        if (builder.getGitDir() == null) {
+            return Optional.empty();
+        }
+
+        try {
+            repository = builder.build();
+            git = new Git(repository);
+            return Optional.of(git);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Could not open the Git repository of " + path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Lists the files that differ between {@code baseRef} and the working tree, committed or not, including untracked
+     * files that are not ignored.
+     *
+     * @return paths relative to the root of the working tree
+     */
+    public List<String> changedFilesSince(String baseRef) throws IOException {
+        var tree = repository.resolve(baseRef + "^{tree}");
+        if (tree == null) {
+            throw new IOException("Unknown revision: " + baseRef);
+        }
+
+        try (var reader = repository.newObjectReader()) {
+            var base = new CanonicalTreeParser();
+            base.reset(reader, tree);
+
+            var changed = new ArrayList<String>();
+            for (var entry : git.diff().setOldTree(base).setNewTree(new FileTreeIterator(repository))
+                    .setPathFilter(new NotIgnoredFilter(1)).setShowNameAndStatusOnly(true).call()) {
+                if (entry.getChangeType() != DiffEntry.ChangeType.ADD) {
+                    changed.add(entry.getOldPath());
+                }
+                if (entry.getChangeType() != DiffEntry.ChangeType.DELETE && !entry.getNewPath().equals(entry.getOldPath())) {
+                    changed.add(entry.getNewPath());
+                }
+            }
+            return changed;
+        } catch (GitAPIException e) {
+            throw new IOException("Could not diff against " + baseRef, e);
+        }
+    }
+
     public void closeGitRepository() {
         git.close();
     }
@@ -0,0 +1,23 @@
+package dev.buildcli.core.log.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event committed for every {@link StartupTrace} span. Record with
+ * {@code -XX:StartFlightRecording:filename=buildcli.jfr} and inspect with {@code jfr print --events dev.buildcli.StartupPhase}.
+ */
+@Name("dev.buildcli.StartupPhase")
+@Label("BuildCLI Startup Phase")
+@Category("BuildCLI")
+@Description("Duration of one phase of a BuildCLI invocation")
+class StartupPhaseEvent extends Event {
+  @Label("Phase")
+  String phase;
+
+  @Label("Depth")
+  int depth;
+}
@@ -0,0 +1,273 @@
+package dev.buildcli.core.log.trace;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Records nanosecond spans for the phases of a BuildCLI invocation.
+ * <p>
+ * Spans are always recorded and committed as {@link StartupPhaseEvent} JFR events, both are cheap when nobody
+ * looks at them. The breakdown is only printed when tracing was enabled with {@value #FLAG} or the
+ * {@code buildcli.logging.startup.trace} config key.
+ *
+ * <pre>{@code
+ * StartupTrace.run("config", BuildCLIConfig::initialize);
+ * var hook = StartupTrace.call("hooks", () -> new HookManager(commandLine));
+ * }</pre>
+ */
+public final class StartupTrace {
+  public static final String FLAG = "--trace-startup";
+
+  public enum Format {
+    TABLE, JSON;
+
+    /**
+     * @return the format for a flag or config value, {@code null} when tracing is disabled
+     */
+    public static Format parse(String value) {
+      if (value == null || value.isBlank() || value.equalsIgnoreCase("false")) {
+        return null;
+      }
+      return value.trim().equalsIgnoreCase("json") ? JSON : TABLE;
+    }
+  }
+
+  public record Span(String phase, int depth, long startNanos, long durationNanos) {
+  }
+
+  private static final List<Span> spans = new ArrayList<>();
+  private static volatile long origin = System.nanoTime();
+  private static int depth;
+  private static Format format;
+  private static boolean freshJvm = true;
+  private static volatile boolean jfrAvailable = true;
+
+  private StartupTrace() {
+  }
+
+  /**
+   * Starts a new trace, dropping the spans of a previous invocation in the same JVM.
+   */
+  public static synchronized void reset() {
+    spans.clear();
+    origin = System.nanoTime();
+    depth = 0;
+    format = null;
+    freshJvm = false;
+  }
+
+  public static synchronized void enable(Format traceFormat) {
+    if (format == null) {
+      format = traceFormat;
+    }
+  }
+
+  public static synchronized boolean isEnabled() {
+    return format != null;
+  }
+
+  /**
+   * Enables tracing when {@value #FLAG}, {@code --trace-startup=json} or {@code --trace-startup json} is among the
+   * options before the subcommand and removes it, so the command line and hook matching see the arguments the user
+   * meant to run. A separate value is only taken when it names a format, {@code --trace-startup project build} keeps
+   * the subcommand. Arguments from the subcommand on are left alone, they may be meant for the program {@code run}
+   * starts.
+   */
+  public static String[] consumeFlag(String[] args) {
+    var remaining = new ArrayList<String>(args.length);
+    var options = true;
+    for (int i = 0; i < args.length; i++) {
+      var arg = args[i];
+      options &= arg.startsWith("-") && !arg.equals("--");
+      if (options && arg.equals(FLAG)) {
+        if (i + 1 < args.length && isFormatName(args[i + 1])) {
+          enable(Format.parse(args[++i]));
+        } else {
+          enable(Format.TABLE);
+        }
+      } else if (options && arg.startsWith(FLAG + "=")) {
+        var traceFormat = Format.parse(arg.substring(FLAG.length() + 1));
+        if (traceFormat != null) {
+          enable(traceFormat);
+        }
+      } else {
+        remaining.add(arg);
+      }
+    }
+    return remaining.toArray(String[]::new);
+  }
+
+  private static boolean isFormatName(String value) {
+    return Arrays.stream(Format.values()).anyMatch(candidate -> candidate.name().equalsIgnoreCase(value));
+  }
+
+  /**
+   * Runs {@code action} as the span {@code phase}, nested in the span running when it is called.
+   */
+  public static void run(String phase, Runnable action) {
+    var span = start(phase);
+    try {
+      action.run();
+    } finally {
+      span.close();
+    }
+  }
+
+  /**
+   * Like {@link #run(String, Runnable)} for an action returning a value.
+   */
+  public static <T> T call(String phase, Supplier<T> action) {
+    var span = start(phase);
+    try {
+      return action.get();
+    } finally {
+      span.close();
+    }
+  }
+
+  private static ActiveSpan start(String phase) {
+    synchronized (StartupTrace.class) {
+      return new ActiveSpan(phase, depth++);
+    }
+  }
+
+  /**
+   * @return the finished spans ordered by start time, parents before their children
+   */
+  public static synchronized List<Span> spans() {
+    return spans.stream().sorted(Comparator.comparingLong(Span::startNanos).thenComparingInt(Span::depth)).toList();
+  }
+
+  /**
+   * Prints the recorded spans when tracing is enabled.
+   */
+  public static void report(PrintStream out, String version) {
+    Format traceFormat;
+    synchronized (StartupTrace.class) {
+      traceFormat = format;
+    }
+
+    if (traceFormat == null) {
+      return;
+    }
+
+    var recorded = spans();
+    var total = System.nanoTime() - origin;
+
+    if (traceFormat == Format.JSON) {
+      out.println(toJson(recorded, total, version));
+    } else {
+      out.print(toTable(recorded, total, version));
+    }
+    out.flush();
+  }
+
+  static String toTable(List<Span> recorded, long totalNanos, String version) {
+    var builder = new StringBuilder();
+    builder.append("Startup trace (%s)%n".formatted(version));
+    builder.append("  %-40s %12s %12s%n".formatted("phase", "start ms", "duration ms"));
+
+    jvmStartup().ifPresent(jvm -> builder.append("  %-40s %12s %12.3f%n".formatted("jvm (before main)", "-", jvm / 1e6)));
+    for (var span : recorded) {
+      var name = "  ".repeat(span.depth()) + span.phase();
+      builder.append("  %-40s %12.3f %12.3f%n".formatted(name, span.startNanos() / 1e6, span.durationNanos() / 1e6));
+    }
+    builder.append("  %-40s %12s %12.3f%n".formatted("total", "-", totalNanos / 1e6));
+    return builder.toString();
+  }
+
+  static String toJson(List<Span> recorded, long totalNanos, String version) {
+    var json = new LinkedHashMap<String, Object>();
+    json.put("version", version);
+    json.put("timestamp", Instant.now().toString());
+    json.put("javaVersion", System.getProperty("java.version"));
+    jvmStartup().ifPresent(jvm -> json.put("jvmStartupNanos", jvm));
+    json.put("totalNanos", totalNanos);
+
+    var phases = new ArrayList<Map<String, Object>>();
+    for (var span : recorded) {
+      var phase = new LinkedHashMap<String, Object>();
+      phase.put("phase", span.phase());
+      phase.put("depth", span.depth());
+      phase.put("startNanos", span.startNanos());
+      phase.put("durationNanos", span.durationNanos());
+      phases.add(phase);
+    }
+    json.put("phases", phases);
+
+    return new GsonBuilder().disableHtmlEscaping().create().toJson(json);
+  }
+
+  /**
+   * Time between process start and the first span, i.e. JVM boot and class loading of the main class.
+   * Unknown for later invocations served by a long running JVM.
+   */
+  private static Optional<Long> jvmStartup() {
+    if (!freshJvm) {
+      return Optional.empty();
+    }
+    return ProcessHandle.current().info().startInstant()
+        .map(start -> Duration.between(start, Instant.now()).toNanos() - (System.nanoTime() - origin))
+        .filter(nanos -> nanos >= 0);
+  }
+
+  private static synchronized void record(Span span) {
+    spans.add(span);
+    depth = Math.max(0, span.depth());
+  }
+
+  /**
+   * Running span, closing it records its duration.
+   */
+  private static final class ActiveSpan {
+    private final String phase;
+    private final int spanDepth;
+    private final long start = System.nanoTime();
+    private final StartupPhaseEvent event = newEvent();
+
+    private ActiveSpan(String phase, int spanDepth) {
+      this.phase = phase;
+      this.spanDepth = spanDepth;
+      if (event != null) {
+        event.begin();
+      }
+    }
+
+    void close() {
+      var end = System.nanoTime();
+      if (event != null) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.phase = phase;
+          event.depth = spanDepth;
+          event.commit();
+        }
+      }
+      record(new Span(phase, spanDepth, start - origin, end - start));
+    }
+
+    private static StartupPhaseEvent newEvent() {
+      if (!jfrAvailable) {
+        return null;
+      }
+      try {
+        return new StartupPhaseEvent();
+      } catch (LinkageError e) {
+        // JFR missing from the runtime image or failing to initialize, tracing must never break a command
+        jfrAvailable = false;
+        return null;
+      }
+    }
+  }
+}
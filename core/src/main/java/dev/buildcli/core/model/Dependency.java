@@ -1,11 +1,5 @@
 package dev.buildcli.core.model;
 
-import jakarta.xml.bind.annotation.XmlAccessType;
-import jakarta.xml.bind.annotation.XmlAccessorType;
-import jakarta.xml.bind.annotation.XmlRootElement;
-
-@XmlRootElement(name = "dependency")
-@XmlAccessorType(XmlAccessType.FIELD)
 public class Dependency {
 
 	public static final String XML_WRAPPER_ELEMENT = "dependencies";
@@ -1,25 +1,15 @@
 package dev.buildcli.core.model;
 
-import jakarta.xml.bind.annotation.XmlAccessType;
-import jakarta.xml.bind.annotation.XmlAccessorType;
-import jakarta.xml.bind.annotation.XmlElement;
-import jakarta.xml.bind.annotation.XmlElementWrapper;
-import jakarta.xml.bind.annotation.XmlRootElement;
-
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Logger;
 
-@XmlRootElement(name = "project")
-@XmlAccessorType(XmlAccessType.FIELD)
 public class Pom {
 	
 	private static final Logger logger = Logger.getLogger(Pom.class.getName());
 	public static final String XML_ELEMENT = "project";
 
-	@XmlElementWrapper
-	@XmlElement(name = "dependency")
     private final List<Dependency> dependencies;
     
     public Pom() {
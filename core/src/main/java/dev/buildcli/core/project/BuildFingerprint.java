@@ -0,0 +1,161 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.utils.CallEnvironment;
+import dev.buildcli.core.utils.HashUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Hash of everything a build depends on: the build files, every file under {@code src/} and the JDK the build tool
+ * runs with. Two builds with the same fingerprint produce the same artifact. In a Maven multi-module project the
+ * build files and {@code src/} of every module of the {@link ModuleGraph} are included.
+ * <p>
+ * {@code buildInputs} only covers build files and JDK, when it is unchanged an incremental build without
+ * {@code clean} is safe.
+ */
+public record BuildFingerprint(String value, String buildInputs, Map<String, FileState> sources) {
+  public static final List<String> BUILD_FILES = List.of("pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle",
+      "settings.gradle.kts", "gradle.properties", ".mvn/maven.config", ".mvn/jvm.config");
+
+  /**
+   * Size, timestamp and content hash of one source file, the hash is reused while size and timestamp match.
+   */
+  public record FileState(long size, long lastModified, String sha256) {
+    String format() {
+      return size + ":" + lastModified + ":" + sha256;
+    }
+
+    static Optional<FileState> parse(String value) {
+      var parts = value.split(":", 3);
+      try {
+        return parts.length == 3 ? Optional.of(new FileState(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2])) : Optional.empty();
+      } catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  public static BuildFingerprint compute(Path projectDir) throws IOException {
+    return compute(projectDir, Map.of());
+  }
+
+  /**
+   * @param previous source states of the last build, unchanged files are not read again
+   * @throws IOException when a file cannot be read or the modules of the project cannot be resolved
+   */
+  public static BuildFingerprint compute(Path projectDir, Map<String, FileState> previous) throws IOException {
+    var root = projectDir.toAbsolutePath().normalize();
+    var modules = moduleDirectories(root);
+
+    var inputs = HashUtils.sha256Digest();
+    update(inputs, "jdk", jdkIdentity());
+    for (var module : modules) {
+      for (var name : BUILD_FILES) {
+        var file = module.resolve(name);
+        if (Files.isRegularFile(file)) {
+          update(inputs, relative(root, file), HashUtils.sha256(file));
+        }
+      }
+    }
+    var buildInputs = hex(inputs.digest());
+
+    var sources = new TreeMap<String, FileState>();
+    for (var module : modules) {
+      var src = module.resolve("src");
+      if (!Files.isDirectory(src)) {
+        continue;
+      }
+
+      try (Stream<Path> files = Files.walk(src)) {
+        for (var file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+          var relative = relative(root, file);
+          var size = Files.size(file);
+          var lastModified = Files.getLastModifiedTime(file).toMillis();
+          var known = previous.get(relative);
+          var sha = known != null && known.size() == size && known.lastModified() == lastModified ? known.sha256() : HashUtils.sha256(file);
+          sources.put(relative, new FileState(size, lastModified, sha));
+        }
+      }
+    }
+
+    var all = HashUtils.sha256Digest();
+    update(all, "inputs", buildInputs);
+    sources.forEach((path, state) -> update(all, path, state.sha256()));
+
+    return new BuildFingerprint(hex(all.digest()), buildInputs, sources);
+  }
+
+  /**
+   * @return the project directory followed by the directory of every Maven module
+   * @throws IOException for a multi-project Gradle build
+   */
+  private static List<Path> moduleDirectories(Path root) throws IOException {
+    for (var settings : List.of("settings.gradle", "settings.gradle.kts")) {
+      var file = root.resolve(settings);
+      if (Files.isRegularFile(file) && Files.readString(file).contains("include")) {
+        // Subprojects are not resolved, such builds are never skipped
+        throw new IOException("Multi-project Gradle build, subprojects are not fingerprinted");
+      }
+    }
+
+    return ModuleGraph.directories(root);
+  }
+
+  private static String relative(Path root, Path file) {
+    return root.relativize(file).toString().replace('\\', '/');
+  }
+
+  /**
+   * @return the JDK a spawned {@code mvn} or {@code gradle} picks up: {@code JAVA_HOME}, or {@code java} on the PATH
+   * of the caller, which for a call served by the daemon is not the daemon's own environment
+   */
+  static String jdkIdentity() {
+    var javaHome = CallEnvironment.get("JAVA_HOME");
+    if (javaHome != null && !javaHome.isBlank()) {
+      var home = Path.of(javaHome);
+      var release = home.resolve("release");
+      try {
+        return home.toRealPath() + (Files.isRegularFile(release) ? "\n" + Files.readString(release) : "");
+      } catch (IOException e) {
+        return javaHome;
+      }
+    }
+
+    var path = CallEnvironment.get("PATH");
+    if (path != null) {
+      for (var dir : path.split(File.pathSeparator)) {
+        var java = Path.of(dir, "java");
+        if (Files.isExecutable(java)) {
+          try {
+            return java.toRealPath().toString();
+          } catch (IOException e) {
+            return java.toString();
+          }
+        }
+      }
+    }
+    return "unknown";
+  }
+
+  private static void update(MessageDigest digest, String name, String value) {
+    digest.update(name.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) '\n');
+  }
+
+  private static String hex(byte[] bytes) {
+    return HexFormat.of().formatHex(bytes);
+  }
+}
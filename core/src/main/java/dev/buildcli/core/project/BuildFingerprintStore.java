@@ -0,0 +1,184 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.project.BuildFingerprint.FileState;
+import dev.buildcli.core.utils.HashUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * What the last successful build of a project produced, one properties file per project and goal under
+ * {@code ~/.buildcli/cache/builds}.
+ */
+class BuildFingerprintStore {
+  private static final String FINGERPRINT = "fingerprint";
+  private static final String BUILD_INPUTS = "buildInputs";
+  private static final String ARTIFACT_PATH = "artifact.path";
+  private static final String ARTIFACT_SIZE = "artifact.size";
+  private static final String ARTIFACT_MODIFIED = "artifact.lastModified";
+  private static final String BUILD_MILLIS = "build.millis";
+  private static final String SAVED_MILLIS = "saved.millis";
+  private static final String SOURCE_PREFIX = "source.";
+
+  private final Path file;
+  private final Properties properties = new Properties();
+
+  BuildFingerprintStore(Path cacheDir, Path projectDir, String goal) {
+    this.file = cacheDir.resolve("builds").resolve(HashUtils.key(projectDir.toAbsolutePath().normalize() + "|" + goal) + ".properties");
+    load();
+  }
+
+  Optional<String> fingerprint() {
+    return Optional.ofNullable(properties.getProperty(FINGERPRINT));
+  }
+
+  Optional<String> buildInputs() {
+    return Optional.ofNullable(properties.getProperty(BUILD_INPUTS));
+  }
+
+  Map<String, FileState> sources() {
+    var sources = new HashMap<String, FileState>();
+    for (var name : properties.stringPropertyNames()) {
+      if (name.startsWith(SOURCE_PREFIX)) {
+        FileState.parse(properties.getProperty(name)).ifPresent(state -> sources.put(name.substring(SOURCE_PREFIX.length()), state));
+      }
+    }
+    return sources;
+  }
+
+  long buildMillis() {
+    return parseLong(BUILD_MILLIS);
+  }
+
+  long savedMillis() {
+    return parseLong(SAVED_MILLIS);
+  }
+
+  /**
+   * @return true when the recorded artifact is still on disk, untouched since the build that produced it. A directory
+   * such as {@code target/classes} counts as untouched while its number of files and its newest file are the same,
+   * so a build of another goal that recompiled into it invalidates this one
+   */
+  boolean artifactMatches() {
+    var path = properties.getProperty(ARTIFACT_PATH);
+    if (path == null) {
+      return false;
+    }
+
+    try {
+      return stamp(Path.of(path))
+          .filter(stamp -> stamp.size() == parseLong(ARTIFACT_SIZE) && stamp.lastModified() == parseLong(ARTIFACT_MODIFIED))
+          .isPresent();
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  void recordBuild(BuildFingerprint fingerprint, Path artifact, long buildMillis) {
+    var saved = properties.getProperty(SAVED_MILLIS);
+    properties.clear();
+    if (saved != null) {
+      properties.setProperty(SAVED_MILLIS, saved);
+    }
+
+    properties.setProperty(FINGERPRINT, fingerprint.value());
+    properties.setProperty(BUILD_INPUTS, fingerprint.buildInputs());
+    properties.setProperty(BUILD_MILLIS, String.valueOf(buildMillis));
+    fingerprint.sources().forEach((path, state) -> properties.setProperty(SOURCE_PREFIX + path, state.format()));
+
+    if (artifact != null) {
+      properties.setProperty(ARTIFACT_PATH, artifact.toAbsolutePath().toString());
+      try {
+        stamp(artifact).ifPresentOrElse(stamp -> {
+          properties.setProperty(ARTIFACT_SIZE, String.valueOf(stamp.size()));
+          properties.setProperty(ARTIFACT_MODIFIED, String.valueOf(stamp.lastModified()));
+        }, () -> properties.remove(ARTIFACT_PATH));
+      } catch (IOException e) {
+        properties.remove(ARTIFACT_PATH);
+      }
+    }
+    save();
+  }
+
+  void recordSkip(long savedMillis) {
+    properties.setProperty(SAVED_MILLIS, String.valueOf(savedMillis() + savedMillis));
+    save();
+  }
+
+  void invalidate() {
+    var saved = properties.getProperty(SAVED_MILLIS);
+    properties.clear();
+    if (saved != null) {
+      properties.setProperty(SAVED_MILLIS, saved);
+    }
+    save();
+  }
+
+  /**
+   * Size and timestamp of a file, or number of files and newest timestamp of a directory.
+   */
+  private record Stamp(long size, long lastModified) {
+  }
+
+  /**
+   * @return empty when the artifact is missing or an empty directory
+   */
+  private static Optional<Stamp> stamp(Path artifact) throws IOException {
+    if (Files.isRegularFile(artifact)) {
+      return Optional.of(new Stamp(Files.size(artifact), Files.getLastModifiedTime(artifact).toMillis()));
+    }
+    if (!Files.isDirectory(artifact)) {
+      return Optional.empty();
+    }
+
+    long files = 0;
+    long newest = 0;
+    try (Stream<Path> walk = Files.walk(artifact)) {
+      for (var file : (Iterable<Path>) walk.filter(Files::isRegularFile)::iterator) {
+        files++;
+        newest = Math.max(newest, Files.getLastModifiedTime(file).toMillis());
+      }
+    }
+    return files == 0 ? Optional.empty() : Optional.of(new Stamp(files, newest));
+  }
+
+  private long parseLong(String key) {
+    try {
+      return Long.parseLong(properties.getProperty(key, "0"));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private void load() {
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+    } catch (IOException | IllegalArgumentException e) {
+      // An unreadable fingerprint only costs one full build
+      properties.clear();
+    }
+  }
+
+  private void save() {
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file)) {
+        properties.store(writer, "BuildCLI build fingerprint");
+      }
+    } catch (IOException e) {
+      // Not being able to persist the fingerprint must never break the build the user ran
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package dev.buildcli.core.project;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import dev.buildcli.core.utils.HashUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Compiles single-file programs in-process with {@link javax.tools.JavaCompiler} and keeps the classes under
+ * {@code ~/.buildcli/cache/classes}, so running the same source again starts the JVM straight from the cache instead
+ * of recompiling through the source launcher.
+ * <p>
+ * Other classes the program uses are picked up from the package root of the file, like the multi-file source
+ * launcher does. Entries are keyed by the hash of the main file and the JDK version, and are reused only while every
+ * source the compiler read still has the same content.
+ */
+public class CompiledSourceCache {
+  public static final Path DEFAULT_CACHE_DIR = IncrementalBuild.DEFAULT_CACHE_DIR.resolve("classes");
+
+  private static final Logger logger = LoggerFactory.getLogger(CompiledSourceCache.class);
+  private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+  private static final String MANIFEST = "manifest.properties";
+  private static final String MAIN_CLASS = "main";
+  private static final String SOURCE_PREFIX = "source.";
+
+  /**
+   * @param cached true when the classes came from the cache without compiling
+   */
+  public record Compiled(Path classes, String mainClass, boolean cached) {
+  }
+
+  private final Path cacheDir;
+
+  public CompiledSourceCache() {
+    this(DEFAULT_CACHE_DIR);
+  }
+
+  public CompiledSourceCache(Path cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * @return false when BuildCLI runs on a JRE without {@code javac}
+   */
+  public static boolean isAvailable() {
+    return ToolProvider.getSystemJavaCompiler() != null;
+  }
+
+  /**
+   * @param diagnostics where compiler errors and warnings are printed
+   * @throws IOException when the source does not compile
+   */
+  public Compiled compile(Path source, PrintStream diagnostics) throws IOException {
+    source = source.toAbsolutePath().normalize();
+    var content = Files.readString(source);
+    var entry = cacheDir.resolve(HashUtils.sha256(Runtime.version() + "\n" + content));
+
+    var cached = cached(entry);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IOException("No Java compiler available, BuildCLI must run on a JDK");
+    }
+
+    Files.createDirectories(cacheDir);
+    var temp = Files.createTempDirectory(cacheDir, "compile");
+    try {
+      var classes = Files.createDirectories(temp.resolve("classes"));
+      var collector = new DiagnosticCollector<JavaFileObject>();
+      var read = ConcurrentHashMap.<Path>newKeySet();
+      var mainClass = new String[1];
+
+      try (var fileManager = compiler.getStandardFileManager(collector, null, StandardCharsets.UTF_8)) {
+        fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(classes));
+        fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, List.of());
+        fileManager.setLocationFromPaths(StandardLocation.SOURCE_PATH, packageRoot(source, content).map(List::of).orElse(List.of()));
+
+        var units = fileManager.getJavaFileObjects(source);
+        var task = (JavacTask) compiler.getTask(null, fileManager, collector, List.of("-implicit:class", "-proc:none"), null, units);
+        var mainSource = source;
+        task.addTaskListener(new TaskListener() {
+          @Override
+          public void finished(TaskEvent event) {
+            if (event.getKind() != TaskEvent.Kind.PARSE) {
+              return;
+            }
+            var parsed = Path.of(event.getSourceFile().toUri()).toAbsolutePath().normalize();
+            read.add(parsed);
+            if (parsed.equals(mainSource)) {
+              mainClass[0] = firstClass(event);
+            }
+          }
+        });
+
+        var success = task.call();
+        collector.getDiagnostics().forEach(diagnostic -> diagnostics.println(diagnostic));
+        if (!success) {
+          throw new IOException("Compilation of " + source + " failed");
+        }
+      }
+
+      if (mainClass[0] == null) {
+        throw new IOException("No class declared in " + source);
+      }
+
+      var manifest = new Properties();
+      manifest.setProperty(MAIN_CLASS, mainClass[0]);
+      for (var file : read) {
+        manifest.setProperty(SOURCE_PREFIX + file, HashUtils.sha256(file));
+      }
+      try (Writer writer = Files.newBufferedWriter(temp.resolve(MANIFEST))) {
+        manifest.store(writer, "BuildCLI compiled source");
+      }
+
+      publish(temp, entry);
+      return new Compiled(entry.resolve("classes"), mainClass[0], false);
+    } finally {
+      delete(temp);
+    }
+  }
+
+  private Optional<Compiled> cached(Path entry) {
+    var manifestFile = entry.resolve(MANIFEST);
+    if (!Files.isRegularFile(manifestFile)) {
+      return Optional.empty();
+    }
+
+    var manifest = new Properties();
+    try (Reader reader = Files.newBufferedReader(manifestFile)) {
+      manifest.load(reader);
+      for (var name : manifest.stringPropertyNames()) {
+        if (name.startsWith(SOURCE_PREFIX)) {
+          var file = Path.of(name.substring(SOURCE_PREFIX.length()));
+          if (!Files.isRegularFile(file) || !HashUtils.sha256(file).equals(manifest.getProperty(name))) {
+            logger.debug("{} changed, recompiling", file);
+            return Optional.empty();
+          }
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+
+    var mainClass = manifest.getProperty(MAIN_CLASS);
+    return mainClass == null ? Optional.empty() : Optional.of(new Compiled(entry.resolve("classes"), mainClass, true));
+  }
+
+  /**
+   * Replaces the entry in one step, so a concurrent run never sees half of the classes.
+   */
+  private void publish(Path temp, Path entry) throws IOException {
+    var stale = Files.isDirectory(entry) ? Files.move(entry, cacheDir.resolve(entry.getFileName() + ".stale-" + System.nanoTime())) : null;
+    try {
+      Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, entry);
+    }
+    if (stale != null) {
+      delete(stale);
+    }
+  }
+
+  /**
+   * @return the directory the package of {@code source} starts in, empty when the file is not laid out by package
+   */
+  static Optional<Path> packageRoot(Path source, String content) {
+    var matcher = PACKAGE.matcher(content);
+    var root = source.getParent();
+    if (matcher.find()) {
+      var segments = matcher.group(1).split("\\.");
+      for (var i = segments.length - 1; i >= 0; i--) {
+        if (root == null || !root.getFileName().toString().equals(segments[i])) {
+          return Optional.empty();
+        }
+        root = root.getParent();
+      }
+    }
+    return Optional.ofNullable(root);
+  }
+
+  private static String firstClass(TaskEvent event) {
+    var unit = event.getCompilationUnit();
+    var packageName = unit.getPackageName() == null ? "" : unit.getPackageName() + ".";
+    return unit.getTypeDecls().stream()
+        .filter(ClassTree.class::isInstance)
+        .map(type -> packageName + ((ClassTree) type).getSimpleName())
+        .findFirst()
+        .orElse(null);
+  }
+
+  private static void delete(Path root) {
+    if (!Files.exists(root)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException e) {
+      logger.debug("Could not delete {}: {}", root, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.HashUtils;
+import dev.buildcli.core.utils.tools.maven.EffectivePomResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runtime dependency classpath of a Maven project, resolved once through {@code dependency:build-classpath} and
+ * cached under {@code ~/.buildcli/cache/classpath} keyed by the hash of the {@code pom.xml}, its parents and the BOMs
+ * it imports. It is resolved again when one of them changes or a jar of the cached classpath disappeared from the
+ * local repository.
+ */
+public class DependencyClasspath {
+  public static final Path DEFAULT_CACHE_DIR = IncrementalBuild.DEFAULT_CACHE_DIR.resolve("classpath");
+
+  private static final Logger logger = LoggerFactory.getLogger(DependencyClasspath.class);
+
+  private final File projectDir;
+  private final Path cacheDir;
+
+  public DependencyClasspath(File projectDir) {
+    this(projectDir, DEFAULT_CACHE_DIR);
+  }
+
+  public DependencyClasspath(File projectDir, Path cacheDir) {
+    this.projectDir = projectDir.getAbsoluteFile();
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * @return the classpath, resolving it with Maven when it is not cached yet
+   * @throws IOException when Maven could not resolve the dependencies
+   */
+  public String resolve() throws IOException {
+    var cacheFile = cacheFile();
+    var cached = cached(cacheFile);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+
+    Files.createDirectories(cacheDir);
+    var temp = Files.createTempFile(cacheDir, "classpath", ".tmp");
+    try {
+      var process = MavenProcess.createBuildClasspathProcessor(projectDir, temp.toFile());
+      if (process.run() != 0) {
+        process.stdout().forEach(line -> logger.error("{}", line));
+        throw new IOException("Could not resolve the dependencies of " + projectDir);
+      }
+
+      var classpath = Files.readString(temp).trim();
+      Files.writeString(cacheFile, classpath);
+      return classpath;
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  Optional<String> cached(Path cacheFile) {
+    if (!Files.isRegularFile(cacheFile)) {
+      return Optional.empty();
+    }
+
+    try {
+      var classpath = Files.readString(cacheFile).trim();
+      var complete = classpath.isEmpty() || Arrays.stream(classpath.split(File.pathSeparator)).allMatch(entry -> Files.exists(Path.of(entry)));
+      return complete ? Optional.of(classpath) : Optional.empty();
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  Path cacheFile() throws IOException {
+    var pom = projectDir.toPath().resolve(MavenConstants.FILE);
+    List<Path> sources;
+    try {
+      sources = EffectivePomResolver.shared().sources(pom);
+    } catch (IOException e) {
+      // A parent that is not downloaded yet changes the key once Maven fetched it
+      sources = List.of(pom);
+    }
+
+    var digest = HashUtils.sha256Digest();
+    for (var source : sources) {
+      digest.update(Files.readAllBytes(source));
+    }
+    return cacheDir.resolve(HexFormat.of().formatHex(digest.digest()) + ".classpath");
+  }
+}
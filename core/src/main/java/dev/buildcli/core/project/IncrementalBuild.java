@@ -0,0 +1,149 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.actions.commandline.AbstractCommandLineProcess;
+import dev.buildcli.core.actions.commandline.GradleProcess;
+import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.constants.GradleConstants;
+import dev.buildcli.core.constants.MavenConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Builds a project only when something changed since its last successful build.
+ * <p>
+ * The {@link BuildFingerprint} of the project is compared with the one stored after the last build: when it matches
+ * and the artifact in {@code target/} (or {@code build/}) is still the one that build produced, nothing runs at all.
+ * When sources were only added or modified the build runs without {@code clean}, a changed build file or JDK, or a
+ * deleted source, triggers a full build.
+ */
+public class IncrementalBuild {
+  public static final Path DEFAULT_CACHE_DIR = Path.of(System.getProperty("user.home"), ".buildcli", "cache");
+
+  private static final Logger logger = LoggerFactory.getLogger(IncrementalBuild.class);
+
+  public enum Tool {
+    MAVEN, GRADLE
+  }
+
+  public enum Goal {
+    COMPILE, PACKAGE
+  }
+
+  public enum Outcome {
+    /** Nothing changed, the build was skipped. */
+    UP_TO_DATE,
+    /** Only sources changed, built without clean. */
+    INCREMENTAL,
+    /** First build, changed build files or JDK, or forced. */
+    FULL
+  }
+
+  /**
+   * @param process    the build that ran, null when it was skipped
+   * @param saved      duration of the last real build when it was skipped, zero otherwise
+   * @param totalSaved everything skipping saved so far on this project and goal
+   */
+  public record Result(Outcome outcome, int exitCode, AbstractCommandLineProcess process, Duration saved,
+                       Duration totalSaved) {
+    public boolean isSuccess() {
+      return exitCode == 0;
+    }
+  }
+
+  private final File projectDir;
+  private final Tool tool;
+  private final Goal goal;
+  private final Path cacheDir;
+
+  public IncrementalBuild(File projectDir, Tool tool, Goal goal) {
+    this(projectDir, tool, goal, DEFAULT_CACHE_DIR);
+  }
+
+  public IncrementalBuild(File projectDir, Tool tool, Goal goal, Path cacheDir) {
+    this.projectDir = projectDir.getAbsoluteFile();
+    this.tool = tool;
+    this.goal = goal;
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * @param force always run a full build, ignoring the stored fingerprint
+   */
+  public Result run(boolean force) {
+    var store = new BuildFingerprintStore(cacheDir, projectDir.toPath(), tool + "-" + goal);
+
+    BuildFingerprint fingerprint = null;
+    try {
+      fingerprint = BuildFingerprint.compute(projectDir.toPath(), store.sources());
+    } catch (IOException e) {
+      logger.debug("Could not fingerprint {}, building it: {}", projectDir, e.getMessage());
+    }
+
+    if (!force && fingerprint != null && store.fingerprint().filter(fingerprint.value()::equals).isPresent()
+        && store.artifactMatches()) {
+      var saved = Duration.ofMillis(store.buildMillis());
+      store.recordSkip(saved.toMillis());
+      return new Result(Outcome.UP_TO_DATE, 0, null, saved, Duration.ofMillis(store.savedMillis()));
+    }
+
+    // Classes of deleted sources would survive a build without clean
+    var incremental = !force && fingerprint != null
+        && store.buildInputs().filter(fingerprint.buildInputs()::equals).isPresent()
+        && fingerprint.sources().keySet().containsAll(store.sources().keySet())
+        && Files.isDirectory(outputDir());
+    var process = createProcess(!incremental);
+    var exitCode = process.run();
+
+    if (exitCode == 0 && fingerprint != null) {
+      var millis = process.stats().map(stats -> stats.wallTime().toMillis()).orElse(0L);
+      store.recordBuild(fingerprint, artifact().orElse(null), millis);
+    } else {
+      store.invalidate();
+    }
+
+    return new Result(incremental ? Outcome.INCREMENTAL : Outcome.FULL, exitCode, process, Duration.ZERO,
+        Duration.ofMillis(store.savedMillis()));
+  }
+
+  private AbstractCommandLineProcess createProcess(boolean clean) {
+    return switch (tool) {
+      case MAVEN -> goal == Goal.PACKAGE ? MavenProcess.createPackageProcessor(projectDir, clean) : MavenProcess.createCompileProcessor(projectDir, clean);
+      case GRADLE -> goal == Goal.PACKAGE ? GradleProcess.createPackageProcessor(projectDir, clean) : GradleProcess.createCompileProcessor(projectDir, clean);
+    };
+  }
+
+  private Path outputDir() {
+    return projectDir.toPath().resolve(tool == Tool.MAVEN ? MavenConstants.TARGET : GradleConstants.BUILD_DIR);
+  }
+
+  /**
+   * @return the newest jar for packaging builds, the classes directory for compile builds
+   */
+  Optional<Path> artifact() {
+    if (goal == Goal.COMPILE) {
+      var classes = outputDir().resolve("classes");
+      return Files.isDirectory(classes) ? Optional.of(classes) : Optional.empty();
+    }
+
+    var jars = tool == Tool.MAVEN ? outputDir() : outputDir().resolve("libs");
+    if (!Files.isDirectory(jars)) {
+      return Optional.empty();
+    }
+
+    try (Stream<Path> files = Files.list(jars)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+          .max(Comparator.comparingLong(file -> file.toFile().lastModified()));
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+  }
+}
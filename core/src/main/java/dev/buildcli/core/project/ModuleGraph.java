@@ -0,0 +1,204 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.tools.maven.EffectivePom;
+import dev.buildcli.core.utils.tools.maven.EffectivePomResolver;
+import dev.buildcli.core.utils.tools.maven.PomModel;
+import dev.buildcli.core.utils.tools.maven.PomModelCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * The modules of a Maven multi-module project and the dependencies between them, read from the {@code <modules>} of
+ * every POM down from the root.
+ * <p>
+ * A module depends on another reactor module when it declares it as a dependency or as its parent. Dependencies are
+ * read from the {@link EffectivePom}, so those inherited from a parent or added by an active profile count, and
+ * {@code ${...}} references such as {@code ${project.groupId}} or {@code ${revision}} are resolved. Dependencies on
+ * artifacts outside the reactor are ignored, they come from the repository either way.
+ */
+public class ModuleGraph {
+
+  /**
+   * @param id           {@code groupId:artifactId}
+   * @param dependencies ids of the reactor modules this one needs, always part of the graph
+   */
+  public record Module(String id, String artifactId, Path directory, String packaging, Set<String> dependencies) {
+    public boolean isAggregator() {
+      return "pom".equals(packaging);
+    }
+  }
+
+  private final Map<String, Module> modules;
+
+  private ModuleGraph(Map<String, Module> modules) {
+    this.modules = modules;
+  }
+
+  /**
+   * @throws IllegalStateException when the modules depend on each other in a cycle
+   */
+  public static ModuleGraph read(Path rootDir) throws IOException {
+    var declared = new LinkedHashMap<String, Declared>();
+    collect(rootDir.toAbsolutePath().normalize(), null, declared, new LinkedHashSet<>());
+
+    var modules = new LinkedHashMap<String, Module>();
+    for (var module : declared.values()) {
+      var dependencies = new LinkedHashSet<String>();
+      module.parent().filter(declared::containsKey).ifPresent(dependencies::add);
+      module.dependencies().stream().filter(declared::containsKey).filter(id -> !id.equals(module.id())).forEach(dependencies::add);
+      modules.put(module.id(), new Module(module.id(), module.artifactId(), module.directory(), module.packaging(), Set.copyOf(dependencies)));
+    }
+
+    var graph = new ModuleGraph(modules);
+    graph.order();
+    return graph;
+  }
+
+  /**
+   * @return true when the POM in {@code rootDir} declares modules
+   */
+  public static boolean isMultiModule(Path rootDir) {
+    try {
+      return !PomModelCache.shared().get(rootDir.resolve(MavenConstants.FILE)).modules().isEmpty();
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @return {@code rootDir} followed by the directory of every other module sorted by path, only {@code rootDir} for a
+   * project without modules. Paths are absolute.
+   * @throws IOException when a POM can not be read or the modules depend on each other in a cycle
+   */
+  public static List<Path> directories(Path rootDir) throws IOException {
+    var root = rootDir.toAbsolutePath().normalize();
+    if (!isMultiModule(root)) {
+      return List.of(root);
+    }
+
+    try {
+      var directories = new TreeSet<Path>();
+      read(root).modules().forEach(module -> directories.add(module.directory()));
+      directories.remove(root);
+      return Stream.concat(Stream.of(root), directories.stream()).toList();
+    } catch (IllegalStateException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  public Collection<Module> modules() {
+    return modules.values();
+  }
+
+  public Optional<Module> module(String id) {
+    return Optional.ofNullable(modules.get(id));
+  }
+
+  /**
+   * @return the modules that depend directly on {@code id}
+   */
+  public List<Module> dependents(String id) {
+    return modules.values().stream().filter(module -> module.dependencies().contains(id)).toList();
+  }
+
+  /**
+   * @return every module after the modules it depends on, in declaration order otherwise
+   * @throws IllegalStateException when the modules depend on each other in a cycle
+   */
+  public List<Module> order() {
+    var ordered = new LinkedHashMap<String, Module>();
+    var visiting = new LinkedHashSet<String>();
+    for (var module : modules.values()) {
+      visit(module, ordered, visiting);
+    }
+    return List.copyOf(ordered.values());
+  }
+
+  private void visit(Module module, Map<String, Module> ordered, Set<String> visiting) {
+    if (ordered.containsKey(module.id())) {
+      return;
+    }
+    if (!visiting.add(module.id())) {
+      var cycle = new ArrayList<>(visiting.stream().dropWhile(id -> !id.equals(module.id())).toList());
+      cycle.add(module.id());
+      throw new IllegalStateException("Modules depend on each other in a cycle: " + String.join(" -> ", cycle));
+    }
+    for (var dependency : module.dependencies()) {
+      visit(modules.get(dependency), ordered, visiting);
+    }
+    visiting.remove(module.id());
+    ordered.put(module.id(), module);
+  }
+
+  private record Declared(String id, String artifactId, Path directory, String packaging, Optional<String> parent,
+                          List<String> dependencies) {
+  }
+
+  private static void collect(Path directory, String inheritedGroupId, Map<String, Declared> declared, Set<Path> seen)
+      throws IOException {
+    if (!seen.add(directory)) {
+      return;
+    }
+
+    var pomFile = directory.resolve(MavenConstants.FILE);
+    var project = PomModelCache.shared().get(pomFile);
+    var effective = effective(pomFile);
+    var parentGroupId = project.parent().map(PomModel.Parent::groupId);
+    var groupId = effective.map(EffectivePom::groupId)
+        .or(() -> Optional.ofNullable(project.groupId()).or(() -> parentGroupId))
+        .orElse(inheritedGroupId);
+    var artifactId = Optional.ofNullable(project.artifactId())
+        .orElseThrow(() -> new IOException("No artifactId in " + pomFile));
+
+    var dependencies = new ArrayList<String>();
+    for (var dependency : effective.map(EffectivePom::dependencies).orElse(project.dependencies())) {
+      var dependencyGroupId = "${project.groupId}".equals(dependency.groupId()) ? groupId : dependency.groupId();
+      if (dependencyGroupId != null && dependency.artifactId() != null) {
+        dependencies.add(dependencyGroupId + ":" + dependency.artifactId());
+      }
+    }
+
+    var parentId = project.parent().filter(parent -> parent.groupId() != null && parent.artifactId() != null)
+        .map(parent -> parent.groupId() + ":" + parent.artifactId());
+    var id = groupId + ":" + artifactId;
+    var packaging = effective.map(EffectivePom::packaging).orElse(project.packagingOrDefault());
+    declared.put(id, new Declared(id, artifactId, directory, packaging, parentId, dependencies));
+
+    for (var module : effective.map(EffectivePom::modules).orElse(project.modules())) {
+      var moduleDir = directory.resolve(module).normalize();
+      if (Files.isRegularFile(moduleDir)) {
+        // <module> may point at a POM file instead of a directory
+        moduleDir = moduleDir.getParent();
+      }
+      if (Files.isRegularFile(moduleDir.resolve(MavenConstants.FILE))) {
+        collect(moduleDir, groupId, declared, seen);
+      }
+    }
+  }
+
+  /**
+   * @return the POM with its properties interpolated, inherited dependencies merged in and profiles activated, empty
+   * when a parent is neither in the reactor nor in the local repository yet
+   */
+  private static Optional<EffectivePom> effective(Path pomFile) {
+    try {
+      return Optional.of(EffectivePomResolver.shared().resolve(pomFile));
+    } catch (IOException e) {
+      // The POM is read as it is written, which is enough for modules that name each other literally
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.project.ModuleGraph.Module;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.ToIntFunction;
+
+/**
+ * Builds the modules of a {@link ModuleGraph} concurrently, at most {@code jobs} at a time. Every module starts as
+ * soon as all the modules it depends on were built successfully, modules downstream of a failure are skipped while
+ * independent ones keep building.
+ */
+public class ParallelModuleBuild {
+  private static final Logger logger = LoggerFactory.getLogger(ParallelModuleBuild.class);
+
+  public enum Status {
+    SUCCESS, FAILED, SKIPPED
+  }
+
+  /**
+   * @param start offset from the start of the whole build
+   */
+  public record ModuleResult(Module module, Status status, int exitCode, Duration start, Duration duration) {
+    public Duration end() {
+      return start.plus(duration);
+    }
+  }
+
+  /**
+   * @param results      in build order
+   * @param criticalPath the chain of modules that determined the wall time, each one waited for the previous
+   */
+  public record Summary(List<ModuleResult> results, Duration wallTime, List<ModuleResult> criticalPath) {
+    public boolean isSuccess() {
+      return results.stream().allMatch(result -> result.status() == Status.SUCCESS);
+    }
+
+    /**
+     * @return how long the same builds take one after another
+     */
+    public Duration serialTime() {
+      return results.stream().map(ModuleResult::duration).reduce(Duration.ZERO, Duration::plus);
+    }
+  }
+
+  private final ModuleGraph graph;
+  private final int jobs;
+
+  public ParallelModuleBuild(ModuleGraph graph, int jobs) {
+    if (jobs <= 0) {
+      throw new IllegalArgumentException("jobs must be greater than 0");
+    }
+    this.graph = graph;
+    this.jobs = jobs;
+  }
+
+  /**
+   * @param build builds one module and returns its exit code, called from several threads at once
+   */
+  public Summary run(ToIntFunction<Module> build) {
+    var started = System.nanoTime();
+    var permits = new Semaphore(jobs);
+    var order = graph.order();
+    var futures = new HashMap<String, CompletableFuture<ModuleResult>>();
+
+    for (var module : order) {
+      var upstream = module.dependencies().stream().map(futures::get).toList();
+      var ready = CompletableFuture.allOf(upstream.toArray(CompletableFuture[]::new));
+
+      futures.put(module.id(), ready.thenApplyAsync(ignored -> {
+        if (upstream.stream().anyMatch(result -> result.join().status() != Status.SUCCESS)) {
+          var now = Duration.ofNanos(System.nanoTime() - started);
+          return new ModuleResult(module, Status.SKIPPED, -1, now, Duration.ZERO);
+        }
+
+        permits.acquireUninterruptibly();
+        var moduleStart = System.nanoTime();
+        int exitCode;
+        try {
+          exitCode = build.applyAsInt(module);
+        } catch (RuntimeException e) {
+          logger.error("Build of {} failed: {}", module.artifactId(), e.getMessage());
+          exitCode = -1;
+        } finally {
+          permits.release();
+        }
+
+        return new ModuleResult(module, exitCode == 0 ? Status.SUCCESS : Status.FAILED, exitCode,
+            Duration.ofNanos(moduleStart - started), Duration.ofNanos(System.nanoTime() - moduleStart));
+      }, ThreadPoolUtils.virtual()));
+    }
+
+    var results = order.stream().map(module -> futures.get(module.id()).join()).toList();
+    return new Summary(results, Duration.ofNanos(System.nanoTime() - started), criticalPath(results));
+  }
+
+  /**
+   * Walks back from the module that finished last, always to the dependency that finished last: that is the one the
+   * module had to wait for.
+   */
+  static List<ModuleResult> criticalPath(List<ModuleResult> results) {
+    var byId = new HashMap<String, ModuleResult>();
+    results.forEach(result -> byId.put(result.module().id(), result));
+
+    var path = new ArrayList<ModuleResult>();
+    var current = results.stream().filter(result -> result.status() != Status.SKIPPED)
+        .max(Comparator.comparing(ModuleResult::end)).orElse(null);
+    while (current != null) {
+      path.add(current);
+      current = current.module().dependencies().stream().map(byId::get)
+          .max(Comparator.comparing(ModuleResult::end)).orElse(null);
+    }
+
+    Collections.reverse(path);
+    return path;
+  }
+}
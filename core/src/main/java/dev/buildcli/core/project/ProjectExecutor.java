@@ -1,11 +1,13 @@
 package dev.buildcli.core.project;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import dev.buildcli.core.actions.commandline.CommandLineProcess;
+import dev.buildcli.core.actions.commandline.ExitReason;
+import dev.buildcli.core.actions.commandline.MavenProcess;
 import dev.buildcli.core.utils.SystemCommands;
 
 public abstract class ProjectExecutor {
@@ -23,18 +25,22 @@ public abstract class ProjectExecutor {
 		this.command.add(SystemCommands.MVN.getCommand());
 	}
 	
-    public void execute() {
+    /**
+     * Runs the maven goals of this executor with the output going straight to the terminal.
+     *
+     * @return the finished process, its {@link CommandLineProcess#stats()} tell what the run cost
+     */
+    public CommandLineProcess execute() {
     	
     	this.addMvnCommand();
     	
-        try {
-            var builder = new ProcessBuilder(this.command);
-            builder.inheritIO();
-            var process = builder.start();
-            process.waitFor();
-        } catch (IOException | InterruptedException e) {
-            logger.log(Level.SEVERE, this.getErrorMessage(), e);
-            Thread.currentThread().interrupt();
+        var process = MavenProcess.createProcessor(this.command.subList(1, this.command.size()).toArray(String[]::new));
+        process.run();
+        // Maven reports its own failures, only a missing executable needs a message here
+        var notStarted = process.stats().map(stats -> stats.exitReason() == ExitReason.NOT_STARTED).orElse(false);
+        if (notStarted) {
+            logger.log(Level.SEVERE, this.getErrorMessage());
         }
+        return process;
     }
 }
@@ -1,10 +1,26 @@
 package dev.buildcli.core.project;
 
+import java.util.List;
+
 public class ProjectTester extends ProjectExecutor {
 
+	private final List<String> arguments;
+
+	public ProjectTester() {
+		this(List.of());
+	}
+
+	/**
+	 * @param arguments passed on to Maven after the goal, e.g. a {@code -Dtest=} selection
+	 */
+	public ProjectTester(List<String> arguments) {
+		this.arguments = List.copyOf(arguments);
+	}
+
 	@Override
 	protected void addMvnCommand() {
 		this.command.add("test");
+		this.command.addAll(arguments);
 	}
 
 	@Override
@@ -0,0 +1,152 @@
+package dev.buildcli.core.project;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches everything under {@code src/} and the build files of a project and reports changes in batches.
+ * <p>
+ * Events arriving within the debounce window of each other are coalesced, so saving many files at once, or an IDE
+ * writing a file in several steps, results in a single rebuild.
+ */
+public class SourceWatcher implements Closeable {
+  public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(300);
+
+  private static final Logger logger = LoggerFactory.getLogger(SourceWatcher.class);
+  private static final Path TEST_SOURCES = Path.of("src", "test");
+
+  private final Path projectDir;
+  private final Duration debounce;
+  private final WatchService service;
+  private final Map<WatchKey, Path> directories = new HashMap<>();
+
+  public SourceWatcher(Path projectDir, Duration debounce) throws IOException {
+    this.projectDir = projectDir.toAbsolutePath().normalize();
+    this.debounce = debounce;
+    this.service = this.projectDir.getFileSystem().newWatchService();
+
+    register(this.projectDir);
+    var src = this.projectDir.resolve("src");
+    if (Files.isDirectory(src)) {
+      registerTree(src, null);
+    }
+  }
+
+  /**
+   * Blocks until files changed and no further change arrived for the debounce window.
+   *
+   * @return the changed paths, relative to the project directory
+   */
+  public Set<Path> next() throws InterruptedException {
+    var changes = new TreeSet<Path>();
+    try {
+      var key = service.take();
+      while (true) {
+        collect(key, changes);
+        key = service.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+        if (key == null) {
+          if (!changes.isEmpty()) {
+            return changes;
+          }
+          // Only ignored files changed, e.g. target/ or editor swap files
+          key = service.take();
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      throw new InterruptedException("Source watcher closed");
+    }
+  }
+
+  /**
+   * @return true when every change is under {@code src/test}, the running application is not affected by them
+   */
+  public static boolean onlyTests(Collection<Path> changes) {
+    return !changes.isEmpty() && changes.stream().allMatch(path -> path.startsWith(TEST_SOURCES));
+  }
+
+  @Override
+  public void close() throws IOException {
+    service.close();
+  }
+
+  private void collect(WatchKey key, Set<Path> changes) {
+    var directory = directories.get(key);
+    for (var event : key.pollEvents()) {
+      if (directory == null) {
+        continue;
+      }
+      if (event.kind() == OVERFLOW) {
+        // Events were lost, report the directory itself so a rebuild still happens
+        changes.add(projectDir.relativize(directory));
+        continue;
+      }
+
+      var child = directory.resolve((Path) event.context());
+      var name = child.getFileName().toString();
+      if (directory.equals(projectDir)) {
+        if (BuildFingerprint.BUILD_FILES.contains(name)) {
+          changes.add(Path.of(name));
+        } else if (name.equals("src") && event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+          registerTree(child, changes);
+        }
+        continue;
+      }
+      if (name.startsWith(".") || name.endsWith("~")) {
+        continue;
+      }
+
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+        // Files may already have been written before the new directory got registered
+        registerTree(child, changes);
+      }
+      changes.add(projectDir.relativize(child));
+    }
+
+    if (!key.reset()) {
+      directories.remove(key);
+    }
+  }
+
+  private void registerTree(Path root, Set<Path> changes) {
+    try (Stream<Path> paths = Files.walk(root)) {
+      paths.forEach(path -> {
+        if (Files.isDirectory(path)) {
+          register(path);
+        } else if (changes != null) {
+          changes.add(projectDir.relativize(path));
+        }
+      });
+    } catch (IOException e) {
+      logger.warn("Could not watch {}: {}", root, e.getMessage());
+    }
+  }
+
+  private void register(Path directory) {
+    try {
+      directories.put(directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), directory);
+    } catch (IOException e) {
+      logger.warn("Could not watch {}: {}", directory, e.getMessage());
+    }
+  }
+}
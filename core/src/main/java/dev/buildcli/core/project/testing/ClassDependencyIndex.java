@@ -0,0 +1,207 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.project.IncrementalBuild;
+import dev.buildcli.core.project.ModuleGraph;
+import dev.buildcli.core.utils.HashUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Which compiled class of a project references which, read from {@code target/classes} and
+ * {@code target/test-classes} of the project and of every module of a Maven multi-module project, and kept under
+ * {@code ~/.buildcli/cache/tests}. Updates only read the class files whose size or timestamp changed since the
+ * previous update.
+ */
+public class ClassDependencyIndex {
+  public static final Path DEFAULT_CACHE_DIR = IncrementalBuild.DEFAULT_CACHE_DIR.resolve("tests");
+
+  private static final Logger logger = LoggerFactory.getLogger(ClassDependencyIndex.class);
+  // Surefire's default includes
+  private static final Pattern TEST_CLASS = Pattern.compile("(Test\\w*|\\w*Test|\\w*Tests|\\w*TestCase)");
+
+  /**
+   * @param references internal names of the project classes this class uses
+   */
+  record Entry(boolean test, long size, long lastModified, Set<String> references) {
+    String format() {
+      return (test ? "test" : "main") + "|" + size + "|" + lastModified + "|" + String.join(",", references);
+    }
+
+    static Entry parse(String value) {
+      var parts = value.split("\\|", 4);
+      var references = parts[3].isEmpty() ? Set.<String>of() : Set.of(parts[3].split(","));
+      return new Entry(parts[0].equals("test"), Long.parseLong(parts[1]), Long.parseLong(parts[2]), references);
+    }
+  }
+
+  private final Path projectDir;
+  private final Path file;
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  public ClassDependencyIndex(Path projectDir) {
+    this(projectDir, DEFAULT_CACHE_DIR);
+  }
+
+  public ClassDependencyIndex(Path projectDir, Path cacheDir) {
+    this.projectDir = projectDir.toAbsolutePath().normalize();
+    this.file = cacheDir.resolve(HashUtils.key(this.projectDir.toString()) + ".index");
+    load();
+  }
+
+  /**
+   * Brings the index in line with the class files on disk and saves it.
+   *
+   * @return how many class files had to be read
+   */
+  public int update() throws IOException {
+    var seen = new HashSet<String>();
+    var read = new HashSet<String>();
+    for (var module : ModuleGraph.directories(projectDir)) {
+      var target = module.resolve(MavenConstants.TARGET);
+      update(target.resolve("classes"), false, seen, read);
+      update(target.resolve("test-classes"), true, seen, read);
+    }
+
+    // Only references between project classes matter, JDK and library classes never change with the sources
+    for (var name : read) {
+      var entry = entries.get(name);
+      var references = entry.references().stream().filter(seen::contains).collect(Collectors.toUnmodifiableSet());
+      entries.put(name, new Entry(entry.test(), entry.size(), entry.lastModified(), references));
+    }
+
+    var removed = entries.keySet().retainAll(seen);
+    if (!read.isEmpty() || removed) {
+      save();
+    }
+    return read.size();
+  }
+
+  private void update(Path classes, boolean test, Set<String> seen, Set<String> read) throws IOException {
+    if (!Files.isDirectory(classes)) {
+      return;
+    }
+
+    try (Stream<Path> files = Files.walk(classes)) {
+      for (var classFile : (Iterable<Path>) files.filter(path -> path.toString().endsWith(".class"))::iterator) {
+        var relative = classes.relativize(classFile).toString().replace('\\', '/');
+        var name = relative.substring(0, relative.length() - ".class".length());
+        if (name.endsWith("module-info") || name.endsWith("package-info")) {
+          continue;
+        }
+
+        seen.add(name);
+        var size = Files.size(classFile);
+        var lastModified = Files.getLastModifiedTime(classFile).toMillis();
+        var known = entries.get(name);
+        if (known != null && known.test() == test && known.size() == size && known.lastModified() == lastModified) {
+          continue;
+        }
+
+        try {
+          var references = ClassReferences.read(Files.readAllBytes(classFile)).references();
+          entries.put(name, new Entry(test, size, lastModified, references));
+          read.add(name);
+        } catch (IOException e) {
+          logger.debug("Skipping unreadable class file {}: {}", classFile, e.getMessage());
+        }
+      }
+    }
+  }
+
+  public boolean hasTests() {
+    return entries.values().stream().anyMatch(Entry::test);
+  }
+
+  /**
+   * @param changedClasses internal names of changed top-level classes, their nested classes are included
+   * @return fully qualified names of the test classes that use a changed class, directly or through other classes
+   */
+  public Set<String> affectedTests(Set<String> changedClasses) {
+    var dependents = new HashMap<String, Set<String>>();
+    entries.forEach((name, entry) -> entry.references().forEach(reference ->
+        dependents.computeIfAbsent(reference, ignored -> new HashSet<>()).add(name)));
+
+    var affected = new HashSet<String>();
+    var queue = new ArrayDeque<String>();
+    for (var name : entries.keySet()) {
+      if (changedClasses.contains(topLevel(name))) {
+        affected.add(name);
+        queue.add(name);
+      }
+    }
+    while (!queue.isEmpty()) {
+      for (var dependent : dependents.getOrDefault(queue.poll(), Set.of())) {
+        if (affected.add(dependent)) {
+          queue.add(dependent);
+        }
+      }
+    }
+
+    return affected.stream()
+        .filter(name -> entries.get(name).test())
+        .map(ClassDependencyIndex::topLevel)
+        .filter(ClassDependencyIndex::isTestClass)
+        .map(name -> name.replace('/', '.'))
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  /**
+   * @return true when surefire runs the class by default, judged by its simple name
+   */
+  static boolean isTestClass(String name) {
+    var simpleName = name.substring(name.lastIndexOf('/') + 1);
+    return !simpleName.contains("$") && TEST_CLASS.matcher(simpleName).matches();
+  }
+
+  private static String topLevel(String name) {
+    var nested = name.indexOf('$', name.lastIndexOf('/') + 1);
+    return nested < 0 ? name : name.substring(0, nested);
+  }
+
+  private void load() {
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+
+    var properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+      for (var name : properties.stringPropertyNames()) {
+        entries.put(name, Entry.parse(properties.getProperty(name)));
+      }
+    } catch (IOException | RuntimeException e) {
+      // A broken index is rebuilt from the class files
+      entries.clear();
+    }
+  }
+
+  private void save() {
+    var properties = new Properties();
+    entries.forEach((name, entry) -> properties.setProperty(name, entry.format()));
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file)) {
+        properties.store(writer, "BuildCLI class dependency index of " + projectDir);
+      }
+    } catch (IOException e) {
+      logger.debug("Could not save the class dependency index: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package dev.buildcli.core.project.testing;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The classes a compiled class refers to, read from the constant pool of its class file: class constants plus the
+ * types in field, method and generic signatures.
+ * <p>
+ * Compile-time constants are inlined by javac and leave no trace in the constant pool, a class that only uses
+ * {@code static final} primitives or strings of another class does not reference it.
+ */
+record ClassReferences(String name, Set<String> references) {
+  private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+)[;<]");
+
+  /**
+   * @return the internal name of the class ({@code a/b/C}) and the internal names it references, itself excluded
+   */
+  static ClassReferences read(byte[] classFile) throws IOException {
+    var in = new DataInputStream(new ByteArrayInputStream(classFile));
+    if (in.readInt() != 0xCAFEBABE) {
+      throw new IOException("Not a class file");
+    }
+    in.readUnsignedShort();
+    in.readUnsignedShort();
+
+    var count = in.readUnsignedShort();
+    var utf8 = new String[count];
+    var classIndexes = new int[count];
+    for (int i = 1; i < count; i++) {
+      var tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1 -> utf8[i] = in.readUTF();
+        case 7 -> classIndexes[i] = in.readUnsignedShort();
+        case 8, 16, 19, 20 -> in.skipBytes(2);
+        case 15 -> in.skipBytes(3);
+        case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+        case 5, 6 -> {
+          in.skipBytes(8);
+          // Long and double take two slots
+          i++;
+        }
+        default -> throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+
+    in.readUnsignedShort();
+    var name = utf8[classIndexes[in.readUnsignedShort()]];
+
+    var references = new HashSet<String>();
+    for (int i = 1; i < count; i++) {
+      if (classIndexes[i] != 0) {
+        addClass(utf8[classIndexes[i]], references);
+      } else if (utf8[i] != null && utf8[i].indexOf(';') > 0) {
+        var matcher = DESCRIPTOR_TYPE.matcher(utf8[i]);
+        while (matcher.find()) {
+          references.add(matcher.group(1));
+        }
+      }
+    }
+    references.remove(name);
+    return new ClassReferences(name, Set.copyOf(references));
+  }
+
+  private static void addClass(String value, Set<String> references) {
+    if (value == null) {
+      return;
+    }
+    // Array classes are stored as descriptors, e.g. [La/b/C;
+    var matcher = DESCRIPTOR_TYPE.matcher(value);
+    if (value.startsWith("[")) {
+      if (matcher.find()) {
+        references.add(matcher.group(1));
+      }
+    } else {
+      references.add(value);
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package dev.buildcli.core.project.testing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads the {@code TEST-*.xml} files surefire writes to {@code target/surefire-reports}, one per test class, and
+ * failsafe to {@code target/failsafe-reports}. A report that is not well-formed to its end, e.g. the one of a forked
+ * JVM that crashed while writing it, is skipped as a whole.
+ */
+public final class SurefireReports {
+  public static final String DEFAULT_DIR = "target/surefire-reports";
+  public static final String FAILSAFE_DIR = "target/failsafe-reports";
+
+  private static final Logger logger = LoggerFactory.getLogger(SurefireReports.class);
+
+  /**
+   * @param className as reported, nested test classes keep their {@code $} suffix
+   */
+  public record SuiteResult(String className, Duration time, int tests, int failures, int errors, int skipped) {
+    public boolean isSuccess() {
+      return failures == 0 && errors == 0;
+    }
+
+    /**
+     * @return the class surefire was asked to run, nested classes run with their enclosing class
+     */
+    public String topLevelClass() {
+      var nested = className.indexOf('$');
+      return nested < 0 ? className : className.substring(0, nested);
+    }
+  }
+
+  public enum Outcome {
+    PASSED, FAILED, ERROR, SKIPPED
+  }
+
+  /**
+   * One test method, {@code name} is the method name or the display name the engine reported.
+   */
+  public record TestCaseResult(String className, String name, Duration time, Outcome outcome) {
+    public String id() {
+      return className + "#" + name;
+    }
+  }
+
+  /**
+   * @param time sum of the suite times, more than the wall time when suites ran in parallel
+   */
+  public record Summary(int suites, int tests, int failures, int errors, int skipped, Duration time) {
+    public static Summary merge(Collection<SuiteResult> results) {
+      return new Summary(results.size(),
+          results.stream().mapToInt(SuiteResult::tests).sum(),
+          results.stream().mapToInt(SuiteResult::failures).sum(),
+          results.stream().mapToInt(SuiteResult::errors).sum(),
+          results.stream().mapToInt(SuiteResult::skipped).sum(),
+          results.stream().map(SuiteResult::time).reduce(Duration.ZERO, Duration::plus));
+    }
+
+    public String format() {
+      return "Tests run: %d, Failures: %d, Errors: %d, Skipped: %d in %d classes".formatted(tests, failures, errors,
+          skipped, suites);
+    }
+  }
+
+  private SurefireReports() {
+  }
+
+  /**
+   * @return one result per report, empty when the directory does not exist
+   */
+  public static List<SuiteResult> read(Path reportsDir) throws IOException {
+    var results = new ArrayList<SuiteResult>();
+    if (!Files.isDirectory(reportsDir)) {
+      return results;
+    }
+
+    try (Stream<Path> files = Files.list(reportsDir)) {
+      for (var report : (Iterable<Path>) files.filter(SurefireReports::isReport).sorted()::iterator) {
+        try (InputStream in = Files.newInputStream(report)) {
+          readSuite(in).ifPresent(results::add);
+        } catch (XMLStreamException | RuntimeException e) {
+          logger.debug("Skipping unreadable report {}: {}", report, e.getMessage());
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * @param notBefore reports written earlier are left out, e.g. those of test classes the last run did not run
+   * @return every test case of the reports, empty when the directory does not exist
+   */
+  public static List<TestCaseResult> readTestCases(Path reportsDir, Instant notBefore) throws IOException {
+    var results = new ArrayList<TestCaseResult>();
+    if (!Files.isDirectory(reportsDir)) {
+      return results;
+    }
+
+    try (Stream<Path> files = Files.list(reportsDir)) {
+      for (var report : (Iterable<Path>) files.filter(SurefireReports::isReport).sorted()::iterator) {
+        if (Files.getLastModifiedTime(report).toInstant().isBefore(notBefore)) {
+          continue;
+        }
+        try (InputStream in = Files.newInputStream(report)) {
+          readTestCases(in, results);
+        } catch (XMLStreamException | RuntimeException e) {
+          logger.debug("Skipping unreadable report {}: {}", report, e.getMessage());
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Removes the reports of earlier runs, so only the classes of the next run are read back.
+   */
+  public static void clear(Path reportsDir) throws IOException {
+    if (!Files.isDirectory(reportsDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(reportsDir)) {
+      for (var report : (Iterable<Path>) files.filter(SurefireReports::isReport)::iterator) {
+        Files.deleteIfExists(report);
+      }
+    }
+  }
+
+  private static boolean isReport(Path file) {
+    var name = file.getFileName().toString();
+    return name.startsWith("TEST-") && name.endsWith(".xml");
+  }
+
+  private static Optional<SuiteResult> readSuite(InputStream in) throws XMLStreamException {
+    var reader = createReader(in);
+    try {
+      SuiteResult suite = null;
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamReader.START_ELEMENT && suite == null && reader.getLocalName().equals("testsuite")) {
+          suite = new SuiteResult(reader.getAttributeValue(null, "name"),
+              seconds(reader.getAttributeValue(null, "time")),
+              count(reader.getAttributeValue(null, "tests")), count(reader.getAttributeValue(null, "failures")),
+              count(reader.getAttributeValue(null, "errors")), count(reader.getAttributeValue(null, "skipped")));
+        }
+      }
+      return Optional.ofNullable(suite);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static void readTestCases(InputStream in, List<TestCaseResult> all) throws XMLStreamException {
+    var reader = createReader(in);
+    var results = new ArrayList<TestCaseResult>();
+    try {
+      String className = null;
+      String name = null;
+      Duration time = null;
+      var outcome = Outcome.PASSED;
+      while (reader.hasNext()) {
+        var event = reader.next();
+        if (event == XMLStreamReader.START_ELEMENT) {
+          switch (reader.getLocalName()) {
+            case "testcase" -> {
+              className = reader.getAttributeValue(null, "classname");
+              name = reader.getAttributeValue(null, "name");
+              time = seconds(reader.getAttributeValue(null, "time"));
+              outcome = Outcome.PASSED;
+            }
+            case "failure" -> outcome = Outcome.FAILED;
+            case "error" -> outcome = Outcome.ERROR;
+            case "skipped" -> outcome = Outcome.SKIPPED;
+            default -> {
+            }
+          }
+        } else if (event == XMLStreamReader.END_ELEMENT && reader.getLocalName().equals("testcase") && name != null) {
+          results.add(new TestCaseResult(className, name, time, outcome));
+          name = null;
+        }
+      }
+      all.addAll(results);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static XMLStreamReader createReader(InputStream in) throws XMLStreamException {
+    var factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // prevent XXE attack
+    return factory.createXMLStreamReader(in);
+  }
+
+  private static Duration seconds(String value) {
+    if (value == null || value.isBlank()) {
+      return Duration.ZERO;
+    }
+    // Older surefire versions format the time with grouping separators, e.g. 1,234.5
+    var seconds = Double.parseDouble(value.replace(",", ""));
+    return Duration.ofMillis(Math.round(seconds * 1000));
+  }
+
+  private static int count(String value) {
+    return value == null || value.isBlank() ? 0 : Integer.parseInt(value.trim());
+  }
+}
@@ -0,0 +1,232 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.project.testing.SurefireReports.Outcome;
+import dev.buildcli.core.project.testing.SurefireReports.TestCaseResult;
+import dev.buildcli.core.utils.HashUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The duration of every test of a project over its last runs, one file per project under
+ * {@code ~/.buildcli/cache/tests}.
+ * <p>
+ * Runs are appended as a {@code #run <epoch millis>} line followed by one {@code <millis> <outcome> <test>} line per
+ * test. Once the file holds twice {@link #KEEP_RUNS} runs it is rewritten with the latest {@link #KEEP_RUNS}.
+ */
+public class TestHistory {
+  public static final int KEEP_RUNS = 30;
+  public static final int ESTIMATE_RUNS = 10;
+
+  private static final String RUN_PREFIX = "#run ";
+
+  public record Sample(Duration time, Outcome outcome) {
+  }
+
+  /**
+   * @param tests samples by {@link TestCaseResult#id()}
+   */
+  public record Run(Instant time, Map<String, Sample> tests) {
+  }
+
+  /**
+   * How one test evolved over the last runs.
+   *
+   * @param samples  durations of the passed runs, oldest first, the last one is the latest run
+   * @param baseline median of the samples before the latest
+   */
+  public record Trend(String test, List<Duration> samples, Duration baseline) {
+    public Duration latest() {
+      return samples.getLast();
+    }
+
+    /**
+     * @return relative change of the latest sample over the baseline, 0.5 for 50% slower
+     */
+    public double change() {
+      return baseline.isZero() ? 0 : (double) (latest().toMillis() - baseline.toMillis()) / baseline.toMillis();
+    }
+
+    /**
+     * @param threshold relative change, 0.2 for 20% slower
+     * @param minimum   absolute slowdown below which a change is considered noise
+     */
+    public boolean isRegression(double threshold, Duration minimum) {
+      return samples.size() > 1 && change() > threshold
+          && latest().minus(baseline).compareTo(minimum) >= 0;
+    }
+  }
+
+  private final Path file;
+
+  public TestHistory(Path projectDir) {
+    this(projectDir, ClassDependencyIndex.DEFAULT_CACHE_DIR);
+  }
+
+  public TestHistory(Path projectDir, Path cacheDir) {
+    this.file = cacheDir.resolve(HashUtils.key(projectDir.toAbsolutePath().normalize().toString()) + ".history");
+  }
+
+  /**
+   * Appends one run, compacting the file when it grew past twice {@link #KEEP_RUNS} runs.
+   */
+  public synchronized void append(Instant time, Collection<TestCaseResult> results) throws IOException {
+    if (results.isEmpty()) {
+      return;
+    }
+
+    Files.createDirectories(file.getParent());
+    try (var writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      writer.write(RUN_PREFIX + time.toEpochMilli());
+      writer.newLine();
+      for (var result : results) {
+        writer.write(result.time().toMillis() + "\t" + result.outcome() + "\t" + result.id().replace('\n', ' '));
+        writer.newLine();
+      }
+    }
+
+    var runs = runs();
+    if (runs.size() >= 2 * KEEP_RUNS) {
+      rewrite(runs.subList(runs.size() - KEEP_RUNS, runs.size()));
+    }
+  }
+
+  /**
+   * @return the recorded runs, oldest first
+   */
+  public synchronized List<Run> runs() throws IOException {
+    var runs = new ArrayList<Run>();
+    if (!Files.isRegularFile(file)) {
+      return runs;
+    }
+
+    Map<String, Sample> tests = null;
+    for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      if (line.startsWith(RUN_PREFIX)) {
+        tests = new LinkedHashMap<>();
+        runs.add(new Run(Instant.ofEpochMilli(parseLong(line.substring(RUN_PREFIX.length()))), tests));
+        continue;
+      }
+
+      var parts = line.split("\t", 3);
+      if (tests == null || parts.length < 3) {
+        // Lines of an interrupted append are skipped
+        continue;
+      }
+      try {
+        tests.put(parts[2], new Sample(Duration.ofMillis(Long.parseLong(parts[0])), Outcome.valueOf(parts[1])));
+      } catch (IllegalArgumentException e) {
+        // Same for a half written line
+      }
+    }
+    return runs;
+  }
+
+  /**
+   * @param lastRuns how many of the latest runs to look at
+   * @return one trend per test that passed at least once in those runs, in no particular order
+   */
+  public List<Trend> trends(int lastRuns) throws IOException {
+    var runs = runs();
+    var window = runs.subList(Math.max(0, runs.size() - lastRuns), runs.size());
+
+    var samples = new LinkedHashMap<String, List<Duration>>();
+    for (var run : window) {
+      run.tests().forEach((test, sample) -> {
+        if (sample.outcome() == Outcome.PASSED) {
+          samples.computeIfAbsent(test, ignored -> new ArrayList<>()).add(sample.time());
+        }
+      });
+    }
+
+    var trends = new ArrayList<Trend>();
+    samples.forEach((test, durations) -> trends.add(new Trend(test, List.copyOf(durations),
+        median(durations.subList(0, Math.max(1, durations.size() - 1))))));
+    return trends;
+  }
+
+  /**
+   * Expected duration of each test class, for planning shards: the time of its tests summed per run and averaged over
+   * the last {@link #ESTIMATE_RUNS} runs it took part in. Nested classes count towards the class surefire ran them
+   * from.
+   *
+   * @return the estimate of every class with samples
+   */
+  public Map<String, Duration> estimates() throws IOException {
+    var runs = runs();
+    var window = runs.subList(Math.max(0, runs.size() - ESTIMATE_RUNS), runs.size());
+
+    var totals = new HashMap<String, long[]>();
+    for (var run : window) {
+      var byClass = new HashMap<String, Long>();
+      run.tests().forEach((test, sample) -> byClass.merge(topLevelClass(test), sample.time().toMillis(), Long::sum));
+      byClass.forEach((className, millis) -> {
+        var total = totals.computeIfAbsent(className, ignored -> new long[2]);
+        total[0] += millis;
+        total[1]++;
+      });
+    }
+
+    var estimates = new HashMap<String, Duration>();
+    totals.forEach((className, total) -> estimates.put(className, Duration.ofMillis(total[0] / total[1])));
+    return estimates;
+  }
+
+  private void rewrite(List<Run> runs) throws IOException {
+    var temp = Files.createTempFile(file.getParent(), "history", ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        for (var run : runs) {
+          writer.write(RUN_PREFIX + run.time().toEpochMilli());
+          writer.newLine();
+          for (var test : run.tests().entrySet()) {
+            writer.write(test.getValue().time().toMillis() + "\t" + test.getValue().outcome() + "\t" + test.getKey());
+            writer.newLine();
+          }
+        }
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static String topLevelClass(String test) {
+    var hash = test.indexOf('#');
+    var className = hash < 0 ? test : test.substring(0, hash);
+    var nested = className.indexOf('$');
+    return nested < 0 ? className : className.substring(0, nested);
+  }
+
+  private static Duration median(List<Duration> durations) {
+    var sorted = durations.stream().sorted(Comparator.naturalOrder()).toList();
+    return sorted.get(sorted.size() / 2);
+  }
+
+  private static long parseLong(String value) {
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
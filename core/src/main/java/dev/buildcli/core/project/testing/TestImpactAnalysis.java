@@ -0,0 +1,172 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.domain.git.GitOperations;
+import dev.buildcli.core.project.BuildFingerprint;
+import dev.buildcli.core.project.ModuleGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Picks the tests affected by the changes made since a Git revision: the changed test classes, and every test class
+ * that uses a changed class directly or through other classes according to the {@link ClassDependencyIndex}.
+ * <p>
+ * Anything that can not be traced to classes, a build file, a resource or a non Java source, selects the whole
+ * suite. In a Maven multi-module project every path is matched against the module it belongs to, so a change to
+ * {@code core/pom.xml} or {@code core/src/main/java/...} counts like the same change in a single module project.
+ */
+public class TestImpactAnalysis {
+  private static final String MAIN_SOURCES = "src/main/java/";
+  private static final String TEST_SOURCES = "src/test/java/";
+
+  public enum Mode {
+    /** Run the whole suite. */
+    ALL,
+    /** Run only {@link Selection#tests()}. */
+    SELECTED,
+    /** Nothing to run. */
+    NONE
+  }
+
+  /**
+   * @param tests  fully qualified names of the selected test classes
+   * @param reason why the selection came out this way, for the user
+   */
+  public record Selection(Mode mode, List<String> tests, String reason) {
+    /**
+     * @return the surefire arguments that run the selection, none for a full run
+     */
+    public List<String> mavenArguments() {
+      return mode == Mode.SELECTED
+          ? List.of("-Dtest=" + String.join(",", tests), "-Dsurefire.failIfNoSpecifiedTests=false")
+          : List.of();
+    }
+  }
+
+  private final File projectDir;
+  private final ClassDependencyIndex index;
+
+  public TestImpactAnalysis(File projectDir) {
+    this(projectDir, new ClassDependencyIndex(projectDir.toPath()));
+  }
+
+  public TestImpactAnalysis(File projectDir, ClassDependencyIndex index) {
+    this.projectDir = projectDir.getAbsoluteFile();
+    this.index = index;
+  }
+
+  public Selection select(String baseRef) {
+    var git = new GitOperations();
+    if (git.findGitRepository(projectDir).isEmpty()) {
+      return new Selection(Mode.ALL, List.of(), projectDir + " is not in a Git repository, running all tests");
+    }
+
+    List<String> changed;
+    try {
+      var workTree = git.repository.getWorkTree().toPath().toRealPath();
+      var prefix = workTree.relativize(projectDir.toPath().toRealPath()).toString().replace('\\', '/');
+      changed = relativeTo(prefix, git.changedFilesSince(baseRef));
+    } catch (IOException e) {
+      return new Selection(Mode.ALL, List.of(), e.getMessage() + ", running all tests");
+    } finally {
+      git.closeGitRepository();
+    }
+
+    try {
+      index.update();
+    } catch (IOException e) {
+      return new Selection(Mode.ALL, List.of(), "Could not index the compiled classes: " + e.getMessage() + ", running all tests");
+    }
+    return select(changed, baseRef);
+  }
+
+  /**
+   * @param changed paths relative to the project directory
+   */
+  Selection select(Collection<String> changed, String baseRef) {
+    if (changed.isEmpty()) {
+      return new Selection(Mode.NONE, List.of(), "Nothing changed since " + baseRef);
+    }
+
+    List<String> modules;
+    try {
+      modules = modulePrefixes();
+    } catch (IOException e) {
+      return new Selection(Mode.ALL, List.of(), "Could not read the modules: " + e.getMessage() + ", running all tests");
+    }
+
+    var changedClasses = new HashSet<String>();
+    var tests = new TreeSet<String>();
+    for (var path : changed) {
+      var module = modules.stream().filter(path::startsWith).findFirst().orElse("");
+      var local = path.substring(module.length());
+      if (BuildFingerprint.BUILD_FILES.contains(local)) {
+        return new Selection(Mode.ALL, List.of(), path + " changed, running all tests");
+      }
+      if (local.endsWith(".java") && (local.startsWith(MAIN_SOURCES) || local.startsWith(TEST_SOURCES))) {
+        var name = local.substring(local.indexOf("/java/") + "/java/".length(), local.length() - ".java".length());
+        changedClasses.add(name);
+        if (local.startsWith(TEST_SOURCES) && ClassDependencyIndex.isTestClass(name)) {
+          // Also covers new tests that were never compiled
+          tests.add(name.replace('/', '.'));
+        }
+      } else if (local.startsWith("src/")) {
+        return new Selection(Mode.ALL, List.of(), path + " can not be traced to classes, running all tests");
+      }
+    }
+
+    if (changedClasses.isEmpty()) {
+      return new Selection(Mode.NONE, List.of(), "No sources changed since " + baseRef);
+    }
+    if (!index.hasTests()) {
+      return new Selection(Mode.ALL, List.of(), "No compiled test classes to analyse yet, running all tests");
+    }
+
+    tests.addAll(index.affectedTests(changedClasses));
+    if (tests.isEmpty()) {
+      return new Selection(Mode.NONE, List.of(), "No test uses the %d class(es) changed since %s".formatted(changedClasses.size(), baseRef));
+    }
+    return new Selection(Mode.SELECTED, List.copyOf(tests),
+        "%d class(es) changed since %s affect %d test class(es)".formatted(changedClasses.size(), baseRef, tests.size()));
+  }
+
+  /**
+   * Updates the index with the classes the last test run compiled.
+   */
+  public void refreshIndex() throws IOException {
+    index.update();
+  }
+
+  /**
+   * @return the path of every module relative to the project, ending with a slash, longest first so nested modules
+   * match before their parents. The project itself is the empty prefix and comes last.
+   */
+  private List<String> modulePrefixes() throws IOException {
+    var root = projectDir.toPath().toAbsolutePath().normalize();
+    return ModuleGraph.directories(root).stream()
+        .map(directory -> root.relativize(directory).toString().replace('\\', '/'))
+        .map(relative -> relative.isEmpty() ? "" : relative + "/")
+        .sorted(Comparator.comparingInt(String::length).reversed())
+        .toList();
+  }
+
+  private static List<String> relativeTo(String prefix, List<String> paths) {
+    if (prefix.isEmpty()) {
+      return paths;
+    }
+
+    var relative = new ArrayList<String>();
+    for (var path : paths) {
+      if (path.startsWith(prefix + "/")) {
+        relative.add(path.substring(prefix.length() + 1));
+      }
+    }
+    return relative;
+  }
+}
@@ -0,0 +1,135 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Splits the test classes of a project into shards of about the same duration, to run them in parallel JVMs.
+ * <p>
+ * Classes are placed longest first, each into the shard with the least work so far (longest processing time first).
+ * Classes without recorded duration count as the median of the known ones.
+ */
+public final class TestShards {
+  static final Duration DEFAULT_ESTIMATE = Duration.ofSeconds(1);
+
+  /**
+   * @param index    1-based
+   * @param estimate sum of the expected durations of its classes
+   */
+  public record Shard(int index, List<String> testClasses, Duration estimate) {
+  }
+
+  public record ShardResult(Shard shard, int exitCode, Duration duration) {
+    public boolean isSuccess() {
+      return exitCode == 0;
+    }
+  }
+
+  private TestShards() {
+  }
+
+  /**
+   * @return at most {@code shards} non-empty shards
+   */
+  public static List<Shard> plan(Collection<String> testClasses, Map<String, Duration> durations, int shards) {
+    if (shards <= 0) {
+      throw new IllegalArgumentException("shards must be greater than 0");
+    }
+
+    var unknown = median(testClasses.stream().map(durations::get).filter(Objects::nonNull).toList());
+    var ordered = testClasses.stream().distinct()
+        .sorted(Comparator.comparing((String name) -> durations.getOrDefault(name, unknown)).reversed()
+            .thenComparing(Comparator.naturalOrder()))
+        .toList();
+
+    var count = Math.min(shards, ordered.size());
+    var bins = new PriorityQueue<Bin>(Comparator.comparing((Bin bin) -> bin.load).thenComparingInt(bin -> bin.index));
+    for (int i = 1; i <= count; i++) {
+      bins.add(new Bin(i));
+    }
+
+    for (var name : ordered) {
+      var bin = bins.poll();
+      bin.classes.add(name);
+      bin.load = bin.load.plus(durations.getOrDefault(name, unknown));
+      bins.add(bin);
+    }
+
+    return bins.stream()
+        .sorted(Comparator.comparingInt(bin -> bin.index))
+        .map(bin -> new Shard(bin.index, List.copyOf(bin.classes), bin.load))
+        .toList();
+  }
+
+  /**
+   * @return the fully qualified names of the compiled test classes surefire runs by default
+   */
+  public static List<String> discover(Path testClassesDir) throws IOException {
+    if (!Files.isDirectory(testClassesDir)) {
+      return List.of();
+    }
+
+    try (Stream<Path> files = Files.walk(testClassesDir)) {
+      return files.map(file -> testClassesDir.relativize(file).toString().replace('\\', '/'))
+          .filter(name -> name.endsWith(".class"))
+          .map(name -> name.substring(0, name.length() - ".class".length()))
+          .filter(ClassDependencyIndex::isTestClass)
+          .map(name -> name.replace('/', '.'))
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * Runs every shard at the same time.
+   *
+   * @param runner runs the tests of one shard and returns the exit code, called from several threads at once
+   */
+  public static List<ShardResult> run(List<Shard> shards, ToIntFunction<Shard> runner) {
+    var futures = shards.stream()
+        .map(shard -> CompletableFuture.supplyAsync(() -> {
+          var started = System.nanoTime();
+          int exitCode;
+          try {
+            exitCode = runner.applyAsInt(shard);
+          } catch (RuntimeException e) {
+            exitCode = -1;
+          }
+          return new ShardResult(shard, exitCode, Duration.ofNanos(System.nanoTime() - started));
+        }, ThreadPoolUtils.virtual()))
+        .toList();
+    return futures.stream().map(CompletableFuture::join).toList();
+  }
+
+  private static final class Bin {
+    private final int index;
+    private final List<String> classes = new ArrayList<>();
+    private Duration load = Duration.ZERO;
+
+    private Bin(int index) {
+      this.index = index;
+    }
+  }
+
+  private static Duration median(List<Duration> known) {
+    if (known.isEmpty()) {
+      return DEFAULT_ESTIMATE;
+    }
+    var sorted = known.stream().sorted().toList();
+    return sorted.get(sorted.size() / 2);
+  }
+}
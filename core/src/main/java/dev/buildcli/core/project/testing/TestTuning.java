@@ -0,0 +1,296 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.tools.maven.PomEditor;
+import dev.buildcli.core.utils.tools.maven.PomModel;
+import dev.buildcli.core.utils.tools.maven.PomModelCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+
+/**
+ * Finds the fastest way to run the tests of a project on this machine by running them with different JUnit Platform
+ * parallel execution settings and surefire {@code forkCount}/{@code reuseForks}, and writes the winner into
+ * {@code junit-platform.properties} and the POM.
+ * <p>
+ * Candidates are passed as {@code -D} properties, surefire hands them to the test JVMs where they take precedence over
+ * {@code junit-platform.properties}, so nothing is written before the measurements are done. A candidate is only
+ * considered when every run passes with as many tests as the sequential baseline.
+ * <p>
+ * An untimed run of the baseline warms up Maven, the local repository and the file system cache first. The timed
+ * runs then go round by round, each round starting at the next candidate, so that no candidate is always the first or
+ * the last to run while the machine heats up or other work comes and goes.
+ */
+public class TestTuning {
+  public static final String JUNIT_PROPERTIES = "src/test/resources/junit-platform.properties";
+  public static final double DEFAULT_MINIMUM_GAIN = 0.05;
+
+  private static final String PARALLEL_PREFIX = "junit.jupiter.execution.parallel.";
+  private static final String SUREFIRE = "maven-surefire-plugin";
+
+  public enum Parallelism {
+    /**
+     * Everything in the same thread, the JUnit default.
+     */
+    OFF,
+    /**
+     * Test classes in parallel, the methods of a class one after the other.
+     */
+    CLASSES,
+    /**
+     * Test classes and their methods in parallel.
+     */
+    ALL;
+
+    public Map<String, String> properties() {
+      var properties = new LinkedHashMap<String, String>();
+      properties.put(PARALLEL_PREFIX + "enabled", String.valueOf(this != OFF));
+      if (this != OFF) {
+        properties.put(PARALLEL_PREFIX + "mode.default", this == ALL ? "concurrent" : "same_thread");
+        properties.put(PARALLEL_PREFIX + "mode.classes.default", "concurrent");
+        properties.put(PARALLEL_PREFIX + "config.strategy", "dynamic");
+      }
+      return properties;
+    }
+  }
+
+  /**
+   * @param forkCount as surefire takes it, {@code 1C} for one JVM per core
+   */
+  public record Candidate(String forkCount, boolean reuseForks, Parallelism parallelism) {
+    public List<String> mavenArguments() {
+      var arguments = new ArrayList<String>();
+      arguments.add("-DforkCount=" + forkCount);
+      arguments.add("-DreuseForks=" + reuseForks);
+      parallelism.properties().forEach((key, value) -> arguments.add("-D" + key + "=" + value));
+      return arguments;
+    }
+
+    public String describe() {
+      return "forkCount=%s reuseForks=%s junit=%s".formatted(forkCount, reuseForks, parallelism.name().toLowerCase());
+    }
+  }
+
+  /**
+   * @param times wall time of every run, empty when the first run already failed
+   * @param tests tests run by the last run
+   */
+  public record Measurement(Candidate candidate, List<Duration> times, int tests, boolean stable) {
+    /**
+     * @return the lower median for an even number of runs, noise only ever makes a run slower
+     */
+    public Duration median() {
+      if (times.isEmpty()) {
+        return Duration.ZERO;
+      }
+      var sorted = times.stream().sorted().toList();
+      return sorted.get((sorted.size() - 1) / 2);
+    }
+  }
+
+  /**
+   * @param measurements every candidate, the baseline first
+   */
+  public record Result(List<Measurement> measurements) {
+    public Measurement baseline() {
+      return measurements.getFirst();
+    }
+
+    /**
+     * @param minimumGain how much faster than the baseline the winner must be, 0.05 for 5%
+     * @return the fastest stable candidate, empty when none beats the baseline by {@code minimumGain}
+     */
+    public Optional<Measurement> best(double minimumGain) {
+      if (!baseline().stable()) {
+        return Optional.empty();
+      }
+      var limit = baseline().median().toNanos() * (1 - minimumGain);
+      return measurements.stream().skip(1)
+          .filter(Measurement::stable)
+          .filter(measurement -> measurement.median().toNanos() < limit)
+          .min(Comparator.comparing(Measurement::median));
+    }
+
+    /**
+     * @return how many times faster than the baseline, 2.0 for half the time
+     */
+    public double speedup(Measurement measurement) {
+      return measurement.median().isZero() ? 0 : (double) baseline().median().toNanos() / measurement.median().toNanos();
+    }
+  }
+
+  private final Path projectDir;
+
+  public TestTuning(Path projectDir) {
+    this.projectDir = projectDir;
+  }
+
+  /**
+   * @param forkCount the value the POM fixes, empty when it can be set with {@code -DforkCount}
+   * @return the sequential baseline first, then every combination worth measuring
+   */
+  public static List<Candidate> candidates(int processors, Optional<String> forkCount) {
+    var forkCounts = new ArrayList<String>();
+    forkCounts.add(forkCount.orElse("1"));
+    if (forkCount.isEmpty() && processors > 1) {
+      if (processors >= 4) {
+        forkCounts.add("0.5C");
+      }
+      forkCounts.add("1C");
+    }
+
+    var candidates = new ArrayList<Candidate>();
+    for (var count : forkCounts) {
+      for (var parallelism : Parallelism.values()) {
+        candidates.add(new Candidate(count, true, parallelism));
+      }
+    }
+    if (forkCounts.size() > 1) {
+      // A fresh JVM per test class is slower by itself but can win when tests leak memory or static state
+      candidates.add(new Candidate("1C", false, Parallelism.OFF));
+    }
+    return candidates;
+  }
+
+  /**
+   * Runs the first candidate once untimed, then every candidate {@code repeats} times in interleaved rounds. A
+   * candidate is dropped from the later rounds at its first failing run. When the warm-up run fails, the tests do not
+   * pass sequentially and nothing else is measured.
+   *
+   * @param runner runs the already compiled tests with the {@link Candidate#mavenArguments()} of a candidate and
+   *               returns the exit code
+   */
+  public Result measure(List<Candidate> candidates, int repeats, ToIntFunction<Candidate> runner) throws IOException {
+    var warmUp = run(candidates.getFirst(), runner, -1);
+    if (!warmUp.passed()) {
+      return new Result(candidates.stream()
+          .map(candidate -> new Measurement(candidate, List.of(), warmUp.tests(), false))
+          .toList());
+    }
+
+    var times = new LinkedHashMap<Candidate, List<Duration>>();
+    var tests = new HashMap<Candidate, Integer>();
+    var failed = new HashSet<Candidate>();
+    candidates.forEach(candidate -> times.put(candidate, new ArrayList<>()));
+    for (int round = 0; round < repeats; round++) {
+      for (int i = 0; i < candidates.size(); i++) {
+        var candidate = candidates.get((round + i) % candidates.size());
+        if (failed.contains(candidate)) {
+          continue;
+        }
+        var run = run(candidate, runner, warmUp.tests());
+        tests.put(candidate, run.tests());
+        if (run.passed()) {
+          times.get(candidate).add(run.time());
+        } else {
+          failed.add(candidate);
+        }
+      }
+    }
+
+    return new Result(candidates.stream()
+        .map(candidate -> new Measurement(candidate, List.copyOf(times.get(candidate)), tests.getOrDefault(candidate, 0),
+            !failed.contains(candidate)))
+        .toList());
+  }
+
+  private record Run(Duration time, int tests, boolean passed) {
+  }
+
+  /**
+   * @param expectedTests tests every run must have, -1 when any number will do
+   */
+  private Run run(Candidate candidate, ToIntFunction<Candidate> runner, int expectedTests) throws IOException {
+    var reportsDir = projectDir.resolve(SurefireReports.DEFAULT_DIR);
+    SurefireReports.clear(reportsDir);
+    var start = System.nanoTime();
+    var exitCode = runner.applyAsInt(candidate);
+    var time = Duration.ofNanos(System.nanoTime() - start);
+
+    var summary = SurefireReports.Summary.merge(SurefireReports.read(reportsDir));
+    var tests = summary.tests();
+    var passed = exitCode == 0 && summary.failures() == 0 && summary.errors() == 0 && tests > 0
+        && (expectedTests < 0 || tests == expectedTests);
+    return new Run(time, tests, passed);
+  }
+
+  /**
+   * @return the {@code forkCount} surefire is configured with in the POM, which {@code -DforkCount} cannot override
+   */
+  public Optional<String> configuredForkCount() throws IOException {
+    var pom = PomModelCache.shared().get(projectDir.resolve(MavenConstants.FILE));
+    return surefire(pom)
+        .map(plugin -> plugin.configuration().get("forkCount"))
+        .filter(value -> !value.startsWith("${"));
+  }
+
+  /**
+   * Writes the JUnit settings of {@code candidate} to {@link #JUNIT_PROPERTIES}, keeping every other line, and
+   * {@code forkCount}/{@code reuseForks} to the surefire configuration of the POM when it sets them, or its properties
+   * otherwise.
+   */
+  public void apply(Candidate candidate) throws IOException {
+    writeJUnitProperties(candidate.parallelism());
+
+    var pomFile = projectDir.resolve(MavenConstants.FILE);
+    var pom = PomModelCache.shared().get(pomFile);
+    var inSurefire = surefire(pom).map(PomModel.Plugin::configuration).filter(TestTuning::hasForkSettings).isPresent();
+    var inProperties = hasForkSettings(pom.properties());
+    if (!inSurefire && !inProperties && candidate.forkCount().equals("1") && candidate.reuseForks()) {
+      // The surefire defaults, nothing to write
+      return;
+    }
+
+    var editor = PomEditor.read(pomFile);
+    if (inSurefire) {
+      editor.setPluginConfiguration(SUREFIRE, "forkCount", candidate.forkCount())
+          .setPluginConfiguration(SUREFIRE, "reuseForks", String.valueOf(candidate.reuseForks()));
+    } else {
+      editor.setProperty("forkCount", candidate.forkCount())
+          .setProperty("reuseForks", String.valueOf(candidate.reuseForks()));
+    }
+    editor.write(pomFile);
+  }
+
+  private static Optional<PomModel.Plugin> surefire(PomModel pom) {
+    return pom.plugins().stream().filter(plugin -> SUREFIRE.equals(plugin.artifactId())).findFirst();
+  }
+
+  private static boolean hasForkSettings(Map<String, String> settings) {
+    return settings.containsKey("forkCount") || settings.containsKey("reuseForks");
+  }
+
+  private void writeJUnitProperties(Parallelism parallelism) throws IOException {
+    var file = projectDir.resolve(JUNIT_PROPERTIES);
+    var lines = new ArrayList<String>();
+    if (Files.isRegularFile(file)) {
+      for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        if (!line.trim().startsWith(PARALLEL_PREFIX)) {
+          lines.add(line);
+        }
+      }
+    }
+    if (parallelism == Parallelism.OFF && lines.isEmpty()) {
+      Files.deleteIfExists(file);
+      return;
+    }
+    if (parallelism != Parallelism.OFF) {
+      parallelism.properties().forEach((key, value) -> lines.add(key + "=" + value));
+    }
+
+    Files.createDirectories(file.getParent());
+    Files.write(file, lines, StandardCharsets.UTF_8);
+  }
+}
@@ -6,12 +6,19 @@ import dev.buildcli.core.constants.ConfigDefaultConstants;
 import dev.buildcli.core.domain.git.GitCommandExecutor;
 import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
@@ -33,11 +40,16 @@ import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.confir
 
 public class BuildCLIService {
 
+  private static final String BUILDCLI_REPOSITORY = "https://github.com/BuildCLI/BuildCLI.git";
+
   private static GitCommandExecutor gitExec = new GitCommandExecutor();
 
   private static final String buildCLIDirectory = getBuildCLIBuildDirectory();
   private static  String localRepository = gitExec.findGitRepository(buildCLIDirectory);
 
+  private static UpdateCheckCache updateCache = new UpdateCheckCache(UpdateCheckCache.DEFAULT_FILE);
+  private static volatile boolean updateAvailableAtStart = updateCache.isUpdateAvailable();
+
   public BuildCLIService() {
   }
 
@@ -46,6 +58,14 @@ public class BuildCLIService {
     this.localRepository = localRepository;
   }
 
+  /**
+   * Replaces where the update check remembers its result, {@code ~/.buildcli/update-check.properties} by default.
+   */
+  public static void setUpdateCache(UpdateCheckCache updateCheckCache) {
+    updateCache = updateCheckCache;
+    updateAvailableAtStart = updateCheckCache.isUpdateAvailable();
+  }
+
   public static void welcome() {
     var configs = ConfigContextLoader.getAllConfigs();
     if (configs.getPropertyAsBoolean(ConfigDefaultConstants.BANNER_ENABLED).orElse(true)) {
@@ -82,26 +102,82 @@ public class BuildCLIService {
       String homeBuildCLI = OS.getHomeBinDirectory();
       OS.cpDirectoryOrFile(buildCLIDirectory + "/target/buildcli.jar", homeBuildCLI);
       OS.chmodX(homeBuildCLI + "/buildcli.jar");
+      updateCache.setUpdateAvailable(false);
       SystemOutLogger.log("\u001B[32mBuildCLI updated successfully!\u001B[0m");
     } else {
       SystemOutLogger.log("\u001B[33mBuildCLI update canceled!\u001B[0m");
     }
   }
 
+  /**
+   * Starts looking for a newer BuildCLI in background while the command runs, at most once per
+   * {@code buildcli.update.check.ttl} hours. Its answer is saved in the {@link UpdateCheckCache} and
+   * reported by the next command. The check counts as done as soon as it starts, so commands that end
+   * before the fetch does still wait for the TTL instead of starting a new fetch each time.
+   *
+   * @return completes when the check is over, already completed when no check was needed
+   */
+  public static CompletableFuture<Void> startUpdateCheck() {
+    var cache = updateCache;
+    updateAvailableAtStart = cache.isUpdateAvailable();
+
+    var configs = ConfigContextLoader.getAllConfigs();
+    if (!configs.getPropertyAsBoolean(ConfigDefaultConstants.UPDATE_CHECK_ENABLED).orElse(true) || localRepository == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    var ttl = Duration.ofHours(configs.getPropertyAsInt(ConfigDefaultConstants.UPDATE_CHECK_TTL).orElse(24));
+    // Per socket read for JGit, it keeps a dead connection from holding the thread forever
+    var timeout = configs.getPropertyAsInt(ConfigDefaultConstants.UPDATE_CHECK_TIMEOUT).orElse(5);
+    var now = Instant.now();
+    if (!cache.isExpired(ttl, now)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    cache.markChecked(now);
+
+    return CompletableFuture.runAsync(() -> {
+      try {
+        var updated = gitExec.checkIfLocalRepositoryIsUpdated(localRepository, BUILDCLI_REPOSITORY, timeout);
+        cache.record(Instant.now(), !updated);
+      } catch (Exception e) {
+        // Offline or unreachable remote, keep the previous answer and try again after the TTL
+      }
+    }, ThreadPoolUtils.virtual());
+  }
+
+  /**
+   * Gives a check that is still running when the command is over up to {@code limit} to finish, so
+   * that short commands get an answer too.
+   */
+  public static void awaitUpdateCheck(CompletableFuture<Void> check, Duration limit) {
+    try {
+      check.get(limit.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException | ExecutionException e) {
+      // Not recorded, the next check after the TTL asks again
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Reports an outdated BuildCLI using what the update check of a previous command found, never
+   * waiting for the one this command started.
+   */
   public static void checkUpdatesBuildCLIAndUpdate() {
-    boolean updated = gitExec.checkIfLocalRepositoryIsUpdated(localRepository, "https://github.com/BuildCLI/BuildCLI.git");
-    if (!updated) {
+    if (updateAvailableAtStart) {
       SystemOutLogger.log("""
           \u001B[33m
           ATTENTION: Your BuildCLI is outdated!
           \u001B[0m""");
-      updateBuildCLI();
+      if (System.console() != null) {
+        updateBuildCLI();
+      }
     }
   }
 
   private static boolean updateRepository() {
     if (confirm("update BuildCLI?")) {
-      gitExec.updateLocalRepositoryFromUpstream(localRepository, "https://github.com/BuildCLI/BuildCLI.git");
+      gitExec.updateLocalRepositoryFromUpstream(localRepository, BUILDCLI_REPOSITORY);
       return true;
     }
     return false;
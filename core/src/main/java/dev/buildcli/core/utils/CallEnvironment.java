@@ -0,0 +1,39 @@
+package dev.buildcli.core.utils;
+
+import java.util.Map;
+
+/**
+ * Environment variables visible to the current BuildCLI invocation.
+ * <p>
+ * A regular run simply sees {@link System#getenv()}. When BuildCLI serves a call on behalf
+ * of another process (e.g. the resident daemon), the caller's environment is installed here
+ * so config interpolation and spawned tools see the caller's variables instead of the daemon's.
+ */
+public final class CallEnvironment {
+  private static volatile Map<String, String> overrides;
+
+  private CallEnvironment() {
+  }
+
+  public static String get(String name) {
+    var current = overrides;
+    return current == null ? System.getenv(name) : current.get(name);
+  }
+
+  public static Map<String, String> all() {
+    var current = overrides;
+    return current == null ? System.getenv() : current;
+  }
+
+  public static boolean isOverridden() {
+    return overrides != null;
+  }
+
+  public static void set(Map<String, String> environment) {
+    overrides = environment == null ? null : Map.copyOf(environment);
+  }
+
+  public static void clear() {
+    overrides = null;
+  }
+}
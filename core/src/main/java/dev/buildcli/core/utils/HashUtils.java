@@ -0,0 +1,57 @@
+package dev.buildcli.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of contents, files and cache keys, as lower case hex.
+ */
+public final class HashUtils {
+  private HashUtils() {
+  }
+
+  public static String sha256(byte[] content) {
+    return HexFormat.of().formatHex(sha256Digest().digest(content));
+  }
+
+  public static String sha256(String value) {
+    return sha256(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads the file in chunks, it is never held in memory as a whole.
+   */
+  public static String sha256(Path file) throws IOException {
+    var digest = sha256Digest();
+    try (InputStream in = Files.newInputStream(file)) {
+      var buffer = new byte[64 * 1024];
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * @return a file name for the cache entry of {@code value}, e.g. a project path: the first 128 bits of its SHA-256
+   */
+  public static String key(String value) {
+    return sha256(value).substring(0, 32);
+  }
+
+  public static MessageDigest sha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform has to provide SHA-256
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
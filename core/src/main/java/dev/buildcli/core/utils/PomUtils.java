@@ -1,30 +1,17 @@
 package dev.buildcli.core.utils;
 
-import jakarta.xml.bind.JAXBContext;
 import dev.buildcli.core.exceptions.ExtractionRuntimeException;
 import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.model.Dependency;
 import dev.buildcli.core.model.Pom;
-import org.xml.sax.SAXException;
+import dev.buildcli.core.utils.tools.maven.PomModelCache;
+import dev.buildcli.core.utils.tools.maven.PomReader;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
-import java.io.File;
 import java.io.IOException;
-import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class PomUtils {
@@ -67,6 +54,7 @@ public class PomUtils {
     	try {
             String pomContent = pomData.replace(DEPENDENCIES_PATTERN, pom.getDependencyFormatted());
             Files.write(Paths.get(FILE), pomContent.getBytes());
+            PomModelCache.shared().invalidate(Paths.get(FILE));
             SystemOutLogger.log(successMessage);
         } catch (IOException e) {
             logger.log(Level.SEVERE, failureMessage, e);
@@ -79,23 +67,12 @@ public class PomUtils {
 
     public static Pom extractPomFile(String pomPath) {
     	
-    	var pathFile = Paths.get(pomPath);
-    	var pomFile = new File(pathFile.toFile().getAbsolutePath());
-    	
     	try {
-			var unmarshaller = JAXBContext.newInstance(Pom.class).createUnmarshaller();
-			
-			 // Set up XML input with namespace filtering
-	        var xmlInputFactory = XMLInputFactory.newFactory();
-	        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // prevent XXE attack
-	        var filter = new NamespaceFilter(xmlInputFactory.createXMLStreamReader(new StreamSource(pomFile)));
-	        
-	        pom = unmarshaller.unmarshal(filter, Pom.class).getValue();
-            
-	        loadPomData(pomFile);
+	        pom = PomReader.read(pomPath);
+	        pomData = PomReader.readAsString(pomPath);
 
 			return pom;
-		} catch (Exception e) {
+		} catch (IOException e) {
 			throw new ExtractionRuntimeException(e);
 		}
     }
@@ -116,36 +93,4 @@ public class PomUtils {
 			throw new RuntimeException();
 		}
     
-    private static void loadPomData(File pomFile) throws 
-    		ParserConfigurationException, SAXException, IOException, TransformerException  {
-    	
-		var docFactory = DocumentBuilderFactory.newInstance();
-		docFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true); // prevent XXE attack
-		var xmlDoc = docFactory.newDocumentBuilder().parse(pomFile);
-		var nodes = xmlDoc.getElementsByTagName(Dependency.XML_WRAPPER_ELEMENT);
-		
-		var dependenciesNode = IntStream.range(0, nodes.getLength())
-				.filter(i -> nodes.item(i).getParentNode().getNodeName().equals(Pom.XML_ELEMENT))
-				.mapToObj(nodes::item)
-				.findFirst()
-				.orElse(null);
-		
-		var dependencyPatternNode = xmlDoc.createTextNode(DEPENDENCIES_PATTERN);
-		
-		if (Objects.isNull(dependenciesNode)) {
-			xmlDoc.getElementsByTagName(Pom.XML_ELEMENT).item(0).appendChild(dependencyPatternNode);
-		} else {
-			dependenciesNode.getParentNode().replaceChild(dependencyPatternNode, dependenciesNode);
-		}
-		
-		var transformFactory = TransformerFactory.newInstance();
-		transformFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true); // prevent XXE attack
-		
-		var transformer = transformFactory.newTransformer();
-		var outputString = new StringWriter();
-		transformer.transform(new DOMSource(xmlDoc), new StreamResult(outputString));
-		
-		pomData = outputString.toString();
-    }
-    
 }
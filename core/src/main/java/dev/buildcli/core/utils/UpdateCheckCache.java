@@ -0,0 +1,96 @@
+package dev.buildcli.core.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * Remembers when BuildCLI last looked for updates and what it found, so the upstream fetch
+ * runs at most once per TTL instead of on every command.
+ */
+public class UpdateCheckCache {
+  public static final Path DEFAULT_FILE = Path.of(System.getProperty("user.home"), ".buildcli", "update-check.properties");
+
+  private static final String LAST_CHECKED = "lastChecked";
+  private static final String UPDATE_AVAILABLE = "updateAvailable";
+
+  private final Path file;
+  private Instant lastChecked = Instant.EPOCH;
+  private boolean updateAvailable;
+
+  public UpdateCheckCache(Path file) {
+    this.file = file;
+    load();
+  }
+
+  public boolean isExpired(Duration ttl, Instant now) {
+    return !lastChecked.plus(ttl).isAfter(now);
+  }
+
+  public Instant getLastChecked() {
+    return lastChecked;
+  }
+
+  public boolean isUpdateAvailable() {
+    return updateAvailable;
+  }
+
+  /**
+   * Records a finished check that got no answer, so an unreachable remote is retried once per TTL.
+   */
+  public synchronized void markChecked(Instant now) {
+    lastChecked = now;
+    save();
+  }
+
+  /**
+   * Records a finished check and its answer in one write.
+   */
+  public synchronized void record(Instant now, boolean updateAvailable) {
+    this.lastChecked = now;
+    this.updateAvailable = updateAvailable;
+    save();
+  }
+
+  public synchronized void setUpdateAvailable(boolean updateAvailable) {
+    this.updateAvailable = updateAvailable;
+    save();
+  }
+
+  private void load() {
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+
+    var properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+      lastChecked = Instant.ofEpochMilli(Long.parseLong(properties.getProperty(LAST_CHECKED, "0")));
+      updateAvailable = Boolean.parseBoolean(properties.getProperty(UPDATE_AVAILABLE, "false"));
+    } catch (IOException | NumberFormatException e) {
+      // A corrupted cache only means the next command checks again
+      lastChecked = Instant.EPOCH;
+      updateAvailable = false;
+    }
+  }
+
+  private synchronized void save() {
+    var properties = new Properties();
+    properties.setProperty(LAST_CHECKED, String.valueOf(lastChecked.toEpochMilli()));
+    properties.setProperty(UPDATE_AVAILABLE, String.valueOf(updateAvailable));
+
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file)) {
+        properties.store(writer, "BuildCLI update check");
+      }
+    } catch (IOException e) {
+      // Not being able to persist the cache must never break the command the user ran
+    }
+  }
+}
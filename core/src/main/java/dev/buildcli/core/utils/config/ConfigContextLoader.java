@@ -41,6 +41,15 @@ public abstract class ConfigContextLoader {
     return mergedConfig;
   }
 
+  /**
+   * Drops the cached configs so the next lookup re-reads them from disk.
+   */
+  public static void reset() {
+    localConfig = null;
+    globalConfig = null;
+    mergedConfig = null;
+  }
+
   public static void saveLocalConfig(BuildCLIConfig localConfig) {
     localConfig.setLocal(true);
     ConfigsOperationsUtils.set(localConfig);
@@ -0,0 +1,219 @@
+package dev.buildcli.core.utils.tools;
+
+import dev.buildcli.core.constants.GradleConstants;
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.CallEnvironment;
+import dev.buildcli.core.utils.OS;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+
+import static dev.buildcli.core.constants.ConfigDefaultConstants.BUILD_DAEMON;
+
+/**
+ * Decides whether builds go through a warm, long-lived build JVM: the Maven Daemon ({@code mvnd}) for Maven
+ * projects and the Gradle daemon, through the project wrapper when there is one, for Gradle projects.
+ * <p>
+ * The {@code buildcli.build.daemon} setting selects the mode: {@code auto} (default) uses a daemon when one is
+ * available, {@code warm} asks for it explicitly and {@code cold} always forks a fresh JVM.
+ */
+public final class BuildDaemons {
+  private static final Logger logger = LoggerFactory.getLogger(BuildDaemons.class);
+
+  static final String MVND_DAEMON_CLASS = "org.mvndaemon.mvnd.daemon";
+  static final String GRADLE_DAEMON_CLASS = "org.gradle.launcher.daemon.bootstrap.GradleDaemon";
+
+  public enum Mode {
+    AUTO, WARM, COLD;
+
+    public static Mode parse(String value) {
+      if (value == null || value.isBlank()) {
+        return AUTO;
+      }
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        logger.warn("Unknown build daemon mode '{}', using auto", value);
+        return AUTO;
+      }
+    }
+  }
+
+  /**
+   * The command a build is started with.
+   *
+   * @param command executable followed by the arguments to put before the goals or tasks
+   * @param warm    true when the build runs in a daemon that outlives it
+   */
+  public record Launch(List<String> command, boolean warm) {
+    public String executable() {
+      return command.getFirst();
+    }
+  }
+
+  /**
+   * What {@code doctor scan} reports for one build tool.
+   */
+  public record Status(String tool, Optional<String> executable, boolean running) {
+  }
+
+  private BuildDaemons() {
+  }
+
+  public static Mode mode() {
+    return Mode.parse(ConfigContextLoader.getAllConfigs().getProperty(BUILD_DAEMON).orElse(null));
+  }
+
+  public static Launch maven() {
+    return maven(mode());
+  }
+
+  static Launch maven(Mode mode) {
+    if (mode == Mode.COLD) {
+      return new Launch(List.of(MavenConstants.MAVEN_CMD), false);
+    }
+
+    var daemon = mvnd();
+    if (daemon.isPresent()) {
+      return new Launch(List.of(daemon.get()), true);
+    }
+
+    if (mode == Mode.WARM) {
+      logger.warn("buildcli.build.daemon is warm but mvnd was not found, falling back to mvn");
+    }
+    return new Launch(List.of(MavenConstants.MAVEN_CMD), false);
+  }
+
+  public static Launch gradle(File projectDir) {
+    return gradle(projectDir, mode());
+  }
+
+  static Launch gradle(File projectDir, Mode mode) {
+    var command = new ArrayList<String>();
+    command.add(gradleWrapper(projectDir).orElse(GradleConstants.GRADLE_CMD));
+
+    switch (mode) {
+      case COLD -> command.add("--no-daemon");
+      case WARM -> command.add("--daemon");
+      case AUTO -> {
+      }
+    }
+    var warm = switch (mode) {
+      case COLD -> false;
+      case WARM -> true;
+      case AUTO -> gradleDaemonEnabled(projectDir);
+    };
+    return new Launch(List.copyOf(command), warm);
+  }
+
+  /**
+   * The Gradle daemon is on by default, unless {@code org.gradle.daemon} turns it off. The user's
+   * {@code gradle.properties} in {@code GRADLE_USER_HOME} (or {@code ~/.gradle}) takes precedence over the project's.
+   */
+  static boolean gradleDaemonEnabled(File projectDir) {
+    var userHome = CallEnvironment.get("GRADLE_USER_HOME");
+    var userDir = userHome == null || userHome.isBlank()
+        ? Path.of(System.getProperty("user.home"), ".gradle")
+        : Path.of(userHome);
+
+    return gradleProperty(userDir.resolve("gradle.properties"), "org.gradle.daemon")
+        .or(() -> projectDir == null ? Optional.empty()
+            : gradleProperty(projectDir.toPath().resolve("gradle.properties"), "org.gradle.daemon"))
+        .map(value -> !value.trim().equalsIgnoreCase("false"))
+        .orElse(true);
+  }
+
+  private static Optional<String> gradleProperty(Path file, String name) {
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+
+    var properties = new Properties();
+    try (var reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+    } catch (IOException | IllegalArgumentException e) {
+      logger.debug("Could not read {}: {}", file, e.getMessage());
+      return Optional.empty();
+    }
+    return Optional.ofNullable(properties.getProperty(name));
+  }
+
+  /**
+   * @return the {@code mvnd} executable from {@code MVND_HOME} or the {@code PATH} of the current call. Not cached:
+   * the daemon serves callers with different environments, and the lookup is a handful of file checks
+   */
+  public static Optional<String> mvnd() {
+    return locateMvnd();
+  }
+
+  public static Optional<String> gradleWrapper(File projectDir) {
+    if (projectDir == null) {
+      return Optional.empty();
+    }
+
+    var wrapper = new File(projectDir.getAbsoluteFile(), OS.isWindows() ? "gradlew.bat" : "gradlew");
+    return wrapper.isFile() && wrapper.canExecute() ? Optional.of(wrapper.getAbsolutePath()) : Optional.empty();
+  }
+
+  public static List<Status> status(File projectDir) {
+    var wrapper = gradleWrapper(projectDir);
+    return List.of(
+        new Status("Maven Daemon (mvnd)", mvnd(), isRunning(MVND_DAEMON_CLASS)),
+        new Status(wrapper.isPresent() ? "Gradle daemon (wrapper)" : "Gradle daemon",
+            wrapper.or(() -> findOnPath(GradleConstants.GRADLE_CMD)), isRunning(GRADLE_DAEMON_CLASS))
+    );
+  }
+
+  /**
+   * @return true when a process of the current user runs the given daemon main class
+   */
+  static boolean isRunning(String daemonClass) {
+    return ProcessHandle.allProcesses()
+        .map(handle -> handle.info().arguments().map(args -> String.join(" ", args)).orElse(""))
+        .anyMatch(args -> args.contains(daemonClass));
+  }
+
+  private static Optional<String> locateMvnd() {
+    var names = OS.isWindows() ? List.of("mvnd.cmd", "mvnd.exe") : List.of("mvnd");
+
+    var home = CallEnvironment.get("MVND_HOME");
+    if (home != null && !home.isBlank()) {
+      for (var name : names) {
+        var candidate = Path.of(home, "bin", name);
+        if (Files.isExecutable(candidate)) {
+          return Optional.of(candidate.toString());
+        }
+      }
+    }
+
+    return names.stream().map(BuildDaemons::findOnPath).flatMap(Optional::stream).findFirst();
+  }
+
+  static Optional<String> findOnPath(String name) {
+    var path = CallEnvironment.get("PATH");
+    if (path == null) {
+      return Optional.empty();
+    }
+
+    for (var dir : path.split(File.pathSeparator)) {
+      if (dir.isBlank()) {
+        continue;
+      }
+      var candidate = Path.of(dir, name);
+      if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+        return Optional.of(candidate.toString());
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,97 @@
+package dev.buildcli.core.utils.tools;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Average build durations per project and build, split into warm (daemon) and cold (fresh JVM) runs, so the gain
+ * of a build daemon can be checked on a real project.
+ */
+public class BuildTimes {
+  public static final Path DEFAULT_FILE = Path.of(System.getProperty("user.home"), ".buildcli", "build-times.properties");
+
+  public record Average(Duration duration, int runs) {
+  }
+
+  private final Path file;
+  private final Properties properties = new Properties();
+
+  public BuildTimes(Path file) {
+    this.file = file;
+    load();
+  }
+
+  /**
+   * @param build identifies the build, e.g. the project path followed by the goals
+   */
+  public synchronized void record(String build, boolean warm, Duration duration) {
+    var current = average(build, warm);
+    var runs = current.map(Average::runs).orElse(0);
+    var total = current.map(average -> average.duration().toMillis() * average.runs()).orElse(0L);
+
+    properties.setProperty(key(build, warm, "runs"), String.valueOf(runs + 1));
+    properties.setProperty(key(build, warm, "millis"), String.valueOf((total + duration.toMillis()) / (runs + 1)));
+    save();
+  }
+
+  public synchronized Optional<Average> average(String build, boolean warm) {
+    try {
+      var runs = Integer.parseInt(properties.getProperty(key(build, warm, "runs"), "0"));
+      var millis = Long.parseLong(properties.getProperty(key(build, warm, "millis"), "0"));
+      return runs > 0 ? Optional.of(new Average(Duration.ofMillis(millis), runs)) : Optional.empty();
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return a one line comparison of warm and cold averages, empty until both were measured
+   */
+  public Optional<String> compare(String build) {
+    var warm = average(build, true);
+    var cold = average(build, false);
+    if (warm.isEmpty() || cold.isEmpty() || warm.get().duration().isZero()) {
+      return Optional.empty();
+    }
+
+    var speedup = (double) cold.get().duration().toMillis() / warm.get().duration().toMillis();
+    return Optional.of(String.format(Locale.ROOT, "Average warm build %.1fs over %d run(s), cold %.1fs over %d run(s): %.1fx",
+        warm.get().duration().toMillis() / 1000.0, warm.get().runs(),
+        cold.get().duration().toMillis() / 1000.0, cold.get().runs(), speedup));
+  }
+
+  private static String key(String build, boolean warm, String field) {
+    return build + (warm ? ".warm." : ".cold.") + field;
+  }
+
+  private void load() {
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+    } catch (IOException | IllegalArgumentException e) {
+      // Losing the history only means averages start over
+      properties.clear();
+    }
+  }
+
+  private void save() {
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file)) {
+        properties.store(writer, "BuildCLI build times");
+      }
+    } catch (IOException e) {
+      // Not being able to persist timings must never break the build the user ran
+    }
+  }
+}
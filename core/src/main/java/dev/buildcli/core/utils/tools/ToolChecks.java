@@ -1,37 +1,27 @@
 package dev.buildcli.core.utils.tools;
 
-import java.io.File;
-import java.io.IOException;
+import dev.buildcli.core.actions.tools.GradleChecker;
+import dev.buildcli.core.actions.tools.MavenChecker;
+import dev.buildcli.core.actions.tools.ToolDetection;
 
-import static dev.buildcli.core.utils.SystemCommands.GRADLE;
-import static dev.buildcli.core.utils.SystemCommands.MVN;
+import java.io.File;
 
 public abstract class ToolChecks {
   private ToolChecks() {
   }
 
+  /**
+   * @return true when {@code mvn} runs, the answer is cached by {@link ToolDetection} while the installation stays the same
+   */
   public static boolean checksMaven() {
-    try {
-      var process = new ProcessBuilder().command(MVN.getCommand(), "-v").start();
-
-      int exitCode = process.waitFor();
-
-      return exitCode == 0;
-    } catch (IOException | InterruptedException e) {
-      return false;
-    }
+    return ToolDetection.shared().detect(new MavenChecker()).installed();
   }
 
+  /**
+   * @return true when {@code gradle} runs, the answer is cached by {@link ToolDetection} while the installation stays the same
+   */
   public static boolean checksGradle() {
-    try {
-      var process = new ProcessBuilder().command(GRADLE.getCommand(), "-v").start();
-
-      int exitCode = process.waitFor();
-
-      return exitCode == 0;
-    } catch (IOException | InterruptedException e) {
-      return false;
-    }
+    return ToolDetection.shared().detect(new GradleChecker()).installed();
   }
 
   public static String checkIsMavenOrGradle(File directory) {
@@ -0,0 +1,53 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A POM as Maven sees it once its parents are merged in, its profiles activated, its {@code dependencyManagement}
+ * applied and its {@code ${property}} references replaced, see {@link EffectivePomResolver}.
+ *
+ * @param properties     the properties of the POM and its parents and active profiles, overridden by the user
+ *                       properties the resolver was created with
+ * @param dependencies   the direct dependencies, with the version and scope they get from the dependency management.
+ *                       A null scope means {@code compile}.
+ * @param activeProfiles ids of the profiles activated in this POM and its parents
+ * @param parents        {@code groupId:artifactId:version} of the parents, the nearest first
+ */
+public record EffectivePom(Path file, String groupId, String artifactId, String version, String packaging,
+                           Map<String, String> properties, List<PomModel.Dependency> dependencies,
+                           List<PomModel.Dependency> dependencyManagement, List<String> modules,
+                           List<PomModel.Plugin> plugins, List<PomModel.Plugin> pluginManagement,
+                           List<String> activeProfiles, List<String> parents) {
+
+  /**
+   * @return {@code groupId:artifactId:version}
+   */
+  public String id() {
+    return groupId + ":" + artifactId + ":" + version;
+  }
+
+  /**
+   * @return the direct dependency on {@code groupId:artifactId}, with the version it really gets
+   */
+  public Optional<PomModel.Dependency> dependency(String groupId, String artifactId) {
+    return dependencies.stream()
+        .filter(dependency -> groupId.equals(dependency.groupId()) && artifactId.equals(dependency.artifactId()))
+        .findFirst();
+  }
+
+  /**
+   * @return the version the dependency management sets for {@code groupId:artifactId}, whether it is a dependency
+   * or not
+   */
+  public Optional<String> managedVersion(String groupId, String artifactId) {
+    return dependencyManagement.stream()
+        .filter(dependency -> groupId.equals(dependency.groupId()) && artifactId.equals(dependency.artifactId()))
+        .map(PomModel.Dependency::version)
+        .filter(Objects::nonNull)
+        .findFirst();
+  }
+}
@@ -0,0 +1,596 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.CallEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Builds the {@link EffectivePom} of a POM in process, for the questions that do not need a full
+ * {@code mvn help:effective-pom}: which version of a dependency a module really gets, what a property ends up as.
+ * <p>
+ * Parents are looked up at their {@code relativePath} first, then in the local repository. The profiles of each POM
+ * are activated like Maven does for ids, {@code activeByDefault}, {@code jdk}, {@code property}, {@code file} and
+ * {@code os} conditions, against the JVM BuildCLI runs in; a profile with any other condition stays inactive.
+ * Dependencies of type {@code pom} imported in the {@code dependencyManagement} are resolved from the local
+ * repository, those not downloaded yet are left as they are. Transitive dependencies are not resolved.
+ * <p>
+ * Results are kept per POM and reused while none of the files they were built from changed, which
+ * {@link PomModelCache} tells in microseconds, and every {@code ${env.*}} they interpolated still has the same value
+ * in the {@link CallEnvironment} of the current call.
+ */
+public class EffectivePomResolver {
+  private static final int MAX_DEPTH = 32;
+  private static final String DEFAULT_PLUGIN_GROUP = "org.apache.maven.plugins";
+
+  private static EffectivePomResolver shared;
+
+  private final Path localRepository;
+  private final Set<String> profileIds;
+  private final Map<String, String> userProperties;
+  private final PomModelCache cache;
+  private final Map<Path, Resolved> resolved = new ConcurrentHashMap<>();
+
+  /**
+   * @param sources     every file the result was built from, with the model it had
+   * @param environment every environment variable it interpolated, with the value it had or null when unset
+   */
+  private record Resolved(EffectivePom pom, Map<Path, PomModel> sources, Map<String, String> environment) {
+  }
+
+  private record Link(Path file, PomModel model) {
+  }
+
+  /**
+   * @param profileIds     profiles to activate, or to deactivate with a leading {@code !}, as with {@code mvn -P}
+   * @param userProperties properties as with {@code mvn -D}, they win over those of the POMs
+   */
+  public EffectivePomResolver(Path localRepository, Set<String> profileIds, Map<String, String> userProperties,
+                              PomModelCache cache) {
+    this.localRepository = localRepository;
+    this.profileIds = Set.copyOf(profileIds);
+    this.userProperties = Map.copyOf(userProperties);
+    this.cache = cache;
+  }
+
+  public static synchronized EffectivePomResolver shared() {
+    if (shared == null) {
+      shared = new EffectivePomResolver(defaultLocalRepository(), Set.of(), Map.of(), PomModelCache.shared());
+    }
+    return shared;
+  }
+
+  /**
+   * @return {@code maven.repo.local} when set, {@code ~/.m2/repository} otherwise
+   */
+  public static Path defaultLocalRepository() {
+    return Optional.ofNullable(System.getProperty("maven.repo.local"))
+        .map(Path::of)
+        .orElseGet(() -> Path.of(System.getProperty("user.home"), ".m2", "repository"));
+  }
+
+  /**
+   * @throws IOException when a POM, or one of its parents, cannot be found or read
+   */
+  public EffectivePom resolve(Path pom) throws IOException {
+    return resolved(pom).pom();
+  }
+
+  /**
+   * @return every file the effective POM of {@code pom} is built from: the POM itself first, then its parents and the
+   * imported POMs found in the local repository
+   * @throws IOException when a POM, or one of its parents, cannot be found or read
+   */
+  public List<Path> sources(Path pom) throws IOException {
+    return List.copyOf(resolved(pom).sources().keySet());
+  }
+
+  /**
+   * @throws IOException when the POM of {@code groupId:artifactId:version} is not in the local repository
+   */
+  public EffectivePom resolve(String groupId, String artifactId, String version) throws IOException {
+    var pom = repositoryPom(groupId, artifactId, version);
+    if (!Files.isRegularFile(pom)) {
+      throw new IOException(groupId + ":" + artifactId + ":" + version + " is not in " + localRepository);
+    }
+    return resolve(pom);
+  }
+
+  public Path repositoryPom(String groupId, String artifactId, String version) {
+    return localRepository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version)
+        .resolve(artifactId + "-" + version + ".pom");
+  }
+
+  private Resolved resolved(Path pom) throws IOException {
+    var file = pom.toRealPath();
+    var previous = resolved.get(file);
+    if (previous != null && isCurrent(previous)) {
+      return previous;
+    }
+
+    var sources = new LinkedHashMap<Path, PomModel>();
+    var environment = new HashMap<String, String>();
+    var result = new Resolved(resolve(file, sources, environment, 0), Collections.unmodifiableMap(sources),
+        Collections.unmodifiableMap(environment));
+    resolved.put(file, result);
+    return result;
+  }
+
+  private boolean isCurrent(Resolved previous) {
+    for (var variable : previous.environment().entrySet()) {
+      if (!Objects.equals(CallEnvironment.get(variable.getKey()), variable.getValue())) {
+        return false;
+      }
+    }
+    for (var source : previous.sources().entrySet()) {
+      try {
+        if (cache.get(source.getKey()) != source.getValue()) {
+          return false;
+        }
+      } catch (IOException e) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private EffectivePom resolve(Path file, Map<Path, PomModel> sources, Map<String, String> environment, int depth)
+      throws IOException {
+    if (depth > MAX_DEPTH) {
+      throw new IOException("Too many nested parents or imports from " + file);
+    }
+
+    var chain = chain(file, sources);
+    var merged = new Merged();
+    var activeProfiles = new ArrayList<String>();
+    for (int i = chain.size() - 1; i >= 0; i--) {
+      var link = chain.get(i);
+      var profiles = activeProfiles(link.model(), link.file().getParent());
+      profiles.forEach(profile -> activeProfiles.add(profile.id()));
+      merged.inherit(link.model(), profiles);
+    }
+    var project = chain.getFirst().model();
+    var directory = file.getParent();
+
+    var properties = new LinkedHashMap<>(merged.properties);
+    properties.putAll(userProperties);
+    var builtIn = new LinkedHashMap<String, String>();
+    builtIn.put("project.groupId", merged.groupId);
+    builtIn.put("project.artifactId", project.artifactId());
+    builtIn.put("project.version", merged.version);
+    builtIn.put("project.packaging", project.packagingOrDefault());
+    builtIn.put("project.basedir", directory.toString());
+    builtIn.put("basedir", directory.toString());
+    project.parent().ifPresent(parent -> {
+      builtIn.put("project.parent.groupId", parent.groupId());
+      builtIn.put("project.parent.artifactId", parent.artifactId());
+      builtIn.put("project.parent.version", parent.version());
+    });
+    Function<String, String> lookup = name -> {
+      var value = properties.get(name);
+      if (value == null) {
+        value = builtIn.get(name);
+      }
+      if (value == null && name.startsWith("env.")) {
+        // The caller's environment, which for a call served by the daemon is not the one of this JVM
+        var variable = name.substring(4);
+        value = CallEnvironment.get(variable);
+        environment.put(variable, value);
+      } else if (value == null) {
+        value = System.getProperty(name);
+      }
+      return value;
+    };
+
+    var interpolatedProperties = new LinkedHashMap<String, String>();
+    properties.forEach((name, value) -> interpolatedProperties.put(name, interpolate(value, lookup)));
+    var management = managementWithImports(merged.dependencyManagement.values().stream()
+        .map(dependency -> interpolate(dependency, lookup)).toList(), sources, environment, depth);
+    var pluginManagement = merged.pluginManagement.values().stream()
+        .map(plugin -> interpolate(plugin, lookup))
+        .toList();
+
+    var dependencies = merged.dependencies.values().stream()
+        .map(dependency -> manage(interpolate(dependency, lookup), management))
+        .toList();
+    var plugins = merged.plugins.values().stream()
+        .map(plugin -> manage(interpolate(plugin, lookup), pluginManagement))
+        .toList();
+
+    var parents = chain.stream().skip(1)
+        .map(link -> link.model().groupIdOrInherited() + ":" + link.model().artifactId() + ":"
+            + link.model().versionOrInherited())
+        .toList();
+    return new EffectivePom(file, interpolate(merged.groupId, lookup), interpolate(project.artifactId(), lookup),
+        interpolate(merged.version, lookup), interpolate(project.packagingOrDefault(), lookup),
+        Collections.unmodifiableMap(interpolatedProperties), dependencies, management,
+        merged.modules.stream().map(module -> interpolate(module, lookup)).toList(), plugins, pluginManagement,
+        List.copyOf(activeProfiles), parents);
+  }
+
+  /**
+   * @return the POM followed by its parents, the nearest first
+   */
+  private List<Link> chain(Path file, Map<Path, PomModel> sources) throws IOException {
+    var chain = new ArrayList<Link>();
+    var seen = new HashSet<Path>();
+    var current = file;
+    while (current != null) {
+      if (!seen.add(current) || chain.size() > MAX_DEPTH) {
+        throw new IOException("The parents of " + file + " form a cycle");
+      }
+      var model = cache.get(current);
+      sources.put(current, model);
+      chain.add(new Link(current, model));
+
+      var parent = model.parent();
+      if (parent.isEmpty()) {
+        break;
+      }
+      var declaring = current;
+      current = parentPom(current, parent.get()).orElseThrow(() -> new IOException("Cannot find the parent "
+          + parent.get().groupId() + ":" + parent.get().artifactId() + ":" + parent.get().version() + " of "
+          + declaring + " at its relativePath or in " + localRepository));
+    }
+    return chain;
+  }
+
+  private Optional<Path> parentPom(Path child, PomModel.Parent parent) throws IOException {
+    var relativePath = parent.relativePath() == null ? "../" + MavenConstants.FILE : parent.relativePath();
+    if (!relativePath.isEmpty()) {
+      var candidate = child.getParent().resolve(relativePath).normalize();
+      if (Files.isDirectory(candidate)) {
+        candidate = candidate.resolve(MavenConstants.FILE);
+      }
+      if (Files.isRegularFile(candidate)) {
+        var model = cache.get(candidate);
+        // Maven ignores a POM at the relativePath that is not the declared parent
+        if (Objects.equals(model.groupIdOrInherited(), parent.groupId())
+            && Objects.equals(model.artifactId(), parent.artifactId())
+            && sameVersion(model.versionOrInherited(), parent.version())) {
+          return Optional.of(candidate.toRealPath());
+        }
+      }
+    }
+
+    if (parent.groupId() == null || parent.artifactId() == null || parent.version() == null
+        || parent.version().contains("${")) {
+      return Optional.empty();
+    }
+    var pom = repositoryPom(parent.groupId(), parent.artifactId(), parent.version());
+    return Files.isRegularFile(pom) ? Optional.of(pom.toRealPath()) : Optional.empty();
+  }
+
+  private static boolean sameVersion(String actual, String declared) {
+    // CI friendly versions (${revision}) cannot be compared before interpolation
+    return actual == null || declared == null || actual.contains("${") || declared.contains("${")
+        || actual.equals(declared);
+  }
+
+  /**
+   * Replaces the {@code import} entries with the dependency management of the imported POMs, declared entries and
+   * earlier imports win.
+   */
+  private List<PomModel.Dependency> managementWithImports(List<PomModel.Dependency> declared,
+                                                         Map<Path, PomModel> sources, Map<String, String> environment,
+                                                         int depth) throws IOException {
+    var management = new LinkedHashMap<String, PomModel.Dependency>();
+    var imports = new ArrayList<PomModel.Dependency>();
+    for (var dependency : declared) {
+      if ("import".equals(dependency.scope()) && "pom".equals(dependency.type())) {
+        imports.add(dependency);
+      } else {
+        management.putIfAbsent(managementKey(dependency), dependency);
+      }
+    }
+
+    for (var imported : imports) {
+      var pom = imported.groupId() == null || imported.artifactId() == null || imported.version() == null
+          ? null : repositoryPom(imported.groupId(), imported.artifactId(), imported.version());
+      if (pom == null || !Files.isRegularFile(pom)) {
+        // Not downloaded yet, kept so the caller can tell
+        management.putIfAbsent(managementKey(imported), imported);
+        continue;
+      }
+      resolve(pom.toRealPath(), sources, environment, depth + 1).dependencyManagement()
+          .forEach(dependency -> management.putIfAbsent(managementKey(dependency), dependency));
+    }
+    return List.copyOf(management.values());
+  }
+
+  private static PomModel.Dependency manage(PomModel.Dependency dependency, List<PomModel.Dependency> management) {
+    var key = managementKey(dependency);
+    return management.stream()
+        .filter(managed -> managementKey(managed).equals(key))
+        .findFirst()
+        .map(managed -> new PomModel.Dependency(dependency.groupId(), dependency.artifactId(),
+            dependency.version() != null ? dependency.version() : managed.version(), dependency.type(),
+            dependency.classifier(), dependency.scope() != null ? dependency.scope() : managed.scope(),
+            dependency.optional() != null ? dependency.optional() : managed.optional()))
+        .orElse(dependency);
+  }
+
+  private static PomModel.Plugin manage(PomModel.Plugin plugin, List<PomModel.Plugin> management) {
+    var key = pluginKey(plugin);
+    return management.stream()
+        .filter(managed -> pluginKey(managed).equals(key))
+        .findFirst()
+        .map(managed -> {
+          var configuration = new LinkedHashMap<>(managed.configuration());
+          configuration.putAll(plugin.configuration());
+          return new PomModel.Plugin(plugin.groupId(), plugin.artifactId(),
+              plugin.version() != null ? plugin.version() : managed.version(),
+              Collections.unmodifiableMap(configuration));
+        })
+        .orElse(plugin);
+  }
+
+  private List<PomModel.Profile> activeProfiles(PomModel model, Path directory) {
+    var active = new ArrayList<PomModel.Profile>();
+    for (var profile : model.profiles()) {
+      if (profileIds.contains("!" + profile.id())) {
+        continue;
+      }
+      if (profileIds.contains(profile.id()) || isActivated(profile.activation(), directory)) {
+        active.add(profile);
+      }
+    }
+    if (active.isEmpty()) {
+      // activeByDefault only counts when nothing else in the same POM is active
+      model.profiles().stream()
+          .filter(PomModel.Profile::activeByDefault)
+          .filter(profile -> !profileIds.contains("!" + profile.id()))
+          .forEach(active::add);
+    }
+    return active;
+  }
+
+  /**
+   * @return true when every condition holds, false without conditions or with one BuildCLI cannot evaluate
+   */
+  private boolean isActivated(Map<String, String> activation, Path directory) {
+    var conditions = new LinkedHashMap<>(activation);
+    conditions.remove("activeByDefault");
+    var propertyValue = conditions.remove("property.value");
+    if (conditions.isEmpty()) {
+      return false;
+    }
+
+    for (var condition : conditions.entrySet()) {
+      var value = condition.getValue();
+      var holds = switch (condition.getKey()) {
+        case "jdk" -> matchesJdk(value, property("java.version"));
+        case "property.name" -> matchesProperty(value, propertyValue);
+        case "file.exists" -> Files.exists(file(value, directory));
+        case "file.missing" -> !Files.exists(file(value, directory));
+        case "os.family" -> negatable(value, EffectivePomResolver::isOsFamily);
+        case "os.name" -> negatable(value, name -> name.equalsIgnoreCase(System.getProperty("os.name")));
+        case "os.arch" -> negatable(value, arch -> arch.equalsIgnoreCase(System.getProperty("os.arch")));
+        case "os.version" -> negatable(value, version -> version.equalsIgnoreCase(System.getProperty("os.version")));
+        default -> false;
+      };
+      if (!holds) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String property(String name) {
+    return userProperties.getOrDefault(name, System.getProperty(name));
+  }
+
+  private boolean matchesProperty(String name, String expected) {
+    if (name.startsWith("!")) {
+      return property(name.substring(1)) == null;
+    }
+    var actual = property(name);
+    if (expected == null) {
+      return actual != null;
+    }
+    return expected.startsWith("!") ? !expected.substring(1).equals(actual) : expected.equals(actual);
+  }
+
+  private static Path file(String value, Path directory) {
+    var path = value.replace("${project.basedir}", directory.toString()).replace("${basedir}", directory.toString());
+    return directory.resolve(path);
+  }
+
+  private static boolean negatable(String value, Predicate<String> test) {
+    return value.startsWith("!") ? !test.test(value.substring(1)) : test.test(value);
+  }
+
+  private static boolean isOsFamily(String family) {
+    var os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+    return switch (family.toLowerCase(Locale.ROOT)) {
+      case "windows" -> os.contains("windows");
+      case "mac" -> os.contains("mac");
+      case "unix" -> !os.contains("windows");
+      default -> false;
+    };
+  }
+
+  /**
+   * @param condition a version prefix ({@code 17}, {@code 1.8}), its negation ({@code !17}) or a range
+   *                  ({@code [17,)}, {@code [1.8,21)})
+   */
+  static boolean matchesJdk(String condition, String javaVersion) {
+    if (javaVersion == null) {
+      return false;
+    }
+    if (condition.startsWith("!")) {
+      return !matchesJdk(condition.substring(1), javaVersion);
+    }
+    if (condition.startsWith("[") || condition.startsWith("(")) {
+      var bounds = condition.substring(1, condition.length() - 1).split(",", -1);
+      var lower = bounds[0].trim();
+      var upper = bounds.length > 1 ? bounds[1].trim() : lower;
+      var aboveLower = lower.isEmpty() || (condition.startsWith("[") ? compareVersions(javaVersion, lower) >= 0
+          : compareVersions(javaVersion, lower) > 0);
+      var belowUpper = upper.isEmpty() || (condition.endsWith("]") ? compareVersions(javaVersion, upper) <= 0
+          : compareVersions(javaVersion, upper) < 0);
+      return aboveLower && belowUpper;
+    }
+
+    var expected = segments(condition);
+    var actual = segments(javaVersion);
+    for (int i = 0; i < expected.size(); i++) {
+      if (i >= actual.size() || !expected.get(i).equals(actual.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compares the numeric segments of {@code version} as far as {@code bound} has some, so that {@code 17.0.1} is
+   * neither below nor above {@code 17}.
+   */
+  private static int compareVersions(String version, String bound) {
+    var left = segments(version);
+    var right = segments(bound);
+    for (int i = 0; i < right.size(); i++) {
+      var segment = i < left.size() ? left.get(i) : 0;
+      if (segment != right.get(i)) {
+        return Integer.compare(segment, right.get(i));
+      }
+    }
+    return 0;
+  }
+
+  private static List<Integer> segments(String version) {
+    var segments = new ArrayList<Integer>();
+    for (var part : version.split("[.\\-_+]")) {
+      try {
+        segments.add(Integer.parseInt(part));
+      } catch (NumberFormatException e) {
+        break;
+      }
+    }
+    return segments;
+  }
+
+  private static PomModel.Dependency interpolate(PomModel.Dependency dependency, Function<String, String> lookup) {
+    return new PomModel.Dependency(interpolate(dependency.groupId(), lookup),
+        interpolate(dependency.artifactId(), lookup), interpolate(dependency.version(), lookup),
+        interpolate(dependency.type(), lookup), interpolate(dependency.classifier(), lookup),
+        interpolate(dependency.scope(), lookup), interpolate(dependency.optional(), lookup));
+  }
+
+  private static PomModel.Plugin interpolate(PomModel.Plugin plugin, Function<String, String> lookup) {
+    var configuration = new LinkedHashMap<String, String>();
+    plugin.configuration().forEach((path, value) -> configuration.put(path, interpolate(value, lookup)));
+    return new PomModel.Plugin(interpolate(plugin.groupId(), lookup), interpolate(plugin.artifactId(), lookup),
+        interpolate(plugin.version(), lookup), Collections.unmodifiableMap(configuration));
+  }
+
+  /**
+   * Replaces every {@code ${name}} that {@code lookup} knows, references left unknown stay as they are.
+   */
+  static String interpolate(String value, Function<String, String> lookup) {
+    if (value == null || !value.contains("${")) {
+      return value;
+    }
+
+    var result = value;
+    // Bounded, properties referencing each other in a cycle must not loop forever
+    for (int depth = 0; depth < MAX_DEPTH && result.contains("${"); depth++) {
+      var replaced = new StringBuilder();
+      var position = 0;
+      var changed = false;
+      int start;
+      while ((start = result.indexOf("${", position)) >= 0) {
+        var end = result.indexOf('}', start);
+        if (end < 0) {
+          break;
+        }
+        var replacement = lookup.apply(result.substring(start + 2, end));
+        replaced.append(result, position, start)
+            .append(replacement != null ? replacement : result.substring(start, end + 1));
+        changed |= replacement != null;
+        position = end + 1;
+      }
+      replaced.append(result, position, result.length());
+      result = replaced.toString();
+      if (!changed) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  private static String managementKey(PomModel.Dependency dependency) {
+    return dependency.groupId() + ":" + dependency.artifactId() + ":"
+        + Objects.requireNonNullElse(dependency.type(), "jar") + ":"
+        + Objects.requireNonNullElse(dependency.classifier(), "");
+  }
+
+  private static String pluginKey(PomModel.Plugin plugin) {
+    return Objects.requireNonNullElse(plugin.groupId(), DEFAULT_PLUGIN_GROUP) + ":" + plugin.artifactId();
+  }
+
+  /**
+   * The model being merged from the farthest parent down, children override what they redeclare.
+   */
+  private static final class Merged {
+    private String groupId;
+    private String version;
+    private final Map<String, String> properties = new LinkedHashMap<>();
+    private final Map<String, PomModel.Dependency> dependencies = new LinkedHashMap<>();
+    private final Map<String, PomModel.Dependency> dependencyManagement = new LinkedHashMap<>();
+    private final Map<String, PomModel.Plugin> plugins = new LinkedHashMap<>();
+    private final Map<String, PomModel.Plugin> pluginManagement = new LinkedHashMap<>();
+    private List<String> modules = List.of();
+
+    void inherit(PomModel model, List<PomModel.Profile> profiles) {
+      // Either may be missing from the whole chain, Maven rejects such a POM but it can still be read
+      groupId = Optional.ofNullable(model.groupIdOrInherited()).orElse(groupId);
+      version = Optional.ofNullable(model.versionOrInherited()).orElse(version);
+
+      // Modules are not inherited, profiles are merged into the POM that declares them
+      var declaredModules = new ArrayList<>(model.modules());
+      properties.putAll(model.properties());
+      model.dependencies().forEach(dependency -> dependencies.put(managementKey(dependency), dependency));
+      model.dependencyManagement()
+          .forEach(dependency -> dependencyManagement.put(managementKey(dependency), dependency));
+      model.plugins().forEach(plugin -> merge(plugins, plugin));
+      model.pluginManagement().forEach(plugin -> merge(pluginManagement, plugin));
+      for (var profile : profiles) {
+        declaredModules.addAll(profile.modules());
+        properties.putAll(profile.properties());
+        profile.dependencies().forEach(dependency -> dependencies.put(managementKey(dependency), dependency));
+        profile.dependencyManagement()
+            .forEach(dependency -> dependencyManagement.put(managementKey(dependency), dependency));
+        profile.plugins().forEach(plugin -> merge(plugins, plugin));
+        profile.pluginManagement().forEach(plugin -> merge(pluginManagement, plugin));
+      }
+      modules = List.copyOf(declaredModules);
+    }
+
+    private static void merge(Map<String, PomModel.Plugin> plugins, PomModel.Plugin plugin) {
+      plugins.merge(pluginKey(plugin), plugin, (inherited, declared) -> {
+        var configuration = new LinkedHashMap<>(inherited.configuration());
+        configuration.putAll(declared.configuration());
+        return new PomModel.Plugin(declared.groupId(), declared.artifactId(),
+            declared.version() != null ? declared.version() : inherited.version(),
+            Collections.unmodifiableMap(configuration));
+      });
+    }
+  }
+}
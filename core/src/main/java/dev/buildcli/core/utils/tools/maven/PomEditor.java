@@ -0,0 +1,389 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Pom;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Edits a POM in one pass over its text, keeping everything outside the edited elements exactly as it was:
+ * formatting, comments, attribute quoting, entities and line endings.
+ * <p>
+ * Edits are collected first and applied together by {@link #apply()}: the POM is tokenized once, every edit is turned
+ * into a replacement of a character range of the original, and the result is assembled in a single copy. Added
+ * elements are indented like the surrounding ones. The result is checked with a StAX parse, so an edit can never
+ * leave a POM that Maven cannot read.
+ */
+public class PomEditor {
+  private final String content;
+  private final Map<String, Dependency> addedDependencies = new LinkedHashMap<>();
+  private final Set<String> removedDependencies = new LinkedHashSet<>();
+  private final Map<String, String> properties = new LinkedHashMap<>();
+  private final Map<String, Map<String, String>> pluginConfigurations = new LinkedHashMap<>();
+  private String version;
+  private String dependencies;
+
+  private PomEditor(String content) {
+    this.content = content;
+  }
+
+  public static PomEditor of(String content) {
+    return new PomEditor(content);
+  }
+
+  public static PomEditor read(Path pom) throws IOException {
+    return new PomEditor(Files.readString(pom, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Adds the dependency to the project dependencies, or sets the version of the one with the same
+   * {@code groupId:artifactId}.
+   */
+  public PomEditor addOrUpdateDependency(Dependency dependency) {
+    var key = key(dependency.getGroupId(), dependency.getArtifactId());
+    removedDependencies.remove(key);
+    addedDependencies.put(key, dependency);
+    return this;
+  }
+
+  public PomEditor removeDependency(String groupId, String artifactId) {
+    var key = key(groupId, artifactId);
+    addedDependencies.remove(key);
+    removedDependencies.add(key);
+    return this;
+  }
+
+  public PomEditor setProperty(String name, String value) {
+    properties.put(name, value);
+    return this;
+  }
+
+  /**
+   * Sets a parameter in the {@code <configuration>} of a build plugin, adding the configuration when the plugin has
+   * none. The plugin must already be declared in the project {@code <build><plugins>}.
+   */
+  public PomEditor setPluginConfiguration(String artifactId, String name, String value) {
+    pluginConfigurations.computeIfAbsent(artifactId, ignored -> new LinkedHashMap<>()).put(name, value);
+    return this;
+  }
+
+  /**
+   * Sets the version of the project itself.
+   */
+  public PomEditor setVersion(String version) {
+    this.version = version;
+    return this;
+  }
+
+  /**
+   * Replaces the whole project {@code <dependencies>} element with {@code raw}, written as is, or adds it at the end
+   * of the project when there is none.
+   */
+  public PomEditor replaceDependencies(String raw) {
+    this.dependencies = raw;
+    return this;
+  }
+
+  /**
+   * @return the edited POM
+   * @throws IOException when the POM is not well-formed, before or after the edits
+   */
+  public String apply() throws IOException {
+    var project = XmlTree.parse(content);
+    if (!project.name().equals(Pom.XML_ELEMENT)) {
+      throw new IOException("Not a POM, the root element is <" + project.name() + ">");
+    }
+
+    var style = Style.of(content, project);
+    var splices = new ArrayList<Splice>();
+
+    // Sections added at the same place come out in this order: version, properties, dependencies
+    if (version != null) {
+      project.child("version").ifPresentOrElse(
+          element -> splices.add(element.replaceText(version)),
+          () -> {
+            var after = project.child("artifactId").orElseThrow();
+            splices.add(new Splice(after.end(), after.end(), style.newline() + style.indentOf(after)
+                + XmlTree.element("version", version)));
+          });
+    }
+    if (!properties.isEmpty()) {
+      editProperties(project, style, splices);
+    }
+    if (dependencies != null) {
+      project.child("dependencies").ifPresentOrElse(
+          element -> splices.add(new Splice(element.start(), element.end(), dependencies)),
+          () -> splices.add(new Splice(project.contentEnd(), project.contentEnd(), dependencies)));
+    } else if (!addedDependencies.isEmpty() || !removedDependencies.isEmpty()) {
+      editDependencies(project, style, splices);
+    }
+    for (var plugin : pluginConfigurations.entrySet()) {
+      editPluginConfiguration(project, plugin.getKey(), plugin.getValue(), style, splices);
+    }
+
+    var result = splice(splices);
+    verify(result);
+    return result;
+  }
+
+  /**
+   * Applies the edits and replaces {@code pom} in one step.
+   */
+  public void write(Path pom) throws IOException {
+    var result = apply();
+    var temp = Files.createTempFile(pom.toAbsolutePath().getParent(), "pom", ".tmp");
+    try {
+      Files.writeString(temp, result, StandardCharsets.UTF_8);
+      try {
+        Files.move(temp, pom, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, pom, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+      PomModelCache.shared().invalidate(pom);
+    }
+  }
+
+  private void editDependencies(XmlTree.Element project, Style style, List<Splice> splices) {
+    var section = project.child("dependencies");
+    var pending = new LinkedHashMap<>(addedDependencies);
+
+    for (var dependency : section.map(element -> element.children("dependency")).orElse(List.of())) {
+      var key = key(dependency.childText("groupId").orElse(""), dependency.childText("artifactId").orElse(""));
+      if (removedDependencies.contains(key)) {
+        splices.add(remove(dependency));
+        continue;
+      }
+
+      var update = pending.remove(key);
+      if (update == null || update.getVersion() == null) {
+        continue;
+      }
+      dependency.child("version").ifPresentOrElse(
+          element -> splices.add(element.replaceText(update.getVersion())),
+          () -> {
+            var after = dependency.child("artifactId").orElseThrow();
+            splices.add(new Splice(after.end(), after.end(), style.newline() + style.indentOf(after)
+                + XmlTree.element("version", update.getVersion())));
+          });
+    }
+
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    if (section.isPresent()) {
+      var indent = style.childIndent(section.get());
+      var added = new StringBuilder();
+      pending.values().forEach(dependency -> added.append(style.newline()).append(indent)
+          .append("<!-- ").append(MavenConstants.ADDED_COMMENT).append(" -->")
+          .append(dependencyXml(dependency, style, indent)));
+      splices.add(section.get().append(added.toString(), style));
+    } else {
+      var indent = style.childIndent(project);
+      var added = new StringBuilder(style.newline()).append(style.newline()).append(indent).append("<dependencies>");
+      pending.values().forEach(dependency -> added.append(style.newline()).append(indent).append(style.unit())
+          .append("<!-- ").append(MavenConstants.ADDED_COMMENT).append(" -->")
+          .append(dependencyXml(dependency, style, indent + style.unit())));
+      added.append(style.newline()).append(indent).append("</dependencies>");
+      var after = project.child("properties").or(() -> lastHeaderElement(project));
+      splices.add(after.map(element -> new Splice(element.end(), element.end(), added.toString()))
+          .orElseGet(() -> project.append(added.toString(), style)));
+    }
+  }
+
+  private void editProperties(XmlTree.Element project, Style style, List<Splice> splices) {
+    var section = project.child("properties");
+    var missing = new StringBuilder();
+    var indent = section.map(style::childIndent).orElse(style.childIndent(project) + style.unit());
+
+    for (var property : properties.entrySet()) {
+      var existing = section.flatMap(element -> element.child(property.getKey()));
+      if (existing.isPresent()) {
+        splices.add(existing.get().replaceText(property.getValue()));
+      } else {
+        missing.append(style.newline()).append(indent).append(XmlTree.element(property.getKey(), property.getValue()));
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    if (section.isPresent()) {
+      splices.add(section.get().append(missing.toString(), style));
+      return;
+    }
+    var projectIndent = style.childIndent(project);
+    var added = style.newline() + style.newline() + projectIndent + "<properties>" + missing + style.newline()
+        + projectIndent + "</properties>";
+    splices.add(lastHeaderElement(project)
+        .map(element -> new Splice(element.end(), element.end(), added))
+        .orElseGet(() -> project.append(added, style)));
+  }
+
+  private static void editPluginConfiguration(XmlTree.Element project, String artifactId, Map<String, String> parameters,
+                                              Style style, List<Splice> splices) throws IOException {
+    var plugin = project.child("build")
+        .flatMap(build -> build.child("plugins"))
+        .flatMap(plugins -> plugins.children("plugin").stream()
+            .filter(element -> element.childText("artifactId").filter(artifactId::equals).isPresent())
+            .findFirst())
+        .orElseThrow(() -> new IOException("The POM does not declare the plugin " + artifactId));
+    var configuration = plugin.child("configuration");
+    var indent = configuration.map(style::childIndent).orElse(style.childIndent(plugin) + style.unit());
+
+    var missing = new StringBuilder();
+    for (var parameter : parameters.entrySet()) {
+      var existing = configuration.flatMap(element -> element.child(parameter.getKey()));
+      if (existing.isPresent()) {
+        splices.add(existing.get().replaceText(parameter.getValue()));
+      } else {
+        missing.append(style.newline()).append(indent).append(XmlTree.element(parameter.getKey(), parameter.getValue()));
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    if (configuration.isPresent()) {
+      splices.add(configuration.get().append(missing.toString(), style));
+      return;
+    }
+    var pluginIndent = style.childIndent(plugin);
+    splices.add(plugin.append(style.newline() + pluginIndent + "<configuration>" + missing + style.newline()
+        + pluginIndent + "</configuration>", style));
+  }
+
+  /**
+   * @return the last of the elements that usually open a POM, new sections go after it
+   */
+  private static Optional<XmlTree.Element> lastHeaderElement(XmlTree.Element project) {
+    var header = List.of("modelVersion", "parent", "groupId", "artifactId", "version", "packaging", "name",
+        "description", "url");
+    return project.children().stream()
+        .filter(element -> header.contains(element.name()))
+        .max(Comparator.comparingInt(XmlTree.Element::end));
+  }
+
+  /**
+   * Removes the element with the whitespace before it, and the comment BuildCLI put in front of it when it added it.
+   */
+  private Splice remove(XmlTree.Element element) {
+    var start = element.leadingWhitespaceStart(content);
+    // Older versions wrote the comment without the space before "-->"
+    if (content.startsWith("-->", start - 3)) {
+      var commentStart = content.lastIndexOf("<!--", start - 3);
+      if (commentStart >= 0 && content.substring(commentStart + 4, start - 3).trim().equals(MavenConstants.ADDED_COMMENT)) {
+        start = XmlTree.whitespaceStart(content, commentStart);
+      }
+    }
+    return new Splice(start, element.end(), "");
+  }
+
+  private static String dependencyXml(Dependency dependency, Style style, String indent) {
+    var inner = indent + style.unit();
+    var xml = new StringBuilder(style.newline()).append(indent).append("<dependency>");
+    xml.append(style.newline()).append(inner).append(XmlTree.element("groupId", dependency.getGroupId()));
+    xml.append(style.newline()).append(inner).append(XmlTree.element("artifactId", dependency.getArtifactId()));
+    if (dependency.getVersion() != null) {
+      xml.append(style.newline()).append(inner).append(XmlTree.element("version", dependency.getVersion()));
+    }
+    if (dependency.getScope() != null) {
+      xml.append(style.newline()).append(inner).append(XmlTree.element("scope", dependency.getScope()));
+    }
+    return xml.append(style.newline()).append(indent).append("</dependency>").toString();
+  }
+
+  private String splice(List<Splice> splices) {
+    var ordered = new ArrayList<>(splices);
+    // Stable, so insertions at the same position keep the order the edits were made in
+    ordered.sort(Comparator.comparingInt(Splice::start));
+
+    var result = new StringBuilder(content.length() + 256);
+    var position = 0;
+    for (var splice : ordered) {
+      if (splice.start() < position) {
+        throw new IllegalStateException("Overlapping POM edits at " + splice.start());
+      }
+      result.append(content, position, splice.start()).append(splice.text());
+      position = splice.end();
+    }
+    return result.append(content, position, content.length()).toString();
+  }
+
+  private static void verify(String pom) throws IOException {
+    try {
+      var factory = XMLInputFactory.newFactory();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // prevent XXE attack
+      var reader = factory.createXMLStreamReader(new StringReader(pom));
+      while (reader.hasNext()) {
+        reader.next();
+      }
+      reader.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("The edited POM is not well-formed: " + e.getMessage(), e);
+    }
+  }
+
+  private static String key(String groupId, String artifactId) {
+    return groupId + ":" + artifactId;
+  }
+
+  record Splice(int start, int end, String text) {
+  }
+
+  /**
+   * How the POM is laid out, so added elements look like they were always there.
+   *
+   * @param unit one level of indentation
+   */
+  record Style(String newline, String unit, String content) {
+    static Style of(String content, XmlTree.Element project) {
+      var newline = content.contains("\r\n") ? "\r\n" : "\n";
+      var unit = project.children().stream().findFirst()
+          .map(child -> lineIndent(content, child.start()))
+          .filter(indent -> !indent.isEmpty())
+          .orElse("  ");
+      return new Style(newline, unit, content);
+    }
+
+    String indentOf(XmlTree.Element element) {
+      return lineIndent(content, element.start());
+    }
+
+    String childIndent(XmlTree.Element element) {
+      // Children written on the line of their parent tell nothing about indentation
+      return element.children().stream().findFirst()
+          .filter(child -> content.substring(element.start(), child.start()).contains("\n"))
+          .map(this::indentOf)
+          .orElse(indentOf(element) + unit);
+    }
+
+    private static String lineIndent(String content, int position) {
+      var lineStart = content.lastIndexOf('\n', position - 1) + 1;
+      var end = lineStart;
+      while (end < position && (content.charAt(end) == ' ' || content.charAt(end) == '\t')) {
+        end++;
+      }
+      return content.substring(lineStart, end);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Pom;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * What a POM declares, exactly as written: nothing is inherited from the parent and no {@code ${property}} is
+ * resolved. Values that are not declared are null. Every collection is unmodifiable, so one instance can be shared by
+ * every reader, see {@link PomModelCache}.
+ */
+public record PomModel(String groupId, String artifactId, String version, String packaging, Optional<Parent> parent,
+                       Map<String, String> properties, List<Dependency> dependencies,
+                       List<Dependency> dependencyManagement, List<String> modules, List<Plugin> plugins,
+                       List<Plugin> pluginManagement, List<Profile> profiles) {
+
+  public record Parent(String groupId, String artifactId, String version, String relativePath) {
+  }
+
+  public record Dependency(String groupId, String artifactId, String version, String type, String classifier,
+                           String scope, String optional) {
+    /**
+     * @return {@code groupId:artifactId}
+     */
+    public String key() {
+      return groupId + ":" + artifactId;
+    }
+  }
+
+  /**
+   * @param configuration the text of every element of the {@code <configuration>} that has no child elements, by its
+   *                      path below the configuration, {@code archive.manifest.mainClass} for instance. Of repeated
+   *                      elements only the first is kept.
+   */
+  public record Plugin(String groupId, String artifactId, String version, Map<String, String> configuration) {
+  }
+
+  /**
+   * @param activation the {@code <activation>} flattened like a plugin configuration: {@code jdk},
+   *                   {@code property.name}, {@code file.exists}, {@code os.family}...
+   */
+  public record Profile(String id, boolean activeByDefault, Map<String, String> activation,
+                        Map<String, String> properties, List<Dependency> dependencies,
+                        List<Dependency> dependencyManagement, List<String> modules, List<Plugin> plugins,
+                        List<Plugin> pluginManagement) {
+  }
+
+  /**
+   * @return the declared groupId, or the one of the parent
+   */
+  public String groupIdOrInherited() {
+    return groupId != null ? groupId : parent.map(Parent::groupId).orElse(null);
+  }
+
+  /**
+   * @return the declared version, or the one of the parent
+   */
+  public String versionOrInherited() {
+    return version != null ? version : parent.map(Parent::version).orElse(null);
+  }
+
+  public String packagingOrDefault() {
+    return packaging != null ? packaging : "jar";
+  }
+
+  /**
+   * @return the properties of the project followed by those of its profiles, the project wins on duplicates
+   */
+  public Map<String, String> allProperties() {
+    var all = new LinkedHashMap<>(properties);
+    profiles.forEach(profile -> profile.properties().forEach(all::putIfAbsent));
+    return Collections.unmodifiableMap(all);
+  }
+
+  /**
+   * @return the plugins of the build, its plugin management and those of every profile
+   */
+  public List<Plugin> allPlugins() {
+    var all = new ArrayList<>(plugins);
+    all.addAll(pluginManagement);
+    profiles.forEach(profile -> {
+      all.addAll(profile.plugins());
+      all.addAll(profile.pluginManagement());
+    });
+    return List.copyOf(all);
+  }
+
+  /**
+   * @throws IOException when the content is not a well-formed POM
+   */
+  public static PomModel parse(String content) throws IOException {
+    var project = XmlTree.parse(content);
+    if (!project.name().equals(Pom.XML_ELEMENT)) {
+      throw new IOException("Not a POM, the root element is <" + project.name() + ">");
+    }
+
+    var parent = project.child("parent").map(element -> new Parent(text(element, "groupId"),
+        text(element, "artifactId"), text(element, "version"), text(element, "relativePath")));
+    var build = project.child("build");
+    return new PomModel(text(project, "groupId"), text(project, "artifactId"), text(project, "version"),
+        text(project, "packaging"), parent, properties(project), dependencies(project, "dependencies"),
+        dependencyManagement(project), modules(project), plugins(build), pluginManagement(build), profiles(project));
+  }
+
+  private static List<Profile> profiles(XmlTree.Element project) {
+    return project.child("profiles").stream()
+        .flatMap(profiles -> profiles.children("profile").stream())
+        .map(profile -> {
+          var build = profile.child("build");
+          var activation = new LinkedHashMap<String, String>();
+          profile.child("activation").ifPresent(element -> flatten(element, "", activation));
+          var activeByDefault = Boolean.parseBoolean(activation.get("activeByDefault"));
+          return new Profile(text(profile, "id"), activeByDefault, Collections.unmodifiableMap(activation),
+              properties(profile), dependencies(profile, "dependencies"), dependencyManagement(profile),
+              modules(profile), plugins(build), pluginManagement(build));
+        })
+        .toList();
+  }
+
+  private static Map<String, String> properties(XmlTree.Element parent) {
+    var properties = new LinkedHashMap<String, String>();
+    parent.child("properties").ifPresent(element -> element.children()
+        .forEach(property -> properties.putIfAbsent(property.name(), property.text())));
+    return Collections.unmodifiableMap(properties);
+  }
+
+  private static List<Dependency> dependencyManagement(XmlTree.Element parent) {
+    return parent.child("dependencyManagement").map(element -> dependencies(element, "dependencies")).orElse(List.of());
+  }
+
+  private static List<Dependency> dependencies(XmlTree.Element parent, String section) {
+    return parent.child(section).stream()
+        .flatMap(dependencies -> dependencies.children("dependency").stream())
+        .map(dependency -> new Dependency(text(dependency, "groupId"), text(dependency, "artifactId"),
+            text(dependency, "version"), text(dependency, "type"), text(dependency, "classifier"),
+            text(dependency, "scope"), text(dependency, "optional")))
+        .toList();
+  }
+
+  private static List<String> modules(XmlTree.Element parent) {
+    return parent.child("modules").stream()
+        .flatMap(modules -> modules.children("module").stream())
+        .map(XmlTree.Element::text)
+        .filter(module -> !module.isEmpty())
+        .toList();
+  }
+
+  private static List<Plugin> pluginManagement(Optional<XmlTree.Element> build) {
+    return plugins(build.flatMap(element -> element.child("pluginManagement")));
+  }
+
+  private static List<Plugin> plugins(Optional<XmlTree.Element> parent) {
+    return parent.flatMap(element -> element.child("plugins")).stream()
+        .flatMap(plugins -> plugins.children("plugin").stream())
+        .map(plugin -> {
+          var configuration = new LinkedHashMap<String, String>();
+          plugin.child("configuration").ifPresent(element -> flatten(element, "", configuration));
+          return new Plugin(text(plugin, "groupId"), text(plugin, "artifactId"), text(plugin, "version"),
+              Collections.unmodifiableMap(configuration));
+        })
+        .toList();
+  }
+
+  private static void flatten(XmlTree.Element element, String prefix, Map<String, String> values) {
+    for (var child : element.children()) {
+      var path = prefix + child.name();
+      if (child.children().isEmpty()) {
+        values.putIfAbsent(path, child.text());
+      } else {
+        flatten(child, path + ".", values);
+      }
+    }
+  }
+
+  private static String text(XmlTree.Element parent, String name) {
+    return parent.childText(name).filter(value -> !value.isEmpty()).orElse(null);
+  }
+}
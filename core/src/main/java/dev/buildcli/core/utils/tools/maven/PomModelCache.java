@@ -0,0 +1,114 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parsed POMs of this process, so every command, hook and daemon request reading the same {@code pom.xml} parses it
+ * once.
+ * <p>
+ * A model is reused while the file keeps its canonical path, size, modification time and file key (the inode on
+ * Unix, which an atomic replace changes). Writes made through BuildCLI also {@link #invalidate(Path)} it. A file
+ * modified less than {@link #RACY_WINDOW} before it was parsed could change again without its modification time
+ * moving on file systems with coarse timestamps, its content is compared until it is old enough to be trusted.
+ */
+public class PomModelCache {
+  public static final int DEFAULT_MAX_ENTRIES = 256;
+  static final Duration RACY_WINDOW = Duration.ofSeconds(2);
+
+  private static PomModelCache shared;
+
+  private final Map<Path, Entry> entries;
+
+  private record Entry(long size, Instant modified, Object fileKey, byte[] racyContent, PomModel model) {
+    boolean matches(BasicFileAttributes attributes) {
+      return size == attributes.size() && modified.equals(attributes.lastModifiedTime().toInstant())
+          && Objects.equals(fileKey, attributes.fileKey());
+    }
+  }
+
+  public PomModelCache(int maxEntries) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  public static synchronized PomModelCache shared() {
+    if (shared == null) {
+      shared = new PomModelCache(DEFAULT_MAX_ENTRIES);
+    }
+    return shared;
+  }
+
+  /**
+   * @return the model of {@code pom}, parsed again only when the file changed
+   * @throws IOException when the file cannot be read or is not a well-formed POM
+   */
+  public PomModel get(Path pom) throws IOException {
+    var path = pom.toRealPath();
+    var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(path);
+    }
+    if (entry != null && entry.matches(attributes)) {
+      if (entry.racyContent() == null) {
+        return entry.model();
+      }
+      var content = Files.readAllBytes(path);
+      if (Arrays.equals(content, entry.racyContent())) {
+        store(path, attributes, content, entry.model());
+        return entry.model();
+      }
+    }
+
+    // Parsed outside the lock, two threads may parse the same file once each, they get equal models
+    var content = Files.readAllBytes(path);
+    var model = PomModel.parse(new String(content, StandardCharsets.UTF_8));
+    store(path, attributes, content, model);
+    return model;
+  }
+
+  /**
+   * Forgets {@code pom}, to be called after writing it.
+   */
+  public void invalidate(Path pom) {
+    var path = pom.toAbsolutePath().normalize();
+    synchronized (entries) {
+      entries.remove(path);
+      try {
+        entries.remove(path.toRealPath());
+      } catch (IOException e) {
+        // Deleted, nothing cached under its real path can match anymore
+      }
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  private void store(Path path, BasicFileAttributes attributes, byte[] content, PomModel model) {
+    var modified = attributes.lastModifiedTime().toInstant();
+    var racy = Instant.now().minus(RACY_WINDOW).isBefore(modified);
+    var entry = new Entry(attributes.size(), modified, attributes.fileKey(), racy ? content : null, model);
+    synchronized (entries) {
+      entries.put(path, entry);
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.utils.tools.maven.PomEditor.Splice;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The elements of an XML document with the exact character range of each, read in a single scan. Only what
+ * {@link PomEditor} and {@link PomModel} need: comments, CDATA, processing instructions and the doctype are skipped,
+ * attributes are not parsed.
+ */
+final class XmlTree {
+
+  static final class Element {
+    private final String source;
+    private final String qualifiedName;
+    private final int start;
+    private final int openEnd;
+    private final List<Element> children = new ArrayList<>();
+    private int closeStart;
+    private int end;
+    private boolean selfClosing;
+
+    private Element(String source, String qualifiedName, int start, int openEnd) {
+      this.source = source;
+      this.qualifiedName = qualifiedName;
+      this.start = start;
+      this.openEnd = openEnd;
+    }
+
+    /**
+     * @return the local name, without namespace prefix
+     */
+    String name() {
+      return qualifiedName.substring(qualifiedName.indexOf(':') + 1);
+    }
+
+    int start() {
+      return start;
+    }
+
+    int end() {
+      return end;
+    }
+
+    /**
+     * @return where new content goes: before the whitespace in front of the closing tag
+     */
+    int contentEnd() {
+      return selfClosing ? end : Math.max(openEnd, whitespaceStart(source, closeStart));
+    }
+
+    List<Element> children() {
+      return children;
+    }
+
+    List<Element> children(String name) {
+      return children.stream().filter(child -> child.name().equals(name)).toList();
+    }
+
+    Optional<Element> child(String name) {
+      return children.stream().filter(child -> child.name().equals(name)).findFirst();
+    }
+
+    Optional<String> childText(String name) {
+      return child(name).map(Element::text);
+    }
+
+    String text() {
+      if (selfClosing) {
+        return "";
+      }
+      var raw = source.substring(openEnd, closeStart).replace("<![CDATA[", "").replace("]]>", "");
+      return unescape(raw).trim();
+    }
+
+    int leadingWhitespaceStart(String content) {
+      return whitespaceStart(content, start);
+    }
+
+    Splice replaceText(String value) {
+      if (selfClosing) {
+        return new Splice(start, end, element(qualifiedName, value));
+      }
+      return new Splice(openEnd, closeStart, escape(value));
+    }
+
+    /**
+     * Inserts {@code text}, which starts with its own line break, as the last content of this element.
+     */
+    Splice append(String text, PomEditor.Style style) {
+      var indent = style.indentOf(this);
+      if (selfClosing) {
+        return new Splice(start, end, "<" + qualifiedName + ">" + text + style.newline() + indent + "</" + qualifiedName + ">");
+      }
+      var at = contentEnd();
+      var closingOnNewLine = source.substring(at, closeStart).contains("\n");
+      return new Splice(at, at, closingOnNewLine ? text : text + style.newline() + indent);
+    }
+  }
+
+  private XmlTree() {
+  }
+
+  /**
+   * @return the root element
+   * @throws IOException when the document is not well-formed enough to tell where its elements are
+   */
+  static Element parse(String source) throws IOException {
+    var open = new ArrayDeque<Element>();
+    Element root = null;
+    var position = 0;
+
+    while (true) {
+      var lt = source.indexOf('<', position);
+      if (lt < 0) {
+        break;
+      }
+
+      if (source.startsWith("<!--", lt)) {
+        position = find(source, "-->", lt) + 3;
+      } else if (source.startsWith("<![CDATA[", lt)) {
+        position = find(source, "]]>", lt) + 3;
+      } else if (source.startsWith("<?", lt)) {
+        position = find(source, "?>", lt) + 2;
+      } else if (source.startsWith("<!", lt)) {
+        position = doctypeEnd(source, lt);
+      } else if (source.startsWith("</", lt)) {
+        var gt = find(source, ">", lt);
+        var name = source.substring(lt + 2, gt).trim();
+        var element = open.poll();
+        if (element == null || !element.qualifiedName.equals(name)) {
+          throw new IOException("Unexpected </" + name + "> at " + lt);
+        }
+        element.closeStart = lt;
+        element.end = gt + 1;
+        position = gt + 1;
+      } else {
+        var gt = tagEnd(source, lt);
+        var nameEnd = lt + 1;
+        while (nameEnd < gt && !Character.isWhitespace(source.charAt(nameEnd)) && source.charAt(nameEnd) != '/') {
+          nameEnd++;
+        }
+
+        var element = new Element(source, source.substring(lt + 1, nameEnd), lt, gt + 1);
+        var parent = open.peek();
+        if (parent != null) {
+          parent.children.add(element);
+        } else if (root == null) {
+          root = element;
+        } else {
+          throw new IOException("More than one root element, second at " + lt);
+        }
+
+        if (source.charAt(gt - 1) == '/') {
+          element.selfClosing = true;
+          element.closeStart = gt + 1;
+          element.end = gt + 1;
+        } else {
+          open.push(element);
+        }
+        position = gt + 1;
+      }
+    }
+
+    if (root == null) {
+      throw new IOException("No root element");
+    }
+    if (!open.isEmpty()) {
+      throw new IOException("<" + open.peek().qualifiedName + "> is never closed");
+    }
+    return root;
+  }
+
+  static String element(String name, String value) {
+    return "<" + name + ">" + escape(value) + "</" + name + ">";
+  }
+
+  static int whitespaceStart(String source, int position) {
+    while (position > 0 && Character.isWhitespace(source.charAt(position - 1))) {
+      position--;
+    }
+    return position;
+  }
+
+  static String escape(String value) {
+    return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+  }
+
+  private static String unescape(String value) {
+    return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'")
+        .replace("&amp;", "&");
+  }
+
+  private static int find(String source, String token, int from) throws IOException {
+    var index = source.indexOf(token, from);
+    if (index < 0) {
+      throw new IOException("Missing " + token + " after " + from);
+    }
+    return index;
+  }
+
+  /**
+   * @return the position of the {@code >} closing the start tag at {@code lt}, skipping quoted attribute values
+   */
+  private static int tagEnd(String source, int lt) throws IOException {
+    char quote = 0;
+    for (var i = lt + 1; i < source.length(); i++) {
+      var c = source.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+      } else if (c == '>') {
+        return i;
+      }
+    }
+    throw new IOException("Unterminated tag at " + lt);
+  }
+
+  private static int doctypeEnd(String source, int lt) throws IOException {
+    var depth = 0;
+    for (var i = lt + 2; i < source.length(); i++) {
+      var c = source.charAt(i);
+      if (c == '[') {
+        depth++;
+      } else if (c == ']') {
+        depth--;
+      } else if (c == '>' && depth == 0) {
+        return i + 1;
+      }
+    }
+    throw new IOException("Unterminated declaration at " + lt);
+  }
+}
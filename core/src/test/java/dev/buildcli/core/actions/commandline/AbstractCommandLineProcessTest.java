@@ -0,0 +1,142 @@
+package dev.buildcli.core.actions.commandline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class AbstractCommandLineProcessTest {
+
+  private static class ShellProcess extends AbstractCommandLineProcess {
+    private ShellProcess(String script) {
+      super("sh", false);
+      commands.addAll(List.of("-c", script));
+    }
+  }
+
+  @Test
+  void runDoesNotBlockOnOutputLargerThanThePipeBuffer() {
+    // ~1MB on each stream, far beyond the usual 64KB pipe buffer
+    var process = new ShellProcess("i=0; while [ $i -lt 20000 ]; do echo \"out line $i padded to fill the pipe quickly\"; "
+        + "echo \"err line $i\" 1>&2; i=$((i+1)); done");
+    process.bufferLines(100);
+
+    assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertEquals(0, process.run()));
+
+    var stdout = process.stdout();
+    assertEquals(100, stdout.size());
+    assertTrue(stdout.getLast().startsWith("out line 19999"));
+    assertEquals("err line 19999", process.stderr().getLast());
+    assertEquals(stdout, process.output());
+  }
+
+  @Test
+  void outputIsStderrWhenTheProcessFails() {
+    var process = new ShellProcess("echo ok; echo failed 1>&2; exit 3");
+
+    assertEquals(3, process.run());
+    assertEquals(List.of("ok"), process.stdout());
+    assertEquals(List.of("failed"), process.output());
+  }
+
+  @Test
+  void listenersReceiveLinesOfBothStreams() {
+    var received = new CopyOnWriteArrayList<String>();
+    var process = new ShellProcess("echo one; echo two 1>&2");
+    process.onLine((channel, line) -> received.add(channel + ":" + line));
+
+    assertEquals(0, process.run());
+    assertTrue(received.containsAll(List.of("STDOUT:one", "STDERR:two")));
+    assertEquals(2, received.size());
+  }
+
+  @Test
+  void linesStreamsOutputWhileTheProcessRuns() throws Exception {
+    var process = new ShellProcess("echo first; sleep 30; echo never");
+    var running = process.start(true);
+
+    try (var lines = running.lines()) {
+      assertEquals("first", lines.findFirst().orElseThrow());
+      assertTrue(running.isAlive());
+    } finally {
+      running.destroy();
+    }
+    assertTrue(running.waitFor(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void statsDescribeTheFinishedProcess() {
+    var process = new ShellProcess("exit 2");
+    assertTrue(process.stats().isEmpty());
+
+    assertEquals(2, process.run());
+
+    var stats = process.stats().orElseThrow();
+    assertEquals(ExitReason.FAILED, stats.exitReason());
+    assertEquals(2, stats.exitCode());
+    assertTrue(stats.pid() > 0);
+    assertFalse(stats.wallTime().isNegative());
+    assertTrue(stats.format().contains("FAILED"));
+  }
+
+  @Test
+  void timeoutKillsTheWholeProcessTree() throws Exception {
+    var pidFile = Files.createTempFile("child", ".pid");
+    try {
+      var process = new ShellProcess("sleep 60 & echo $! > " + pidFile + "; wait");
+      process.timeout(Duration.ofMillis(500));
+
+      assertEquals(-1, process.run());
+      assertEquals(ExitReason.TIMED_OUT, process.stats().orElseThrow().exitReason());
+
+      var child = ProcessHandle.of(Long.parseLong(Files.readString(pidFile).trim()));
+      child.ifPresent(handle -> assertDoesNotThrow(() -> handle.onExit().get(10, TimeUnit.SECONDS)));
+    } finally {
+      Files.deleteIfExists(pidFile);
+    }
+  }
+
+  @Test
+  void cancelStopsARunningProcess() throws Exception {
+    var started = new CountDownLatch(1);
+    var process = new ShellProcess("echo started; sleep 60");
+    process.onLine((channel, line) -> started.countDown());
+    var runner = Thread.ofVirtual().start(process::run);
+
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    process.cancel();
+    runner.join(Duration.ofSeconds(15));
+
+    assertFalse(runner.isAlive());
+    assertEquals(ExitReason.CANCELLED, process.stats().orElseThrow().exitReason());
+  }
+
+  @Test
+  void missingExecutableIsReportedAsNotStarted() {
+    var process = new AbstractCommandLineProcess("buildcli-no-such-executable", false) {
+    };
+
+    assertEquals(-1, process.run());
+    assertEquals(ExitReason.NOT_STARTED, process.stats().orElseThrow().exitReason());
+  }
+
+  @Test
+  void ringBufferKeepsTheMostRecentLines() {
+    var buffer = new LineRingBuffer(3);
+    for (int i = 1; i <= 5; i++) {
+      buffer.add("line " + i);
+    }
+
+    assertEquals(List.of("line 3", "line 4", "line 5"), buffer.lines());
+    assertEquals(2, buffer.dropped());
+  }
+}
@@ -0,0 +1,35 @@
+package dev.buildcli.core.actions.dependency;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DependencySearchServiceTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void resolvesEveryConfiguredNameInOrder() {
+    var dependencies = new DependencySearchService().searchDependencies(List.of("lombok", "spring-starter"));
+
+    assertEquals(List.of("org.projectlombok:lombok", "org.springframework.boot:spring-boot-starter",
+        "org.springframework.boot:spring-boot-starter-test"), dependencies);
+  }
+
+  @Test
+  void searchesTheLocalRepositoryWithTheLatestVersions() throws IOException {
+    var version = Files.createDirectories(root.resolve("repository/com/google/guava/guava/33.2.1-jre"));
+    Files.writeString(version.resolve("guava-33.2.1-jre.pom"), "<project/>");
+    var index = new LocalRepositoryIndex(root.resolve("repository"), root.resolve("cache"));
+
+    var found = new DependencySearchService(() -> index).searchLocalRepository("guava");
+
+    assertEquals(List.of("com.google.guava:guava:33.2.1-jre"), found);
+  }
+}
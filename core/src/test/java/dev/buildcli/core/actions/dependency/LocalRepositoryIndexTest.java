@@ -0,0 +1,129 @@
+package dev.buildcli.core.actions.dependency;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRepositoryIndexTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void findsArtifactsByWordsOfTheirCoordinates() throws IOException {
+    var repository = root.resolve("repository");
+    install(repository, "com.fasterxml.jackson.core", "jackson-databind", "2.15.0", "2.17.1");
+    install(repository, "com.fasterxml.jackson.core", "jackson-core", "2.17.1");
+    install(repository, "org.slf4j", "slf4j-api", "2.0.16");
+    install(repository, "org.projectlombok", "lombok", "1.18.30");
+    // Only a POM being downloaded, not a version yet
+    Files.createDirectories(repository.resolve("org/projectlombok/lombok/1.18.34"));
+    Files.createDirectories(repository.resolve(".cache/org/fake/fake/1"));
+
+    var index = index(repository);
+
+    assertEquals(List.of("org.projectlombok:lombok:1.18.30"), coordinates(index.search("lombok", 10)));
+    assertEquals(List.of("com.fasterxml.jackson.core:jackson-core:2.17.1",
+        "com.fasterxml.jackson.core:jackson-databind:2.17.1"), coordinates(index.search("jackson", 10)));
+    assertEquals(List.of("com.fasterxml.jackson.core:jackson-databind:2.17.1"),
+        coordinates(index.search("jackson data", 10)));
+    assertEquals(List.of("com.fasterxml.jackson.core:jackson-databind:2.17.1"),
+        coordinates(index.search("com.fasterxml.jackson.core:jackson-databind", 10)));
+    assertEquals(List.of("org.slf4j:slf4j-api:2.0.16"), coordinates(index.search("SLF4J", 10)));
+    assertEquals(List.of(), index.search("fake", 10));
+    assertEquals(1, index.search("jackson", 1).size());
+  }
+
+  @Test
+  void ranksTheArtifactNamedLikeTheQueryFirst() throws IOException {
+    var repository = root.resolve("repository");
+    install(repository, "org.junit.jupiter", "junit-jupiter-api", "5.10.0");
+    install(repository, "org.junit.jupiter", "junit-jupiter", "5.10.0");
+    install(repository, "junit", "junit", "4.13.2");
+
+    var found = index(repository).search("junit", 10);
+
+    assertEquals(List.of("junit:junit:4.13.2", "org.junit.jupiter:junit-jupiter:5.10.0",
+        "org.junit.jupiter:junit-jupiter-api:5.10.0"), coordinates(found));
+  }
+
+  @Test
+  void toleratesTyposWhenNothingMatchesExactly() throws IOException {
+    var repository = root.resolve("repository");
+    install(repository, "com.fasterxml.jackson.core", "jackson-databind", "2.17.1");
+    install(repository, "org.postgresql", "postgresql", "42.7.3");
+
+    var index = index(repository);
+
+    assertEquals(List.of("com.fasterxml.jackson.core:jackson-databind:2.17.1"),
+        coordinates(index.search("jakson", 10)));
+    assertEquals(List.of("org.postgresql:postgresql:42.7.3"), coordinates(index.search("postgrsql", 10)));
+    assertEquals(List.of(), index.search("xyz", 10));
+  }
+
+  @Test
+  void picksUpWhatWasDownloadedSinceTheLastRefresh() throws IOException {
+    var repository = root.resolve("repository");
+    install(repository, "org.slf4j", "slf4j-api", "2.0.9");
+    var index = index(repository);
+    assertEquals(List.of("org.slf4j:slf4j-api:2.0.9"), coordinates(index.search("slf4j", 10)));
+
+    install(repository, "org.slf4j", "slf4j-api", "2.0.16");
+    install(repository, "org.slf4j", "slf4j-simple", "2.0.16");
+    // The POM of a version whose directory was already there
+    Files.createDirectories(repository.resolve("org/slf4j/slf4j-nop/2.0.16"));
+    index.refresh();
+    install(repository, "org.slf4j", "slf4j-nop", "2.0.16");
+    index.refresh();
+
+    assertEquals(List.of("org.slf4j:slf4j-api:2.0.16", "org.slf4j:slf4j-nop:2.0.16", "org.slf4j:slf4j-simple:2.0.16"),
+        coordinates(index.search("slf4j", 10)));
+
+    // Another process reads what this one wrote
+    assertEquals(3, index(repository).search("slf4j", 10).size());
+  }
+
+  @Test
+  void ordersVersionsLikeMaven() {
+    var versions = new ArrayList<>(List.of("1.10.0", "1.2.0-SNAPSHOT", "1.9.1", "1.2.0", "1.2.0-RC1", "1.2"));
+    versions.sort(LocalRepositoryIndex::compareVersions);
+
+    assertEquals(List.of("1.2", "1.2.0-RC1", "1.2.0-SNAPSHOT", "1.2.0", "1.9.1", "1.10.0"), versions);
+    assertEquals("2.0.0", new LocalRepositoryIndex.Artifact("g", "a", List.of("1.0", "2.0.0", "2.1.0-SNAPSHOT"))
+        .latestVersion());
+    assertEquals("2.1.0-SNAPSHOT", new LocalRepositoryIndex.Artifact("g", "a", List.of("2.1.0-SNAPSHOT"))
+        .latestVersion());
+  }
+
+  @Test
+  void boundsTheEditDistance() {
+    assertEquals(1, LocalRepositoryIndex.distance("jakson", "jackson", 2));
+    assertEquals(3, LocalRepositoryIndex.distance("abc", "xyz", 2));
+    assertTrue(LocalRepositoryIndex.distance("a", "abcdef", 1) > 1);
+  }
+
+  private LocalRepositoryIndex index(Path repository) {
+    return new LocalRepositoryIndex(repository, root.resolve("cache"));
+  }
+
+  private static List<String> coordinates(List<LocalRepositoryIndex.Artifact> artifacts) {
+    return artifacts.stream().map(LocalRepositoryIndex.Artifact::coordinates).toList();
+  }
+
+  private static void install(Path repository, String groupId, String artifactId, String... versions)
+      throws IOException {
+    var artifact = repository.resolve(groupId.replace('.', '/')).resolve(artifactId);
+    for (var version : versions) {
+      var directory = artifact.resolve(version);
+      Files.createDirectories(directory);
+      Files.writeString(directory.resolve(artifactId + "-" + version + ".pom"), "<project/>");
+    }
+  }
+}
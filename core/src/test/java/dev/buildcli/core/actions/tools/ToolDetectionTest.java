@@ -0,0 +1,162 @@
+package dev.buildcli.core.actions.tools;
+
+import dev.buildcli.core.utils.CallEnvironment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolDetectionTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void reusesTheResultWhileTheExecutableStaysTheSame() throws IOException {
+    var bin = executable("tool");
+    var checker = new CountingChecker("Tool", "tool", ToolInfo.installed("1.0"));
+
+    assertEquals(ToolInfo.installed("1.0"), detection(bin.getParent().toString()).detect(checker));
+    assertEquals(ToolInfo.installed("1.0"), detection(bin.getParent().toString()).detect(checker));
+    assertEquals(1, checker.probes.get());
+
+    Files.setLastModifiedTime(bin, FileTime.from(Instant.now().plusSeconds(60)));
+    detection(bin.getParent().toString()).detect(checker);
+    assertEquals(2, checker.probes.get());
+
+    detection(bin.getParent() + File.pathSeparator + dir).detect(checker);
+    assertEquals(3, checker.probes.get());
+  }
+
+  @Test
+  void sharedDetectionFollowsThePathOfTheCaller() throws IOException {
+    var bin = executable("tool");
+    try {
+      CallEnvironment.set(Map.of("PATH", bin.getParent().toString()));
+      var detection = ToolDetection.shared();
+      assertSame(detection, ToolDetection.shared());
+      assertTrue(detection.resolve("tool").isPresent());
+
+      CallEnvironment.set(Map.of("PATH", dir.resolve("elsewhere").toString()));
+      assertTrue(ToolDetection.shared().resolve("tool").isEmpty());
+    } finally {
+      CallEnvironment.clear();
+    }
+  }
+
+  @Test
+  void probesToolsThatAreNotOnThePathEveryTime() {
+    var checker = new CountingChecker("Missing", "missing", ToolInfo.NOT_INSTALLED);
+
+    assertFalse(detection(dir.toString()).detect(checker).installed());
+    assertFalse(detection(dir.toString()).detect(checker).installed());
+    assertEquals(2, checker.probes.get());
+  }
+
+  @Test
+  void probesAgainWhenTheToolWasFoundButFailed() throws IOException {
+    var bin = executable("docker");
+    var checker = new CountingChecker("Docker", "docker", ToolInfo.NOT_INSTALLED);
+
+    assertFalse(detection(bin.getParent().toString()).detect(checker).installed());
+    assertFalse(detection(bin.getParent().toString()).detect(checker).installed());
+    assertEquals(2, checker.probes.get());
+  }
+
+  @Test
+  void ignoresFailedProbesStoredByEarlierVersions() throws IOException {
+    var bin = executable("java");
+    var checker = new CountingChecker("Java", "java", ToolInfo.installed("21"));
+    var detection = detection(bin.getParent().toString());
+    var key = bin.toRealPath() + File.pathSeparator + Files.getLastModifiedTime(bin).toMillis()
+        + File.pathSeparator + bin.getParent();
+    var properties = new Properties();
+    properties.setProperty("Java.key", key);
+    properties.setProperty("Java.installed", "false");
+    Files.createDirectories(dir.resolve("cache"));
+    try (var writer = Files.newBufferedWriter(dir.resolve("cache").resolve("tools.properties"))) {
+      properties.store(writer, null);
+    }
+
+    assertEquals(ToolInfo.installed("21"), detection.detect(checker));
+    assertEquals(1, checker.probes.get());
+  }
+
+  @Test
+  void detectsEveryToolOnceAndKeepsTheOrder() throws IOException {
+    var bin = executable("a");
+    executable("b");
+    var a = new CountingChecker("A", "a", ToolInfo.installed("1"));
+    var b = new CountingChecker("B", "b", ToolInfo.NOT_INSTALLED);
+    var detection = detection(bin.getParent().toString());
+
+    var results = detection.detectAll(List.of(a, b, a));
+
+    assertEquals(List.of(a, b), List.copyOf(results.keySet()));
+    assertEquals(ToolInfo.NOT_INSTALLED, results.get(b));
+    assertEquals(1, a.probes.get());
+
+    detection.clear();
+    detection.detect(a);
+    assertEquals(2, a.probes.get());
+  }
+
+  private ToolDetection detection(String path) {
+    return new ToolDetection(dir.resolve("cache").resolve("tools.properties"), path);
+  }
+
+  private Path executable(String name) throws IOException {
+    var bin = Files.createDirectories(dir.resolve("bin"));
+    var file = Files.writeString(bin.resolve(name), "#!/bin/sh\n");
+    file.toFile().setExecutable(true);
+    return file;
+  }
+
+  private static class CountingChecker implements ToolChecker {
+    private final String name;
+    private final String executable;
+    private final ToolInfo info;
+    private final AtomicInteger probes = new AtomicInteger();
+
+    CountingChecker(String name, String executable, ToolInfo info) {
+      this.name = name;
+      this.executable = executable;
+      this.info = info;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public String executable() {
+      return executable;
+    }
+
+    @Override
+    public ToolInfo probe() {
+      probes.incrementAndGet();
+      return info;
+    }
+
+    @Override
+    public String installInstructions() {
+      return "";
+    }
+
+    @Override
+    public void fixIssue() {
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package dev.buildcli.core.log.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTraceTest {
+
+  @BeforeEach
+  void setUp() {
+    StartupTrace.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    StartupTrace.reset();
+  }
+
+  @Test
+  void shouldConsumeFlagBeforeTheSubcommand() {
+    var args = StartupTrace.consumeFlag(new String[]{"--trace-startup=json", "project", "build", "--compile"});
+
+    assertArrayEquals(new String[]{"project", "build", "--compile"}, args);
+    assertTrue(StartupTrace.isEnabled());
+  }
+
+  @Test
+  void shouldConsumeTheFormatAsSeparateArgument() {
+    var args = StartupTrace.consumeFlag(new String[]{"--trace-startup", "json", "project", "build"});
+
+    assertArrayEquals(new String[]{"project", "build"}, args);
+    var output = new ByteArrayOutputStream();
+    StartupTrace.report(new PrintStream(output), "BuildCLI test");
+    assertTrue(output.toString().contains("\"version\":\"BuildCLI test\""), output.toString());
+  }
+
+  @Test
+  void shouldNotTakeTheSubcommandAsFormat() {
+    var args = StartupTrace.consumeFlag(new String[]{"--trace-startup", "project", "build"});
+
+    assertArrayEquals(new String[]{"project", "build"}, args);
+    assertTrue(StartupTrace.isEnabled());
+  }
+
+  @Test
+  void shouldLeaveFlagAfterTheSubcommand() {
+    var args = StartupTrace.consumeFlag(new String[]{"run", "App.java", "--trace-startup"});
+
+    assertArrayEquals(new String[]{"run", "App.java", "--trace-startup"}, args);
+    assertFalse(StartupTrace.isEnabled());
+  }
+
+  @Test
+  void shouldStayDisabled_withoutFlag() {
+    var args = StartupTrace.consumeFlag(new String[]{"version"});
+
+    assertArrayEquals(new String[]{"version"}, args);
+    assertFalse(StartupTrace.isEnabled());
+  }
+
+  @Test
+  void shouldRecordNestedSpansInStartOrder() {
+    var tree = StartupTrace.call("command tree", () -> {
+      StartupTrace.run("plugins", () -> {
+      });
+      return "tree";
+    });
+    StartupTrace.run("hooks", () -> {
+    });
+
+    var spans = StartupTrace.spans();
+
+    assertEquals(3, spans.size());
+    assertEquals("command tree", spans.get(0).phase());
+    assertEquals(0, spans.get(0).depth());
+    assertEquals("plugins", spans.get(1).phase());
+    assertEquals(1, spans.get(1).depth());
+    assertEquals("hooks", spans.get(2).phase());
+    assertEquals(0, spans.get(2).depth());
+    assertTrue(spans.get(0).durationNanos() >= spans.get(1).durationNanos());
+    assertEquals("tree", tree);
+  }
+
+  @Test
+  void shouldRecordSpanOfFailingAction() {
+    assertThrows(IllegalStateException.class, () -> StartupTrace.run("config", () -> {
+      throw new IllegalStateException("broken config");
+    }));
+
+    assertEquals(List.of("config"), StartupTrace.spans().stream().map(StartupTrace.Span::phase).toList());
+  }
+
+  @Test
+  void shouldReportOnlyWhenEnabled() {
+    StartupTrace.run("config", () -> {
+    });
+
+    var output = new ByteArrayOutputStream();
+    StartupTrace.report(new PrintStream(output), "BuildCLI test");
+    assertEquals("", output.toString());
+
+    StartupTrace.enable(StartupTrace.Format.JSON);
+    StartupTrace.report(new PrintStream(output), "BuildCLI test");
+    assertTrue(output.toString().contains("\"phase\":\"config\""));
+    assertTrue(output.toString().contains("\"version\":\"BuildCLI test\""));
+  }
+
+  @Test
+  void shouldParseConfigValues() {
+    assertNull(StartupTrace.Format.parse(null));
+    assertNull(StartupTrace.Format.parse("false"));
+    assertEquals(StartupTrace.Format.TABLE, StartupTrace.Format.parse("true"));
+    assertEquals(StartupTrace.Format.JSON, StartupTrace.Format.parse("JSON"));
+  }
+}
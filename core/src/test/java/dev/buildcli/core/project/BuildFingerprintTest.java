@@ -0,0 +1,176 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.utils.CallEnvironment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildFingerprintTest {
+  @TempDir
+  Path project;
+
+  @TempDir
+  Path cache;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.writeString(project.resolve("pom.xml"), "<project/>");
+    Files.createDirectories(project.resolve("src/main/java/demo"));
+    Files.writeString(project.resolve("src/main/java/demo/Main.java"), "class Main {}");
+  }
+
+  @Test
+  void unchangedProjectKeepsItsFingerprint() throws IOException {
+    assertEquals(BuildFingerprint.compute(project), BuildFingerprint.compute(project));
+  }
+
+  @Test
+  void sourceChangesKeepTheBuildInputs() throws IOException {
+    var before = BuildFingerprint.compute(project);
+    Files.writeString(project.resolve("src/main/java/demo/Main.java"), "class Main { int x; }");
+
+    var after = BuildFingerprint.compute(project, before.sources());
+
+    assertNotEquals(before.value(), after.value());
+    assertEquals(before.buildInputs(), after.buildInputs());
+  }
+
+  @Test
+  void buildFileChangesChangeTheBuildInputs() throws IOException {
+    var before = BuildFingerprint.compute(project);
+    Files.writeString(project.resolve("pom.xml"), "<project><modelVersion>4.0.0</modelVersion></project>");
+
+    assertNotEquals(before.buildInputs(), BuildFingerprint.compute(project).buildInputs());
+  }
+
+  @Test
+  void unchangedFilesAreNotHashedAgain() throws IOException {
+    var before = BuildFingerprint.compute(project);
+    var state = before.sources().get("src/main/java/demo/Main.java");
+    var fake = new BuildFingerprint.FileState(state.size(), state.lastModified(), "previous-hash");
+
+    var after = BuildFingerprint.compute(project, Map.of("src/main/java/demo/Main.java", fake));
+
+    assertEquals("previous-hash", after.sources().get("src/main/java/demo/Main.java").sha256());
+  }
+
+  @Test
+  void moduleSourcesAndPomsArePartOfTheFingerprint() throws IOException {
+    multiModule();
+
+    var before = BuildFingerprint.compute(project);
+    assertTrue(before.sources().containsKey("core/src/main/java/demo/Core.java"));
+    assertTrue(before.sources().containsKey("app/src/main/java/demo/App.java"));
+
+    Files.writeString(project.resolve("core/src/main/java/demo/Core.java"), "class Core { int x; }");
+    var sourceChanged = BuildFingerprint.compute(project, before.sources());
+    assertNotEquals(before.value(), sourceChanged.value());
+    assertEquals(before.buildInputs(), sourceChanged.buildInputs());
+
+    Files.writeString(project.resolve("app/pom.xml"), pom("app", "<version>2</version>"));
+    assertNotEquals(sourceChanged.buildInputs(), BuildFingerprint.compute(project).buildInputs());
+  }
+
+  @Test
+  void filesOutsideTheModulesAreIgnored() throws IOException {
+    multiModule();
+    var before = BuildFingerprint.compute(project);
+
+    Files.createDirectories(project.resolve("docs/src"));
+    Files.writeString(project.resolve("docs/src/index.md"), "# Docs");
+
+    assertEquals(before.value(), BuildFingerprint.compute(project).value());
+  }
+
+  @Test
+  void multiProjectGradleBuildsAreNotFingerprinted() throws IOException {
+    Files.writeString(project.resolve("settings.gradle"), "include 'app'");
+
+    assertThrows(IOException.class, () -> BuildFingerprint.compute(project));
+  }
+
+  @Test
+  void storeRemembersTheBuildAndItsArtifact() throws IOException {
+    var artifact = Files.writeString(project.resolve("demo.jar"), "jar");
+    var fingerprint = BuildFingerprint.compute(project);
+
+    new BuildFingerprintStore(cache, project, "MAVEN-PACKAGE").recordBuild(fingerprint, artifact, 1500);
+
+    var store = new BuildFingerprintStore(cache, project, "MAVEN-PACKAGE");
+    assertEquals(fingerprint.value(), store.fingerprint().orElseThrow());
+    assertEquals(fingerprint.sources(), store.sources());
+    assertEquals(1500, store.buildMillis());
+    assertTrue(store.artifactMatches());
+
+    store.recordSkip(store.buildMillis());
+    assertEquals(1500, new BuildFingerprintStore(cache, project, "MAVEN-PACKAGE").savedMillis());
+
+    Files.setLastModifiedTime(artifact, FileTime.fromMillis(0));
+    assertFalse(store.artifactMatches());
+    assertTrue(new BuildFingerprintStore(cache, project, "MAVEN-COMPILE").fingerprint().isEmpty());
+  }
+
+  @Test
+  void classesRecompiledByAnotherGoalInvalidateTheCompileBuild() throws IOException {
+    var classes = Files.createDirectories(project.resolve("target/classes"));
+    var app = Files.writeString(classes.resolve("App.class"), "v1");
+    Files.setLastModifiedTime(app, FileTime.fromMillis(1_000_000));
+    new BuildFingerprintStore(cache, project, "MAVEN-COMPILE").recordBuild(BuildFingerprint.compute(project), classes, 900);
+    assertTrue(new BuildFingerprintStore(cache, project, "MAVEN-COMPILE").artifactMatches());
+
+    // A package build of other sources compiled into the same directory
+    Files.writeString(app, "v2");
+    Files.setLastModifiedTime(app, FileTime.fromMillis(2_000_000));
+    assertFalse(new BuildFingerprintStore(cache, project, "MAVEN-COMPILE").artifactMatches());
+  }
+
+  @Test
+  void jdkIsTheOneOfTheCaller() throws IOException {
+    var jdk = Files.createDirectories(cache.resolve("jdk"));
+    Files.writeString(jdk.resolve("release"), "JAVA_VERSION=\"17.0.2\"");
+    try {
+      CallEnvironment.set(Map.of("JAVA_HOME", jdk.toString()));
+      assertTrue(BuildFingerprint.jdkIdentity().contains("JAVA_VERSION=\"17.0.2\""));
+    } finally {
+      CallEnvironment.clear();
+    }
+  }
+
+  private void multiModule() throws IOException {
+    Files.writeString(project.resolve("pom.xml"), """
+        <project>
+          <groupId>demo</groupId>
+          <artifactId>parent</artifactId>
+          <packaging>pom</packaging>
+          <modules>
+            <module>core</module>
+            <module>app</module>
+          </modules>
+        </project>
+        """);
+    for (var module : new String[]{"core", "app"}) {
+      var name = Character.toUpperCase(module.charAt(0)) + module.substring(1);
+      Files.createDirectories(project.resolve(module + "/src/main/java/demo"));
+      Files.writeString(project.resolve(module + "/pom.xml"), pom(module, ""));
+      Files.writeString(project.resolve(module + "/src/main/java/demo/" + name + ".java"), "class " + name + " {}");
+    }
+  }
+
+  private static String pom(String artifactId, String extra) {
+    return """
+        <project>
+          <parent><groupId>demo</groupId><artifactId>parent</artifactId></parent>
+          <artifactId>%s</artifactId>
+          %s
+        </project>
+        """.formatted(artifactId, extra);
+  }
+}
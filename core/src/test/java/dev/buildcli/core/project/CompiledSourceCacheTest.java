@@ -0,0 +1,70 @@
+package dev.buildcli.core.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledSourceCacheTest {
+  @TempDir
+  Path sources;
+
+  @TempDir
+  Path cache;
+
+  private final ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+
+  @Test
+  void compilesOnceAndReusesTheClasses() throws IOException {
+    var hello = Files.writeString(sources.resolve("Hello.java"), "public class Hello { public static void main(String[] args) {} }");
+    var compiledCache = new CompiledSourceCache(cache);
+
+    var first = compiledCache.compile(hello, new PrintStream(diagnostics));
+    var second = compiledCache.compile(hello, new PrintStream(diagnostics));
+
+    assertFalse(first.cached());
+    assertTrue(second.cached());
+    assertEquals("Hello", second.mainClass());
+    assertTrue(Files.isRegularFile(second.classes().resolve("Hello.class")));
+  }
+
+  @Test
+  void compilesClassesUsedFromThePackageRootAndTracksTheirChanges() throws IOException {
+    var pkg = Files.createDirectories(sources.resolve("demo"));
+    var app = Files.writeString(pkg.resolve("App.java"), "package demo; class App { public static void main(String[] args) { Greeter.greet(); } }");
+    var greeter = Files.writeString(pkg.resolve("Greeter.java"), "package demo; class Greeter { static void greet() {} }");
+    var compiledCache = new CompiledSourceCache(cache);
+
+    var first = compiledCache.compile(app, new PrintStream(diagnostics));
+    assertEquals("demo.App", first.mainClass());
+    assertTrue(Files.isRegularFile(first.classes().resolve("demo/Greeter.class")));
+
+    Files.writeString(greeter, "package demo; class Greeter { static void greet() { System.out.println(); } }");
+
+    assertFalse(compiledCache.compile(app, new PrintStream(diagnostics)).cached());
+  }
+
+  @Test
+  void reportsCompilationErrors() throws IOException {
+    var broken = Files.writeString(sources.resolve("Broken.java"), "class Broken { void run() { missing(); } }");
+
+    assertThrows(IOException.class, () -> new CompiledSourceCache(cache).compile(broken, new PrintStream(diagnostics)));
+    assertTrue(diagnostics.toString().contains("missing"));
+  }
+
+  @Test
+  void packageRootFollowsThePackageDeclaration() {
+    var source = Path.of("/work/src/demo/app/Main.java");
+
+    assertEquals(Optional.of(Path.of("/work/src")), CompiledSourceCache.packageRoot(source, "package demo.app;"));
+    assertEquals(Optional.of(Path.of("/work/src/demo/app")), CompiledSourceCache.packageRoot(source, "class Main {}"));
+    assertEquals(Optional.empty(), CompiledSourceCache.packageRoot(source, "package other;"));
+  }
+}
@@ -0,0 +1,67 @@
+package dev.buildcli.core.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyClasspathTest {
+  @TempDir
+  Path project;
+
+  @TempDir
+  Path cache;
+
+  @Test
+  void cachedClasspathIsKeyedByThePomAndReusedWhileComplete() throws IOException {
+    Files.writeString(project.resolve("pom.xml"), "<project/>");
+    var jar = Files.createFile(project.resolve("lib.jar"));
+    var classpath = new DependencyClasspath(project.toFile(), cache);
+
+    var cacheFile = classpath.cacheFile();
+    Files.createDirectories(cache);
+    Files.writeString(cacheFile, jar.toString());
+
+    assertEquals(jar.toString(), classpath.resolve());
+
+    Files.writeString(project.resolve("pom.xml"), "<project><modelVersion>4.0.0</modelVersion></project>");
+    assertNotEquals(cacheFile, classpath.cacheFile());
+  }
+
+  @Test
+  void cacheKeyCoversTheParentPom() throws IOException {
+    Files.writeString(project.resolve("pom.xml"), """
+        <project><groupId>demo</groupId><artifactId>parent</artifactId><version>1</version><packaging>pom</packaging>
+          <dependencyManagement><dependencies>
+            <dependency><groupId>org.slf4j</groupId><artifactId>slf4j-api</artifactId><version>2.0.0</version></dependency>
+          </dependencies></dependencyManagement>
+        </project>""");
+    var module = Files.createDirectories(project.resolve("app"));
+    Files.writeString(module.resolve("pom.xml"), """
+        <project><parent><groupId>demo</groupId><artifactId>parent</artifactId><version>1</version></parent>
+          <artifactId>app</artifactId>
+          <dependencies><dependency><groupId>org.slf4j</groupId><artifactId>slf4j-api</artifactId></dependency></dependencies>
+        </project>""");
+    var classpath = new DependencyClasspath(module.toFile(), cache);
+    var cacheFile = classpath.cacheFile();
+
+    Files.writeString(project.resolve("pom.xml"), Files.readString(project.resolve("pom.xml")).replace("2.0.0", "2.0.9"));
+
+    assertNotEquals(cacheFile, classpath.cacheFile());
+  }
+
+  @Test
+  void classpathWithMissingJarsIsNotReused() throws IOException {
+    Files.writeString(project.resolve("pom.xml"), "<project/>");
+    var classpath = new DependencyClasspath(project.toFile(), cache);
+    var cacheFile = cache.resolve("test.classpath");
+    Files.writeString(cacheFile, project.resolve("gone.jar") + File.pathSeparator + project.resolve("pom.xml"));
+
+    assertTrue(classpath.cached(cacheFile).isEmpty());
+  }
+}
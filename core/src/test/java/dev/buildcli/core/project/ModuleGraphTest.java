@@ -0,0 +1,115 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.project.ModuleGraph.Module;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleGraphTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void readsModulesAndTheirReactorDependencies() throws IOException {
+    pom(root, """
+        <project><groupId>demo</groupId><artifactId>parent</artifactId><packaging>pom</packaging>
+          <modules><module>core</module><module>app</module><module>tools</module></modules>
+        </project>""");
+    pom(root.resolve("core"), """
+        <project><parent><groupId>demo</groupId><artifactId>parent</artifactId></parent><artifactId>core</artifactId>
+          <dependencies><dependency><groupId>org.slf4j</groupId><artifactId>slf4j-api</artifactId></dependency></dependencies>
+        </project>""");
+    pom(root.resolve("app"), """
+        <project><parent><groupId>demo</groupId><artifactId>parent</artifactId></parent><artifactId>app</artifactId>
+          <dependencies><dependency><groupId>${project.groupId}</groupId><artifactId>core</artifactId></dependency></dependencies>
+        </project>""");
+    pom(root.resolve("tools"), """
+        <project><groupId>other</groupId><artifactId>tools</artifactId></project>""");
+
+    var graph = ModuleGraph.read(root);
+
+    assertTrue(ModuleGraph.isMultiModule(root));
+    assertEquals(Set.of("demo:parent"), graph.module("demo:core").map(Module::dependencies).orElseThrow());
+    assertEquals(Set.of("demo:parent", "demo:core"), graph.module("demo:app").map(Module::dependencies).orElseThrow());
+    assertEquals(Set.of(), graph.module("other:tools").map(Module::dependencies).orElseThrow());
+    assertTrue(graph.module("demo:parent").orElseThrow().isAggregator());
+
+    var order = graph.order().stream().map(Module::artifactId).toList();
+    assertTrue(order.indexOf("parent") < order.indexOf("core"));
+    assertTrue(order.indexOf("core") < order.indexOf("app"));
+    assertEquals(2, graph.dependents("demo:parent").size());
+  }
+
+  @Test
+  void rejectsCycles() throws IOException {
+    pom(root, """
+        <project><groupId>demo</groupId><artifactId>parent</artifactId><packaging>pom</packaging>
+          <modules><module>a</module><module>b</module></modules>
+        </project>""");
+    pom(root.resolve("a"), """
+        <project><groupId>demo</groupId><artifactId>a</artifactId>
+          <dependencies><dependency><groupId>demo</groupId><artifactId>b</artifactId></dependency></dependencies>
+        </project>""");
+    pom(root.resolve("b"), """
+        <project><groupId>demo</groupId><artifactId>b</artifactId>
+          <dependencies><dependency><groupId>demo</groupId><artifactId>a</artifactId></dependency></dependencies>
+        </project>""");
+
+    var error = assertThrows(IllegalStateException.class, () -> ModuleGraph.read(root));
+    assertTrue(error.getMessage().contains("demo:a"));
+  }
+
+  @Test
+  void resolvesPropertiesAndInheritedDependenciesThroughTheParent() throws IOException {
+    pom(root, """
+        <project><groupId>demo</groupId><artifactId>parent</artifactId><version>1</version><packaging>pom</packaging>
+          <properties><shared.group>demo</shared.group></properties>
+          <modules><module>model</module><module>api</module><module>app</module></modules>
+        </project>""");
+    pom(root.resolve("model"), """
+        <project><parent><groupId>demo</groupId><artifactId>parent</artifactId><version>1</version></parent>
+          <artifactId>model</artifactId>
+        </project>""");
+    pom(root.resolve("api"), """
+        <project><parent><groupId>demo</groupId><artifactId>parent</artifactId><version>1</version></parent>
+          <artifactId>api</artifactId><packaging>pom</packaging>
+          <dependencies><dependency><groupId>${shared.group}</groupId><artifactId>model</artifactId></dependency></dependencies>
+        </project>""");
+    pom(root.resolve("app"), """
+        <project><parent><groupId>demo</groupId><artifactId>api</artifactId><version>1</version>
+            <relativePath>../api</relativePath></parent>
+          <artifactId>app</artifactId>
+        </project>""");
+
+    var graph = ModuleGraph.read(root);
+
+    assertEquals(Set.of("demo:parent", "demo:model"), graph.module("demo:api").map(Module::dependencies).orElseThrow());
+    assertEquals(Set.of("demo:api", "demo:model"), graph.module("demo:app").map(Module::dependencies).orElseThrow());
+  }
+
+  @Test
+  void readsThePomAsWrittenWhenTheParentIsMissing() throws IOException {
+    pom(root, """
+        <project><groupId>demo</groupId><artifactId>parent</artifactId><packaging>pom</packaging>
+          <modules><module>app</module></modules>
+        </project>""");
+    pom(root.resolve("app"), """
+        <project><parent><groupId>org.example</groupId><artifactId>missing</artifactId><version>1</version>
+            <relativePath/></parent>
+          <groupId>demo</groupId><artifactId>app</artifactId>
+        </project>""");
+
+    assertEquals(Set.of(), ModuleGraph.read(root).module("demo:app").map(Module::dependencies).orElseThrow());
+  }
+
+  private static void pom(Path directory, String content) throws IOException {
+    Files.createDirectories(directory);
+    Files.writeString(directory.resolve("pom.xml"), content);
+  }
+}
@@ -0,0 +1,83 @@
+package dev.buildcli.core.project;
+
+import dev.buildcli.core.project.ParallelModuleBuild.ModuleResult;
+import dev.buildcli.core.project.ParallelModuleBuild.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelModuleBuildTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void buildsIndependentModulesConcurrentlyWithinTheJobLimit() throws IOException {
+    var graph = workspace();
+    var running = new AtomicInteger();
+    var peak = new AtomicInteger();
+    var finished = ConcurrentHashMap.<String>newKeySet();
+
+    var summary = new ParallelModuleBuild(graph, 2).run(module -> {
+      module.dependencies().forEach(dependency -> assertTrue(finished.contains(dependency), module.id() + " started before " + dependency));
+      peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+      sleep(100);
+      running.decrementAndGet();
+      finished.add(module.id());
+      return 0;
+    });
+
+    assertTrue(summary.isSuccess());
+    assertEquals(2, peak.get());
+    assertTrue(summary.wallTime().compareTo(summary.serialTime()) < 0);
+    assertEquals("demo:app", summary.criticalPath().getLast().module().id());
+  }
+
+  @Test
+  void skipsModulesDownstreamOfAFailure() throws IOException {
+    var graph = workspace();
+
+    var summary = new ParallelModuleBuild(graph, 4).run(module -> module.artifactId().equals("core") ? 1 : 0);
+
+    Map<String, Status> statuses = summary.results().stream()
+        .collect(Collectors.toMap(result -> result.module().artifactId(), ModuleResult::status));
+    assertEquals(Status.FAILED, statuses.get("core"));
+    assertEquals(Status.SKIPPED, statuses.get("app"));
+    assertEquals(Status.SUCCESS, statuses.get("tools"));
+    assertFalse(summary.isSuccess());
+  }
+
+  /**
+   * parent, then core and tools in parallel, app after core.
+   */
+  private ModuleGraph workspace() throws IOException {
+    pom(root, "<project><groupId>demo</groupId><artifactId>parent</artifactId><packaging>pom</packaging>"
+        + "<modules><module>core</module><module>app</module><module>tools</module></modules></project>");
+    pom(root.resolve("core"), "<project><parent><groupId>demo</groupId><artifactId>parent</artifactId></parent><artifactId>core</artifactId></project>");
+    pom(root.resolve("tools"), "<project><parent><groupId>demo</groupId><artifactId>parent</artifactId></parent><artifactId>tools</artifactId></project>");
+    pom(root.resolve("app"), "<project><parent><groupId>demo</groupId><artifactId>parent</artifactId></parent><artifactId>app</artifactId>"
+        + "<dependencies><dependency><groupId>demo</groupId><artifactId>core</artifactId></dependency></dependencies></project>");
+    return ModuleGraph.read(root);
+  }
+
+  private static void pom(Path directory, String content) throws IOException {
+    Files.createDirectories(directory);
+    Files.writeString(directory.resolve("pom.xml"), content);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
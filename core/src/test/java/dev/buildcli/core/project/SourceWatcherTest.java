@@ -0,0 +1,62 @@
+package dev.buildcli.core.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceWatcherTest {
+  @TempDir
+  Path project;
+
+  @Test
+  void onlyTestsWhenEveryChangeIsUnderSrcTest() {
+    assertTrue(SourceWatcher.onlyTests(List.of(Path.of("src/test/java/AppTest.java"))));
+    assertFalse(SourceWatcher.onlyTests(List.of(Path.of("src/test/java/AppTest.java"), Path.of("src/main/java/App.java"))));
+    assertFalse(SourceWatcher.onlyTests(List.of(Path.of("pom.xml"))));
+    assertFalse(SourceWatcher.onlyTests(List.of()));
+  }
+
+  @Test
+  @Timeout(20)
+  void coalescesABurstOfChangesIntoOneBatch() throws IOException, InterruptedException {
+    var main = Files.createDirectories(project.resolve("src/main/java"));
+    Files.writeString(project.resolve("pom.xml"), "<project/>");
+
+    try (var watcher = new SourceWatcher(project, Duration.ofMillis(200))) {
+      Files.writeString(main.resolve("App.java"), "class App {}");
+      Files.writeString(main.resolve("Util.java"), "class Util {}");
+      Files.writeString(project.resolve("pom.xml"), "<project><modelVersion>4.0.0</modelVersion></project>");
+      Files.writeString(project.resolve("notes.txt"), "ignored");
+
+      var changes = watcher.next();
+
+      assertTrue(changes.contains(Path.of("src/main/java/App.java")));
+      assertTrue(changes.contains(Path.of("src/main/java/Util.java")));
+      assertTrue(changes.contains(Path.of("pom.xml")));
+      assertFalse(changes.contains(Path.of("notes.txt")));
+    }
+  }
+
+  @Test
+  @Timeout(20)
+  void watchesDirectoriesCreatedAfterStart() throws IOException, InterruptedException {
+    Files.createDirectories(project.resolve("src/main/java"));
+
+    try (var watcher = new SourceWatcher(project, Duration.ofMillis(200))) {
+      var pkg = Files.createDirectories(project.resolve("src/main/java/demo"));
+      watcher.next();
+
+      Files.writeString(pkg.resolve("Main.java"), "class Main {}");
+
+      assertTrue(watcher.next().contains(Path.of("src/main/java/demo/Main.java")));
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package dev.buildcli.core.project.testing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassDependencyIndexTest {
+  @TempDir
+  Path project;
+
+  @TempDir
+  Path cache;
+
+  @BeforeEach
+  void compileFixture() throws IOException {
+    compile("classes", "",
+        "package demo; public class Repository { }",
+        "package demo; public class Service { private Repository repository; }",
+        "package demo; public class Clock { }");
+    compile("test-classes", project.resolve("target/classes").toString(),
+        "package demo; class ServiceTest { Service service; }",
+        "package demo; class RepositoryTest { java.util.List<Repository> repositories; }",
+        "package demo; class ClockTest { Clock clock; }",
+        "package demo; class Fixtures { Service service; }");
+  }
+
+  @Test
+  void findsTestsUsingAChangedClassTransitively() throws IOException {
+    var index = new ClassDependencyIndex(project, cache);
+    index.update();
+
+    assertTrue(index.hasTests());
+    assertEquals(Set.of("demo.RepositoryTest", "demo.ServiceTest"), index.affectedTests(Set.of("demo/Repository")));
+    assertEquals(Set.of("demo.ClockTest"), index.affectedTests(Set.of("demo/Clock")));
+  }
+
+  @Test
+  void onlyReadsChangedClassFilesAgain() throws IOException {
+    assertEquals(7, new ClassDependencyIndex(project, cache).update());
+
+    var reloaded = new ClassDependencyIndex(project, cache);
+    assertEquals(0, reloaded.update());
+
+    Files.delete(project.resolve("target/test-classes/demo/ClockTest.class"));
+    assertEquals(0, reloaded.update());
+    assertEquals(Set.of(), reloaded.affectedTests(Set.of("demo/Clock")));
+  }
+
+  @Test
+  void recognizesSurefireTestClassNames() {
+    assertTrue(ClassDependencyIndex.isTestClass("demo/ServiceTest"));
+    assertTrue(ClassDependencyIndex.isTestClass("demo/TestService"));
+    assertTrue(ClassDependencyIndex.isTestClass("demo/ServiceTests"));
+    assertFalse(ClassDependencyIndex.isTestClass("demo/ServiceTest$Nested"));
+    assertFalse(ClassDependencyIndex.isTestClass("demo/Fixtures"));
+  }
+
+  private void compile(String output, String classpath, String... sources) throws IOException {
+    var sourceDir = Files.createDirectories(project.resolve("src-" + output + "/demo"));
+    var files = new String[sources.length + 4];
+    files[0] = "-d";
+    files[1] = Files.createDirectories(project.resolve("target").resolve(output)).toString();
+    files[2] = "-cp";
+    files[3] = classpath;
+    for (int i = 0; i < sources.length; i++) {
+      var name = sources[i].replaceAll("(?s).*class (\\w+).*", "$1");
+      files[i + 4] = Files.writeString(sourceDir.resolve(name + ".java"), sources[i]).toString();
+    }
+    assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, files));
+  }
+}
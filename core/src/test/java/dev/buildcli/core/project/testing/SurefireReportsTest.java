@@ -0,0 +1,104 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.project.testing.SurefireReports.Outcome;
+import dev.buildcli.core.project.testing.SurefireReports.SuiteResult;
+import dev.buildcli.core.project.testing.SurefireReports.Summary;
+import dev.buildcli.core.project.testing.SurefireReports.TestCaseResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SurefireReportsTest {
+  private static final Path REPORTS = Path.of("src/test/resources/surefire-reports");
+
+  @TempDir
+  Path copy;
+
+  @Test
+  void readsTheSuiteOfEveryWellFormedReport() throws IOException {
+    var suites = SurefireReports.read(REPORTS);
+
+    // CrashedTest is cut off and GarbledTest has no numbers, the .txt summary is no report
+    assertEquals(List.of(
+        new SuiteResult("demo.CalculatorTest$Addition", Duration.ofMillis(1_234_500), 3, 0, 0, 0),
+        new SuiteResult("demo.ServiceTest", Duration.ofMillis(1532), 4, 1, 1, 1)), suites);
+    assertEquals(new Summary(2, 7, 1, 1, 1, Duration.ofMillis(1_236_032)), Summary.merge(suites));
+  }
+
+  @Test
+  void nestedClassesRunWithTheirEnclosingClass() throws IOException {
+    var nested = SurefireReports.read(REPORTS).getFirst();
+
+    assertEquals("demo.CalculatorTest", nested.topLevelClass());
+    assertEquals("demo.ServiceTest", new SuiteResult("demo.ServiceTest", Duration.ZERO, 1, 0, 0, 0).topLevelClass());
+  }
+
+  @Test
+  void readsEveryTestCaseWithItsOutcome() throws IOException {
+    var testCases = SurefireReports.readTestCases(REPORTS, Instant.EPOCH);
+
+    assertEquals(List.of(
+        new TestCaseResult("demo.CalculatorTest$Addition", "adds(int, int, int)[1]", Duration.ofMillis(3), Outcome.PASSED),
+        new TestCaseResult("demo.CalculatorTest$Addition", "adds(int, int, int)[2]", Duration.ofMillis(1), Outcome.PASSED),
+        new TestCaseResult("demo.CalculatorTest$Addition", "[3] 2 + 2 = 4", Duration.ofMillis(1_234_496), Outcome.PASSED),
+        new TestCaseResult("demo.ServiceTest", "savesTheOrder", Duration.ofMillis(412), Outcome.PASSED),
+        new TestCaseResult("demo.ServiceTest", "rejectsEmptyOrders", Duration.ofMillis(20), Outcome.FAILED),
+        new TestCaseResult("demo.ServiceTest", "talksToTheDatabase", Duration.ofMillis(1100), Outcome.ERROR),
+        new TestCaseResult("demo.ServiceTest", "runsOnWindows", Duration.ZERO, Outcome.SKIPPED)), testCases);
+    assertEquals("demo.CalculatorTest$Addition#[3] 2 + 2 = 4", testCases.get(2).id());
+  }
+
+  @Test
+  void skipsTheTestCasesOfAPartialReport() throws IOException {
+    var testCases = SurefireReports.readTestCases(REPORTS, Instant.EPOCH);
+
+    assertTrue(testCases.stream().noneMatch(testCase -> testCase.className().equals("demo.CrashedTest")));
+  }
+
+  @Test
+  void leavesOutReportsOfEarlierRuns() throws IOException {
+    copyReports();
+    var run = Instant.parse("2026-01-01T10:00:00Z");
+    Files.setLastModifiedTime(copy.resolve("TEST-demo.ServiceTest.xml"), FileTime.from(run.minusSeconds(60)));
+    Files.setLastModifiedTime(copy.resolve("TEST-demo.CalculatorTest$Addition.xml"), FileTime.from(run.plusSeconds(5)));
+
+    var testCases = SurefireReports.readTestCases(copy, run);
+
+    assertEquals(List.of("demo.CalculatorTest$Addition"), testCases.stream().map(TestCaseResult::className).distinct().toList());
+  }
+
+  @Test
+  void clearRemovesOnlyTheReports() throws IOException {
+    copyReports();
+
+    SurefireReports.clear(copy);
+
+    try (Stream<Path> files = Files.list(copy)) {
+      assertEquals(List.of("demo.ServiceTest.txt"), files.map(file -> file.getFileName().toString()).toList());
+    }
+  }
+
+  @Test
+  void missingDirectoryHasNoReports() throws IOException {
+    assertEquals(List.of(), SurefireReports.read(copy.resolve("missing")));
+    assertEquals(List.of(), SurefireReports.readTestCases(copy.resolve("missing"), Instant.EPOCH));
+  }
+
+  private void copyReports() throws IOException {
+    try (Stream<Path> files = Files.list(REPORTS)) {
+      for (var file : (Iterable<Path>) files::iterator) {
+        Files.copy(file, copy.resolve(file.getFileName().toString()));
+      }
+    }
+  }
+}
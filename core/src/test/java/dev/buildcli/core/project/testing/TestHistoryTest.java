@@ -0,0 +1,122 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.project.testing.SurefireReports.Outcome;
+import dev.buildcli.core.project.testing.SurefireReports.TestCaseResult;
+import dev.buildcli.core.project.testing.TestHistory.Trend;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestHistoryTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void readsTestCasesWithTheirOutcome() throws IOException {
+    var reports = Files.createDirectories(dir.resolve("reports"));
+    Files.writeString(reports.resolve("TEST-demo.ATest.xml"), """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <testsuite name="demo.ATest" time="1,234.5" tests="3" failures="1" errors="0" skipped="1">
+          <testcase name="passes" classname="demo.ATest" time="1.5"/>
+          <testcase name="fails" classname="demo.ATest" time="0.25">
+            <failure message="expected">trace</failure>
+          </testcase>
+          <testcase name="skipped" classname="demo.ATest" time="0">
+            <skipped/>
+          </testcase>
+        </testsuite>
+        """);
+
+    var results = SurefireReports.readTestCases(reports, Instant.EPOCH);
+
+    assertEquals(List.of(
+        new TestCaseResult("demo.ATest", "passes", Duration.ofMillis(1500), Outcome.PASSED),
+        new TestCaseResult("demo.ATest", "fails", Duration.ofMillis(250), Outcome.FAILED),
+        new TestCaseResult("demo.ATest", "skipped", Duration.ZERO, Outcome.SKIPPED)), results);
+    assertTrue(SurefireReports.readTestCases(reports, Instant.now().plusSeconds(60)).isEmpty());
+  }
+
+  @Test
+  void reportsRegressionsAgainstTheMedianOfPassedRuns() throws IOException {
+    var history = new TestHistory(dir.resolve("project"), dir.resolve("cache"));
+    for (var millis : List.of(100, 120, 110)) {
+      history.append(Instant.now(), List.of(result("slow", millis, Outcome.PASSED), result("flaky", 10, Outcome.PASSED)));
+    }
+    history.append(Instant.now(), List.of(result("slow", 200, Outcome.PASSED), result("flaky", 900, Outcome.FAILED)));
+
+    var trends = history.trends(10);
+    var slow = trends.stream().filter(trend -> trend.test().endsWith("#slow")).findFirst().orElseThrow();
+    var flaky = trends.stream().filter(trend -> trend.test().endsWith("#flaky")).findFirst().orElseThrow();
+
+    assertEquals(Duration.ofMillis(110), slow.baseline());
+    assertEquals(Duration.ofMillis(200), slow.latest());
+    assertTrue(slow.isRegression(0.2, Duration.ofMillis(50)));
+    assertFalse(slow.isRegression(0.2, Duration.ofMillis(100)));
+    assertEquals(3, flaky.samples().size());
+    assertFalse(flaky.isRegression(0.2, Duration.ZERO));
+  }
+
+  @Test
+  void trendsOnlyLookAtTheLatestRuns() throws IOException {
+    var history = new TestHistory(dir.resolve("project"), dir.resolve("cache"));
+    for (var millis : List.of(1000, 100, 100)) {
+      history.append(Instant.now(), List.of(result("test", millis, Outcome.PASSED)));
+    }
+
+    assertEquals(List.of(Duration.ofMillis(100), Duration.ofMillis(100)), history.trends(2).getFirst().samples());
+    assertEquals(0, history.trends(2).getFirst().change());
+  }
+
+  @Test
+  void compactsToTheLatestRuns() throws IOException {
+    var history = new TestHistory(dir.resolve("project"), dir.resolve("cache"));
+    for (int i = 0; i < 2 * TestHistory.KEEP_RUNS; i++) {
+      history.append(Instant.ofEpochMilli(i), List.of(result("test", i, Outcome.PASSED)));
+    }
+
+    var runs = history.runs();
+    assertEquals(TestHistory.KEEP_RUNS, runs.size());
+    assertEquals(Instant.ofEpochMilli(TestHistory.KEEP_RUNS), runs.getFirst().time());
+    assertEquals(Instant.ofEpochMilli(2 * TestHistory.KEEP_RUNS - 1), runs.getLast().time());
+  }
+
+  @Test
+  void skipsAHalfWrittenRun() throws IOException {
+    var history = new TestHistory(dir.resolve("project"), dir.resolve("cache"));
+    history.append(Instant.now(), List.of(result("test", 100, Outcome.PASSED)));
+    try (var files = Files.list(dir.resolve("cache"))) {
+      Files.writeString(files.findFirst().orElseThrow(), "#run 5\n12\tPASS", StandardOpenOption.APPEND);
+    }
+
+    var runs = history.runs();
+    assertEquals(2, runs.size());
+    assertTrue(runs.getLast().tests().isEmpty());
+    assertEquals(List.of(Duration.ofMillis(100)), history.trends(10).stream().map(Trend::latest).toList());
+  }
+
+  @Test
+  void estimatesClassesFromTheirTestsInTheLatestRuns() throws IOException {
+    var history = new TestHistory(dir.resolve("project"), dir.resolve("cache"));
+    history.append(Instant.now(), List.of(result("old", 9000, Outcome.PASSED)));
+    for (int i = 0; i < TestHistory.ESTIMATE_RUNS; i++) {
+      history.append(Instant.now(), List.of(result("passes", 300, Outcome.PASSED), result("fails", 100, Outcome.FAILED),
+          new TestCaseResult("demo.BTest$Inner", "nested", Duration.ofMillis(i % 2 == 0 ? 100 : 300), Outcome.PASSED)));
+    }
+
+    assertEquals(Map.of("demo.ATest", Duration.ofMillis(400), "demo.BTest", Duration.ofMillis(200)), history.estimates());
+  }
+
+  private static TestCaseResult result(String name, int millis, Outcome outcome) {
+    return new TestCaseResult("demo.ATest", name, Duration.ofMillis(millis), outcome);
+  }
+}
@@ -0,0 +1,126 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.project.testing.TestImpactAnalysis.Mode;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestImpactAnalysisTest {
+  @TempDir
+  Path project;
+
+  @TempDir
+  Path cache;
+
+  @Test
+  void buildFileChangesRunEverything() {
+    var selection = analysis().select(List.of("src/main/java/demo/Service.java", "pom.xml"), "HEAD");
+
+    assertEquals(Mode.ALL, selection.mode());
+    assertTrue(selection.mavenArguments().isEmpty());
+  }
+
+  @Test
+  void resourceChangesRunEverything() {
+    assertEquals(Mode.ALL, analysis().select(List.of("src/main/resources/application.properties"), "HEAD").mode());
+  }
+
+  @Test
+  void changesOutsideTheSourcesRunNothing() {
+    assertEquals(Mode.NONE, analysis().select(List.of("README.md"), "HEAD").mode());
+    assertEquals(Mode.NONE, analysis().select(List.of(), "HEAD").mode());
+  }
+
+  @Test
+  void changedTestsAreSelectedEvenBeforeTheyAreCompiled() throws IOException {
+    Files.createDirectories(project.resolve("target/test-classes/demo"));
+    var index = new ClassDependencyIndex(project, cache);
+    var selection = new TestImpactAnalysis(project.toFile(), index).select(List.of("src/test/java/demo/NewTest.java"), "HEAD");
+
+    // No compiled tests yet, so the index can not tell what else is affected
+    assertEquals(Mode.ALL, selection.mode());
+  }
+
+  @Test
+  void selectsTestsFromTheGitDiff() throws IOException, GitAPIException {
+    var main = Files.createDirectories(project.resolve("src/main/java/demo"));
+    Files.writeString(main.resolve("Service.java"), "package demo; public class Service { }");
+    Files.writeString(project.resolve("pom.xml"), "<project/>");
+    try (var git = Git.init().setDirectory(project.toFile()).call()) {
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("initial").setAuthor("test", "test@example.com").setCommitter("test", "test@example.com").call();
+    }
+
+    assertEquals(Mode.NONE, analysis().select("HEAD").mode());
+
+    Files.writeString(project.resolve("README.md"), "docs");
+    Files.writeString(project.resolve("pom.xml"), "<project><modelVersion>4.0.0</modelVersion></project>");
+    var selection = analysis().select("HEAD");
+
+    assertEquals(Mode.ALL, selection.mode());
+    assertTrue(selection.reason().contains("pom.xml"));
+  }
+
+  @Test
+  void matchesChangesInModulesAgainstTheirModule() throws IOException {
+    multiModule();
+    var analysis = analysis();
+    analysis.refreshIndex();
+
+    var selection = analysis.select(List.of("core/src/main/java/demo/Repository.java"), "HEAD");
+    assertEquals(Mode.SELECTED, selection.mode());
+    assertEquals(List.of("demo.AppTest"), selection.tests());
+
+    assertEquals(Mode.ALL, analysis.select(List.of("core/pom.xml"), "HEAD").mode());
+    assertEquals(Mode.ALL, analysis.select(List.of("app/src/test/resources/fixture.json"), "HEAD").mode());
+    assertEquals(Mode.NONE, analysis.select(List.of("core/README.md"), "HEAD").mode());
+  }
+
+  @Test
+  void selectionBecomesSurefireArguments() {
+    var selection = new TestImpactAnalysis.Selection(Mode.SELECTED, List.of("demo.ATest", "demo.BTest"), "");
+
+    assertEquals(List.of("-Dtest=demo.ATest,demo.BTest", "-Dsurefire.failIfNoSpecifiedTests=false"), selection.mavenArguments());
+  }
+
+  // core has the main class, the test that uses it lives in app
+  private void multiModule() throws IOException {
+    Files.writeString(project.resolve("pom.xml"), """
+        <project>
+          <groupId>demo</groupId>
+          <artifactId>parent</artifactId>
+          <packaging>pom</packaging>
+          <modules><module>core</module><module>app</module></modules>
+        </project>
+        """);
+    for (var module : List.of("core", "app")) {
+      Files.createDirectories(project.resolve(module));
+      Files.writeString(project.resolve(module + "/pom.xml"),
+          "<project><parent><groupId>demo</groupId><artifactId>parent</artifactId></parent><artifactId>%s</artifactId></project>"
+              .formatted(module));
+    }
+    compile("core/target/classes", "", "Repository", "package demo; public class Repository { }");
+    compile("app/target/test-classes", project.resolve("core/target/classes").toString(), "AppTest",
+        "package demo; class AppTest { Repository repository; }");
+  }
+
+  private void compile(String output, String classpath, String name, String source) throws IOException {
+    var sourceFile = Files.writeString(Files.createDirectories(project.resolve("fixture-src")).resolve(name + ".java"), source);
+    var outputDir = Files.createDirectories(project.resolve(output));
+    assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null,
+        "-d", outputDir.toString(), "-cp", classpath, sourceFile.toString()));
+  }
+
+  private TestImpactAnalysis analysis() {
+    return new TestImpactAnalysis(project.toFile(), new ClassDependencyIndex(project, cache));
+  }
+}
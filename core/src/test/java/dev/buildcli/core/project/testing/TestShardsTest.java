@@ -0,0 +1,78 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.project.testing.TestShards.Shard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestShardsTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void balancesShardsLongestClassFirst() {
+    var durations = Map.of(
+        "ATest", Duration.ofSeconds(7),
+        "BTest", Duration.ofSeconds(5),
+        "CTest", Duration.ofSeconds(4),
+        "DTest", Duration.ofSeconds(3),
+        "ETest", Duration.ofSeconds(3),
+        "FTest", Duration.ofSeconds(2));
+
+    var shards = TestShards.plan(durations.keySet(), durations, 2);
+
+    assertEquals(2, shards.size());
+    assertEquals(List.of(Duration.ofSeconds(12), Duration.ofSeconds(12)), shards.stream().map(Shard::estimate).toList());
+    assertEquals(6, shards.stream().mapToInt(shard -> shard.testClasses().size()).sum());
+  }
+
+  @Test
+  void unknownClassesCountAsTheMedianAndShardsNeverOutnumberClasses() {
+    var shards = TestShards.plan(List.of("ATest", "NewTest"), Map.of("ATest", Duration.ofSeconds(4)), 8);
+
+    assertEquals(2, shards.size());
+    assertEquals(Duration.ofSeconds(4), shards.get(1).estimate());
+  }
+
+  @Test
+  void withoutHistoryEveryClassCountsTheSame() {
+    var shards = TestShards.plan(List.of("ATest", "BTest", "CTest", "DTest"), Map.of(), 2);
+
+    assertEquals(List.of(2, 2), shards.stream().map(shard -> shard.testClasses().size()).toList());
+  }
+
+  @Test
+  void discoversTestClassesTheWaySurefireDoes() throws IOException {
+    var demo = Files.createDirectories(dir.resolve("demo"));
+    for (var name : List.of("ServiceTest", "ServiceTest$Nested", "Fixtures", "TestClock", "RepositoryTests")) {
+      Files.createFile(demo.resolve(name + ".class"));
+    }
+
+    assertEquals(List.of("demo.RepositoryTests", "demo.ServiceTest", "demo.TestClock"), TestShards.discover(dir));
+  }
+
+  @Test
+  void readsAndMergesSurefireReports() throws IOException {
+    Files.writeString(dir.resolve("TEST-demo.ATest.xml"), """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <testsuite name="demo.ATest" time="1,234.5" tests="3" errors="0" skipped="1" failures="1"><testcase/></testsuite>""");
+    Files.writeString(dir.resolve("TEST-demo.BTest$Inner.xml"), """
+        <testsuite name="demo.BTest$Inner" time="0.5" tests="2" errors="0" skipped="0" failures="0"/>""");
+
+    var suites = SurefireReports.read(dir);
+    var summary = SurefireReports.Summary.merge(suites);
+
+    assertEquals(Duration.ofMillis(1_234_500), suites.get(0).time());
+    assertEquals("demo.BTest", suites.get(1).topLevelClass());
+    assertEquals(5, summary.tests());
+    assertEquals(1, summary.failures());
+  }
+}
@@ -0,0 +1,214 @@
+package dev.buildcli.core.project.testing;
+
+import dev.buildcli.core.project.testing.TestTuning.Candidate;
+import dev.buildcli.core.project.testing.TestTuning.Measurement;
+import dev.buildcli.core.project.testing.TestTuning.Parallelism;
+import dev.buildcli.core.project.testing.TestTuning.Result;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTuningTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void startsWithTheSequentialBaseline() {
+    var candidates = TestTuning.candidates(8, Optional.empty());
+
+    assertEquals(new Candidate("1", true, Parallelism.OFF), candidates.getFirst());
+    assertTrue(candidates.contains(new Candidate("1C", true, Parallelism.ALL)));
+    assertTrue(candidates.contains(new Candidate("1C", false, Parallelism.OFF)));
+    assertEquals(List.of(new Candidate("1", true, Parallelism.OFF), new Candidate("1", true, Parallelism.CLASSES),
+        new Candidate("1", true, Parallelism.ALL)), TestTuning.candidates(1, Optional.empty()));
+  }
+
+  @Test
+  void onlyTunesJUnitWhenThePomFixesTheForkCount() {
+    var candidates = TestTuning.candidates(8, Optional.of("2"));
+
+    assertEquals(3, candidates.size());
+    assertTrue(candidates.stream().allMatch(candidate -> candidate.forkCount().equals("2")));
+  }
+
+  @Test
+  void passesCandidatesAsProperties() {
+    var arguments = new Candidate("1C", false, Parallelism.CLASSES).mavenArguments();
+
+    assertTrue(arguments.contains("-DforkCount=1C"));
+    assertTrue(arguments.contains("-DreuseForks=false"));
+    assertTrue(arguments.contains("-Djunit.jupiter.execution.parallel.enabled=true"));
+    assertTrue(arguments.contains("-Djunit.jupiter.execution.parallel.mode.default=same_thread"));
+    assertTrue(new Candidate("1", true, Parallelism.OFF).mavenArguments().contains("-Djunit.jupiter.execution.parallel.enabled=false"));
+  }
+
+  @Test
+  void rejectsCandidatesWithFailingOrMissingTests() throws IOException {
+    var candidates = List.of(new Candidate("1", true, Parallelism.OFF), new Candidate("1", true, Parallelism.CLASSES),
+        new Candidate("1", true, Parallelism.ALL));
+
+    var result = new TestTuning(dir).measure(candidates, 2, candidate -> {
+      switch (candidate.parallelism()) {
+        case OFF -> report(3, 0);
+        case CLASSES -> report(2, 0);
+        case ALL -> report(3, 1);
+      }
+      return 0;
+    });
+
+    assertTrue(result.baseline().stable());
+    assertEquals(2, result.baseline().times().size());
+    assertFalse(result.measurements().get(1).stable());
+    assertFalse(result.measurements().get(2).stable());
+    assertTrue(result.measurements().get(2).times().isEmpty());
+    assertTrue(result.best(0).isEmpty());
+  }
+
+  @Test
+  void warmsUpWithTheBaselineThenInterleavesTheCandidates() throws IOException {
+    var candidates = List.of(new Candidate("1", true, Parallelism.OFF), new Candidate("1", true, Parallelism.CLASSES),
+        new Candidate("1", true, Parallelism.ALL));
+    var order = new ArrayList<Parallelism>();
+
+    var result = new TestTuning(dir).measure(candidates, 2, candidate -> {
+      order.add(candidate.parallelism());
+      report(3, 0);
+      return 0;
+    });
+
+    assertEquals(List.of(Parallelism.OFF, Parallelism.OFF, Parallelism.CLASSES, Parallelism.ALL, Parallelism.CLASSES,
+        Parallelism.ALL, Parallelism.OFF), order);
+    assertTrue(result.measurements().stream().allMatch(measurement -> measurement.times().size() == 2));
+  }
+
+  @Test
+  void measuresNothingWhenTheWarmUpFails() throws IOException {
+    var candidates = List.of(new Candidate("1", true, Parallelism.OFF), new Candidate("1", true, Parallelism.ALL));
+    var runs = new AtomicInteger();
+
+    var result = new TestTuning(dir).measure(candidates, 3, candidate -> {
+      runs.incrementAndGet();
+      report(3, 1);
+      return 1;
+    });
+
+    assertEquals(1, runs.get());
+    assertFalse(result.baseline().stable());
+    assertTrue(result.best(0).isEmpty());
+  }
+
+  @Test
+  void usesTheLowerMedianForAnEvenNumberOfRuns() {
+    var measurement = new Measurement(new Candidate("1", true, Parallelism.OFF),
+        List.of(Duration.ofSeconds(4), Duration.ofSeconds(1), Duration.ofSeconds(3), Duration.ofSeconds(2)), 3, true);
+
+    assertEquals(Duration.ofSeconds(2), measurement.median());
+  }
+
+  @Test
+  void picksTheFastestCandidateThatBeatsTheBaseline() {
+    var result = new Result(List.of(
+        measurement(Parallelism.OFF, 10, true),
+        measurement(Parallelism.CLASSES, 6, true),
+        measurement(Parallelism.ALL, 3, false)));
+
+    assertEquals(Parallelism.CLASSES, result.best(0.05).orElseThrow().candidate().parallelism());
+    assertEquals(10 / 6.0, result.speedup(result.best(0.05).orElseThrow()), 0.001);
+    assertTrue(result.best(0.5).isEmpty());
+  }
+
+  @Test
+  void writesSettingsToPropertiesKeepingOtherEntries() throws IOException {
+    Files.writeString(dir.resolve("pom.xml"), """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <project>
+            <modelVersion>4.0.0</modelVersion>
+            <artifactId>demo</artifactId>
+        </project>
+        """);
+    var junitProperties = dir.resolve(TestTuning.JUNIT_PROPERTIES);
+    Files.createDirectories(junitProperties.getParent());
+    Files.writeString(junitProperties, "junit.jupiter.displayname.generator.default=Simple\njunit.jupiter.execution.parallel.enabled=false\n");
+
+    new TestTuning(dir).apply(new Candidate("1C", true, Parallelism.ALL));
+
+    var pom = Files.readString(dir.resolve("pom.xml"));
+    assertTrue(pom.contains("""
+            <properties>
+                <forkCount>1C</forkCount>
+                <reuseForks>true</reuseForks>
+            </properties>
+        </project>
+        """), pom);
+    assertTrue(pom.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project>"), pom);
+    var properties = Files.readAllLines(junitProperties);
+    assertEquals("junit.jupiter.displayname.generator.default=Simple", properties.getFirst());
+    assertTrue(properties.contains("junit.jupiter.execution.parallel.enabled=true"));
+    assertTrue(properties.contains("junit.jupiter.execution.parallel.mode.default=concurrent"));
+    assertEquals(1, properties.stream().filter(line -> line.startsWith("junit.jupiter.execution.parallel.enabled")).count());
+  }
+
+  @Test
+  void leavesThePomAloneForTheSurefireDefaults() throws IOException {
+    var pom = "<project><artifactId>demo</artifactId></project>";
+    Files.writeString(dir.resolve("pom.xml"), pom);
+
+    new TestTuning(dir).apply(new Candidate("1", true, Parallelism.CLASSES));
+
+    assertEquals(pom, Files.readString(dir.resolve("pom.xml")));
+    assertTrue(Files.readString(dir.resolve(TestTuning.JUNIT_PROPERTIES)).contains("parallel.enabled=true"));
+  }
+
+  @Test
+  void updatesAnExistingSurefireConfiguration() throws IOException {
+    Files.writeString(dir.resolve("pom.xml"), """
+        <project>
+          <build>
+            <plugins>
+              <plugin>
+                <artifactId>maven-surefire-plugin</artifactId>
+                <configuration>
+                  <forkCount>2</forkCount>
+                </configuration>
+              </plugin>
+            </plugins>
+          </build>
+        </project>
+        """);
+    var tuning = new TestTuning(dir);
+    assertEquals(Optional.of("2"), tuning.configuredForkCount());
+
+    tuning.apply(new Candidate("2", true, Parallelism.OFF));
+
+    var pom = Files.readString(dir.resolve("pom.xml"));
+    assertTrue(pom.contains("<forkCount>2</forkCount>\n          <reuseForks>true</reuseForks>\n        </configuration>"), pom);
+    assertFalse(pom.contains("<properties>"));
+    assertFalse(Files.exists(dir.resolve(TestTuning.JUNIT_PROPERTIES)));
+  }
+
+  private void report(int tests, int failures) {
+    try {
+      var reports = Files.createDirectories(dir.resolve(SurefireReports.DEFAULT_DIR));
+      Files.writeString(reports.resolve("TEST-demo.ATest.xml"), """
+          <testsuite name="demo.ATest" time="0.1" tests="%d" failures="%d" errors="0" skipped="0"/>
+          """.formatted(tests, failures));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Measurement measurement(Parallelism parallelism, int seconds, boolean stable) {
+    return new Measurement(new Candidate("1", true, parallelism), List.of(Duration.ofSeconds(seconds)), 3, stable);
+  }
+}
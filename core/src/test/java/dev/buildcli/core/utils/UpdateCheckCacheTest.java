@@ -0,0 +1,52 @@
+package dev.buildcli.core.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateCheckCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldBeExpired_whenNeverChecked() {
+    var cache = new UpdateCheckCache(tempDir.resolve("update-check.properties"));
+
+    assertTrue(cache.isExpired(Duration.ofHours(24), Instant.now()));
+    assertFalse(cache.isUpdateAvailable());
+  }
+
+  @Test
+  void shouldPersistLastCheckAndResult() {
+    var file = tempDir.resolve("nested").resolve("update-check.properties");
+    var now = Instant.ofEpochMilli(1_700_000_000_000L);
+
+    var cache = new UpdateCheckCache(file);
+    cache.markChecked(now);
+    cache.setUpdateAvailable(true);
+
+    var reloaded = new UpdateCheckCache(file);
+    assertEquals(now, reloaded.getLastChecked());
+    assertTrue(reloaded.isUpdateAvailable());
+    assertFalse(reloaded.isExpired(Duration.ofHours(24), now.plus(Duration.ofHours(23))));
+    assertTrue(reloaded.isExpired(Duration.ofHours(24), now.plus(Duration.ofHours(24))));
+  }
+
+  @Test
+  void shouldIgnoreCorruptedFile() throws Exception {
+    var file = tempDir.resolve("update-check.properties");
+    Files.writeString(file, "lastChecked=not-a-number\nupdateAvailable=true\n");
+
+    var cache = new UpdateCheckCache(file);
+
+    assertEquals(Instant.EPOCH, cache.getLastChecked());
+    assertFalse(cache.isUpdateAvailable());
+  }
+}
@@ -0,0 +1,103 @@
+package dev.buildcli.core.utils.tools;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.CallEnvironment;
+import dev.buildcli.core.utils.tools.BuildDaemons.Mode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildDaemonsTest {
+
+  @AfterEach
+  void clearEnvironment() {
+    CallEnvironment.clear();
+  }
+
+  @Test
+  void modeDefaultsToAuto() {
+    assertEquals(Mode.AUTO, Mode.parse(null));
+    assertEquals(Mode.AUTO, Mode.parse("sometimes"));
+    assertEquals(Mode.COLD, Mode.parse(" Cold "));
+  }
+
+  @Test
+  void coldMavenBuildsAlwaysUsePlainMaven() {
+    var launch = BuildDaemons.maven(Mode.COLD);
+
+    assertEquals(MavenConstants.MAVEN_CMD, launch.executable());
+    assertFalse(launch.warm());
+  }
+
+  @Test
+  void warmMavenBuildsUseMvndWhenInstalled() {
+    var launch = BuildDaemons.maven(Mode.WARM);
+
+    assertEquals(BuildDaemons.mvnd().isPresent(), launch.warm());
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void gradleBuildsPreferTheProjectWrapper(@TempDir Path project) throws IOException {
+    var wrapper = Files.createFile(project.resolve("gradlew")).toFile();
+    assertTrue(wrapper.setExecutable(true));
+
+    var launch = BuildDaemons.gradle(project.toFile(), Mode.COLD);
+
+    assertEquals(wrapper.getAbsolutePath(), launch.executable());
+    assertEquals("--no-daemon", launch.command().get(1));
+    assertFalse(launch.warm());
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void mvndIsLookedUpInTheEnvironmentOfEveryCall(@TempDir Path mvndHome) throws IOException {
+    var mvnd = Files.createFile(Files.createDirectories(mvndHome.resolve("bin")).resolve("mvnd")).toFile();
+    assertTrue(mvnd.setExecutable(true));
+
+    CallEnvironment.set(Map.of("MVND_HOME", mvndHome.toString(), "PATH", ""));
+    assertEquals(mvnd.getPath(), BuildDaemons.mvnd().orElseThrow());
+
+    CallEnvironment.set(Map.of("PATH", ""));
+    assertTrue(BuildDaemons.mvnd().isEmpty());
+  }
+
+  @Test
+  void gradleBuildsAreColdWhenGradlePropertiesDisableTheDaemon(@TempDir Path project, @TempDir Path gradleHome) throws IOException {
+    CallEnvironment.set(Map.of("GRADLE_USER_HOME", gradleHome.toString()));
+    assertTrue(BuildDaemons.gradle(project.toFile(), Mode.AUTO).warm());
+
+    Files.writeString(project.resolve("gradle.properties"), "org.gradle.daemon=false\n");
+    assertFalse(BuildDaemons.gradle(project.toFile(), Mode.AUTO).warm());
+
+    // The user's settings win over the project's
+    Files.writeString(gradleHome.resolve("gradle.properties"), "org.gradle.daemon=true\n");
+    assertTrue(BuildDaemons.gradle(project.toFile(), Mode.AUTO).warm());
+  }
+
+  @Test
+  void buildTimesCompareWarmAndColdAverages(@TempDir Path home) {
+    var file = home.resolve("build-times.properties");
+    var times = new BuildTimes(file);
+    times.record("/project package", false, Duration.ofSeconds(20));
+    assertTrue(times.compare("/project package").isEmpty());
+
+    times.record("/project package", true, Duration.ofSeconds(4));
+    times.record("/project package", true, Duration.ofSeconds(6));
+
+    var reloaded = new BuildTimes(file);
+    assertEquals(Duration.ofSeconds(5), reloaded.average("/project package", true).orElseThrow().duration());
+    assertEquals(2, reloaded.average("/project package", true).orElseThrow().runs());
+    assertTrue(reloaded.compare("/project package").orElseThrow().contains("4.0x"));
+  }
+}
@@ -0,0 +1,229 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.utils.CallEnvironment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EffectivePomResolverTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void mergesParentsFromTheRelativePathAndTheLocalRepository() throws IOException {
+    var repository = root.resolve("repository");
+    write(repository.resolve("demo/base/1/base-1.pom"), """
+        <project>
+          <groupId>demo</groupId><artifactId>base</artifactId><version>1</version><packaging>pom</packaging>
+          <properties><slf4j.version>2.0.0</slf4j.version><junit.version>5.10.0</junit.version></properties>
+          <dependencyManagement><dependencies>
+            <dependency><groupId>org.slf4j</groupId><artifactId>slf4j-api</artifactId><version>${slf4j.version}</version></dependency>
+            <dependency>
+              <groupId>org.junit.jupiter</groupId><artifactId>junit-jupiter</artifactId><version>${junit.version}</version>
+              <scope>test</scope>
+            </dependency>
+          </dependencies></dependencyManagement>
+        </project>
+        """);
+    write(root.resolve("project/pom.xml"), """
+        <project>
+          <parent><groupId>demo</groupId><artifactId>base</artifactId><version>1</version></parent>
+          <artifactId>parent</artifactId><version>2.0-SNAPSHOT</version><packaging>pom</packaging>
+          <properties><slf4j.version>2.0.16</slf4j.version></properties>
+          <modules><module>app</module></modules>
+          <dependencies>
+            <dependency><groupId>org.junit.jupiter</groupId><artifactId>junit-jupiter</artifactId></dependency>
+          </dependencies>
+        </project>
+        """);
+    var app = write(root.resolve("project/app/pom.xml"), """
+        <project>
+          <parent><groupId>demo</groupId><artifactId>parent</artifactId><version>2.0-SNAPSHOT</version></parent>
+          <artifactId>app</artifactId>
+          <name>${project.artifactId} ${project.version}</name>
+          <dependencies>
+            <dependency><groupId>org.slf4j</groupId><artifactId>slf4j-api</artifactId></dependency>
+            <dependency><groupId>${project.groupId}</groupId><artifactId>lib</artifactId><version>${project.version}</version></dependency>
+          </dependencies>
+        </project>
+        """);
+
+    var pom = resolver(repository).resolve(app);
+
+    assertEquals("demo:app:2.0-SNAPSHOT", pom.id());
+    assertEquals("jar", pom.packaging());
+    assertEquals(List.of("demo:parent:2.0-SNAPSHOT", "demo:base:1"), pom.parents());
+    assertEquals(List.of(), pom.modules());
+    assertEquals("2.0.16", pom.properties().get("slf4j.version"));
+    assertEquals(Optional.of("2.0.16"), pom.dependency("org.slf4j", "slf4j-api").map(PomModel.Dependency::version));
+    assertEquals(Optional.of(new PomModel.Dependency("org.junit.jupiter", "junit-jupiter", "5.10.0", null, null,
+        "test", null)), pom.dependency("org.junit.jupiter", "junit-jupiter"));
+    assertEquals(Optional.of("2.0-SNAPSHOT"), pom.dependency("demo", "lib").map(PomModel.Dependency::version));
+  }
+
+  @Test
+  void importsBomsFromTheLocalRepository() throws IOException {
+    var repository = root.resolve("repository");
+    write(repository.resolve("demo/bom/3/bom-3.pom"), """
+        <project>
+          <groupId>demo</groupId><artifactId>bom</artifactId><version>3</version><packaging>pom</packaging>
+          <dependencyManagement><dependencies>
+            <dependency><groupId>demo</groupId><artifactId>a</artifactId><version>3.1</version></dependency>
+            <dependency><groupId>demo</groupId><artifactId>b</artifactId><version>3.2</version></dependency>
+          </dependencies></dependencyManagement>
+        </project>
+        """);
+    var app = write(root.resolve("pom.xml"), """
+        <project>
+          <groupId>demo</groupId><artifactId>app</artifactId><version>1</version>
+          <dependencyManagement><dependencies>
+            <dependency><groupId>demo</groupId><artifactId>b</artifactId><version>9</version></dependency>
+            <dependency><groupId>demo</groupId><artifactId>bom</artifactId><version>3</version><type>pom</type><scope>import</scope></dependency>
+            <dependency><groupId>demo</groupId><artifactId>missing</artifactId><version>1</version><type>pom</type><scope>import</scope></dependency>
+          </dependencies></dependencyManagement>
+          <dependencies>
+            <dependency><groupId>demo</groupId><artifactId>a</artifactId></dependency>
+            <dependency><groupId>demo</groupId><artifactId>b</artifactId></dependency>
+          </dependencies>
+        </project>
+        """);
+
+    var pom = resolver(repository).resolve(app);
+
+    assertEquals(Optional.of("3.1"), pom.managedVersion("demo", "a"));
+    assertEquals(Optional.of("9"), pom.managedVersion("demo", "b"));
+    assertEquals(Optional.of("1"), pom.managedVersion("demo", "missing"));
+    assertEquals(Optional.of("3.1"), pom.dependency("demo", "a").map(PomModel.Dependency::version));
+  }
+
+  @Test
+  void activatesProfiles() throws IOException {
+    var app = write(root.resolve("pom.xml"), """
+        <project>
+          <groupId>demo</groupId><artifactId>app</artifactId><version>1</version>
+          <properties><mode>plain</mode></properties>
+          <profiles>
+            <profile><id>default</id><activation><activeByDefault>true</activeByDefault></activation>
+              <properties><mode>default</mode></properties></profile>
+            <profile><id>ci</id><activation><property><name>ci</name><value>true</value></property></activation>
+              <properties><mode>ci</mode></properties></profile>
+            <profile><id>marker</id><activation><file><exists>${basedir}/marker.txt</exists></file></activation>
+              <modules><module>extra</module></modules></profile>
+          </profiles>
+        </project>
+        """);
+
+    assertEquals("default", resolve(app, Set.of(), Map.of()).properties().get("mode"));
+    assertEquals("ci", resolve(app, Set.of(), Map.of("ci", "true")).properties().get("mode"));
+    assertEquals(List.of("ci"), resolve(app, Set.of("ci"), Map.of()).activeProfiles());
+    assertEquals("plain", resolve(app, Set.of("!default"), Map.of()).properties().get("mode"));
+
+    Files.writeString(root.resolve("marker.txt"), "");
+    var pom = resolve(app, Set.of(), Map.of());
+    assertEquals(List.of("marker"), pom.activeProfiles());
+    assertEquals(List.of("extra"), pom.modules());
+  }
+
+  @Test
+  void matchesJdkConditionsLikeMaven() {
+    assertTrue(EffectivePomResolver.matchesJdk("17", "17.0.1"));
+    assertFalse(EffectivePomResolver.matchesJdk("1", "17.0.1"));
+    assertTrue(EffectivePomResolver.matchesJdk("1.8", "1.8.0_392"));
+    assertTrue(EffectivePomResolver.matchesJdk("!1.8", "21"));
+    assertTrue(EffectivePomResolver.matchesJdk("[17,)", "21.0.2"));
+    assertTrue(EffectivePomResolver.matchesJdk("[1.8,17)", "11.0.22"));
+    assertFalse(EffectivePomResolver.matchesJdk("[1.8,17)", "17.0.1"));
+    assertFalse(EffectivePomResolver.matchesJdk("(,11]", "17"));
+  }
+
+  @Test
+  void reusesResultsUntilAPomOfTheChainChanges() throws IOException {
+    var parent = write(root.resolve("pom.xml"), """
+        <project><groupId>demo</groupId><artifactId>parent</artifactId><version>1</version>
+          <properties><level>1</level></properties></project>
+        """);
+    var app = write(root.resolve("app/pom.xml"), """
+        <project><parent><groupId>demo</groupId><artifactId>parent</artifactId><version>1</version></parent>
+          <artifactId>app</artifactId></project>
+        """);
+    var resolver = resolver(root.resolve("repository"));
+
+    var first = resolver.resolve(app);
+    assertSame(first, resolver.resolve(app));
+
+    write(parent, Files.readString(parent).replace("<level>1</level>", "<level>22</level>"));
+    var second = resolver.resolve(app);
+    assertNotSame(first, second);
+    assertEquals("22", second.properties().get("level"));
+  }
+
+  @Test
+  void interpolatesTheEnvironmentOfTheCurrentCall() throws IOException {
+    var app = write(root.resolve("pom.xml"), """
+        <project><groupId>demo</groupId><artifactId>app</artifactId><version>1</version>
+          <properties><home>${env.DEMO_HOME}</home></properties></project>
+        """);
+    var resolver = resolver(root.resolve("repository"));
+    try {
+      CallEnvironment.set(Map.of("DEMO_HOME", "/first"));
+      var first = resolver.resolve(app);
+      assertEquals("/first", first.properties().get("home"));
+      assertSame(first, resolver.resolve(app));
+
+      CallEnvironment.set(Map.of("DEMO_HOME", "/second"));
+      assertEquals("/second", resolver.resolve(app).properties().get("home"));
+    } finally {
+      CallEnvironment.clear();
+    }
+  }
+
+  @Test
+  void failsWhenAParentCannotBeFound() throws IOException {
+    var app = write(root.resolve("pom.xml"), """
+        <project><parent><groupId>demo</groupId><artifactId>gone</artifactId><version>1</version></parent>
+          <artifactId>app</artifactId></project>
+        """);
+
+    var error = assertThrows(IOException.class, () -> resolver(root.resolve("repository")).resolve(app));
+    assertTrue(error.getMessage().contains("demo:gone:1"));
+  }
+
+  @Test
+  void interpolatesNestedAndLeavesUnknownReferences() {
+    var properties = Map.of("a", "${b}-x", "b", "${c}", "c", "1", "loop", "${loop}");
+
+    assertEquals("1-x/${unknown}/${loop}", EffectivePomResolver.interpolate("${a}/${unknown}/${loop}", properties::get));
+  }
+
+  private EffectivePomResolver resolver(Path repository) {
+    return new EffectivePomResolver(repository, Set.of(), Map.of(), new PomModelCache(16));
+  }
+
+  private EffectivePom resolve(Path pom, Set<String> profiles, Map<String, String> properties) throws IOException {
+    return new EffectivePomResolver(root.resolve("repository"), profiles, properties, new PomModelCache(16)).resolve(pom);
+  }
+
+  private static Path write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+    // Old enough for the cache to trust the timestamp, as files of a real project mostly are
+    Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(60)));
+    return file;
+  }
+}
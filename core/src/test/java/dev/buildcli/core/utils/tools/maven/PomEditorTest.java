@@ -0,0 +1,278 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.model.Dependency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PomEditorTest {
+  private static final String POM = """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <!-- keep me -->
+      <project xmlns="http://maven.apache.org/POM/4.0.0" xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance'>
+          <modelVersion>4.0.0</modelVersion>
+          <groupId>demo</groupId>
+          <artifactId>app</artifactId>
+          <version>1.0</version>
+
+          <properties>
+              <maven.compiler.source>17</maven.compiler.source>
+          </properties>
+
+          <dependencies>
+              <dependency>
+                  <groupId>org.slf4j</groupId>
+                  <artifactId>slf4j-api</artifactId>
+                  <version>2.0.0</version>
+              </dependency>
+              <!-- Added by BuildCLI-->
+              <dependency>
+                  <groupId>com.google.guava</groupId>
+                  <artifactId>guava</artifactId>
+              </dependency>
+          </dependencies>
+
+          <build>
+              <plugins>
+                  <plugin>
+                      <artifactId>maven-jar-plugin</artifactId>
+                      <configuration><archive>&lt;kept&gt;</archive></configuration>
+                  </plugin>
+              </plugins>
+          </build>
+      </project>
+      """;
+
+  @TempDir
+  Path project;
+
+  @Test
+  void leavesThePomUntouchedWithoutEdits() throws IOException {
+    assertEquals(POM, PomEditor.of(POM).apply());
+  }
+
+  @Test
+  void updatesTheVersionOfAnExistingDependencyInPlace() throws IOException {
+    var edited = PomEditor.of(POM).addOrUpdateDependency(new Dependency("org.slf4j", "slf4j-api", "2.0.9")).apply();
+
+    assertEquals(POM.replace("<version>2.0.0</version>", "<version>2.0.9</version>"), edited);
+  }
+
+  @Test
+  void addsAVersionToADependencyWithout() throws IOException {
+    var edited = PomEditor.of(POM).addOrUpdateDependency(new Dependency("com.google.guava", "guava", "33.0")).apply();
+
+    assertEquals(POM.replace("""
+                    <artifactId>guava</artifactId>
+        """, """
+                    <artifactId>guava</artifactId>
+                    <version>33.0</version>
+        """), edited);
+  }
+
+  @Test
+  void appendsNewDependenciesIndentedLikeTheOthers() throws IOException {
+    var edited = PomEditor.of(POM).addOrUpdateDependency(new Dependency("junit", "junit", "4.13")).apply();
+
+    assertEquals(POM.replace("""
+                </dependency>
+            </dependencies>
+        """, """
+                </dependency>
+                <!-- Added by BuildCLI -->
+                <dependency>
+                    <groupId>junit</groupId>
+                    <artifactId>junit</artifactId>
+                    <version>4.13</version>
+                </dependency>
+            </dependencies>
+        """), edited);
+  }
+
+  @Test
+  void appliesABatchOfEditsInOnePass() throws IOException {
+    var edited = PomEditor.of(POM)
+        .addOrUpdateDependency(new Dependency("junit", "junit", "4.13"))
+        .addOrUpdateDependency(new Dependency("org.slf4j", "slf4j-api", "2.0.9"))
+        .removeDependency("com.google.guava", "guava")
+        .addOrUpdateDependency(new Dependency("org.mockito", "mockito-core", null))
+        .apply();
+
+    assertEquals(POM.replace("<version>2.0.0</version>", "<version>2.0.9</version>").replace("""
+                <!-- Added by BuildCLI-->
+                <dependency>
+                    <groupId>com.google.guava</groupId>
+                    <artifactId>guava</artifactId>
+                </dependency>
+        """, """
+                <!-- Added by BuildCLI -->
+                <dependency>
+                    <groupId>junit</groupId>
+                    <artifactId>junit</artifactId>
+                    <version>4.13</version>
+                </dependency>
+                <!-- Added by BuildCLI -->
+                <dependency>
+                    <groupId>org.mockito</groupId>
+                    <artifactId>mockito-core</artifactId>
+                </dependency>
+        """), edited);
+  }
+
+  @Test
+  void removesDependenciesWithTheCommentBuildCliAddedThemWith() throws IOException {
+    var edited = PomEditor.of(POM)
+        .removeDependency("com.google.guava", "guava")
+        .removeDependency("org.slf4j", "slf4j-api")
+        .apply();
+
+    assertEquals(POM.substring(0, POM.indexOf("        <dependency>") - 1)
+        + POM.substring(POM.indexOf("\n    </dependencies>")), edited);
+  }
+
+  @Test
+  void addsADependenciesSectionAfterTheProperties() throws IOException {
+    var pom = """
+        <project>
+          <artifactId>app</artifactId>
+          <properties>
+            <java.version>21</java.version>
+          </properties>
+        </project>
+        """;
+
+    var edited = PomEditor.of(pom).addOrUpdateDependency(new Dependency("junit", "junit", null)).apply();
+
+    assertEquals("""
+        <project>
+          <artifactId>app</artifactId>
+          <properties>
+            <java.version>21</java.version>
+          </properties>
+
+          <dependencies>
+            <!-- Added by BuildCLI -->
+            <dependency>
+              <groupId>junit</groupId>
+              <artifactId>junit</artifactId>
+            </dependency>
+          </dependencies>
+        </project>
+        """, edited);
+  }
+
+  @Test
+  void setsAndAddsProperties() throws IOException {
+    var edited = PomEditor.of(POM)
+        .setProperty("maven.compiler.source", "21")
+        .setProperty("encoding", "a&b")
+        .apply();
+
+    assertEquals(POM.replace("<maven.compiler.source>17</maven.compiler.source>", """
+        <maven.compiler.source>21</maven.compiler.source>
+                <encoding>a&amp;b</encoding>"""), edited);
+  }
+
+  @Test
+  void createsThePropertiesSectionAfterTheHeader() throws IOException {
+    var pom = "<project>\r\n\t<groupId>demo</groupId>\r\n\t<artifactId>app</artifactId>\r\n\t<build/>\r\n</project>\r\n";
+
+    var edited = PomEditor.of(pom).setProperty("java.version", "21").apply();
+
+    assertEquals("<project>\r\n\t<groupId>demo</groupId>\r\n\t<artifactId>app</artifactId>\r\n\r\n\t<properties>\r\n"
+        + "\t\t<java.version>21</java.version>\r\n\t</properties>\r\n\t<build/>\r\n</project>\r\n", edited);
+  }
+
+  @Test
+  void setsPluginConfigurationNextToTheExistingParameters() throws IOException {
+    var edited = PomEditor.of(POM)
+        .setPluginConfiguration("maven-jar-plugin", "archive", "<replaced>")
+        .setPluginConfiguration("maven-jar-plugin", "skipIfEmpty", "true")
+        .apply();
+
+    assertEquals(POM.replace("<configuration><archive>&lt;kept&gt;</archive></configuration>", """
+        <configuration><archive>&lt;replaced&gt;</archive>
+                            <skipIfEmpty>true</skipIfEmpty>
+                        </configuration>"""), edited);
+  }
+
+  @Test
+  void addsTheConfigurationOfAPluginWithout() throws IOException {
+    var pom = """
+        <project>
+          <build>
+            <plugins>
+              <plugin>
+                <artifactId>maven-surefire-plugin</artifactId>
+              </plugin>
+            </plugins>
+          </build>
+        </project>
+        """;
+
+    var edited = PomEditor.of(pom).setPluginConfiguration("maven-surefire-plugin", "forkCount", "1C").apply();
+
+    assertEquals(pom.replace("""
+                <artifactId>maven-surefire-plugin</artifactId>
+        """, """
+                <artifactId>maven-surefire-plugin</artifactId>
+                <configuration>
+                  <forkCount>1C</forkCount>
+                </configuration>
+        """), edited);
+    assertThrows(IOException.class, () -> PomEditor.of(pom).setPluginConfiguration("maven-jar-plugin", "a", "b").apply());
+  }
+
+  @Test
+  void setsTheProjectVersionOnly() throws IOException {
+    var edited = PomEditor.of(POM).setVersion("2.0").apply();
+
+    assertEquals(POM.replace("<version>1.0</version>", "<version>2.0</version>"), edited);
+  }
+
+  @Test
+  void replacesTheDependenciesSection() throws IOException {
+    var edited = PomEditor.of(POM).replaceDependencies(MavenConstants.DEPENDENCIES_PATTERN).apply();
+
+    assertEquals(POM.substring(0, POM.indexOf("<dependencies>")) + MavenConstants.DEPENDENCIES_PATTERN
+        + POM.substring(POM.indexOf("</dependencies>") + "</dependencies>".length()), edited);
+  }
+
+  @Test
+  void rejectsMalformedPoms() {
+    assertThrows(IOException.class, () -> PomEditor.of("<project><dependencies></project>").apply());
+    assertThrows(IOException.class, () -> PomEditor.of("<settings/>").setVersion("1").apply());
+  }
+
+  @Test
+  void leavesTheFileAsItWasWhenAnEditFails() throws IOException {
+    var pom = Files.writeString(project.resolve("pom.xml"), POM);
+
+    var editor = PomEditor.read(pom).setVersion("2.0").replaceDependencies("<dependencies>");
+
+    assertThrows(IOException.class, () -> editor.write(pom));
+    assertEquals(POM, Files.readString(pom));
+    try (var files = Files.list(project)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  void writesTheEditedPom() throws IOException {
+    var pom = Files.writeString(project.resolve("pom.xml"), POM);
+
+    PomEditor.read(pom).setVersion("2.0").write(pom);
+
+    assertEquals(POM.replace("<version>1.0</version>", "<version>2.0</version>"), Files.readString(pom));
+    try (var files = Files.list(project)) {
+      assertEquals(1, files.count());
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PomModelCacheTest {
+  private static final String POM = """
+      <project xmlns="http://maven.apache.org/POM/4.0.0">
+        <parent>
+          <groupId>demo</groupId>
+          <artifactId>parent</artifactId>
+          <version>1.0</version>
+        </parent>
+        <artifactId>app</artifactId>
+        <properties><java.version>21</java.version></properties>
+        <modules><module>core</module></modules>
+        <dependencies>
+          <dependency>
+            <groupId>org.slf4j</groupId>
+            <artifactId>slf4j-api</artifactId>
+            <scope>provided</scope>
+          </dependency>
+        </dependencies>
+        <build>
+          <plugins>
+            <plugin>
+              <artifactId>maven-jar-plugin</artifactId>
+              <configuration><archive><manifest><mainClass>demo.Main</mainClass></manifest></archive></configuration>
+            </plugin>
+          </plugins>
+        </build>
+        <profiles>
+          <profile>
+            <id>fast</id>
+            <activation><activeByDefault>true</activeByDefault></activation>
+            <properties><skipTests>true</skipTests></properties>
+          </profile>
+        </profiles>
+      </project>
+      """;
+
+  @TempDir
+  Path project;
+
+  private final PomModelCache cache = new PomModelCache(8);
+
+  @Test
+  void parsesWhatThePomDeclares() throws IOException {
+    var model = cache.get(write(POM));
+
+    assertEquals("demo", model.groupIdOrInherited());
+    assertEquals("app", model.artifactId());
+    assertEquals("1.0", model.versionOrInherited());
+    assertEquals("jar", model.packagingOrDefault());
+    assertEquals(Map.of("java.version", "21"), model.properties());
+    assertEquals(List.of("core"), model.modules());
+    assertEquals(List.of(new PomModel.Dependency("org.slf4j", "slf4j-api", null, null, null, "provided", null)),
+        model.dependencies());
+    assertEquals(Map.of("archive.manifest.mainClass", "demo.Main"), model.plugins().getFirst().configuration());
+    assertEquals("fast", model.profiles().getFirst().id());
+    assertEquals(true, model.profiles().getFirst().activeByDefault());
+    assertEquals(Map.of("java.version", "21", "skipTests", "true"), model.allProperties());
+  }
+
+  @Test
+  void reusesTheModelWhileTheFileIsUnchanged() throws IOException {
+    var pom = write(POM);
+    makeOld(pom);
+
+    assertSame(cache.get(pom), cache.get(pom));
+    assertSame(cache.get(pom), cache.get(project.resolve(".").resolve("pom.xml")));
+  }
+
+  @Test
+  void parsesAgainWhenTheFileChanges() throws IOException {
+    var pom = write(POM);
+    makeOld(pom);
+    var before = cache.get(pom);
+
+    write(POM.replace("<artifactId>app</artifactId>", "<artifactId>other</artifactId>"));
+
+    assertEquals("other", cache.get(pom).artifactId());
+    assertNotSame(before, cache.get(pom));
+  }
+
+  @Test
+  void comparesTheContentOfRecentlyModifiedFiles() throws IOException {
+    var pom = write(POM);
+    var modified = Files.getLastModifiedTime(pom);
+    cache.get(pom);
+
+    // Same size and timestamp, as a second write within one tick of a coarse file system would leave it
+    Files.writeString(pom, POM.replace("<artifactId>app</artifactId>", "<artifactId>xyz</artifactId>"));
+    Files.setLastModifiedTime(pom, modified);
+
+    assertEquals("xyz", cache.get(pom).artifactId());
+  }
+
+  @Test
+  void forgetsInvalidatedFiles() throws IOException {
+    var pom = write(POM);
+    makeOld(pom);
+    var before = cache.get(pom);
+
+    cache.invalidate(pom);
+
+    assertNotSame(before, cache.get(pom));
+  }
+
+  @Test
+  void rejectsFilesThatAreNotPoms() throws IOException {
+    assertThrows(IOException.class, () -> cache.get(write("<settings/>")));
+    assertThrows(IOException.class, () -> cache.get(project.resolve("missing.xml")));
+  }
+
+  private Path write(String content) throws IOException {
+    return Files.writeString(project.resolve("pom.xml"), content);
+  }
+
+  private static void makeOld(Path pom) throws IOException {
+    Files.setLastModifiedTime(pom, FileTime.from(Instant.now().minusSeconds(60)));
+  }
+}
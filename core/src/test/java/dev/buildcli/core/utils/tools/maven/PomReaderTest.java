@@ -0,0 +1,49 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PomReaderTest {
+  @TempDir
+  Path project;
+
+  @Test
+  void readsMainClassFromProperties() throws IOException {
+    var pom = write("""
+        <project><properties><exec.mainClass>demo.Main</exec.mainClass></properties></project>""");
+
+    assertEquals(Optional.of("demo.Main"), PomReader.readMainClass(pom));
+  }
+
+  @Test
+  void readsMainClassFromPluginConfigurationResolvingProperties() throws IOException {
+    var pom = write("""
+        <project>
+          <properties><app.main>demo.App</app.main></properties>
+          <build><plugins><plugin>
+            <artifactId>maven-jar-plugin</artifactId>
+            <configuration><archive><manifest><mainClass>${app.main}</mainClass></manifest></archive></configuration>
+          </plugin></plugins></build>
+        </project>""");
+
+    assertEquals(Optional.of("demo.App"), PomReader.readMainClass(pom));
+  }
+
+  @Test
+  void noMainClassDeclared() throws IOException {
+    var pom = write("<project><properties><mainClass>${missing}</mainClass></properties></project>");
+
+    assertEquals(Optional.empty(), PomReader.readMainClass(pom));
+  }
+
+  private String write(String content) throws IOException {
+    return Files.writeString(project.resolve("pom.xml"), content).toString();
+  }
+}
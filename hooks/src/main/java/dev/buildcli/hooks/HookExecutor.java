@@ -19,6 +19,15 @@ public class HookExecutor {
     }
 
     public void executeHook(String[] args, CommandLine commandLine) {
+        System.exit(execute(args, commandLine));
+    }
+
+    /**
+     * Runs the command and its hooks without terminating the JVM.
+     *
+     * @return 0 when every command in the chain succeeded, 1 otherwise
+     */
+    public int execute(String[] args, CommandLine commandLine) {
         List<String[]> orderedHooks = orderHooks(args);
         List<Integer> exitCodes = new ArrayList<>();
         for (String[] command : orderedHooks) {
@@ -30,10 +39,7 @@ public class HookExecutor {
 
         }
 
-        if (exitCodes.stream().allMatch(c -> c == 0))
-            System.exit(0);
-
-        System.exit(1);
+        return exitCodes.stream().allMatch(c -> c == 0) ? 0 : 1;
     }
 
     private List<String[]> orderHooks(String[] args){
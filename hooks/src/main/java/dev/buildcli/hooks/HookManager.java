@@ -53,6 +53,10 @@ public class HookManager {
         hookExecutor.executeHook(args, commandLine);
     }
 
+    public int execute(String[] args, CommandLine commandLine) {
+        return hookExecutor.execute(args, commandLine);
+    }
+
     public void listHooks() {
         StringBuilder myHooks = new StringBuilder(hooks.toString().replace("]", "]\n").replace("\n, ", "\n"));
         if (myHooks.length() > 1) {
@@ -39,11 +39,21 @@ cp cli/target/buildcli.jar "$HOME/bin/"
 
 cat <<EOF > "$HOME/bin/buildcli"
 #!/bin/bash
-java --enable-preview --add-modules jdk.incubator.vector -jar "\$HOME/bin/buildcli.jar" "\$@"
+javaOpts="--enable-preview --add-modules jdk.incubator.vector"
+# Class data sharing archive, ignored by the JVM when the JDK or the jar changed
+if [ -r "\$HOME/bin/buildcli.jsa" ]; then
+    javaOpts="\$javaOpts -XX:SharedArchiveFile=\$HOME/bin/buildcli.jsa -Xshare:auto -Xlog:cds=off -Xlog:cds+dynamic=off"
+fi
+exec java \$javaOpts -jar "\$HOME/bin/buildcli.jar" "\$@"
 EOF
 
 chmod +x "$HOME/bin/buildcli"
 
+echo "Optimizing BuildCLI startup..."
+if ! BUILDCLI_DAEMON=off java --enable-preview --add-modules jdk.incubator.vector -jar "$HOME/bin/buildcli.jar" doctor optimize-startup --force; then
+    echo "Startup optimization failed, BuildCLI will start without a class data sharing archive."
+fi
+
 if [[ ":$PATH:" != *":$HOME/bin:"* ]]; then
     echo "The directory \$HOME/bin is not in the PATH."
     echo "Please add the following line to your ~/.bashrc, ~/.zshrc, or the appropriate shell configuration file:"
@@ -7,11 +7,14 @@ import picocli.CommandLine.Model.CommandSpec;
 
 public class CommandFactory {
  public static CommandLine createCommandLine(BuildCLICommandPlugin plugin) {
-   var parents = plugin.parents();
    var name = plugin.getClass().getDeclaredAnnotation(Command.class).name();
 
+   return createCommandLine(name, plugin.parents(), new CommandLine(plugin));
+ }
+
+ public static CommandLine createCommandLine(String name, String[] parents, CommandLine command) {
    if (parents == null || parents.length == 0) {
-     return new CommandLine(plugin);
+     return command;
    }
 
    var spec = CommandSpec.create().name(parents[0]);
@@ -20,15 +23,15 @@ public class CommandFactory {
    current.usageMessage().description("Command " + name + " generated by CommandFactory");
 
    for (var path : parents) {
-     var command = CommandSpec.create().name(path);
-     current.addSubcommand(command.name(), command);
-     command.mixinStandardHelpOptions(true);
-     command.usageMessage().description("Command " + command.name() + " generated by CommandFactory");
+     var parent = CommandSpec.create().name(path);
+     current.addSubcommand(parent.name(), parent);
+     parent.mixinStandardHelpOptions(true);
+     parent.usageMessage().description("Command " + parent.name() + " generated by CommandFactory");
 
-     current = command;
+     current = parent;
    }
 
-   current.addSubcommand(name, new CommandLine(plugin));
+   current.addSubcommand(name, command);
 
    return new CommandLine(spec);
  }
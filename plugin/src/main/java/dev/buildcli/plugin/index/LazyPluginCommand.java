@@ -0,0 +1,71 @@
+package dev.buildcli.plugin.index;
+
+import dev.buildcli.core.domain.jar.Jar;
+import dev.buildcli.plugin.BuildCLICommandPlugin;
+import dev.buildcli.plugin.utils.pf4j.CustomDefaultPluginManager;
+import org.pf4j.PluginWrapper;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Placeholder registered for an indexed plugin command. The plugin jar is only loaded when the command runs,
+ * every argument after the command name is handed to the real plugin command unparsed.
+ */
+public class LazyPluginCommand implements Callable<Integer> {
+  private final File jar;
+  private final PluginCommandEntry entry;
+  private CommandSpec spec;
+
+  private LazyPluginCommand(File jar, PluginCommandEntry entry) {
+    this.jar = jar;
+    this.entry = entry;
+  }
+
+  public static CommandLine createCommandLine(File jar, PluginCommandEntry entry) {
+    var command = new LazyPluginCommand(jar, entry);
+    var spec = CommandSpec.wrapWithoutInspection(command).name(entry.name());
+    if (entry.aliases() != null) {
+      spec.aliases(entry.aliases());
+    }
+    if (entry.description() != null) {
+      spec.usageMessage().description(entry.description());
+    }
+    spec.parser().unmatchedArgumentsAllowed(true).stopAtUnmatched(true).stopAtPositional(true);
+    command.spec = spec;
+
+    return new CommandLine(spec);
+  }
+
+  @Override
+  public Integer call() {
+    var commandLine = spec.commandLine();
+    var args = commandLine.getUnmatchedArguments().toArray(String[]::new);
+
+    var pluginManager = new CustomDefaultPluginManager(List.of(new Jar(jar)));
+    try {
+      var plugin = pluginManager.getPlugins().stream()
+          .map(PluginWrapper::getPlugin)
+          .filter(BuildCLICommandPlugin.class::isInstance)
+          .map(BuildCLICommandPlugin.class::cast)
+          .filter(candidate -> entry.name().equals(candidate.getClass().getDeclaredAnnotation(Command.class).name()))
+          .findFirst();
+
+      if (plugin.isEmpty()) {
+        commandLine.getErr().printf("Plugin %s no longer provides the command '%s'%n", jar, entry.name());
+        return CommandLine.ExitCode.SOFTWARE;
+      }
+
+      var pluginCommandLine = new CommandLine(plugin.get())
+          .setOut(commandLine.getOut())
+          .setErr(commandLine.getErr());
+      return pluginCommandLine.execute(args);
+    } finally {
+      pluginManager.unloadPlugins();
+    }
+  }
+}
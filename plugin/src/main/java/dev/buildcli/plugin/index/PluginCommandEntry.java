@@ -0,0 +1,20 @@
+package dev.buildcli.plugin.index;
+
+import dev.buildcli.plugin.BuildCLICommandPlugin;
+import picocli.CommandLine.Command;
+
+/**
+ * What BuildCLI needs to know about a plugin command to show it in the command tree without loading the plugin.
+ */
+public record PluginCommandEntry(String name, String[] parents, String[] aliases, String description) {
+
+  public static PluginCommandEntry of(BuildCLICommandPlugin plugin) {
+    var command = plugin.getClass().getDeclaredAnnotation(Command.class);
+    var description = String.join(" ", command.description());
+    if (description.isBlank()) {
+      description = plugin.description();
+    }
+
+    return new PluginCommandEntry(command.name(), plugin.parents(), command.aliases(), description);
+  }
+}
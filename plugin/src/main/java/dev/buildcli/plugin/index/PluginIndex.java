@@ -0,0 +1,317 @@
+package dev.buildcli.plugin.index;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import dev.buildcli.core.domain.jar.Jar;
+import dev.buildcli.plugin.BuildCLICommandPlugin;
+import dev.buildcli.plugin.utils.BuildCLIPluginUtils;
+import dev.buildcli.plugin.utils.PluginDescriptor;
+import dev.buildcli.plugin.utils.PluginDiscovery;
+import dev.buildcli.plugin.utils.PluginDiscovery.Timed;
+import dev.buildcli.plugin.utils.pf4j.CustomDefaultPluginManager;
+import org.pf4j.PluginWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Persisted index of the installed plugin jars, their descriptors and the commands they contribute.
+ * <p>
+ * It is written by {@code plugin add} and {@code plugin remove}, and refreshed at startup for jars that were
+ * copied into a plugin path by hand. Only jars whose size or timestamp changed are opened, so startup never
+ * has to load and instantiate every plugin to learn its command name.
+ * <p>
+ * The index also remembers the modification time of every directory under the plugin paths. Adding, removing or
+ * renaming a jar changes the time of its directory, so as long as none changed and the indexed jars are untouched,
+ * startup does not walk the plugin paths at all, see {@link #isCurrent(String[])}.
+ */
+public class PluginIndex {
+  public static final Path DEFAULT_FILE = Path.of(System.getProperty("user.home"), ".buildcli", "plugin-index.json");
+
+  private static final Logger logger = LoggerFactory.getLogger(PluginIndex.class);
+  private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+  private final Path file;
+  private final Function<File, PluginIndexEntry> inspector;
+  private final Map<String, PluginIndexEntry> entries = new LinkedHashMap<>();
+  private List<String> pluginPaths = List.of();
+  private Map<String, Long> directories = Map.of();
+  private boolean dirty;
+
+  /**
+   * What is written to the index file.
+   *
+   * @param directories modification time of every directory under the plugin paths when they were last scanned
+   */
+  private record Stored(List<String> pluginPaths, Map<String, Long> directories, List<PluginIndexEntry> entries) {
+  }
+
+  private PluginIndex(Path file, Function<File, PluginIndexEntry> inspector) {
+    this.file = file;
+    this.inspector = inspector;
+  }
+
+  public static PluginIndex load() {
+    return load(DEFAULT_FILE);
+  }
+
+  public static PluginIndex load(Path file) {
+    return load(file, PluginIndex::createEntry);
+  }
+
+  /**
+   * @param inspector opens a jar that is new or changed since it was indexed
+   */
+  static PluginIndex load(Path file, Function<File, PluginIndexEntry> inspector) {
+    var index = new PluginIndex(file, inspector);
+    if (!Files.isRegularFile(file)) {
+      return index;
+    }
+
+    try (var reader = Files.newBufferedReader(file)) {
+      var json = JsonParser.parseReader(reader);
+      List<PluginIndexEntry> stored;
+      if (json.isJsonArray()) {
+        // Written before directories were remembered, the next startup scans the plugin paths once
+        stored = gson.fromJson(json, new TypeToken<List<PluginIndexEntry>>() {
+        }.getType());
+      } else {
+        var content = gson.fromJson(json, Stored.class);
+        stored = content == null ? null : content.entries();
+        if (content != null && content.pluginPaths() != null && content.directories() != null) {
+          index.pluginPaths = List.copyOf(content.pluginPaths());
+          index.directories = Map.copyOf(content.directories());
+        }
+      }
+      if (stored != null) {
+        stored.forEach(entry -> index.entries.put(entry.path(), entry));
+      }
+    } catch (IOException | JsonParseException | IllegalStateException e) {
+      logger.debug("Ignoring unreadable plugin index {}: {}", file, e.getMessage());
+      index.entries.clear();
+    }
+    return index;
+  }
+
+  /**
+   * @return the indexed jars sorted by path, so commands are always registered in the same order
+   */
+  public List<PluginIndexEntry> entries() {
+    return entries.values().stream().sorted(Comparator.comparing(PluginIndexEntry::path)).toList();
+  }
+
+  /**
+   * @return the entry of the jar, empty when it was never indexed or changed since
+   */
+  public Optional<PluginIndexEntry> get(File jar) {
+    return Optional.ofNullable(entries.get(key(jar))).filter(entry -> entry.matches(jar));
+  }
+
+  /**
+   * Brings the index in line with the jars currently installed: new or modified jars are inspected
+   * concurrently, entries of deleted jars are dropped.
+   *
+   * @return the jars that had to be inspected, with how long each took
+   */
+  public List<Timed<PluginIndexEntry>> refresh(List<Jar> jars) {
+    var installed = new HashSet<String>();
+    var stale = new ArrayList<File>();
+    for (var jar : jars) {
+      var path = key(jar.getFile());
+      installed.add(path);
+
+      var entry = entries.get(path);
+      if (entry == null || !entry.matches(jar.getFile())) {
+        stale.add(jar.getFile());
+      }
+    }
+
+    var inspected = PluginDiscovery.inspect(stale, inspector);
+    for (var result : inspected) {
+      entries.put(result.value().path(), result.value());
+      dirty = true;
+    }
+
+    dirty |= entries.keySet().retainAll(installed);
+    return inspected;
+  }
+
+  /**
+   * @return true when the index already reflects {@code pluginPaths}: they were scanned before, none of their
+   * directories changed since and every indexed jar is as it was
+   */
+  public boolean isCurrent(String[] pluginPaths) {
+    if (directories.isEmpty() || !this.pluginPaths.equals(distinct(pluginPaths))) {
+      return false;
+    }
+    for (var directory : directories.entrySet()) {
+      if (new File(directory.getKey()).lastModified() != directory.getValue()) {
+        return false;
+      }
+    }
+    return entries.values().stream().allMatch(entry -> entry.matches(new File(entry.path())));
+  }
+
+  /**
+   * Walks {@code pluginPaths}, brings the index in line with the jars found like {@link #refresh(List)} and
+   * remembers their directories for {@link #isCurrent(String[])}.
+   *
+   * @return the jars that had to be inspected, with how long each took
+   */
+  public List<Timed<PluginIndexEntry>> scan(String[] pluginPaths) {
+    var paths = distinct(pluginPaths);
+    // Taken before the walk, a jar added meanwhile makes the next startup scan again instead of being missed
+    var stamps = new LinkedHashMap<String, Long>();
+    for (var path : paths) {
+      stamp(Path.of(path), stamps);
+    }
+
+    var inspected = refresh(PluginDiscovery.findJars(pluginPaths).stream().map(Jar::new).toList());
+    if (!paths.equals(this.pluginPaths) || !stamps.equals(directories)) {
+      this.pluginPaths = paths;
+      this.directories = Map.copyOf(stamps);
+      dirty = true;
+    }
+    return inspected;
+  }
+
+  private static void stamp(Path path, Map<String, Long> stamps) {
+    if (!Files.isDirectory(path)) {
+      // Missing for now, creating it changes the stamp
+      stamps.put(path.toAbsolutePath().normalize().toString(), path.toFile().lastModified());
+      return;
+    }
+    try (Stream<Path> walk = Files.walk(path)) {
+      walk.filter(Files::isDirectory)
+          .forEach(directory -> stamps.put(directory.toAbsolutePath().normalize().toString(),
+              directory.toFile().lastModified()));
+    } catch (IOException | UncheckedIOException e) {
+      logger.debug("Could not walk plugin path {}: {}", path, e.getMessage());
+      // Never matches, the path is walked again next time
+      stamps.put(path.toAbsolutePath().normalize().toString(), -1L);
+    }
+  }
+
+  private static List<String> distinct(String[] pluginPaths) {
+    var distinct = new LinkedHashSet<String>();
+    for (var path : pluginPaths) {
+      if (path != null && !path.isBlank()) {
+        distinct.add(path.trim());
+      }
+    }
+    return List.copyOf(distinct);
+  }
+
+  /**
+   * Inspects a jar and stores its commands, replacing a previous entry for the same path.
+   */
+  public PluginIndexEntry index(File jar) {
+    return put(inspector.apply(jar));
+  }
+
+  /**
+   * Same as {@link #index(File)} for a jar whose descriptor is already known, it is not inspected again.
+   */
+  public PluginIndexEntry index(File jar, PluginDescriptor descriptor) {
+    return put(createEntry(jar, descriptor));
+  }
+
+  private PluginIndexEntry put(PluginIndexEntry entry) {
+    entries.put(entry.path(), entry);
+    dirty = true;
+    return entry;
+  }
+
+  static PluginIndexEntry createEntry(File jar) {
+    return createEntry(jar, BuildCLIPluginUtils.describe(new Jar(jar)));
+  }
+
+  private static PluginIndexEntry createEntry(File jar, PluginDescriptor descriptor) {
+    return new PluginIndexEntry(key(jar), jar.length(), jar.lastModified(), digest(jar), descriptor, commands(jar));
+  }
+
+  public void remove(File jar) {
+    dirty |= entries.remove(key(jar)) != null;
+  }
+
+  public void save() {
+    if (!dirty) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(file.getParent());
+      var temp = file.resolveSibling(file.getFileName() + ".tmp");
+      Files.writeString(temp, gson.toJson(new Stored(pluginPaths, directories, entries())));
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      dirty = false;
+    } catch (IOException e) {
+      // Without an index the next start simply inspects the jars again
+      logger.warn("Could not write plugin index {}: {}", file, e.getMessage());
+    }
+  }
+
+  private static List<PluginCommandEntry> commands(File jar) {
+    var commands = new ArrayList<PluginCommandEntry>();
+    CustomDefaultPluginManager pluginManager = null;
+    try {
+      // pf4j already throws while loading a jar that is not a plugin
+      pluginManager = new CustomDefaultPluginManager(List.of(new Jar(jar)));
+      pluginManager.getPlugins().stream()
+          .map(PluginWrapper::getPlugin)
+          .filter(BuildCLICommandPlugin.class::isInstance)
+          .map(BuildCLICommandPlugin.class::cast)
+          .map(PluginCommandEntry::of)
+          .sorted(Comparator.comparing(PluginCommandEntry::name))
+          .forEach(commands::add);
+    } catch (RuntimeException | LinkageError e) {
+      logger.debug("Could not inspect plugin jar {}: {}", jar, e.getMessage());
+    } finally {
+      if (pluginManager != null) {
+        pluginManager.unloadPlugins();
+      }
+    }
+    return commands;
+  }
+
+  private static String digest(File jar) {
+    try (InputStream in = Files.newInputStream(jar.toPath())) {
+      var digest = MessageDigest.getInstance("SHA-256");
+      var buffer = new byte[64 * 1024];
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        digest.update(buffer, 0, read);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (IOException | NoSuchAlgorithmException e) {
+      return "";
+    }
+  }
+
+  private static String key(File jar) {
+    return jar.getAbsoluteFile().toPath().normalize().toString();
+  }
+}
@@ -0,0 +1,22 @@
+package dev.buildcli.plugin.index;
+
+import dev.buildcli.plugin.utils.PluginDescriptor;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Indexed plugin jar. Jars that are not plugins are indexed too, with an invalid descriptor and no commands,
+ * so they are not inspected again.
+ */
+public record PluginIndexEntry(String path, long size, long lastModified, String sha256, PluginDescriptor descriptor,
+                               List<PluginCommandEntry> commands) {
+
+  /**
+   * @return true when the jar on disk is still the one that was indexed
+   */
+  public boolean matches(File jar) {
+    // Entries written before descriptors were indexed have none and are inspected again
+    return descriptor != null && jar.length() == size && jar.lastModified() == lastModified;
+  }
+}
@@ -2,34 +2,37 @@ package dev.buildcli.plugin.utils;
 
 import dev.buildcli.core.domain.jar.Jar;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
 import dev.buildcli.plugin.BuildCLICommandPlugin;
 import dev.buildcli.plugin.BuildCLIPlugin;
 import dev.buildcli.plugin.BuildCLITemplatePlugin;
 import dev.buildcli.plugin.enums.TemplateType;
 import dev.buildcli.plugin.factories.CommandFactory;
+import dev.buildcli.plugin.index.LazyPluginCommand;
+import dev.buildcli.plugin.index.PluginIndex;
 import dev.buildcli.plugin.utils.pf4j.CustomDefaultPluginManager;
 import org.pf4j.PluginWrapper;
 import picocli.CommandLine;
 
 import java.io.File;
-import java.util.Arrays;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Optional;
 
 import static dev.buildcli.core.constants.ConfigDefaultConstants.PLUGIN_PATHS;
 import static dev.buildcli.core.utils.BeautifyShell.blueFg;
 import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.confirm;
 
 public final class BuildCLIPluginManager {
-  private static final org.pf4j.PluginManager pluginManager = new CustomDefaultPluginManager(loadJars());
+  // Loading every plugin is expensive, only commands and templates that really need the instances pay for it
+  private static final class Loaded {
+    private static final org.pf4j.PluginManager pluginManager = new CustomDefaultPluginManager(loadJars());
+  }
 
   public static List<BuildCLICommandPlugin> getCommands() {
     return getPlugins(BuildCLICommandPlugin.class);
   }
 
   private static <T extends BuildCLIPlugin> List<T> getPlugins(Class<T> type) {
-    return pluginManager.getPlugins().stream()
+    return Loaded.pluginManager.getPlugins().stream()
         .map(PluginWrapper::getPlugin)
         .filter(plugin -> type.isAssignableFrom(plugin.getClass()))
         .map(type::cast)
@@ -58,31 +61,61 @@ public final class BuildCLIPluginManager {
   }
 
   private static List<Jar> loadJars() {
-    return Arrays.stream(pluginPaths())
-        .filter(Predicate.not(String::isBlank))
-        .map(File::new)
-        .map(FindFilesUtils::searchJarFiles)
-        .flatMap(List::stream)
+    return PluginDiscovery.findJars(pluginPaths()).stream()
         .map(Jar::new)
         .toList();
   }
 
+  /**
+   * Adds a placeholder subcommand for every indexed plugin command. Plugin jars are only loaded when one of
+   * their commands is invoked, or when they are new or changed since they were indexed. The plugin paths are only
+   * walked when one of their directories changed since the last scan.
+   */
   public static void registerPlugins(CommandLine commandLine) {
-    var plugins = getCommands();
-    var subcommands = commandLine.getSubcommands();
-    for (BuildCLICommandPlugin commandPlugin : plugins) {
-      var command = CommandFactory.createCommandLine(commandPlugin);
-
-      var commandName = command.getCommandName();
-      if (subcommands.containsKey(commandName)) {
-        var confirm = confirm("Do you want override the subcommand \"%s\"".formatted(blueFg(commandName)));
-        if (confirm) {
-          commandLine.getCommandSpec().removeSubcommand(commandName);
-          commandLine.addSubcommand(command);
-        }
-      } else {
+    var paths = pluginPaths();
+    var index = PluginIndex.load();
+    if (!index.isCurrent(paths)) {
+      index.scan(paths);
+      index.save();
+    }
+
+    for (var entry : index.entries()) {
+      var jar = new File(entry.path());
+      for (var pluginCommand : entry.commands()) {
+        var command = CommandFactory.createCommandLine(pluginCommand.name(), pluginCommand.parents(),
+            LazyPluginCommand.createCommandLine(jar, pluginCommand));
+        addSubcommand(commandLine, command);
+      }
+    }
+  }
+
+  /**
+   * Describes the plugin commands {@link #registerPlugins} would add right now, so that a command tree kept between
+   * invocations can tell whether it is still complete. Checking is cheap: the plugin paths are not walked.
+   *
+   * @return a value that stays the same while the registered commands do, empty when a plugin directory changed
+   */
+  public static Optional<String> registrationState() {
+    var paths = pluginPaths();
+    if (!PluginIndex.load().isCurrent(paths)) {
+      return Optional.empty();
+    }
+
+    // Installing or removing a plugin rewrites the index, which also changes its timestamp
+    var index = PluginIndex.DEFAULT_FILE.toFile();
+    return Optional.of(String.join(";", paths) + "@" + index.lastModified() + ":" + index.length());
+  }
+
+  private static void addSubcommand(CommandLine commandLine, CommandLine command) {
+    var commandName = command.getCommandName();
+    if (commandLine.getSubcommands().containsKey(commandName)) {
+      var confirm = confirm("Do you want override the subcommand \"%s\"".formatted(blueFg(commandName)));
+      if (confirm) {
+        commandLine.getCommandSpec().removeSubcommand(commandName);
         commandLine.addSubcommand(command);
       }
+    } else {
+      commandLine.addSubcommand(command);
     }
   }
 }
@@ -7,13 +7,14 @@ import dev.buildcli.plugin.BuildCLITemplatePlugin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
-import java.util.function.Predicate;
 
 public final class BuildCLIPluginUtils {
   private static final List<Class<? extends BuildCLIPlugin>> classes;
@@ -29,73 +30,44 @@ public final class BuildCLIPluginUtils {
   private BuildCLIPluginUtils() {
   }
 
-  public static boolean isValid(Jar jar) {
-    return classes.stream().anyMatch(createPluginValidator(jar));
-  }
-
-  private static Predicate<Class<? extends BuildCLIPlugin>> createPluginValidator(Jar jar) {
-    return aClass -> !loadPlugins(aClass, jar).isEmpty();
+  /**
+   * @return the descriptor of the jar. Installed jars are described by their {@code PluginIndex} entry instead,
+   * which is only refreshed when the jar changes.
+   */
+  public static PluginDescriptor describe(Jar jar) {
+    return inspect(jar.getFile());
   }
 
-  private static List<BuildCLIPlugin> loadPlugins(Class<? extends BuildCLIPlugin> clazz, Jar jar) {
-    var plugins = new ArrayList<BuildCLIPlugin>();
-    try {
-      var jarUrl = jar.getFile().toURI().toURL();
-      var serviceLoader = ServiceLoader.load(clazz, new URLClassLoader(new URL[]{jarUrl}, BuildCLIPluginUtils.class.getClassLoader()));
-
-      serviceLoader.forEach(plugins::add);
-
-    } catch (Exception e) {
-      logger.error(e.getMessage(), e);
-    }
-    return plugins;
+  public static boolean isValid(Jar jar) {
+    return describe(jar).valid();
   }
 
   public static Optional<String> getPluginVersion(Jar jar) {
-    var plugins = new ArrayList<BuildCLIPlugin>();
-
-    for (var clazz : classes) {
-      plugins.addAll(loadPlugins(clazz, jar));
-    }
-
-    var plugin = plugins.getFirst();
-
-    if (plugin == null) {
-      return Optional.empty();
-    } else {
-      return Optional.ofNullable(plugin.version());
-    }
+    return Optional.ofNullable(describe(jar).version());
   }
 
   public static Optional<String> getPluginDescription(Jar jar) {
-    var plugins = new ArrayList<BuildCLIPlugin>();
-
-    for (var clazz : classes) {
-      plugins.addAll(loadPlugins(clazz, jar));
-    }
-
-    var plugin = plugins.getFirst();
-
-    if (plugin == null) {
-      return Optional.empty();
-    } else {
-      return Optional.ofNullable(plugin.description());
-    }
+    return Optional.ofNullable(describe(jar).description());
   }
 
   public static Optional<String> getPluginName(Jar jar) {
-    var plugins = new ArrayList<BuildCLIPlugin>();
+    return Optional.ofNullable(describe(jar).name());
+  }
 
-    for (var clazz : classes) {
-      plugins.addAll(loadPlugins(clazz, jar));
+  /**
+   * Opens the jar once, looks up every plugin service type with the same class loader and closes it afterwards.
+   */
+  private static PluginDescriptor inspect(File file) {
+    try (var classLoader = new URLClassLoader(new URL[]{file.toURI().toURL()}, BuildCLIPluginUtils.class.getClassLoader())) {
+      for (var clazz : classes) {
+        for (var plugin : ServiceLoader.load(clazz, classLoader)) {
+          return new PluginDescriptor(true, plugin.name(), plugin.version(), plugin.description());
+        }
+      }
+    } catch (Exception | ServiceConfigurationError | LinkageError e) {
+      logger.error(e.getMessage(), e);
     }
 
-    var plugin = plugins.getFirst();
-
-    if (plugin == null) {
-      return Optional.empty();
-    } else {
-      return Optional.ofNullable(plugin.name());
-    }
+    return PluginDescriptor.invalid();
   }
 }
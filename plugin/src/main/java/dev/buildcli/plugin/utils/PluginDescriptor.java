@@ -0,0 +1,12 @@
+package dev.buildcli.plugin.utils;
+
+/**
+ * Metadata of a plugin jar gathered in a single inspection pass. {@code valid} is false for jars that do not
+ * register any BuildCLI plugin service, in which case name, version and description are null.
+ */
+public record PluginDescriptor(boolean valid, String name, String version, String description) {
+
+  public static PluginDescriptor invalid() {
+    return new PluginDescriptor(false, null, null, null);
+  }
+}
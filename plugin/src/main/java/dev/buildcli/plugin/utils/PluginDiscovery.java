@@ -0,0 +1,85 @@
+package dev.buildcli.plugin.utils;
+
+import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Finds plugin jars across the configured plugin paths and inspects them concurrently on virtual threads.
+ * Slow file systems (network mounted homes) are then paid once per path instead of once per jar in sequence.
+ * Results are always returned in a deterministic order: paths as configured, jars sorted by path.
+ */
+public final class PluginDiscovery {
+
+  public record PathScan(String path, List<File> jars, long nanos) {
+  }
+
+  public record Timed<T>(File jar, T value, long nanos) {
+  }
+
+  private PluginDiscovery() {
+  }
+
+  public static List<PathScan> scan(String[] pluginPaths) {
+    var distinct = new LinkedHashSet<String>();
+    for (var path : pluginPaths) {
+      if (path != null && !path.isBlank()) {
+        distinct.add(path.trim());
+      }
+    }
+
+    var scans = distinct.stream()
+        .map(path -> CompletableFuture.supplyAsync(() -> scanPath(path), ThreadPoolUtils.virtual()))
+        .toList();
+
+    return scans.stream().map(CompletableFuture::join).toList();
+  }
+
+  /**
+   * @return every jar found, without duplicates when plugin paths overlap
+   */
+  public static List<File> jars(List<PathScan> scans) {
+    var jars = new LinkedHashSet<File>();
+    scans.forEach(scan -> jars.addAll(scan.jars()));
+    return List.copyOf(jars);
+  }
+
+  public static List<File> findJars(String[] pluginPaths) {
+    return jars(scan(pluginPaths));
+  }
+
+  /**
+   * Applies {@code task} to every jar concurrently, results keep the order of {@code jars}.
+   */
+  public static <T> List<Timed<T>> inspect(List<File> jars, Function<File, T> task) {
+    var futures = jars.stream()
+        .map(jar -> CompletableFuture.supplyAsync(() -> {
+          var start = System.nanoTime();
+          var value = task.apply(jar);
+          return new Timed<>(jar, value, System.nanoTime() - start);
+        }, ThreadPoolUtils.virtual()))
+        .toList();
+
+    var results = new ArrayList<Timed<T>>(futures.size());
+    futures.forEach(future -> results.add(future.join()));
+    return results;
+  }
+
+  private static PathScan scanPath(String path) {
+    var start = System.nanoTime();
+    var jars = FindFilesUtils.searchJarFiles(new File(path)).stream()
+        .filter(Predicate.not(File::isDirectory))
+        .map(File::getAbsoluteFile)
+        .sorted(Comparator.comparing(File::getPath))
+        .toList();
+    return new PathScan(path, jars, System.nanoTime() - start);
+  }
+}
@@ -0,0 +1,39 @@
+package dev.buildcli.plugin.fixtures;
+
+import dev.buildcli.plugin.BuildCLICommandPlugin;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+/**
+ * Plugin packaged into jars by {@link PluginJars}.
+ */
+@Command(name = "greet", aliases = {"hi"}, description = "Says hello")
+public class GreetPlugin extends BuildCLICommandPlugin {
+  @Spec
+  CommandSpec spec;
+
+  @Parameters(defaultValue = "world")
+  String name;
+
+  @Override
+  public void run() {
+    spec.commandLine().getOut().println("Hello " + name);
+  }
+
+  @Override
+  public String name() {
+    return "greet";
+  }
+
+  @Override
+  public String description() {
+    return "Greeting plugin";
+  }
+
+  @Override
+  public String version() {
+    return "1.0.0";
+  }
+}
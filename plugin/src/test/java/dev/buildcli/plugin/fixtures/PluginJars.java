@@ -0,0 +1,55 @@
+package dev.buildcli.plugin.fixtures;
+
+import dev.buildcli.plugin.BuildCLIPlugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Builds plugin jars for tests, the way a plugin project packages them.
+ */
+public final class PluginJars {
+  private PluginJars() {
+  }
+
+  /**
+   * @return a jar with {@link GreetPlugin}, loadable by pf4j and registered as a {@link BuildCLIPlugin} service
+   */
+  public static Path greet(Path jar) throws IOException {
+    var manifest = new Manifest();
+    var attributes = manifest.getMainAttributes();
+    attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    attributes.putValue("Plugin-Id", "greet");
+    attributes.putValue("Plugin-Version", "1.0.0");
+    attributes.putValue("Plugin-Class", GreetPlugin.class.getName());
+
+    Files.createDirectories(jar.getParent());
+    try (var out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+      var classFile = GreetPlugin.class.getName().replace('.', '/') + ".class";
+      out.putNextEntry(new JarEntry(classFile));
+      try (var in = GreetPlugin.class.getClassLoader().getResourceAsStream(classFile)) {
+        in.transferTo(out);
+      }
+      out.closeEntry();
+
+      out.putNextEntry(new JarEntry("META-INF/services/" + BuildCLIPlugin.class.getName()));
+      out.write(GreetPlugin.class.getName().getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+    return jar;
+  }
+
+  /**
+   * @return a file named like a jar that is not a zip archive
+   */
+  public static Path corrupt(Path jar) throws IOException {
+    Files.createDirectories(jar.getParent());
+    return Files.writeString(jar, "not a jar");
+  }
+}
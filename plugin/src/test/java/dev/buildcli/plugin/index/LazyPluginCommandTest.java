@@ -0,0 +1,46 @@
+package dev.buildcli.plugin.index;
+
+import dev.buildcli.plugin.fixtures.PluginJars;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyPluginCommandTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void loadsThePluginAndDelegatesWhenRun() throws IOException {
+    var jar = PluginJars.greet(root.resolve("greet.jar")).toFile();
+    var entry = new PluginCommandEntry("greet", null, new String[]{"hi"}, "Says hello");
+    var out = new StringWriter();
+
+    var commandLine = LazyPluginCommand.createCommandLine(jar, entry);
+    commandLine.setOut(new PrintWriter(out, true));
+
+    assertEquals("greet", commandLine.getCommandName());
+    assertEquals(CommandLine.ExitCode.OK, commandLine.execute("BuildCLI"));
+    assertEquals("Hello BuildCLI", out.toString().trim());
+  }
+
+  @Test
+  void failsWhenTheJarNoLongerProvidesTheCommand() throws IOException {
+    var jar = PluginJars.greet(root.resolve("greet.jar")).toFile();
+    var entry = new PluginCommandEntry("farewell", null, null, null);
+    var err = new StringWriter();
+
+    var commandLine = LazyPluginCommand.createCommandLine(jar, entry);
+    commandLine.setErr(new PrintWriter(err, true));
+
+    assertEquals(CommandLine.ExitCode.SOFTWARE, commandLine.execute());
+    assertTrue(err.toString().contains("no longer provides the command 'farewell'"));
+  }
+}
@@ -0,0 +1,200 @@
+package dev.buildcli.plugin.index;
+
+import dev.buildcli.core.domain.jar.Jar;
+import dev.buildcli.plugin.fixtures.PluginJars;
+import dev.buildcli.plugin.utils.PluginDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PluginIndexTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void indexesTheCommandsOfAPluginJar() throws IOException {
+    var jar = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+    var index = PluginIndex.load(root.resolve("plugin-index.json"));
+
+    index.refresh(List.of(new Jar(jar)));
+
+    var entry = index.entries().getFirst();
+    assertEquals(jar.getAbsolutePath(), entry.path());
+    assertEquals(jar.length(), entry.size());
+    assertEquals(64, entry.sha256().length());
+    assertEquals(new PluginDescriptor(true, "greet", "1.0.0", "Greeting plugin"), entry.descriptor());
+    assertEquals(1, entry.commands().size());
+    var command = entry.commands().getFirst();
+    assertEquals("greet", command.name());
+    assertArrayEquals(new String[]{"hi"}, command.aliases());
+    assertEquals("Says hello", command.description());
+  }
+
+  @Test
+  void servesUnchangedJarsFromTheIndexFile() throws IOException {
+    var jar = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+    var file = root.resolve("plugin-index.json");
+    var first = PluginIndex.load(file);
+    first.refresh(List.of(new Jar(jar)));
+    first.save();
+
+    var inspected = new ArrayList<File>();
+    var second = PluginIndex.load(file, counting(inspected));
+    second.refresh(List.of(new Jar(jar)));
+
+    assertEquals(List.of(), inspected);
+    assertEquals(first.entries().getFirst().path(), second.entries().getFirst().path());
+    assertEquals("greet", second.entries().getFirst().commands().getFirst().name());
+    assertEquals("greet", second.get(jar).orElseThrow().descriptor().name());
+  }
+
+  @Test
+  void knowsNothingAboutJarsThatWereNeverIndexed() throws IOException {
+    var jar = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+
+    assertTrue(PluginIndex.load(root.resolve("plugin-index.json")).get(jar).isEmpty());
+  }
+
+  @Test
+  void indexesJarsWithoutPluginsAsInvalid() throws IOException {
+    var jar = PluginJars.corrupt(root.resolve("plugins/broken.jar")).toFile();
+    var index = PluginIndex.load(root.resolve("plugin-index.json"));
+
+    index.refresh(List.of(new Jar(jar)));
+
+    var entry = index.get(jar).orElseThrow();
+    assertFalse(entry.descriptor().valid());
+    assertEquals(List.of(), entry.commands());
+  }
+
+  @Test
+  void reusesAKnownDescriptorWhenIndexingACopiedJar() throws IOException {
+    var jar = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+    var descriptor = new PluginDescriptor(true, "greet", "1.0.0", "Greeting plugin");
+    var inspected = new ArrayList<File>();
+    var index = PluginIndex.load(root.resolve("plugin-index.json"), counting(inspected));
+
+    var entry = index.index(jar, descriptor);
+
+    assertEquals(List.of(), inspected);
+    assertEquals(descriptor, entry.descriptor());
+    assertEquals("greet", entry.commands().getFirst().name());
+  }
+
+  @Test
+  void reindexesAChangedJar() throws IOException {
+    var jar = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+    var file = root.resolve("plugin-index.json");
+    var first = PluginIndex.load(file);
+    first.refresh(List.of(new Jar(jar)));
+    first.save();
+
+    Files.setLastModifiedTime(jar.toPath(), FileTime.fromMillis(jar.lastModified() + 10_000));
+    var inspected = new ArrayList<File>();
+    var second = PluginIndex.load(file, counting(inspected));
+    second.refresh(List.of(new Jar(jar)));
+    second.save();
+
+    assertEquals(List.of(jar), inspected);
+    assertEquals(jar.lastModified(), PluginIndex.load(file).entries().getFirst().lastModified());
+  }
+
+  @Test
+  void forgetsTheDescriptorOfAChangedJar() throws IOException {
+    var jar = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+    var index = PluginIndex.load(root.resolve("plugin-index.json"));
+    index.refresh(List.of(new Jar(jar)));
+
+    Files.setLastModifiedTime(jar.toPath(), FileTime.fromMillis(jar.lastModified() + 10_000));
+
+    assertTrue(index.get(jar).isEmpty());
+  }
+
+  @Test
+  void reinspectsEntriesIndexedWithoutADescriptor() throws IOException {
+    var jar = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+    var file = Files.writeString(root.resolve("plugin-index.json"), """
+        [{"path": "%s", "size": %d, "lastModified": %d, "sha256": "", "commands": []}]
+        """.formatted(jar.getAbsolutePath().replace("\\", "\\\\"), jar.length(), jar.lastModified()));
+    var inspected = new ArrayList<File>();
+    var index = PluginIndex.load(file, counting(inspected));
+
+    index.refresh(List.of(new Jar(jar)));
+
+    assertEquals(List.of(jar), inspected);
+    assertEquals("greet", index.get(jar).orElseThrow().descriptor().name());
+  }
+
+  @Test
+  void dropsJarsThatWereRemoved() throws IOException {
+    var greet = PluginJars.greet(root.resolve("plugins/greet.jar")).toFile();
+    var other = PluginJars.greet(root.resolve("plugins/other.jar")).toFile();
+    var file = root.resolve("plugin-index.json");
+    var index = PluginIndex.load(file);
+    index.refresh(List.of(new Jar(greet), new Jar(other)));
+    assertEquals(2, index.entries().size());
+
+    index.refresh(List.of(new Jar(other)));
+    index.save();
+
+    assertEquals(List.of(other.getAbsolutePath()),
+        PluginIndex.load(file).entries().stream().map(PluginIndexEntry::path).toList());
+  }
+
+  @Test
+  void skipsTheScanWhileNoPluginDirectoryChanged() throws IOException {
+    var plugins = root.resolve("plugins");
+    var jar = PluginJars.greet(plugins.resolve("nested/greet.jar")).toFile();
+    var paths = new String[]{plugins.toString()};
+    var file = root.resolve("plugin-index.json");
+    var index = PluginIndex.load(file);
+    assertFalse(index.isCurrent(paths));
+
+    index.scan(paths);
+    index.save();
+
+    assertTrue(PluginIndex.load(file).isCurrent(paths));
+    assertFalse(PluginIndex.load(file).isCurrent(new String[]{plugins.toString(), root.resolve("more").toString()}));
+
+    PluginJars.greet(plugins.resolve("nested/other.jar"));
+    var nested = plugins.resolve("nested");
+    Files.setLastModifiedTime(nested, FileTime.fromMillis(nested.toFile().lastModified() + 10_000));
+    var changed = PluginIndex.load(file);
+    assertFalse(changed.isCurrent(paths));
+    changed.scan(paths);
+    assertEquals(2, changed.entries().size());
+    assertTrue(changed.isCurrent(paths));
+
+    Files.setLastModifiedTime(jar.toPath(), FileTime.fromMillis(jar.lastModified() + 10_000));
+    assertFalse(changed.isCurrent(paths));
+  }
+
+  @Test
+  void ignoresAnUnreadableIndexFile() throws IOException {
+    var file = Files.writeString(root.resolve("plugin-index.json"), "{ not json");
+
+    assertTrue(PluginIndex.load(file).entries().isEmpty());
+  }
+
+  private static Function<File, PluginIndexEntry> counting(List<File> inspected) {
+    return jar -> {
+      synchronized (inspected) {
+        inspected.add(jar);
+      }
+      return PluginIndex.createEntry(jar);
+    };
+  }
+}
@@ -0,0 +1,106 @@
+package dev.buildcli.plugin.utils;
+
+import dev.buildcli.core.domain.jar.Jar;
+import dev.buildcli.plugin.fixtures.PluginJars;
+import dev.buildcli.plugin.index.PluginIndex;
+import dev.buildcli.plugin.index.PluginIndexEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PluginDiscoveryTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void scansPathsInConfiguredOrderWithJarsSortedByPath() throws IOException {
+    var first = root.resolve("first");
+    var second = root.resolve("second");
+    jar(first.resolve("zeta.jar"));
+    jar(first.resolve("alpha.jar"));
+    jar(first.resolve("nested/beta.jar"));
+    jar(second.resolve("gamma.jar"));
+    Files.writeString(first.resolve("notes.txt"), "not a jar");
+
+    var scans = PluginDiscovery.scan(new String[]{second.toString(), " ", first.toString(), second.toString()});
+
+    assertEquals(List.of(second.toString(), first.toString()), scans.stream().map(PluginDiscovery.PathScan::path).toList());
+    assertEquals(List.of("gamma.jar"), names(scans.get(0).jars()));
+    assertEquals(List.of("alpha.jar", "nested/beta.jar", "zeta.jar"),
+        scans.get(1).jars().stream().map(jar -> first.relativize(jar.toPath()).toString().replace('\\', '/')).toList());
+  }
+
+  @Test
+  void listsEveryJarOnceWhenPluginPathsOverlap() throws IOException {
+    jar(root.resolve("plugins/a.jar"));
+    jar(root.resolve("plugins/extra/b.jar"));
+
+    var jars = PluginDiscovery.findJars(new String[]{root.resolve("plugins").toString(),
+        root.resolve("plugins/extra").toString()});
+
+    assertEquals(List.of("a.jar", "b.jar"), names(jars));
+  }
+
+  @Test
+  void keepsTheInputOrderWhateverOrderTheInspectionsFinishIn() {
+    var jars = List.of(new File("a.jar"), new File("b.jar"), new File("c.jar"), new File("d.jar"));
+
+    for (var run = 0; run < 5; run++) {
+      // The first jar is the slowest, so completion order is the reverse of the input order
+      var results = PluginDiscovery.inspect(jars, jar -> {
+        sleep(4 - jars.indexOf(jar));
+        return jar.getName().toUpperCase();
+      });
+
+      assertEquals(jars, results.stream().map(PluginDiscovery.Timed::jar).toList());
+      assertEquals(List.of("A.JAR", "B.JAR", "C.JAR", "D.JAR"), results.stream().map(PluginDiscovery.Timed::value).toList());
+      assertTrue(results.stream().allMatch(result -> result.nanos() > 0));
+    }
+  }
+
+  @Test
+  void reportsACorruptJarWhileTheOtherPluginsStillLoad() throws IOException {
+    var greet = PluginJars.greet(root.resolve("plugins/greet.jar"));
+    var corrupt = PluginJars.corrupt(root.resolve("plugins/broken.jar"));
+    var index = PluginIndex.load(root.resolve("plugin-index.json"));
+
+    var jars = PluginDiscovery.findJars(new String[]{root.resolve("plugins").toString()});
+    var inspected = index.refresh(jars.stream().map(Jar::new).toList());
+
+    assertEquals(List.of(corrupt.toFile(), greet.toFile()), inspected.stream().map(PluginDiscovery.Timed::jar).toList());
+    var broken = index.entries().get(0);
+    var loaded = index.entries().get(1);
+    assertFalse(broken.descriptor().valid());
+    assertEquals(List.of(), broken.commands());
+    assertTrue(loaded.descriptor().valid());
+    assertEquals("greet", loaded.commands().getFirst().name());
+    assertEquals(List.of(corrupt.toString(), greet.toString()), index.entries().stream().map(PluginIndexEntry::path).toList());
+  }
+
+  private static void jar(Path path) throws IOException {
+    Files.createDirectories(path.getParent());
+    Files.write(path, new byte[0]);
+  }
+
+  private static List<String> names(List<File> jars) {
+    return jars.stream().map(File::getName).toList();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(millis * 10);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
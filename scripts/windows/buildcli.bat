@@ -21,8 +21,12 @@ for /f "tokens=1* delims=-_.0" %%A in ('dir /b /a-d %BASENAME%*.jar') do if %%~B
 popd
 setlocal DisableDelayedExpansion
 
+rem Class data sharing archive created by 'buildcli doctor optimize-startup', ignored by the JVM when stale
+set cds_opts=
+if exist "%~dp0%BASENAME%%max%.jsa" set cds_opts=-XX:SharedArchiveFile="%~dp0%BASENAME%%max%.jsa" -Xshare:auto -Xlog:cds=off -Xlog:cds+dynamic=off
+
 :load
-"%java_exe%" -Xmx1024M -Dfile.encoding=UTF8 --enable-preview --add-modules jdk.incubator.vector -jar "%~dp0%BASENAME%%max%.jar" %*
+"%java_exe%" -Xmx1024M -Dfile.encoding=UTF8 --enable-preview --add-modules jdk.incubator.vector %cds_opts% -jar "%~dp0%BASENAME%%max%.jar" %*
 
 rem Pause when ran non interactively
 for %%i in (%cmdcmdline%) do if /i "%%~i"=="/c" pause & exit /b
\ No newline at end of file